@@ -0,0 +1,155 @@
+package fun.jevon.benchmark;
+
+import fun.jevon.collection.Connection.list.ConcurrentAppendList;
+import fun.jevon.collection.Connection.set.ConcurrentIntHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * 对应各 Demo 的 testThreadSafety / concurrencyCheck：threads 个线程同时向同一个容器写入
+ *
+ * 只比较线程安全的实现；HashMap / TreeSet 等非线程安全容器在并发写入下结果不可信，不参与计时。
+ * 每次调用写入 threads * opsPerThread 个元素，结果单位为"每批耗时"。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentCollectionBenchmark {
+
+    @Param({"Vector", "SynchronizedList", "CopyOnWriteArrayList", "ConcurrentAppendList",
+            "SynchronizedSet", "ConcurrentKeySet", "ConcurrentIntHashSet",
+            "Hashtable", "ConcurrentHashMap"})
+    public String impl;
+
+    @Param({"1", "4", "10"})
+    public int threads;
+
+    // CopyOnWriteArrayList 每次 add 都复制数组，默认规模不宜过大；可用 -p opsPerThread=... 覆盖
+    @Param({"2000"})
+    public int opsPerThread;
+
+    @Param({"SEQUENTIAL", "RANDOM", "ZIPF"})
+    public KeyDistribution distribution;
+
+    private ExecutorService pool;
+    private int[][] keysPerThread;
+
+    @Setup
+    public void setup() {
+        pool = Executors.newFixedThreadPool(threads);
+        keysPerThread = new int[threads][];
+        for (int t = 0; t < threads; t++) {
+            keysPerThread[t] = distribution.generate(opsPerThread, opsPerThread * threads, 42 + t);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    public Object concurrentWrite() throws InterruptedException {
+        Object[] target = new Object[1];
+        IntConsumer sink = newSink(target);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            int[] keys = keysPerThread[t];
+            pool.execute(() -> {
+                // 写入抛异常时也要计数，否则 await 会一直等下去
+                try {
+                    for (int k : keys) {
+                        sink.accept(k);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return target[0];
+    }
+
+    // 把不同容器统一成 IntConsumer；装箱容器按真实用法装箱
+    private IntConsumer newSink(Object[] target) {
+        switch (impl) {
+            case "Vector": {
+                Vector<Integer> c = new Vector<>();
+                target[0] = c;
+                return c::add;
+            }
+            case "SynchronizedList": {
+                List<Integer> c = Collections.synchronizedList(new ArrayList<>());
+                target[0] = c;
+                return c::add;
+            }
+            case "CopyOnWriteArrayList": {
+                CopyOnWriteArrayList<Integer> c = new CopyOnWriteArrayList<>();
+                target[0] = c;
+                return c::add;
+            }
+            case "ConcurrentAppendList": {
+                ConcurrentAppendList<Integer> c = new ConcurrentAppendList<>();
+                target[0] = c;
+                return c::add;
+            }
+            case "SynchronizedSet": {
+                Set<Integer> c = Collections.synchronizedSet(new HashSet<>());
+                target[0] = c;
+                return c::add;
+            }
+            case "ConcurrentKeySet": {
+                Set<Integer> c = ConcurrentHashMap.newKeySet();
+                target[0] = c;
+                return c::add;
+            }
+            case "ConcurrentIntHashSet": {
+                ConcurrentIntHashSet c = new ConcurrentIntHashSet();
+                target[0] = c;
+                return c::add;
+            }
+            case "Hashtable": {
+                Map<Integer, Integer> c = new Hashtable<>();
+                target[0] = c;
+                return k -> c.put(k, k);
+            }
+            case "ConcurrentHashMap": {
+                Map<Integer, Integer> c = new ConcurrentHashMap<>();
+                target[0] = c;
+                return k -> c.put(k, k);
+            }
+            default:
+                throw new IllegalArgumentException("未知实现: " + impl);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package fun.jevon.benchmark;
+
+import fun.jevon.Socket.nio.ByteBufferPool;
+import fun.jevon.Socket.nio.FrameCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 FrameVsLineDemo，去掉网络只看编解码：一批消息用行协议（PrintWriter/BufferedReader）
+ * 与帧协议（FrameCodec + 直接内存）各自编码再解码的吞吐（每秒消息数）
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FrameCodecBenchmark {
+
+    private static final int BATCH = 64;
+
+    @Param({"16", "100", "1000"})
+    public int messageSize;
+
+    private String message;
+    private ByteBuffer payload;
+    private ByteBufferPool pool;
+    private ByteBuffer frames;
+
+    @Setup
+    public void setup() {
+        message = "x".repeat(messageSize);
+        payload = ByteBuffer.allocateDirect(messageSize);
+        payload.put(message.getBytes(StandardCharsets.US_ASCII)).flip();
+        pool = new ByteBufferPool();
+        frames = ByteBuffer.allocateDirect(BATCH * (FrameCodec.MAX_HEADER_LENGTH + messageSize));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void line(Blackhole bh) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(BATCH * (messageSize + 1));
+        PrintWriter out = new PrintWriter(new OutputStreamWriter(bytes, StandardCharsets.UTF_8));
+        for (int i = 0; i < BATCH; i++) {
+            out.println(message);
+        }
+        out.flush();
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(bytes.toByteArray()), StandardCharsets.UTF_8));
+        String line;
+        while ((line = in.readLine()) != null) {
+            bh.consume(line);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void frame(Blackhole bh) {
+        frames.clear();
+        for (int i = 0; i < BATCH; i++) {
+            ByteBuffer frame = FrameCodec.encode(pool, 1, payload);
+            frames.put(frame);
+            pool.release(frame);
+        }
+        frames.flip();
+        FrameCodec.decode(frames, FrameCodec.DEFAULT_MAX_PAYLOAD, (type, p) -> bh.consume(p));
+    }
+}
@@ -0,0 +1,148 @@
+package fun.jevon.benchmark;
+
+import fun.jevon.kernels.ScalarKernels;
+import fun.jevon.kernels.VectorKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 KernelsDemo：同一个内核的标量实现与向量实现
+ * 1000 个元素时数据在 L1 中，看的是计算吞吐；1000 万个元素时主要受内存带宽限制
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class KernelBenchmark {
+
+    @Param({"1000", "1000000", "10000000"})
+    public int size;
+
+    private int[] ints;
+    private long[] longs;
+    private double[] doubles;
+    // 按 16 个一组排序的工作数组；排序网络对已排好的数据同样要做完所有比较，不需要每次恢复
+    private int[] blocks;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        ints = new int[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = 3_000 + random.nextInt(47_000);
+        }
+        longs = random.longs(size).toArray();
+        doubles = random.doubles(size, 0, 10_000).toArray();
+        blocks = ints.clone();
+    }
+
+    @Benchmark
+    public long sumIntScalar() {
+        return ScalarKernels.sum(ints);
+    }
+
+    @Benchmark
+    public long sumIntVector() {
+        return VectorKernels.sum(ints);
+    }
+
+    @Benchmark
+    public long sumLongScalar() {
+        return ScalarKernels.sum(longs);
+    }
+
+    @Benchmark
+    public long sumLongVector() {
+        return VectorKernels.sum(longs);
+    }
+
+    @Benchmark
+    public double sumDoubleScalar() {
+        return ScalarKernels.sum(doubles);
+    }
+
+    @Benchmark
+    public double sumDoubleVector() {
+        return VectorKernels.sum(doubles);
+    }
+
+    @Benchmark
+    public int minIntScalar() {
+        return ScalarKernels.min(ints);
+    }
+
+    @Benchmark
+    public int minIntVector() {
+        return VectorKernels.min(ints);
+    }
+
+    @Benchmark
+    public long maxLongScalar() {
+        return ScalarKernels.max(longs);
+    }
+
+    @Benchmark
+    public long maxLongVector() {
+        return VectorKernels.max(longs);
+    }
+
+    @Benchmark
+    public double maxDoubleScalar() {
+        return ScalarKernels.max(doubles);
+    }
+
+    @Benchmark
+    public double maxDoubleVector() {
+        return VectorKernels.max(doubles);
+    }
+
+    @Benchmark
+    public int countBetweenIntScalar() {
+        return ScalarKernels.countBetween(ints, 10_000, 20_000);
+    }
+
+    @Benchmark
+    public int countBetweenIntVector() {
+        return VectorKernels.countBetween(ints, 10_000, 20_000);
+    }
+
+    @Benchmark
+    public int countBetweenDoubleScalar() {
+        return ScalarKernels.countBetween(doubles, 1_000.0, 2_000.0);
+    }
+
+    @Benchmark
+    public int countBetweenDoubleVector() {
+        return VectorKernels.countBetween(doubles, 1_000.0, 2_000.0);
+    }
+
+    @Benchmark
+    public int[] sortSmallScalar() {
+        for (int from = 0; from + ScalarKernels.SMALL_SORT_MAX <= size; from += ScalarKernels.SMALL_SORT_MAX) {
+            ScalarKernels.sortSmall(blocks, from, from + ScalarKernels.SMALL_SORT_MAX);
+        }
+        return blocks;
+    }
+
+    @Benchmark
+    public int[] sortSmallVector() {
+        for (int from = 0; from + ScalarKernels.SMALL_SORT_MAX <= size; from += ScalarKernels.SMALL_SORT_MAX) {
+            VectorKernels.sortSmall(blocks, from, from + ScalarKernels.SMALL_SORT_MAX);
+        }
+        return blocks;
+    }
+}
@@ -0,0 +1,75 @@
+package fun.jevon.benchmark;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * 基准测试用的 key 分布
+ *
+ * - SEQUENTIAL：0, 1, 2 ... 与各 PerformanceDemo 的写法一致，对哈希表最友好
+ * - RANDOM：在 [0, range) 内均匀随机
+ * - ZIPF：Zipf 分布（s = 1），少数热点 key 占大部分访问，模拟真实业务的倾斜流量
+ * - STRIDED：(i % range) << 12，低 12 位全为 0（对齐的地址、按 4096 分段的 ID），
+ *   散列函数只用低位时会大量冲突，用来检查开放寻址表的扰动是否足够
+ */
+public enum KeyDistribution {
+
+    SEQUENTIAL {
+        @Override
+        public int[] generate(int count, int range, long seed) {
+            int[] keys = new int[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = i % range;
+            }
+            return keys;
+        }
+    },
+
+    RANDOM {
+        @Override
+        public int[] generate(int count, int range, long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] keys = new int[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = random.nextInt(range);
+            }
+            return keys;
+        }
+    },
+
+    ZIPF {
+        @Override
+        public int[] generate(int count, int range, long seed) {
+            // 预先算出累积分布，再对每个样本二分查找
+            double[] cdf = new double[range];
+            double sum = 0;
+            for (int i = 0; i < range; i++) {
+                sum += 1.0 / (i + 1);
+                cdf[i] = sum;
+            }
+            SplittableRandom random = new SplittableRandom(seed);
+            int[] keys = new int[count];
+            for (int i = 0; i < count; i++) {
+                int idx = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+                keys[i] = idx >= 0 ? idx : Math.min(-idx - 1, range - 1);
+            }
+            return keys;
+        }
+    },
+
+    STRIDED {
+        @Override
+        public int[] generate(int count, int range, long seed) {
+            int[] keys = new int[count];
+            for (int i = 0; i < count; i++) {
+                keys[i] = (i % range) << 12;
+            }
+            return keys;
+        }
+    };
+
+    /**
+     * 生成 count 个 key；除 STRIDED 外取值都在 [0, range)，STRIDED 要求 range 不超过 2^19
+     */
+    public abstract int[] generate(int count, int range, long seed);
+}
@@ -0,0 +1,92 @@
+package fun.jevon.benchmark;
+
+import fun.jevon.collection.linkedlist.UnrolledLinkedList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Vector;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 ListPerformanceDemo 的单线程 add / 遍历 / 中间插入对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ListBenchmark {
+
+    @Param({"ArrayList", "Vector", "LinkedList", "UnrolledLinkedList"})
+    public String impl;
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private List<Integer> filled;
+
+    @Setup
+    public void setup() {
+        filled = newList();
+        for (int i = 0; i < size; i++) {
+            filled.add(i);
+        }
+    }
+
+    @Benchmark
+    public List<Integer> add() {
+        List<Integer> list = newList();
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        for (Integer v : filled) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    // 在中间插入再删除同一个元素，列表规模保持不变，便于多次迭代之间比较
+    @Benchmark
+    public int middleInsertRemove() {
+        ListIterator<Integer> it = filled.listIterator(size / 2);
+        it.add(-1);
+        it.previous();
+        it.remove();
+        return filled.size();
+    }
+
+    private List<Integer> newList() {
+        switch (impl) {
+            case "ArrayList":
+                return new ArrayList<>();
+            case "Vector":
+                return new Vector<>();
+            case "LinkedList":
+                return new LinkedList<>();
+            case "UnrolledLinkedList":
+                return new UnrolledLinkedList<>();
+            default:
+                throw new IllegalArgumentException("未知实现: " + impl);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package fun.jevon.benchmark;
+
+import fun.jevon.collection.Map.CompactOrderedMap;
+import fun.jevon.collection.Map.IntIntHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 MapPerformanceDemo 的单线程 put/get 对比
+ *
+ * 每次调用处理 size 个 key，结果单位为"每批耗时"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapBenchmark {
+
+    @Param({"HashMap", "LinkedHashMap", "TreeMap", "Hashtable", "ConcurrentHashMap", "IntIntHashMap", "CompactOrderedMap"})
+    public String impl;
+
+    @Param({"1000", "200000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM", "ZIPF", "STRIDED"})
+    public KeyDistribution distribution;
+
+    private int[] keys;
+    private IntMap filled;
+
+    @Setup
+    public void setup() {
+        keys = distribution.generate(size, size, 42);
+        filled = newMap();
+        for (int k : keys) {
+            filled.put(k, k);
+        }
+    }
+
+    @Benchmark
+    public IntMap put() {
+        IntMap map = newMap();
+        for (int k : keys) {
+            map.put(k, k);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public long get() {
+        long sum = 0;
+        for (int k : keys) {
+            sum += filled.get(k);
+        }
+        return sum;
+    }
+
+    private IntMap newMap() {
+        switch (impl) {
+            case "HashMap":
+                return new BoxedMap(new HashMap<>());
+            case "LinkedHashMap":
+                return new BoxedMap(new LinkedHashMap<>());
+            case "TreeMap":
+                return new BoxedMap(new TreeMap<>());
+            case "Hashtable":
+                return new BoxedMap(new Hashtable<>());
+            case "ConcurrentHashMap":
+                return new BoxedMap(new ConcurrentHashMap<>());
+            case "IntIntHashMap":
+                return new PrimitiveMap(new IntIntHashMap());
+            case "CompactOrderedMap":
+                return new BoxedMap(new CompactOrderedMap<>());
+            default:
+                throw new IllegalArgumentException("未知实现: " + impl);
+        }
+    }
+
+    // 统一的 int 接口：装箱实现按真实用法走 Integer，原始实现不装箱
+    public interface IntMap {
+        void put(int key, int value);
+
+        int get(int key);
+    }
+
+    static final class BoxedMap implements IntMap {
+        private final Map<Integer, Integer> map;
+
+        BoxedMap(Map<Integer, Integer> map) {
+            this.map = map;
+        }
+
+        @Override
+        public void put(int key, int value) {
+            map.put(key, value);
+        }
+
+        @Override
+        public int get(int key) {
+            Integer v = map.get(key);
+            return v == null ? 0 : v;
+        }
+    }
+
+    static final class PrimitiveMap implements IntMap {
+        private final IntIntHashMap map;
+
+        PrimitiveMap(IntIntHashMap map) {
+            this.map = map;
+        }
+
+        @Override
+        public void put(int key, int value) {
+            map.put(key, value);
+        }
+
+        @Override
+        public int get(int key) {
+            return map.get(key);
+        }
+    }
+}
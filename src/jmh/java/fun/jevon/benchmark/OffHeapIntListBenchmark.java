@@ -0,0 +1,66 @@
+package fun.jevon.benchmark;
+
+import fun.jevon.collection.Connection.list.OffHeapIntList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OffHeapIntList 的 add / 遍历，数据规模与 ListBenchmark 相同，便于对照
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OffHeapIntListBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int size;
+
+    private OffHeapIntList filled;
+
+    @Setup
+    public void setup() {
+        filled = new OffHeapIntList();
+        for (int i = 0; i < size; i++) {
+            filled.add(i);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        filled.close();
+    }
+
+    @Benchmark
+    public long add() {
+        try (OffHeapIntList list = new OffHeapIntList()) {
+            for (int i = 0; i < size; i++) {
+                list.add(i);
+            }
+            return list.size();
+        }
+    }
+
+    @Benchmark
+    public long iterate() {
+        long sum = 0;
+        for (long i = 0, n = filled.size(); i < n; i++) {
+            sum += filled.get(i);
+        }
+        return sum;
+    }
+}
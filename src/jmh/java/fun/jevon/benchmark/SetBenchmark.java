@@ -0,0 +1,88 @@
+package fun.jevon.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 SetPerformanceDemo 的单线程 add/contains 对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SetBenchmark {
+
+    @Param({"HashSet", "LinkedHashSet", "TreeSet", "ConcurrentKeySet"})
+    public String impl;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"SEQUENTIAL", "RANDOM", "ZIPF"})
+    public KeyDistribution distribution;
+
+    private int[] keys;
+    private Set<Integer> filled;
+
+    @Setup
+    public void setup() {
+        keys = distribution.generate(size, size, 42);
+        filled = newSet();
+        for (int k : keys) {
+            filled.add(k);
+        }
+    }
+
+    @Benchmark
+    public Set<Integer> add() {
+        Set<Integer> set = newSet();
+        for (int k : keys) {
+            set.add(k);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public int contains() {
+        int hits = 0;
+        for (int k : keys) {
+            if (filled.contains(k)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private Set<Integer> newSet() {
+        switch (impl) {
+            case "HashSet":
+                return new HashSet<>();
+            case "LinkedHashSet":
+                return new LinkedHashSet<>();
+            case "TreeSet":
+                return new TreeSet<>();
+            case "ConcurrentKeySet":
+                return ConcurrentHashMap.newKeySet();
+            default:
+                throw new IllegalArgumentException("未知实现: " + impl);
+        }
+    }
+}
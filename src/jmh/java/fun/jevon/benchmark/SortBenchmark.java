@@ -0,0 +1,103 @@
+package fun.jevon.benchmark;
+
+import fun.jevon.bubbleSort.AdaptiveSort;
+import fun.jevon.bubbleSort.ParallelMergeSort;
+import fun.jevon.bubbleSort.RadixSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对应 SortPerformanceDemo：各排序实现在四种数据分布下的 int[] 排序耗时
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SortBenchmark {
+
+    public enum Dataset {
+        RANDOM, SORTED, REVERSED, FEW_UNIQUE
+    }
+
+    @Param({"JDK", "JDK_PARALLEL", "RADIX", "PARALLEL_MERGE", "ADAPTIVE"})
+    public String impl;
+
+    // 1e8 个 int 的原数组、工作数组与基数排序/归并排序的辅助数组合计约 1.6 GB，对应 -Xmx4g
+    @Param({"1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "FEW_UNIQUE"})
+    public Dataset dataset;
+
+    private int[] source;
+    private int[] work;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        source = new int[size];
+        for (int i = 0; i < size; i++) {
+            switch (dataset) {
+                case RANDOM:
+                    source[i] = random.nextInt();
+                    break;
+                case SORTED:
+                    source[i] = i;
+                    break;
+                case REVERSED:
+                    source[i] = size - i;
+                    break;
+                default:
+                    source[i] = random.nextInt(16);
+                    break;
+            }
+        }
+        work = new int[size];
+    }
+
+    // 每次调用前恢复成未排序的数据，复制不计入排序耗时
+    @Setup(Level.Invocation)
+    public void reset() {
+        System.arraycopy(source, 0, work, 0, size);
+    }
+
+    @Benchmark
+    public int[] sort() {
+        switch (impl) {
+            case "JDK":
+                Arrays.sort(work);
+                break;
+            case "JDK_PARALLEL":
+                Arrays.parallelSort(work);
+                break;
+            case "RADIX":
+                RadixSort.sort(work);
+                break;
+            case "PARALLEL_MERGE":
+                ParallelMergeSort.sort(work);
+                break;
+            case "ADAPTIVE":
+                AdaptiveSort.sort(work);
+                break;
+            default:
+                throw new IllegalArgumentException("未知实现: " + impl);
+        }
+        return work;
+    }
+}
@@ -1,18 +1,24 @@
 package fun.jevon.Socket;
 
+import fun.jevon.Socket.nio.Transport;
+
 import java.io.*;
 import java.net.*;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
 
 public class SocketClient {
     public static void main(String[] args) {
-        String host = "127.0.0.1"; // 连接到本机
-        int port = 8080;           // 服务器端口
+        // 默认连接本机 8080 端口；-Dsocket.address=unix:/tmp/jevon.sock 改用 Unix 域套接字
+        SocketAddress address = Transport.fromConfig("127.0.0.1:8080");
 
-        try (Socket socket = new Socket(host, port)) {
-            System.out.println("已连接服务器：" + host + ":" + port);
+        try (SocketChannel socket = Transport.connect(address)) {
+            System.out.println("已连接服务器：" + Transport.describe(address));
 
-            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(Channels.newReader(socket, StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(Channels.newOutputStream(socket),
+                    StandardCharsets.UTF_8), true);
 
             // 发送一条消息给服务器
             out.println("你好，服务器！这是客户端发来的消息。");
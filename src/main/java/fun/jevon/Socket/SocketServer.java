@@ -1,19 +1,30 @@
 package fun.jevon.Socket;
 
+import fun.jevon.Socket.nio.Transport;
+
 import java.io.*;
 import java.net.*;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
 
 public class SocketServer {
     public static void main(String[] args) {
-        int port = 8080; // 监听端口
-        try (ServerSocket serverSocket = new ServerSocket(port)) {
-            System.out.println("服务器启动，正在监听端口 " + port + "...");
+        // 默认监听 8080 端口；-Dsocket.address=unix:/tmp/jevon.sock 改用 Unix 域套接字（客户端也要同样配置）
+        SocketAddress address = Transport.fromConfig("8080");
+        // java.net.ServerSocket 只支持 TCP，用阻塞模式的 ServerSocketChannel 两种都能监听
+        boolean bound = false;
+        try (ServerSocketChannel serverSocket = Transport.bind(address, 50)) {
+            bound = true;
+            System.out.println("服务器启动，正在监听 " + Transport.describe(address) + "...");
             // 客户端连接之前会一直监听，知道新的连接到来才执行后面的代码
-            Socket clientSocket = serverSocket.accept(); // 等待客户端连接
-            System.out.println("客户端已连接：" + clientSocket.getInetAddress());
+            SocketChannel clientSocket = serverSocket.accept(); // 等待客户端连接
+            System.out.println("客户端已连接：" + Transport.describe(clientSocket.getRemoteAddress()));
 
-            BufferedReader in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
-            PrintWriter out = new PrintWriter(clientSocket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(Channels.newReader(clientSocket, StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(Channels.newOutputStream(clientSocket),
+                    StandardCharsets.UTF_8), true);
 
             // 读取客户端消息
             String message = in.readLine();
@@ -26,6 +37,11 @@ public class SocketServer {
             System.out.println("连接已关闭。");
         } catch (IOException e) {
             e.printStackTrace();
+        } finally {
+            // UDS 的 socket 文件不会随进程退出删除；bind 失败时文件属于别的进程，不能删
+            if (bound) {
+                Transport.cleanup(address);
+            }
         }
     }
 }
@@ -0,0 +1,128 @@
+package fun.jevon.Socket.load;
+
+/**
+ * 延迟直方图（思路同 HdrHistogram，不引入依赖）：对数-线性分桶，记录纳秒值
+ *
+ * - 小于 256 的值每个值一个桶；更大的值按最高位分段，每段再线性分成 128 个桶，相对误差不超过 1/128（约 0.8%）
+ * - 固定约 7300 个 long 计数，记录是 O(1) 的数组自增，不分配对象
+ * - 非线程安全：每个线程（事件循环）记录自己的直方图，结束后 add 合并
+ *
+ * 协调遗漏（coordinated omission）：
+ * 闭环压测里客户端要等上一个响应回来才发下一个请求，服务端卡住的那段时间里本该发出的请求根本没有发出，
+ * 慢请求只被记了一次，分位数被严重低估。copyCorrectedForCoordinatedOmission 按期望的请求间隔补上这些"没发出的请求"：
+ * 一次耗时 v 的请求，额外记录 v - interval、v - 2*interval ... 直到不大于 interval
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+    private final long[] counts = new long[BUCKETS];
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+
+    public void record(long value) {
+        record(value, 1);
+    }
+
+    public void record(long value, long count) {
+        if (value < 0) {
+            throw new IllegalArgumentException("延迟不能为负: " + value);
+        }
+        counts[index(value)] += count;
+        totalCount += count;
+        sum += (double) value * count;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * 按期望的请求间隔补记被协调遗漏的请求，返回新的直方图，本身不变
+     */
+    public LatencyHistogram copyCorrectedForCoordinatedOmission(long expectedIntervalNanos) {
+        LatencyHistogram corrected = new LatencyHistogram();
+        corrected.add(this);
+        if (expectedIntervalNanos <= 0) {
+            return corrected;
+        }
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts[i];
+            if (count == 0) {
+                continue;
+            }
+            for (long missing = highestEquivalentValue(i) - expectedIntervalNanos; missing >= expectedIntervalNanos;
+                 missing -= expectedIntervalNanos) {
+                corrected.record(missing, count);
+            }
+        }
+        return corrected;
+    }
+
+    public long count() {
+        return totalCount;
+    }
+
+    public long min() {
+        return totalCount == 0 ? 0 : min;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public double mean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+
+    /**
+     * 第 percentile 百分位（0~100）的值，返回所在桶的上界，与 HdrHistogram 的口径一致
+     */
+    public long percentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    private static int index(long value) {
+        if (value < SUB_COUNT << 1) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB_COUNT + (int) (value >>> shift) - SUB_COUNT;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_COUNT << 1) {
+            return index;
+        }
+        int shift = index / SUB_COUNT - 1;
+        long lowest = (long) (index % SUB_COUNT + SUB_COUNT) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
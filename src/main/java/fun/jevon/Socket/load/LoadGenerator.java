@@ -0,0 +1,491 @@
+package fun.jevon.Socket.load;
+
+import fun.jevon.Socket.nio.ChannelHandler;
+import fun.jevon.Socket.nio.EchoFrameHandler;
+import fun.jevon.Socket.nio.EchoLineHandler;
+import fun.jevon.Socket.nio.EventLoop;
+import fun.jevon.Socket.nio.EventLoopGroup;
+import fun.jevon.Socket.nio.FrameCodec;
+import fun.jevon.Socket.nio.NioConnection;
+import fun.jevon.Socket.nio.NioServer;
+import fun.jevon.Socket.nio.Transport;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 压测工具：对 NioServer（行协议或帧协议回显）发请求，统计吞吐与延迟分位数，结果输出为 JSON
+ *
+ * 两种模式：
+ * - closed（闭环）：每个连接保持 pipeline 个在途请求，收到一个响应立即发下一个，测的是"最大吞吐"；
+ *   服务端变慢时客户端也跟着少发，慢请求被低估（协调遗漏），修正方式见 LatencyHistogram.copyCorrectedForCoordinatedOmission
+ * - open（开环）：按固定速率 rate 发送，与响应是否回来无关；第 i 个请求的计划发送时间是 start + i / rate，
+ *   延迟从计划时间算起，客户端自己落后、连接积压的时间都计入延迟，不存在协调遗漏
+ *
+ * 每个结果同时给出 corrected（修正后）和 uncorrected（从实际发送时刻算起）两组分位数，便于对比协调遗漏的影响。
+ *
+ * 约定：
+ * - 只允许连接回环地址，默认 127.0.0.1；不指定 --port 时在本进程内启动一个 NioServer
+ * - --transport=unix 改用 Unix 域套接字；不指定 --path 时在临时目录创建 socket 文件并在本进程内启动服务端
+ * - 回显协议在每个连接上按顺序响应，所以每个连接用一个先进先出队列记录发送时间，不需要关联 ID
+ * - 预热期（warmup）内的请求照常发送但不计入统计
+ *
+ * 用法：LoadGenerator --mode=open --rate=20000 --connections=16 --size=100 --duration=10 --out=result.json
+ */
+public class LoadGenerator {
+
+    public enum Mode {
+        CLOSED, OPEN
+    }
+
+    public enum Protocol {
+        LINE, FRAME
+    }
+
+    public enum Network {
+        TCP, UNIX
+    }
+
+    // 停止发送后等待在途响应的最长时间
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final int FRAME_TYPE = 1;
+
+    /**
+     * 压测参数，命令行参数见 parse
+     */
+    public static final class Config {
+        public Mode mode = Mode.CLOSED;
+        public Protocol protocol = Protocol.FRAME;
+        public Network transport = Network.TCP;
+        public String host = "127.0.0.1";
+        // 0 表示在本进程内启动服务端
+        public int port;
+        // Unix 域套接字的 socket 文件，null 表示在本进程内启动服务端
+        public String path;
+        public int serverWorkers = 1;
+        public int connections = 16;
+        // 每条请求的字节数（行协议含换行符，帧协议为 payload 长度）
+        public int messageSize = 100;
+        // 开环：所有连接合计每秒请求数
+        public int rate = 20_000;
+        // 闭环：每个连接同时在途的请求数
+        public int pipeline = 1;
+        // 客户端事件循环数
+        public int threads = 1;
+        public double warmupSeconds = 1;
+        public double durationSeconds = 5;
+        // 闭环修正协调遗漏用的期望请求间隔，0 表示取本次测得的延迟中位数
+        public long expectedIntervalMicros;
+        // 结果 JSON 的输出文件，null 时打印到标准输出
+        public String output;
+
+        /**
+         * 解析 --name=value 形式的参数：mode、protocol、transport、host、port、path、server-workers、connections、size、rate、
+         * pipeline、threads、warmup、duration、expected-interval-us、out
+         */
+        public static Config parse(String[] args) {
+            Config config = new Config();
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                if (!arg.startsWith("--") || eq < 0) {
+                    throw new IllegalArgumentException("参数格式应为 --name=value: " + arg);
+                }
+                String name = arg.substring(2, eq);
+                String value = arg.substring(eq + 1);
+                switch (name) {
+                    case "mode":
+                        config.mode = Mode.valueOf(value.toUpperCase());
+                        break;
+                    case "protocol":
+                        config.protocol = Protocol.valueOf(value.toUpperCase());
+                        break;
+                    case "transport":
+                        config.transport = Network.valueOf(value.toUpperCase());
+                        break;
+                    case "path":
+                        config.path = value;
+                        break;
+                    case "host":
+                        config.host = value;
+                        break;
+                    case "port":
+                        config.port = Integer.parseInt(value);
+                        break;
+                    case "server-workers":
+                        config.serverWorkers = Integer.parseInt(value);
+                        break;
+                    case "connections":
+                        config.connections = Integer.parseInt(value);
+                        break;
+                    case "size":
+                        config.messageSize = Integer.parseInt(value);
+                        break;
+                    case "rate":
+                        config.rate = Integer.parseInt(value);
+                        break;
+                    case "pipeline":
+                        config.pipeline = Integer.parseInt(value);
+                        break;
+                    case "threads":
+                        config.threads = Integer.parseInt(value);
+                        break;
+                    case "warmup":
+                        config.warmupSeconds = Double.parseDouble(value);
+                        break;
+                    case "duration":
+                        config.durationSeconds = Double.parseDouble(value);
+                        break;
+                    case "expected-interval-us":
+                        config.expectedIntervalMicros = Long.parseLong(value);
+                        break;
+                    case "out":
+                        config.output = value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("未知参数: " + name);
+                }
+            }
+            return config;
+        }
+
+        void validate() throws IOException {
+            if (transport == Network.TCP && !InetAddress.getByName(host).isLoopbackAddress()) {
+                throw new IllegalArgumentException("只允许压测本机回环地址: " + host);
+            }
+            if (connections <= 0 || threads <= 0 || pipeline <= 0 || rate <= 0 || serverWorkers <= 0) {
+                throw new IllegalArgumentException("connections、threads、pipeline、rate、server-workers 必须大于 0");
+            }
+            int minSize = protocol == Protocol.LINE ? 1 : 0;
+            if (messageSize < minSize || messageSize > FrameCodec.DEFAULT_MAX_PAYLOAD) {
+                throw new IllegalArgumentException("消息大小超出范围: " + messageSize);
+            }
+            if (durationSeconds <= 0 || warmupSeconds < 0) {
+                throw new IllegalArgumentException("duration 必须大于 0，warmup 不能为负");
+            }
+        }
+    }
+
+    // 每个客户端事件循环一份统计，只在该循环线程上修改，结束时合并
+    private static final class Recorder {
+        final LatencyHistogram fromIntended = new LatencyHistogram();
+        final LatencyHistogram fromSent = new LatencyHistogram();
+        long requests;
+        long responses;
+        long errors;
+    }
+
+    // 一个连接上已发送未响应的请求：计划发送时间与实际发送时间，按发送顺序排队
+    private final class Session {
+        final NioConnection connection;
+        final Recorder recorder;
+        long[] intended = new long[64];
+        long[] sent = new long[64];
+        int head;
+        int size;
+
+        Session(NioConnection connection, Recorder recorder) {
+            this.connection = connection;
+            this.recorder = recorder;
+        }
+
+        void send(long intendedNanos) {
+            if (!connection.isOpen()) {
+                return;
+            }
+            long now = System.nanoTime();
+            if (size == intended.length) {
+                grow();
+            }
+            int tail = (head + size) & (intended.length - 1);
+            intended[tail] = intendedNanos;
+            sent[tail] = now;
+            size++;
+            outstanding.incrementAndGet();
+            if (intendedNanos >= measureStart) {
+                recorder.requests++;
+            }
+            connection.write(request.duplicate());
+        }
+
+        void onResponse() {
+            if (size == 0) {
+                recorder.errors++;
+                return;
+            }
+            long now = System.nanoTime();
+            long intendedNanos = intended[head];
+            long sentNanos = sent[head];
+            head = (head + 1) & (intended.length - 1);
+            size--;
+            outstanding.decrementAndGet();
+            if (intendedNanos >= measureStart) {
+                recorder.responses++;
+                recorder.fromIntended.record(now - intendedNanos);
+                recorder.fromSent.record(now - sentNanos);
+            }
+            if (config.mode == Mode.CLOSED && now < sendEnd) {
+                send(now);
+            }
+        }
+
+        // 容量保持 2 的幂，环形下标用位与
+        private void grow() {
+            long[] newIntended = new long[intended.length << 1];
+            long[] newSent = new long[sent.length << 1];
+            for (int i = 0; i < size; i++) {
+                int from = (head + i) & (intended.length - 1);
+                newIntended[i] = intended[from];
+                newSent[i] = sent[from];
+            }
+            intended = newIntended;
+            sent = newSent;
+            head = 0;
+        }
+    }
+
+    private final class ResponseHandler implements ChannelHandler {
+        private final CountDownLatch opened;
+
+        ResponseHandler(CountDownLatch opened) {
+            this.opened = opened;
+        }
+
+        @Override
+        public void onOpen(NioConnection connection) {
+            Session session = new Session(connection, recorders.get(connection.eventLoop()));
+            connection.attach(session);
+            sessions.add(session);
+            opened.countDown();
+        }
+
+        @Override
+        public void onData(NioConnection connection, ByteBuffer in) {
+            Session session = connection.attachment();
+            if (config.protocol == Protocol.FRAME) {
+                FrameCodec.decode(in, FrameCodec.DEFAULT_MAX_PAYLOAD, (type, payload) -> session.onResponse());
+                return;
+            }
+            // 只数换行符，不解码字符串
+            int limit = in.limit();
+            for (int i = in.position(); i < limit; i++) {
+                if (in.get(i) == '\n') {
+                    session.onResponse();
+                }
+            }
+            in.position(limit);
+        }
+
+        @Override
+        public void onClose(NioConnection connection) {
+            Session session = connection.attachment();
+            if (session != null && !stopping) {
+                // 服务端断开：这个连接上没有响应的请求都算错误
+                session.recorder.errors += session.size;
+                outstanding.addAndGet(-session.size);
+                session.size = 0;
+            }
+        }
+    }
+
+    private final Config config;
+    private final SocketAddress address;
+    private final ByteBuffer request;
+    private final EventLoopGroup group;
+    private final Map<EventLoop, Recorder> recorders = new IdentityHashMap<>();
+    private final ConcurrentLinkedQueue<Session> sessions = new ConcurrentLinkedQueue<>();
+    private final AtomicLong outstanding = new AtomicLong();
+    private volatile boolean stopping;
+    private long measureStart;
+    private long sendEnd;
+
+    private LoadGenerator(Config config, SocketAddress address) throws IOException {
+        this.config = config;
+        this.address = address;
+        this.request = buildRequest(config).asReadOnlyBuffer();
+        this.group = new EventLoopGroup("load-client", config.threads);
+        for (int i = 0; i < config.threads; i++) {
+            recorders.put(group.next(), new Recorder());
+        }
+    }
+
+    /**
+     * 按 config 跑一次压测；未指定端口（UDS 未指定路径）时在本进程内启动并关闭服务端
+     */
+    public static LoadReport run(Config config) throws IOException, InterruptedException {
+        config.validate();
+        SocketAddress address = config.transport == Network.UNIX
+                ? (config.path != null ? UnixDomainSocketAddress.of(config.path) : null)
+                : (config.port != 0 ? new InetSocketAddress(config.host, config.port) : null);
+        NioServer server = null;
+        Path socketDir = null;
+        if (address == null) {
+            ChannelHandler echo = config.protocol == Protocol.FRAME ? new EchoFrameHandler() : new EchoLineHandler();
+            if (config.transport == Network.UNIX) {
+                socketDir = Files.createTempDirectory("load-uds");
+                address = UnixDomainSocketAddress.of(socketDir.resolve("server.sock"));
+            } else {
+                address = new InetSocketAddress(config.host, 0);
+            }
+            server = new NioServer(address, echo, config.serverWorkers);
+            address = server.localAddress();
+        }
+        try {
+            return new LoadGenerator(config, address).execute();
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+            if (socketDir != null) {
+                Files.deleteIfExists(socketDir);
+            }
+        }
+    }
+
+    private static ByteBuffer buildRequest(Config config) {
+        byte[] body = new byte[config.messageSize];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) ('a' + i % 26);
+        }
+        if (config.protocol == Protocol.LINE) {
+            body[body.length - 1] = '\n';
+            ByteBuffer line = ByteBuffer.allocateDirect(body.length);
+            line.put(body).flip();
+            return line;
+        }
+        ByteBuffer frame = ByteBuffer.allocateDirect(FrameCodec.MAX_HEADER_LENGTH + body.length);
+        FrameCodec.writeVarint(frame, body.length);
+        frame.put((byte) FRAME_TYPE).put(body).flip();
+        return frame;
+    }
+
+    private LoadReport execute() throws IOException, InterruptedException {
+        try {
+            connect();
+            long start = System.nanoTime();
+            measureStart = start + (long) (config.warmupSeconds * 1e9);
+            sendEnd = measureStart + (long) (config.durationSeconds * 1e9);
+            if (config.mode == Mode.CLOSED) {
+                for (Session session : sessions) {
+                    session.connection.eventLoop().execute(() -> {
+                        for (int i = 0; i < config.pipeline; i++) {
+                            session.send(System.nanoTime());
+                        }
+                    });
+                }
+                sleepUntil(sendEnd);
+            } else {
+                sendAtFixedRate(start);
+            }
+            // 已投递但还没执行的发送任务不在 outstanding 里，先让每个事件循环把它们执行完再开始等待响应
+            CountDownLatch flushed = new CountDownLatch(recorders.size());
+            for (EventLoop loop : recorders.keySet()) {
+                loop.execute(flushed::countDown);
+            }
+            flushed.await();
+            long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+            while (outstanding.get() > 0 && System.nanoTime() < drainDeadline) {
+                Thread.sleep(1);
+            }
+        } finally {
+            stopping = true;
+            // 等事件循环线程退出后再读统计，线程结束保证了可见性
+            group.close();
+        }
+        return report();
+    }
+
+    private void connect() throws IOException, InterruptedException {
+        CountDownLatch opened = new CountDownLatch(config.connections);
+        ResponseHandler handler = new ResponseHandler(opened);
+        for (int i = 0; i < config.connections; i++) {
+            SocketChannel channel = Transport.connect(address);
+            group.next().register(channel, handler);
+        }
+        if (!opened.await(10, TimeUnit.SECONDS)) {
+            throw new IOException("连接注册超时");
+        }
+    }
+
+    // 开环：调用线程按计划时间把请求轮流投递给各连接的事件循环；计划时间不因投递迟到而顺延
+    private void sendAtFixedRate(long start) {
+        List<Session> targets = new ArrayList<>(sessions);
+        double intervalNanos = 1e9 / config.rate;
+        for (long i = 0; ; i++) {
+            long intendedNanos = start + (long) (i * intervalNanos);
+            if (intendedNanos >= sendEnd) {
+                return;
+            }
+            long wait = intendedNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Session session = targets.get((int) (i % targets.size()));
+            session.connection.eventLoop().execute(() -> session.send(intendedNanos));
+        }
+    }
+
+    private static void sleepUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    private LoadReport report() {
+        LatencyHistogram fromIntended = new LatencyHistogram();
+        LatencyHistogram fromSent = new LatencyHistogram();
+        long requests = 0;
+        long responses = 0;
+        long errors = 0;
+        for (Recorder recorder : recorders.values()) {
+            fromIntended.add(recorder.fromIntended);
+            fromSent.add(recorder.fromSent);
+            requests += recorder.requests;
+            responses += recorder.responses;
+            errors += recorder.errors;
+        }
+        LatencyHistogram corrected = fromIntended;
+        long expectedIntervalNanos = 0;
+        if (config.mode == Mode.CLOSED) {
+            // 闭环下每个连接收到响应才发下一个，一个请求的期望间隔约等于一次正常的往返时间
+            expectedIntervalNanos = config.expectedIntervalMicros > 0
+                    ? TimeUnit.MICROSECONDS.toNanos(config.expectedIntervalMicros) : fromSent.percentile(50);
+            corrected = fromSent.copyCorrectedForCoordinatedOmission(expectedIntervalNanos);
+        }
+        return new LoadReport(config, address, requests, responses, errors, Math.max(0, outstanding.get()),
+                expectedIntervalNanos, corrected, fromSent);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.parse(args);
+        LoadReport report = LoadGenerator.run(config);
+        System.out.println(report.summary());
+        if (config.output == null) {
+            System.out.println(report.toJson());
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(Path.of(config.output), StandardCharsets.UTF_8)) {
+            writer.write(report.toJson());
+            writer.write('\n');
+        }
+        System.out.println("结果已写入 " + config.output);
+    }
+}
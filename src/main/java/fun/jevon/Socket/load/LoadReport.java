@@ -0,0 +1,157 @@
+package fun.jevon.Socket.load;
+
+import fun.jevon.Socket.nio.Transport;
+
+import java.net.SocketAddress;
+import java.util.Locale;
+
+/**
+ * 一次压测的结果：请求计数、吞吐与两组延迟分位数；toJson 手工拼接，不依赖 JSON 库
+ *
+ * 延迟单位统一为微秒，corrected 为修正协调遗漏后的分位数，uncorrected 从实际发送时刻算起
+ */
+public final class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p99_9", "p99_99"};
+
+    private final LoadGenerator.Config config;
+    private final SocketAddress address;
+    private final long requests;
+    private final long responses;
+    private final long errors;
+    private final long unanswered;
+    private final long expectedIntervalNanos;
+    private final LatencyHistogram corrected;
+    private final LatencyHistogram uncorrected;
+
+    LoadReport(LoadGenerator.Config config, SocketAddress address, long requests, long responses, long errors,
+               long unanswered, long expectedIntervalNanos, LatencyHistogram corrected, LatencyHistogram uncorrected) {
+        this.config = config;
+        this.address = address;
+        this.requests = requests;
+        this.responses = responses;
+        this.errors = errors;
+        this.unanswered = unanswered;
+        this.expectedIntervalNanos = expectedIntervalNanos;
+        this.corrected = corrected;
+        this.uncorrected = uncorrected;
+    }
+
+    public long responses() {
+        return responses;
+    }
+
+    public double throughput() {
+        return responses / config.durationSeconds;
+    }
+
+    public LatencyHistogram corrected() {
+        return corrected;
+    }
+
+    public LatencyHistogram uncorrected() {
+        return uncorrected;
+    }
+
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "%s/%s/%s %d 连接: %,.0f 次/秒，错误 %d，未响应 %d%n"
+                        + "  修正后   p50 %9.1f  p99 %9.1f  p99.9 %9.1f  max %9.1f 微秒%n"
+                        + "  未修正   p50 %9.1f  p99 %9.1f  p99.9 %9.1f  max %9.1f 微秒",
+                config.transport.name().toLowerCase(Locale.ROOT), config.mode.name().toLowerCase(Locale.ROOT),
+                config.protocol.name().toLowerCase(Locale.ROOT), config.connections, throughput(), errors, unanswered,
+                micros(corrected.percentile(50)), micros(corrected.percentile(99)),
+                micros(corrected.percentile(99.9)), micros(corrected.max()),
+                micros(uncorrected.percentile(50)), micros(uncorrected.percentile(99)),
+                micros(uncorrected.percentile(99.9)), micros(uncorrected.max()));
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\n");
+        field(json, "mode", quote(config.mode.name().toLowerCase(Locale.ROOT)));
+        field(json, "protocol", quote(config.protocol.name().toLowerCase(Locale.ROOT)));
+        field(json, "transport", quote(config.transport.name().toLowerCase(Locale.ROOT)));
+        field(json, "target", quote(Transport.describe(address)));
+        field(json, "connections", config.connections);
+        field(json, "threads", config.threads);
+        field(json, "messageSize", config.messageSize);
+        if (config.mode == LoadGenerator.Mode.OPEN) {
+            field(json, "targetRate", config.rate);
+        } else {
+            field(json, "pipeline", config.pipeline);
+            field(json, "expectedIntervalMicros", number(micros(expectedIntervalNanos)));
+        }
+        field(json, "warmupSeconds", number(config.warmupSeconds));
+        field(json, "durationSeconds", number(config.durationSeconds));
+        field(json, "requests", requests);
+        field(json, "responses", responses);
+        field(json, "errors", errors);
+        field(json, "unanswered", unanswered);
+        field(json, "throughput", number(throughput()));
+        json.append("  \"latencyMicros\": {\n");
+        json.append("    \"corrected\": ").append(latency(corrected)).append(",\n");
+        json.append("    \"uncorrected\": ").append(latency(uncorrected)).append('\n');
+        json.append("  }\n}");
+        return json.toString();
+    }
+
+    private static String latency(LatencyHistogram histogram) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"count\": ").append(histogram.count());
+        json.append(", \"min\": ").append(number(micros(histogram.min())));
+        json.append(", \"mean\": ").append(number(histogram.mean() / 1000));
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            json.append(", \"").append(PERCENTILE_NAMES[i]).append("\": ")
+                    .append(number(micros(histogram.percentile(PERCENTILES[i]))));
+        }
+        json.append(", \"max\": ").append(number(micros(histogram.max()))).append('}');
+        return json.toString();
+    }
+
+    private static void field(StringBuilder json, String name, Object value) {
+        json.append("  \"").append(name).append("\": ").append(value).append(",\n");
+    }
+
+    // 地址里的 socket 文件路径由调用方指定，可能含引号、反斜杠（Windows 路径）或控制字符，按 JSON 规则转义
+    static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                    break;
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static String number(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+}
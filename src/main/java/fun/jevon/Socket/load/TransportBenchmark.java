@@ -0,0 +1,72 @@
+package fun.jevon.Socket.load;
+
+import java.util.Locale;
+
+/**
+ * 同机通信：Unix 域套接字 vs 回环 TCP，服务端（帧协议回显）与客户端都在本进程内，只换传输方式
+ *
+ * 三个场景，每个场景两种传输各跑一次，顺序交替以免一方总是吃到预热后的 JIT：
+ * - 往返延迟：1 个连接、每次只有 1 个在途请求（ping-pong），100 字节，看 p50 / p99 / p99.9
+ * - 小消息吞吐：16 个连接、每个连接流水线 16 个请求，100 字节，看每秒请求数
+ * - 大消息吞吐：4 个连接、每个连接流水线 4 个请求，64 KB，看 MB/秒（请求和回显各算一次）
+ *
+ * 差别来自内核：UDS 直接把数据挂到对端的接收队列，不经过 TCP/IP 协议栈（分段、校验和、ACK、环回网卡的软中断），
+ * 所以单次往返更短、每字节 CPU 更少；用户态代码（EventLoop、FrameCodec）两种传输完全相同。
+ *
+ * 参数：每轮测量秒数（默认 3）
+ */
+public class TransportBenchmark {
+
+    // 场景序号，决定先跑哪种传输
+    private static int round;
+
+    public static void main(String[] args) throws Exception {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 3;
+        System.out.printf("每轮预热 1 秒、测量 %.0f 秒，服务端 1 个 worker，客户端 1 个事件循环%n", seconds);
+
+        System.out.println("== 往返延迟（1 连接，ping-pong，100 字节）==");
+        for (LoadGenerator.Network network : order()) {
+            LoadReport report = LoadGenerator.run(config(network, seconds, 1, 1, 100));
+            LatencyHistogram latency = report.uncorrected();
+            System.out.printf(Locale.ROOT, "%-5s: %,9.0f 次/秒  p50 %7.1f  p99 %7.1f  p99.9 %7.1f 微秒%n",
+                    network, report.throughput(), latency.percentile(50) / 1000.0,
+                    latency.percentile(99) / 1000.0, latency.percentile(99.9) / 1000.0);
+        }
+
+        System.out.println("== 小消息吞吐（16 连接 × 流水线 16，100 字节）==");
+        for (LoadGenerator.Network network : order()) {
+            LoadReport report = LoadGenerator.run(config(network, seconds, 16, 16, 100));
+            System.out.printf(Locale.ROOT, "%-5s: %,9.0f 次/秒  p99 %7.1f 微秒%n",
+                    network, report.throughput(), report.uncorrected().percentile(99) / 1000.0);
+        }
+
+        System.out.println("== 大消息吞吐（4 连接 × 流水线 4，64 KB）==");
+        int size = 64 * 1024;
+        for (LoadGenerator.Network network : order()) {
+            LoadReport report = LoadGenerator.run(config(network, seconds, 4, 4, size));
+            double megabytes = report.throughput() * size * 2 / (1 << 20);
+            System.out.printf(Locale.ROOT, "%-5s: %,9.0f MB/秒  p99 %7.1f 微秒%n",
+                    network, megabytes, report.uncorrected().percentile(99) / 1000.0);
+        }
+    }
+
+    private static LoadGenerator.Network[] order() {
+        return round++ % 2 == 0
+                ? new LoadGenerator.Network[]{LoadGenerator.Network.TCP, LoadGenerator.Network.UNIX}
+                : new LoadGenerator.Network[]{LoadGenerator.Network.UNIX, LoadGenerator.Network.TCP};
+    }
+
+    private static LoadGenerator.Config config(LoadGenerator.Network network, double seconds,
+                                               int connections, int pipeline, int size) {
+        LoadGenerator.Config config = new LoadGenerator.Config();
+        config.transport = network;
+        config.mode = LoadGenerator.Mode.CLOSED;
+        config.protocol = LoadGenerator.Protocol.FRAME;
+        config.connections = connections;
+        config.pipeline = pipeline;
+        config.messageSize = size;
+        config.warmupSeconds = 1;
+        config.durationSeconds = seconds;
+        return config;
+    }
+}
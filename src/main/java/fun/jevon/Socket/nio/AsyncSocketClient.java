@@ -0,0 +1,283 @@
+package fun.jevon.Socket.nio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步客户端：连接池 + 流水线 + 关联 ID，替代每次请求新建连接、阻塞等待一行回复的 SocketClient
+ *
+ * 工作方式：
+ * - 启动时建立固定数量的连接，全部注册在客户端自己的一个 EventLoop 上，不需要每个请求一个线程
+ * - send 在调用线程分配关联 ID 并编码成帧，投递给事件循环后立即返回 CompletableFuture
+ * - 事件循环把请求轮询分配给未满的连接：每个连接最多 maxInFlight 个已发出未响应的请求，
+ *   全部连接都满时请求在客户端排队，收到响应腾出位置后继续发送
+ * - 未完成的请求（在途 + 排队）总数有上限（连接数 × maxInFlight × 4），达到上限时 send 阻塞调用线程直到有请求完成，
+ *   避免调用方发得比服务端处理得快时无限堆积；在客户端事件循环线程上（例如 future 的回调里）调用时不阻塞，直接失败
+ * - 响应按关联 ID 找到对应的 future 完成，服务端可以乱序响应
+ *
+ * 约定：
+ * - 协议见 RequestCodec，服务端使用 RequestHandler
+ * - future 在客户端事件循环线程上完成，后续的阻塞处理请用 thenApplyAsync 等交给其他线程
+ * - 超过 requestTimeout 的请求以 TimeoutException 失败，之后到达的响应被丢弃
+ * - 连接断开时其上未完成的请求以 IOException 失败，不自动重连；所有连接都断开后新请求直接失败
+ * - 地址可以是 TCP 或 Unix 域套接字（见 Transport），与服务端在同一台机器上时优先用 UDS
+ */
+public class AsyncSocketClient implements Closeable {
+
+    private static final int PENDING_PER_SLOT = 4;
+
+    // 一个请求：发送前在 waiting 队列，发送后记在所属连接的 inFlight 里
+    private static final class Call {
+        final int id;
+        final ByteBuffer frame;
+        final CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        PooledConnection owner;
+
+        Call(int id, ByteBuffer frame) {
+            this.id = id;
+            this.frame = frame;
+        }
+    }
+
+    private static final class PooledConnection {
+        final NioConnection connection;
+        final HashMap<Integer, Call> inFlight = new HashMap<>();
+
+        PooledConnection(NioConnection connection) {
+            this.connection = connection;
+        }
+    }
+
+    private final EventLoop loop;
+    private final int maxInFlight;
+    private final int maxPending;
+    private final Semaphore pendingPermits;
+    private final long timeoutNanos;
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile boolean closed;
+
+    // 以下只在事件循环线程上访问
+    private final List<PooledConnection> connections = new ArrayList<>();
+    private final ArrayDeque<Call> waiting = new ArrayDeque<>();
+    private int cursor;
+
+    public AsyncSocketClient(SocketAddress address) throws IOException {
+        this(address, 4, 128, Duration.ofSeconds(10));
+    }
+
+    public AsyncSocketClient(SocketAddress address, int connectionCount, int maxInFlight, Duration requestTimeout)
+            throws IOException {
+        if (connectionCount <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("连接数与最大在途请求数必须大于 0");
+        }
+        this.maxInFlight = maxInFlight;
+        this.maxPending = connectionCount * maxInFlight * PENDING_PER_SLOT;
+        this.pendingPermits = new Semaphore(maxPending);
+        this.timeoutNanos = requestTimeout.toNanos();
+        this.loop = new EventLoop("async-client-" + Transport.describe(address));
+        CountDownLatch opened = new CountDownLatch(connectionCount);
+        ResponseHandler handler = new ResponseHandler(opened);
+        try {
+            for (int i = 0; i < connectionCount; i++) {
+                SocketChannel channel = Transport.connect(address);
+                loop.register(channel, handler);
+            }
+            if (!opened.await(10, TimeUnit.SECONDS)) {
+                throw new IOException("连接注册超时");
+            }
+        } catch (IOException e) {
+            loop.close();
+            throw e;
+        } catch (InterruptedException e) {
+            loop.close();
+            Thread.currentThread().interrupt();
+            throw new IOException("建立连接时被中断", e);
+        }
+    }
+
+    /**
+     * 发送一个请求，body 的 position 到 limit 会在调用线程上编码，返回后 body 即可复用
+     * 未完成的请求达到上限时阻塞，直到有请求完成
+     */
+    public CompletableFuture<ByteBuffer> send(ByteBuffer body) {
+        if (closed) {
+            return CompletableFuture.failedFuture(new IOException("客户端已关闭"));
+        }
+        if (loop.inEventLoop()) {
+            if (!pendingPermits.tryAcquire()) {
+                return CompletableFuture.failedFuture(
+                        new RejectedExecutionException("未完成的请求已达上限 " + maxPending));
+            }
+        } else {
+            try {
+                pendingPermits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        int id = nextId.incrementAndGet();
+        Call call = new Call(id, RequestCodec.encode(loop.bufferPool(), RequestCodec.TYPE_REQUEST, id, body));
+        call.future.whenComplete((r, e) -> pendingPermits.release());
+        try {
+            loop.execute(() -> enqueue(call));
+        } catch (RejectedExecutionException e) {
+            // 与 close 竞争：通过了 closed 检查但事件循环已经退出
+            fail(call, new IOException("客户端已关闭"));
+            return call.future;
+        }
+        if (timeoutNanos > 0) {
+            call.future.orTimeout(timeoutNanos, TimeUnit.NANOSECONDS).whenComplete((r, e) -> {
+                if (e instanceof TimeoutException) {
+                    abandonLater(call);
+                }
+            });
+        }
+        return call.future;
+    }
+
+    public CompletableFuture<String> send(String body) {
+        return send(ByteBuffer.wrap(body.getBytes(StandardCharsets.UTF_8)))
+                .thenApply(response -> StandardCharsets.UTF_8.decode(response).toString());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        // 事件循环退出时关闭所有连接，onClose 会让未完成的请求失败
+        loop.close();
+    }
+
+    private void enqueue(Call call) {
+        if (connections.isEmpty()) {
+            fail(call, new IOException("没有可用的连接"));
+            return;
+        }
+        waiting.add(call);
+        dispatch();
+    }
+
+    // 把排队的请求分配给还有空位的连接
+    private void dispatch() {
+        while (!waiting.isEmpty()) {
+            PooledConnection target = pickConnection();
+            if (target == null) {
+                return;
+            }
+            Call call = waiting.poll();
+            if (call.future.isDone()) {
+                // 排队期间已超时
+                loop.bufferPool().release(call.frame);
+                continue;
+            }
+            call.owner = target;
+            target.inFlight.put(call.id, call);
+            target.connection.writeAndRelease(call.frame);
+        }
+    }
+
+    private PooledConnection pickConnection() {
+        int n = connections.size();
+        for (int i = 0; i < n; i++) {
+            PooledConnection c = connections.get(Math.floorMod(cursor++, n));
+            if (c.inFlight.size() < maxInFlight) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    private void abandonLater(Call call) {
+        try {
+            loop.execute(() -> abandon(call));
+        } catch (RejectedExecutionException e) {
+            // 客户端已关闭，在途记录随事件循环一起丢弃
+        }
+    }
+
+    private void abandon(Call call) {
+        if (call.owner != null && call.owner.inFlight.remove(call.id) != null) {
+            dispatch();
+        }
+    }
+
+    private void onResponse(PooledConnection connection, int type, ByteBuffer payload) {
+        Call call = connection.inFlight.remove(RequestCodec.id(payload));
+        if (call == null) {
+            // 已超时的请求，响应直接丢弃
+            return;
+        }
+        ByteBuffer body = RequestCodec.body(payload);
+        if (type == RequestCodec.TYPE_RESPONSE) {
+            // payload 是读缓冲区的视图，交给调用方前拷贝一份
+            call.future.complete(ByteBuffer.allocate(body.remaining()).put(body).flip());
+        } else {
+            call.future.completeExceptionally(new IOException("服务端处理失败: " + StandardCharsets.UTF_8.decode(body)));
+        }
+        dispatch();
+    }
+
+    private void connectionLost(PooledConnection connection) {
+        connections.remove(connection);
+        IOException cause = new IOException("连接已断开: " + connection.connection);
+        for (Call call : connection.inFlight.values()) {
+            call.future.completeExceptionally(cause);
+        }
+        connection.inFlight.clear();
+        if (connections.isEmpty()) {
+            Call call;
+            while ((call = waiting.poll()) != null) {
+                fail(call, cause);
+            }
+        } else {
+            dispatch();
+        }
+    }
+
+    private void fail(Call call, Exception cause) {
+        loop.bufferPool().release(call.frame);
+        call.future.completeExceptionally(cause);
+    }
+
+    private final class ResponseHandler extends FrameHandler {
+        private final CountDownLatch opened;
+
+        ResponseHandler(CountDownLatch opened) {
+            this.opened = opened;
+        }
+
+        @Override
+        public void onOpen(NioConnection connection) {
+            PooledConnection pooled = new PooledConnection(connection);
+            connection.attach(pooled);
+            connections.add(pooled);
+            opened.countDown();
+        }
+
+        @Override
+        protected void onFrame(NioConnection connection, int type, ByteBuffer payload) {
+            onResponse(connection.attachment(), type, payload);
+        }
+
+        @Override
+        public void onClose(NioConnection connection) {
+            connectionLost(connection.attachment());
+        }
+    }
+}
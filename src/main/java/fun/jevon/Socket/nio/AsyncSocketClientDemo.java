@@ -0,0 +1,94 @@
+package fun.jevon.Socket.nio;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AsyncSocketClient 演示
+ * 1. SocketClient 的用法：每个请求新建连接、发一行、阻塞等一行回复
+ * 2. AsyncSocketClient：一个调用线程连续发出所有请求，连接池 + 流水线，最后统一等待 future
+ * 3. 每个连接允许的最大在途请求数对吞吐的影响
+ */
+public class AsyncSocketClientDemo {
+
+    public static void main(String[] args) throws Exception {
+        int requests = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        RequestHandler.RequestService toUpper = body -> {
+            String text = StandardCharsets.UTF_8.decode(body).toString();
+            return ByteBuffer.wrap(("OK " + text.toUpperCase()).getBytes(StandardCharsets.UTF_8));
+        };
+
+        try (NioServer lineServer = new NioServer(new InetSocketAddress("127.0.0.1", 0), new EchoLineHandler(), 1);
+             NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), new RequestHandler(toUpper), 1)) {
+            int blocking = Math.min(requests, 2_000);
+            long start = System.nanoTime();
+            for (int i = 0; i < blocking; i++) {
+                oneShot(lineServer.port(), "order-" + i);
+            }
+            report("1) 每次新建连接（SocketClient 方式）", blocking, System.nanoTime() - start, blocking);
+
+            // 预热：JIT 编译编解码与事件循环路径
+            try (AsyncSocketClient client = new AsyncSocketClient(address(server), 4, 128, Duration.ofSeconds(10))) {
+                run(client, requests / 4);
+            }
+            try (AsyncSocketClient client = new AsyncSocketClient(address(server), 4, 128, Duration.ofSeconds(10))) {
+                start = System.nanoTime();
+                int ok = run(client, requests);
+                report("2) AsyncSocketClient 4 连接 × 128 在途", requests, System.nanoTime() - start, ok);
+            }
+
+            System.out.println("\n3) 2 个连接，不同的最大在途请求数");
+            for (int inFlight : new int[]{1, 8, 64, 512}) {
+                try (AsyncSocketClient client = new AsyncSocketClient(address(server), 2, inFlight, Duration.ofSeconds(30))) {
+                    int n = inFlight == 1 ? requests / 10 : requests;
+                    start = System.nanoTime();
+                    int ok = run(client, n);
+                    report("   maxInFlight=" + inFlight, n, System.nanoTime() - start, ok);
+                }
+            }
+        }
+    }
+
+    private static InetSocketAddress address(NioServer server) {
+        return new InetSocketAddress("127.0.0.1", server.port());
+    }
+
+    // 一个线程连续发出全部请求，未完成的请求达到上限时 send 会短暂阻塞，最后统一等待
+    private static int run(AsyncSocketClient client, int requests) {
+        AtomicInteger ok = new AtomicInteger();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[requests];
+        for (int i = 0; i < requests; i++) {
+            String expected = "OK ORDER-" + i;
+            futures[i] = client.send("order-" + i).thenAccept(reply -> {
+                if (expected.equals(reply)) {
+                    ok.incrementAndGet();
+                }
+            });
+        }
+        CompletableFuture.allOf(futures).join();
+        return ok.get();
+    }
+
+    private static void oneShot(int port, String message) throws IOException {
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            out.println(message);
+            in.readLine();
+        }
+    }
+
+    private static void report(String name, int requests, long nanos, int ok) {
+        System.out.printf("%-40s %,8d 个请求 %8.1f ms, %,10.0f 请求/秒, 正确 %d%n", name, requests,
+                nanos / 1_000_000.0, requests / (nanos / 1e9), ok);
+    }
+}
@@ -0,0 +1,126 @@
+package fun.jevon.Socket.nio;
+
+import fun.jevon.collection.HeapUsage;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 慢消费者演示：对端只发不收时，服务端待发送队列与堆内存的变化
+ *
+ * 1. 不限制（OutboundLimits.UNBOUNDED）：回显的回复全部堆在服务端队列里，随时间持续增长
+ * 2. 默认限制：超过高水位后服务端停止读取这个连接，客户端的请求堵在内核缓冲区里，服务端队列停在高水位附近
+ * 3. 服务端主动推送（不由请求触发，停止读取也挡不住）+ DROP 策略：正常客户端收到全部消息，卡住的客户端只丢消息，
+ *    服务端队列不超过上限
+ */
+public class BackpressureDemo {
+
+    private static final String LINE = "x".repeat(99) + "\n";
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        System.out.printf("1) 不限制：客户端只发不收 %d 秒%n", seconds);
+        stalledEcho(OutboundLimits.UNBOUNDED, seconds);
+        System.out.printf("%n2) 默认限制 %s：客户端只发不收 %d 秒%n", OutboundLimits.DEFAULT, seconds);
+        stalledEcho(OutboundLimits.DEFAULT, seconds);
+        OutboundLimits drop = new OutboundLimits(16 * 1024, 32 * 1024, 256 * 1024, OutboundLimits.SlowConsumerPolicy.DROP);
+        System.out.printf("%n3) 服务端推送，%s：一个正常客户端 + 一个卡住的客户端，%d 秒%n", drop, seconds);
+        push(drop, seconds);
+    }
+
+    private static void stalledEcho(OutboundLimits limits, int seconds) throws IOException, InterruptedException {
+        try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), new EchoLineHandler(), 1, limits);
+             SocketChannel client = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.port()))) {
+            client.configureBlocking(false);
+            ByteBuffer batch = StandardCharsets.UTF_8.encode(LINE.repeat(100));
+            long sent = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            while (System.nanoTime() < deadline) {
+                int n = client.write(batch);
+                sent += n;
+                if (!batch.hasRemaining()) {
+                    batch.rewind();
+                } else if (n == 0) {
+                    // 内核发送缓冲区已满：服务端没在读
+                    Thread.sleep(1);
+                }
+            }
+            EventLoop.Metrics total = server.totalMetrics();
+            System.out.printf("客户端发出 %,d B，服务端读入 %,d B，待发送 %,d B，不可写连接 %d，堆已用 %,d MB%n",
+                    sent, total.bytesIn, total.queuedBytes, total.unwritableConnections, HeapUsage.usedHeap() >> 20);
+        }
+    }
+
+    private static void push(OutboundLimits limits, int seconds) throws Exception {
+        Set<NioConnection> connections = new CopyOnWriteArraySet<>();
+        ChannelHandler handler = new ChannelHandler() {
+            @Override
+            public void onOpen(NioConnection connection) {
+                connections.add(connection);
+            }
+
+            @Override
+            public void onData(NioConnection connection, ByteBuffer in) {
+                in.position(in.limit());
+            }
+
+            @Override
+            public void onClose(NioConnection connection) {
+                connections.remove(connection);
+            }
+        };
+        try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), handler, 1, limits);
+             SocketChannel reader = SocketChannel.open(new InetSocketAddress("127.0.0.1", server.port()));
+             SocketChannel stalled = SocketChannel.open()) {
+            // 接收缓冲区调小，让内核少替卡住的客户端缓存数据
+            stalled.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+            stalled.connect(new InetSocketAddress("127.0.0.1", server.port()));
+            long[] received = new long[1];
+            Thread readerThread = new Thread(() -> {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024);
+                try {
+                    while (reader.read(buffer) >= 0) {
+                        received[0] += buffer.flip().remaining();
+                        buffer.clear();
+                    }
+                } catch (IOException ignored) {
+                    // 演示结束时连接被关闭
+                }
+            });
+            readerThread.start();
+            while (connections.size() < 2) {
+                Thread.sleep(1);
+            }
+            // 每毫秒给每个连接推送 50 条 100 字节的消息，约 5 MB/秒
+            long pushed = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            while (System.nanoTime() < deadline) {
+                for (int i = 0; i < 50; i++) {
+                    for (NioConnection connection : connections) {
+                        connection.writeLine(LINE.substring(0, LINE.length() - 1));
+                    }
+                    pushed += LINE.length();
+                }
+                Thread.sleep(1);
+            }
+            Thread.sleep(200);
+            // 关闭正常客户端的输入让读线程退出，join 之后再读取 received
+            reader.shutdownInput();
+            readerThread.join();
+            for (NioConnection connection : connections) {
+                System.out.printf("  %s: 不可写 %s，当前待发送 %,d B，峰值 %,d B，丢弃 %,d 次%n", connection,
+                        !connection.isWritable(), connection.queuedBytes(), connection.peakQueuedBytes(),
+                        connection.droppedWrites());
+            }
+            System.out.printf("每个连接推送 %,d B，正常客户端收到 %,d B%n", pushed, received[0]);
+            System.out.println("  " + server.totalMetrics());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package fun.jevon.Socket.nio;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 直接内存 ByteBuffer 池，按 2 的幂分级（512B ~ 2MB）
+ *
+ * 为什么要池化：
+ * - 堆内 ByteBuffer 读写 socket 时，JDK 会先拷贝到一块临时的直接内存再做系统调用
+ * - 直接内存分配和回收都很贵（分配要清零，回收依赖 GC 与 Cleaner），不适合每条消息分配一次
+ *
+ * 约定：
+ * - acquire 返回的缓冲区容量不小于请求值，已 clear；超过最大级别的请求直接分配，不进池
+ * - 用完后 release 归还，每个缓冲区只能归还一次，归还后不能再使用
+ * - 每一级最多保留约 MAX_RETAINED_BYTES 的空闲缓冲区，多出的交给 GC
+ * - 线程安全，可以在事件循环以外的线程获取和归还
+ */
+public final class ByteBufferPool {
+
+    private static final int MIN_SHIFT = 9;
+    private static final int MAX_SHIFT = 21;
+    private static final int MAX_RETAINED_BYTES = 8 << 20;
+    private static final int MAX_RETAINED_BUFFERS = 1024;
+
+    public static final int MAX_POOLED_CAPACITY = 1 << MAX_SHIFT;
+
+    private final ConcurrentLinkedQueue<ByteBuffer>[] free;
+    private final AtomicInteger[] freeCounts;
+    private final LongAdder allocated = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public ByteBufferPool() {
+        int classes = MAX_SHIFT - MIN_SHIFT + 1;
+        free = new ConcurrentLinkedQueue[classes];
+        freeCounts = new AtomicInteger[classes];
+        for (int i = 0; i < classes; i++) {
+            free[i] = new ConcurrentLinkedQueue<>();
+            freeCounts[i] = new AtomicInteger();
+        }
+    }
+
+    public ByteBuffer acquire(int capacity) {
+        if (capacity > MAX_POOLED_CAPACITY) {
+            allocated.increment();
+            return ByteBuffer.allocateDirect(capacity);
+        }
+        int index = sizeClass(capacity);
+        ByteBuffer buffer = free[index].poll();
+        if (buffer == null) {
+            allocated.increment();
+            return ByteBuffer.allocateDirect(1 << (index + MIN_SHIFT));
+        }
+        freeCounts[index].decrementAndGet();
+        reused.increment();
+        buffer.clear();
+        return buffer;
+    }
+
+    public void release(ByteBuffer buffer) {
+        int capacity = buffer.capacity();
+        if (!buffer.isDirect() || capacity > MAX_POOLED_CAPACITY || Integer.bitCount(capacity) != 1
+                || capacity < 1 << MIN_SHIFT) {
+            return;
+        }
+        int index = sizeClass(capacity);
+        int limit = Math.min(MAX_RETAINED_BUFFERS, MAX_RETAINED_BYTES >>> (index + MIN_SHIFT));
+        if (freeCounts[index].incrementAndGet() > limit) {
+            freeCounts[index].decrementAndGet();
+            return;
+        }
+        free[index].offer(buffer);
+    }
+
+    /**
+     * 新分配的直接内存缓冲区个数（池中没有可用的，或超过最大级别）
+     */
+    public long allocatedCount() {
+        return allocated.sum();
+    }
+
+    /**
+     * 从池中复用的次数
+     */
+    public long reusedCount() {
+        return reused.sum();
+    }
+
+    private static int sizeClass(int capacity) {
+        int shift = capacity <= 1 << MIN_SHIFT ? MIN_SHIFT : 32 - Integer.numberOfLeadingZeros(capacity - 1);
+        return shift - MIN_SHIFT;
+    }
+}
@@ -0,0 +1,37 @@
+package fun.jevon.Socket.nio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 连接事件回调，所有方法都在该连接所属的事件循环线程上调用，不能做阻塞操作
+ *
+ * 同一个 handler 实例被所有连接共享；每个连接自己的状态放在 NioConnection.attach 里
+ */
+public interface ChannelHandler {
+
+    default void onOpen(NioConnection connection) {
+    }
+
+    /**
+     * 收到数据：in 处于读模式，handler 消费多少就把 position 推进多少，
+     * 没消费完的字节（例如半条消息）会保留下来，和下一次读到的数据拼在一起再回调
+     */
+    void onData(NioConnection connection, ByteBuffer in);
+
+    default void onClose(NioConnection connection) {
+    }
+
+    /**
+     * 待发送队列越过高水位（isWritable 变为 false，连接停止读取）或回到低水位以下时回调
+     */
+    default void onWritabilityChanged(NioConnection connection) {
+    }
+
+    /**
+     * handler 抛出异常时回调，默认打印后关闭连接；返回后事件循环继续服务其他连接
+     */
+    default void onError(NioConnection connection, Throwable cause) {
+        System.err.println("连接 " + connection + " 处理出错: " + cause);
+        connection.close();
+    }
+}
@@ -0,0 +1,14 @@
+package fun.jevon.Socket.nio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 帧协议的默认处理器：原样回复同类型、同内容的帧
+ */
+public class EchoFrameHandler extends FrameHandler {
+
+    @Override
+    protected void onFrame(NioConnection connection, int type, ByteBuffer payload) {
+        connection.writeFrame(type, payload);
+    }
+}
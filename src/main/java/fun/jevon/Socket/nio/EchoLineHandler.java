@@ -0,0 +1,12 @@
+package fun.jevon.Socket.nio;
+
+/**
+ * 默认处理器：与原来的 SocketServer 相同的回复格式，但连接保持打开，可以连续发送多行，由客户端决定何时断开
+ */
+public class EchoLineHandler extends LineHandler {
+
+    @Override
+    protected void onLine(NioConnection connection, String line) {
+        connection.writeLine("服务器已收到消息：" + line);
+    }
+}
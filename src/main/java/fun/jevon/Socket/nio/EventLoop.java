@@ -0,0 +1,381 @@
+package fun.jevon.Socket.nio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 事件循环：一个线程 + 一个 Selector + 一个任务队列
+ *
+ * - 注册到这里的连接在整个生命周期内只由这个线程读写，连接状态不需要加锁
+ * - 其他线程通过 execute 投递任务（注册新连接、跨线程写回复等），投递后唤醒 select；
+ *   close 之后其他线程投递的任务被拒绝（RejectedExecutionException），不会静默丢失
+ * - 每轮循环 = select 返回 -> 执行任务 -> 处理就绪的 key；处理耗时计为循环延迟：
+ *   一轮处理越久，同一个循环上其他连接的事件就要等越久
+ */
+public final class EventLoop implements Executor, Closeable {
+
+    private final String name;
+    private final Selector selector;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final ByteBufferPool bufferPool = new ByteBufferPool();
+    private final Thread thread;
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile boolean running = true;
+
+    // 以下统计只由事件循环线程写入，其他线程读取
+    private volatile int connections;
+    private volatile long bytesIn;
+    private volatile long bytesOut;
+    private volatile long iterations;
+    private volatile long busyNanos;
+    private volatile long maxBusyNanos;
+    private volatile long queuedBytes;
+    private volatile int unwritableConnections;
+    private volatile long droppedWrites;
+    private volatile long droppedBytes;
+    private volatile long slowConsumerDisconnects;
+
+    public EventLoop(String name) throws IOException {
+        this.name = name;
+        this.selector = Selector.open();
+        this.thread = new Thread(this::run, name);
+        thread.start();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * 这个循环上所有连接共用的直接内存缓冲池
+     */
+    public ByteBufferPool bufferPool() {
+        return bufferPool;
+    }
+
+    public boolean inEventLoop() {
+        return Thread.currentThread() == thread;
+    }
+
+    /**
+     * 投递任务；close 之后由其他线程投递时抛出 RejectedExecutionException，任务一定不会执行，
+     * 调用方据此让对应的操作失败。事件循环线程在退出流程中投递的任务仍会执行
+     */
+    @Override
+    public void execute(Runnable task) {
+        tasks.add(task);
+        // 退出流程最后一次 runTasks 之后加入的任务没人执行：看到 running 为 false 时尝试取回，
+        // 取回成功说明循环没拿到它，拒绝；取回失败说明循环已经取走，会照常执行
+        if (!running && !inEventLoop() && tasks.remove(task)) {
+            throw new RejectedExecutionException("事件循环 " + name + " 已关闭");
+        }
+        selector.wakeup();
+    }
+
+    /**
+     * 把连接交给这个事件循环，之后一直由它负责（可在任意线程调用）；待发送队列不限制，用于客户端连接
+     */
+    public void register(SocketChannel channel, ChannelHandler handler) {
+        register(channel, handler, OutboundLimits.UNBOUNDED);
+    }
+
+    /**
+     * 同 register，待发送队列按 limits 限制
+     */
+    public void register(SocketChannel channel, ChannelHandler handler, OutboundLimits limits) {
+        if (!inEventLoop()) {
+            try {
+                execute(() -> register(channel, handler, limits));
+            } catch (RejectedExecutionException e) {
+                closeQuietly(channel);
+            }
+            return;
+        }
+        try {
+            if (!running) {
+                // 循环正在退出，不再接收新连接
+                channel.close();
+                return;
+            }
+            channel.configureBlocking(false);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            NioConnection connection = new NioConnection(this, handler, channel, key, limits);
+            key.attach(connection);
+            connections++;
+            handler.onOpen(connection);
+        } catch (IOException e) {
+            closeQuietly(channel);
+        }
+    }
+
+    private static void closeQuietly(SocketChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // 注册失败的连接直接丢弃
+        }
+    }
+
+    /**
+     * 注册一个非连接的通道（例如监听 socket），就绪时在事件循环线程上执行 onReady
+     * 其他线程调用时投递到事件循环上注册并等待完成，避免和阻塞中的 select 争用锁
+     */
+    SelectionKey registerChannel(SelectableChannel channel, int ops, Runnable onReady) throws IOException {
+        if (inEventLoop()) {
+            channel.configureBlocking(false);
+            return channel.register(selector, ops, onReady);
+        }
+        CompletableFuture<SelectionKey> registered = new CompletableFuture<>();
+        try {
+            execute(() -> {
+                try {
+                    registered.complete(registerChannel(channel, ops, onReady));
+                } catch (IOException | RuntimeException e) {
+                    registered.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        try {
+            return registered.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待注册时被中断");
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause() : new IOException(e.getCause());
+        }
+    }
+
+    public Metrics metrics() {
+        return new Metrics(name, connections, bytesIn, bytesOut, iterations, busyNanos, maxBusyNanos, queuedBytes,
+                unwritableConnections, droppedWrites, droppedBytes, slowConsumerDisconnects);
+    }
+
+    void connectionClosed() {
+        connections--;
+    }
+
+    void recordBytesIn(int n) {
+        bytesIn += n;
+    }
+
+    void recordBytesOut(int n) {
+        bytesOut += n;
+    }
+
+    void queuedBytesChanged(long delta) {
+        queuedBytes += delta;
+    }
+
+    void writabilityChanged(boolean writable) {
+        unwritableConnections += writable ? -1 : 1;
+    }
+
+    void writeDropped(long bytes) {
+        droppedWrites++;
+        droppedBytes += bytes;
+    }
+
+    void slowConsumerDisconnected() {
+        slowConsumerDisconnects++;
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                long start = System.nanoTime();
+                runTasks();
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    dispatch(key);
+                }
+                long busy = System.nanoTime() - start;
+                iterations++;
+                busyNanos += busy;
+                if (busy > maxBusyNanos) {
+                    maxBusyNanos = busy;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("事件循环 " + name + " 异常退出: " + e);
+        } finally {
+            closeAll();
+            terminated.countDown();
+        }
+    }
+
+    // 回调抛出的异常只影响对应的连接（或这一次 accept），事件循环线程本身不能因此退出
+    private void dispatch(SelectionKey key) {
+        Object attachment = key.attachment();
+        if (attachment instanceof NioConnection) {
+            NioConnection connection = (NioConnection) attachment;
+            try {
+                connection.handleReady(key);
+            } catch (RuntimeException e) {
+                connection.handleFailure(e);
+            }
+        } else {
+            try {
+                ((Runnable) attachment).run();
+            } catch (RuntimeException e) {
+                System.err.println("事件循环 " + name + " 回调出错: " + e);
+            }
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.err.println("事件循环 " + name + " 任务出错: " + e);
+            }
+        }
+    }
+
+    private void closeAll() {
+        runTasks();
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if (attachment instanceof NioConnection) {
+                try {
+                    ((NioConnection) attachment).close();
+                } catch (RuntimeException e) {
+                    // onClose 出错不能影响其他连接的关闭
+                    System.err.println("事件循环 " + name + " 关闭连接出错: " + e);
+                }
+            } else {
+                try {
+                    key.channel().close();
+                } catch (IOException ignored) {
+                    // 已经在退出流程中
+                }
+            }
+        }
+        // 退出前刚投递进来的任务（例如新连接注册）也执行掉，register 会直接关闭连接
+        runTasks();
+        try {
+            selector.close();
+        } catch (IOException ignored) {
+            // 已经在退出流程中
+        }
+    }
+
+    /**
+     * 关闭这个循环上的所有连接，并等待线程退出
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        if (!inEventLoop()) {
+            try {
+                terminated.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * 某一时刻的统计快照；字节数、循环次数、耗时与丢弃/断开次数都是启动以来的累计值，
+     * queuedBytes（待发送队列字节数）与 unwritableConnections（超过高水位的连接数）是当前值
+     */
+    public static final class Metrics {
+        public final String name;
+        public final int connections;
+        public final long bytesIn;
+        public final long bytesOut;
+        public final long iterations;
+        public final long busyNanos;
+        public final long maxBusyNanos;
+        public final long queuedBytes;
+        public final int unwritableConnections;
+        public final long droppedWrites;
+        public final long droppedBytes;
+        public final long slowConsumerDisconnects;
+
+        Metrics(String name, int connections, long bytesIn, long bytesOut, long iterations, long busyNanos,
+                long maxBusyNanos, long queuedBytes, int unwritableConnections, long droppedWrites, long droppedBytes,
+                long slowConsumerDisconnects) {
+            this.name = name;
+            this.connections = connections;
+            this.bytesIn = bytesIn;
+            this.bytesOut = bytesOut;
+            this.iterations = iterations;
+            this.busyNanos = busyNanos;
+            this.maxBusyNanos = maxBusyNanos;
+            this.queuedBytes = queuedBytes;
+            this.unwritableConnections = unwritableConnections;
+            this.droppedWrites = droppedWrites;
+            this.droppedBytes = droppedBytes;
+            this.slowConsumerDisconnects = slowConsumerDisconnects;
+        }
+
+        /**
+         * 多个循环的合计，maxBusyNanos 取最大值
+         */
+        public static Metrics sum(String name, List<Metrics> metrics) {
+            int connections = 0;
+            int unwritable = 0;
+            long bytesIn = 0;
+            long bytesOut = 0;
+            long iterations = 0;
+            long busyNanos = 0;
+            long maxBusyNanos = 0;
+            long queuedBytes = 0;
+            long droppedWrites = 0;
+            long droppedBytes = 0;
+            long disconnects = 0;
+            for (Metrics m : metrics) {
+                connections += m.connections;
+                unwritable += m.unwritableConnections;
+                bytesIn += m.bytesIn;
+                bytesOut += m.bytesOut;
+                iterations += m.iterations;
+                busyNanos += m.busyNanos;
+                maxBusyNanos = Math.max(maxBusyNanos, m.maxBusyNanos);
+                queuedBytes += m.queuedBytes;
+                droppedWrites += m.droppedWrites;
+                droppedBytes += m.droppedBytes;
+                disconnects += m.slowConsumerDisconnects;
+            }
+            return new Metrics(name, connections, bytesIn, bytesOut, iterations, busyNanos, maxBusyNanos, queuedBytes,
+                    unwritable, droppedWrites, droppedBytes, disconnects);
+        }
+
+        public double avgLoopMicros() {
+            return iterations == 0 ? 0 : busyNanos / 1_000.0 / iterations;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: 连接 %d, 入 %,d B, 出 %,d B, 循环 %,d 轮, 平均每轮 %.1f µs, 最长 %.1f ms, "
+                            + "待发送 %,d B, 不可写连接 %d, 丢弃 %,d 次 / %,d B, 慢消费者断开 %d",
+                    name, connections, bytesIn, bytesOut, iterations, avgLoopMicros(), maxBusyNanos / 1_000_000.0,
+                    queuedBytes, unwritableConnections, droppedWrites, droppedBytes, slowConsumerDisconnects);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package fun.jevon.Socket.nio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 一组事件循环，新连接按轮询分配；连接一旦分配就固定在该循环上
+ */
+public final class EventLoopGroup implements Closeable {
+
+    private final EventLoop[] loops;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public EventLoopGroup(String namePrefix, int size) throws IOException {
+        if (size <= 0) {
+            throw new IllegalArgumentException("事件循环数量必须大于 0: " + size);
+        }
+        loops = new EventLoop[size];
+        try {
+            for (int i = 0; i < size; i++) {
+                loops[i] = new EventLoop(namePrefix + "-" + i);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    public EventLoop next() {
+        return loops[Math.floorMod(next.getAndIncrement(), loops.length)];
+    }
+
+    public int size() {
+        return loops.length;
+    }
+
+    public List<EventLoop.Metrics> metrics() {
+        List<EventLoop.Metrics> result = new ArrayList<>(loops.length);
+        for (EventLoop loop : loops) {
+            result.add(loop.metrics());
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        for (EventLoop loop : loops) {
+            if (loop != null) {
+                loop.close();
+            }
+        }
+    }
+}
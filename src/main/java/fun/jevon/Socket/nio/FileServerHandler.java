@@ -0,0 +1,160 @@
+package fun.jevon.Socket.nio;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 文件服务：行协议请求，响应头一行后紧跟原始字节，文件内容不经过 Java 堆
+ *
+ * 协议：
+ * - "GET 路径"：整个文件，响应 "OK 长度\n" + 内容，用 FileChannel.transferTo（sendfile）发送
+ * - "GET 路径 偏移 长度"：一个区间，长度超出文件末尾时截短；不超过 MAX_MAPPED_RANGE 的区间映射成 MappedByteBuffer 发送，
+ *   更大的区间同样用 transferTo（映射只能等 GC 回收，大区间映射会占用大量虚拟内存）
+ * - 出错时响应 "ERR 原因\n"，连接保持打开；同一连接上可以连续发送多个请求，按顺序响应
+ *
+ * 约定：
+ * - 路径相对于 root 解析，解析符号链接后不在 root 下的路径一律拒绝
+ * - 打开文件与建立映射在 worker 线程上进行（只涉及元数据，通常很快），读数据由内核在发送时完成
+ * - 每个传输每次可写事件最多发送一块，大量并发下载在同一个 worker 上轮流推进
+ */
+public class FileServerHandler extends LineHandler {
+
+    public static final long MAX_MAPPED_RANGE = 16 << 20;
+
+    private final Path root;
+    private final AtomicInteger activeTransfers = new AtomicInteger();
+    private final LongAdder completedTransfers = new LongAdder();
+    private final LongAdder failedTransfers = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+
+    public FileServerHandler(Path root) throws IOException {
+        this.root = root.toRealPath();
+    }
+
+    /**
+     * 正在进行的 transferTo 传输数
+     */
+    public int activeTransfers() {
+        return activeTransfers.get();
+    }
+
+    public long completedTransfers() {
+        return completedTransfers.sum();
+    }
+
+    public long failedTransfers() {
+        return failedTransfers.sum();
+    }
+
+    /**
+     * transferTo 已发出的字节数，加上映射区间提交发送的字节数
+     */
+    public long bytesSent() {
+        return bytesSent.sum();
+    }
+
+    @Override
+    protected void onLine(NioConnection connection, String line) {
+        String[] parts = line.trim().split("\\s+");
+        if (!parts[0].equals("GET") || (parts.length != 2 && parts.length != 4)) {
+            connection.writeLine("ERR 请求格式应为 GET 路径 [偏移 长度]");
+            return;
+        }
+        long offset = 0;
+        long length = -1;
+        if (parts.length == 4) {
+            try {
+                offset = Long.parseLong(parts[2]);
+                length = Long.parseLong(parts[3]);
+            } catch (NumberFormatException e) {
+                connection.writeLine("ERR 偏移与长度必须是整数");
+                return;
+            }
+            if (offset < 0 || length < 0) {
+                connection.writeLine("ERR 偏移与长度不能为负");
+                return;
+            }
+        }
+        Path file;
+        try {
+            file = resolve(parts[1]);
+        } catch (NoSuchFileException e) {
+            connection.writeLine("ERR 文件不存在: " + parts[1]);
+            return;
+        } catch (IOException | SecurityException e) {
+            connection.writeLine("ERR 无法访问: " + parts[1]);
+            return;
+        }
+        try {
+            serve(connection, file, offset, length);
+        } catch (IOException e) {
+            connection.writeLine("ERR 读取失败: " + e.getMessage());
+        }
+    }
+
+    private Path resolve(String name) throws IOException {
+        Path path = root.resolve(name).toRealPath();
+        if (!path.startsWith(root) || !Files.isRegularFile(path)) {
+            throw new NoSuchFileException(name);
+        }
+        return path;
+    }
+
+    private void serve(NioConnection connection, Path path, long offset, long length) throws IOException {
+        FileChannel file = FileChannel.open(path, StandardOpenOption.READ);
+        boolean handedOff = false;
+        try {
+            long size = file.size();
+            if (offset > size) {
+                connection.writeLine("ERR 偏移超出文件长度 " + size);
+                return;
+            }
+            long count = length < 0 ? size - offset : Math.min(length, size - offset);
+            connection.writeLine("OK " + count);
+            if (count == 0) {
+                completedTransfers.increment();
+                return;
+            }
+            if (length >= 0 && count <= MAX_MAPPED_RANGE) {
+                // 映射不依赖通道，建立后即可关闭文件
+                MappedByteBuffer region = file.map(FileChannel.MapMode.READ_ONLY, offset, count);
+                bytesSent.add(count);
+                connection.writeMapped(region);
+                return;
+            }
+            activeTransfers.incrementAndGet();
+            handedOff = true;
+            connection.writeFile(file, offset, count, new FileTransferListener() {
+                private long reported;
+
+                @Override
+                public void onProgress(long transferred, long total) {
+                    bytesSent.add(transferred - reported);
+                    reported = transferred;
+                }
+
+                @Override
+                public void onComplete(boolean success) {
+                    activeTransfers.decrementAndGet();
+                    (success ? completedTransfers : failedTransfers).increment();
+                    try {
+                        file.close();
+                    } catch (IOException ignored) {
+                        // 只读文件，关闭失败不影响已发送的数据
+                    }
+                }
+            });
+        } finally {
+            if (!handedOff) {
+                file.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package fun.jevon.Socket.nio;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * 文件下载：流拷贝（每个连接一个线程，InputStream -> byte[] -> OutputStream）vs FileServerHandler
+ *
+ * 三种方式使用同一个客户端：多个线程各自一个连接，反复下载同一个文件并丢弃内容；
+ * 输出 MB/秒和每 GB 消耗的进程 CPU 时间（客户端部分三种方式相同，差别来自服务端）
+ * - 流拷贝：文件数据经过 内核 -> byte[] -> 内核 两次拷贝，每个连接占一个线程
+ * - transferTo：整文件 GET，数据在内核里从页缓存直接到 socket
+ * - mmap 区间：按 1 MB 区间连续发送 GET 请求（流水线），每个区间映射后直接写出
+ *
+ * 参数：文件大小 MB（默认 64）、客户端线程数（默认 4）、每个客户端下载次数（默认 4）
+ */
+public class FileServingDemo {
+
+    private static final int RANGE_SIZE = 1 << 20;
+    private static final String FILE_NAME = "blob.bin";
+
+    public static void main(String[] args) throws Exception {
+        int sizeMb = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        Path dir = Files.createTempDirectory("file-serving");
+        Path file = dir.resolve(FILE_NAME);
+        try {
+            byte[] chunk = new byte[1 << 20];
+            new Random(42).nextBytes(chunk);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                for (int i = 0; i < sizeMb; i++) {
+                    out.write(chunk);
+                }
+            }
+            long fileSize = Files.size(file);
+            System.out.printf("文件 %d MB，%d 个客户端 × %d 次下载，每种方式跑两次（第一次预热）%n", sizeMb, clients, rounds);
+            for (int round = 1; round <= 2; round++) {
+                try (StreamFileServer server = new StreamFileServer(dir)) {
+                    report("流拷贝", round, () -> runClients(server.port(), clients, rounds, fileSize, false));
+                }
+                FileServerHandler handler = new FileServerHandler(dir);
+                try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), handler, 1)) {
+                    report("transferTo", round, () -> runClients(server.port(), clients, rounds, fileSize, false));
+                    report("mmap 区间", round, () -> runClients(server.port(), clients, rounds, fileSize, true));
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    interface Load {
+        long run() throws Exception;
+    }
+
+    private static void report(String name, int round, Load load) throws Exception {
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long cpuBefore = os.getProcessCpuTime();
+        long start = System.nanoTime();
+        long bytes = load.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double cpuSeconds = (os.getProcessCpuTime() - cpuBefore) / 1e9;
+        double gb = bytes / (double) (1L << 30);
+        System.out.printf("第 %d 次 %-10s: %,8.0f MB/秒，每 GB CPU %.2f 秒%n", round, name,
+                bytes / (double) (1 << 20) / seconds, cpuSeconds / gb);
+    }
+
+    private static long runClients(int port, int clients, int rounds, long fileSize, boolean ranges)
+            throws InterruptedException {
+        long[] received = new long[clients];
+        Thread[] threads = new Thread[clients];
+        for (int t = 0; t < clients; t++) {
+            int index = t;
+            threads[t] = new Thread(() -> {
+                try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", port))) {
+                    ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024).limit(0);
+                    for (int r = 0; r < rounds; r++) {
+                        received[index] += ranges ? downloadRanges(channel, buffer, fileSize)
+                                : download(channel, buffer, "GET " + FILE_NAME + "\n");
+                    }
+                } catch (IOException e) {
+                    System.err.println("客户端出错: " + e);
+                }
+            });
+            threads[t].start();
+        }
+        long total = 0;
+        for (int t = 0; t < clients; t++) {
+            threads[t].join();
+            total += received[t];
+        }
+        return total;
+    }
+
+    private static long download(SocketChannel channel, ByteBuffer buffer, String request) throws IOException {
+        channel.write(StandardCharsets.UTF_8.encode(request));
+        return readResponse(channel, buffer);
+    }
+
+    // 一次发出所有区间请求，再依次读回
+    private static long downloadRanges(SocketChannel channel, ByteBuffer buffer, long fileSize) throws IOException {
+        StringBuilder requests = new StringBuilder();
+        int count = 0;
+        for (long offset = 0; offset < fileSize; offset += RANGE_SIZE) {
+            requests.append("GET ").append(FILE_NAME).append(' ').append(offset).append(' ').append(RANGE_SIZE).append('\n');
+            count++;
+        }
+        ByteBuffer out = StandardCharsets.UTF_8.encode(requests.toString());
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += readResponse(channel, buffer);
+        }
+        return total;
+    }
+
+    // 响应头 "OK 长度" 一行，后面的数据直接跳过；buffer 处于读模式，跨响应复用
+    private static long readResponse(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        StringBuilder header = new StringBuilder();
+        while (true) {
+            if (!buffer.hasRemaining()) {
+                fill(channel, buffer);
+            }
+            byte b = buffer.get();
+            if (b == '\n') {
+                break;
+            }
+            header.append((char) b);
+        }
+        if (!header.toString().startsWith("OK ")) {
+            throw new IOException("服务端返回: " + header);
+        }
+        long length = Long.parseLong(header.substring(3));
+        long remaining = length;
+        while (remaining > 0) {
+            if (!buffer.hasRemaining()) {
+                fill(channel, buffer);
+            }
+            int n = (int) Math.min(remaining, buffer.remaining());
+            buffer.position(buffer.position() + n);
+            remaining -= n;
+        }
+        return length;
+    }
+
+    private static void fill(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        if (channel.read(buffer) < 0) {
+            throw new EOFException("连接被关闭");
+        }
+        buffer.flip();
+    }
+
+    // 对照组：阻塞 IO，每个连接一个线程，只支持整文件 GET
+    static final class StreamFileServer implements AutoCloseable {
+        private final ServerSocket serverSocket;
+        private final Path root;
+
+        StreamFileServer(Path root) throws IOException {
+            this.root = root;
+            this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::acceptLoop, "stream-file-acceptor");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int port() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    Thread worker = new Thread(() -> serve(socket), "stream-file-worker");
+                    worker.setDaemon(true);
+                    worker.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket;
+                 BufferedReader in = new BufferedReader(
+                         new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                OutputStream out = socket.getOutputStream();
+                String line;
+                while ((line = in.readLine()) != null) {
+                    Path file = root.resolve(line.substring("GET ".length()).trim());
+                    out.write(("OK " + Files.size(file) + "\n").getBytes(StandardCharsets.UTF_8));
+                    byte[] buffer = new byte[8192];
+                    try (InputStream fileIn = Files.newInputStream(file)) {
+                        int n;
+                        while ((n = fileIn.read(buffer)) > 0) {
+                            out.write(buffer, 0, n);
+                        }
+                    }
+                    out.flush();
+                }
+            } catch (IOException ignored) {
+                // 客户端断开
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
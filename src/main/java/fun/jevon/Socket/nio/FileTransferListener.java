@@ -0,0 +1,22 @@
+package fun.jevon.Socket.nio;
+
+/**
+ * NioConnection.writeFile 的进度回调，在连接所属的事件循环线程上调用，不能阻塞
+ */
+public interface FileTransferListener {
+
+    FileTransferListener NONE = new FileTransferListener() {
+    };
+
+    /**
+     * 每发送一块（最多 NioConnection.FILE_CHUNK_SIZE 字节）回调一次
+     */
+    default void onProgress(long transferred, long total) {
+    }
+
+    /**
+     * 传输结束时回调一次；success 为 false 表示连接在发完之前关闭或读文件出错
+     */
+    default void onComplete(boolean success) {
+    }
+}
@@ -0,0 +1,129 @@
+package fun.jevon.Socket.nio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 长度前缀的二进制帧：varint(payload 长度) | type（1 字节，0~255） | payload
+ *
+ * 与行协议相比：
+ * - 不需要扫描换行符、不做字符集解码，payload 可以是任意二进制
+ * - 解码直接在读缓冲区上切出 payload 视图（slice），不拷贝成 byte[] / String
+ * - 编码写入 ByteBufferPool 中的直接内存缓冲区，发送完由连接归还
+ * - varint 按 7 位一组、低位在前（与 protobuf 相同），小于 128 字节的消息只占 1 字节长度
+ */
+public final class FrameCodec {
+
+    /**
+     * 帧头最大长度：5 字节 varint + 1 字节类型
+     */
+    public static final int MAX_HEADER_LENGTH = 6;
+
+    public static final int DEFAULT_MAX_PAYLOAD = 1 << 20;
+
+    @FunctionalInterface
+    public interface FrameConsumer {
+        /**
+         * payload 是读缓冲区的视图，只在回调期间有效；需要保留时自行拷贝
+         */
+        void onFrame(int type, ByteBuffer payload);
+    }
+
+    private FrameCodec() {
+    }
+
+    public static int varintSize(int value) {
+        return value < 0 ? 5 : (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+
+    public static void writeVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * 把 payload 的 position 到 limit 编码成一帧，返回池中的缓冲区（读模式）；payload 的 position 不变
+     */
+    public static ByteBuffer encode(ByteBufferPool pool, int type, ByteBuffer payload) {
+        int length = payload.remaining();
+        ByteBuffer frame = beginFrame(pool, length);
+        // 绝对位置的批量拷贝，不需要 duplicate 出一个视图对象
+        frame.put(MAX_HEADER_LENGTH, payload, payload.position(), length);
+        frame.position(MAX_HEADER_LENGTH + length);
+        return finishFrame(frame, type);
+    }
+
+    /**
+     * 取一块能容纳 maxPayload 字节的缓冲区，position 停在预留的帧头之后，调用方直接写入 payload，
+     * 最后调用 finishFrame；payload 只写一次，不需要先写到临时数组
+     */
+    public static ByteBuffer beginFrame(ByteBufferPool pool, int maxPayload) {
+        ByteBuffer frame = pool.acquire(MAX_HEADER_LENGTH + maxPayload);
+        frame.position(MAX_HEADER_LENGTH);
+        return frame;
+    }
+
+    /**
+     * 在 payload 前面补上帧头，返回同一个缓冲区（读模式，position 指向帧头开始）
+     */
+    public static ByteBuffer finishFrame(ByteBuffer frame, int type) {
+        if (type < 0 || type > 0xFF) {
+            throw new IllegalArgumentException("帧类型必须在 0~255 之间: " + type);
+        }
+        int length = frame.position() - MAX_HEADER_LENGTH;
+        // 长度是变长的，帧头紧贴 payload 往前写，预留区里多出的字节不发送
+        int start = MAX_HEADER_LENGTH - 1 - varintSize(length);
+        frame.limit(frame.position());
+        frame.position(start);
+        writeVarint(frame, length);
+        frame.put((byte) type);
+        frame.position(start);
+        return frame;
+    }
+
+    /**
+     * 从 in 中解出所有完整的帧并依次回调，position 推进到最后一个完整帧之后，剩下的半帧留给下一次
+     *
+     * @return 解出的帧数
+     * @throws IllegalStateException varint 超过 5 字节或长度超过 maxPayload（数据已损坏，应关闭连接）
+     */
+    public static int decode(ByteBuffer in, int maxPayload, FrameConsumer consumer) {
+        int frames = 0;
+        int limit = in.limit();
+        while (in.hasRemaining()) {
+            int p = in.position();
+            int length = 0;
+            int shift = 0;
+            boolean complete = false;
+            while (p < limit) {
+                byte b = in.get(p++);
+                length |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    complete = true;
+                    break;
+                }
+                shift += 7;
+                if (shift >= 35) {
+                    throw new IllegalStateException("帧长度的 varint 超过 5 字节");
+                }
+            }
+            if (!complete) {
+                break;
+            }
+            if (length < 0 || length > maxPayload) {
+                throw new IllegalStateException("帧长度 " + (length & 0xFFFFFFFFL) + " 超过上限 " + maxPayload);
+            }
+            if (limit - p < 1 + length) {
+                break;
+            }
+            int type = in.get(p) & 0xFF;
+            ByteBuffer payload = in.slice(p + 1, length);
+            in.position(p + 1 + length);
+            consumer.onFrame(type, payload);
+            frames++;
+        }
+        return frames;
+    }
+}
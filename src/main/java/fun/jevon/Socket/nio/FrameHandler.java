@@ -0,0 +1,32 @@
+package fun.jevon.Socket.nio;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 帧协议：按 FrameCodec 的格式切分，逐帧回调 onFrame；回复用 NioConnection.writeFrame
+ *
+ * payload 是连接读缓冲区的视图，只在 onFrame 期间有效
+ */
+public abstract class FrameHandler implements ChannelHandler {
+
+    private final int maxPayload;
+
+    protected FrameHandler() {
+        this(FrameCodec.DEFAULT_MAX_PAYLOAD);
+    }
+
+    protected FrameHandler(int maxPayload) {
+        this.maxPayload = maxPayload;
+    }
+
+    protected abstract void onFrame(NioConnection connection, int type, ByteBuffer payload);
+
+    @Override
+    public final void onData(NioConnection connection, ByteBuffer in) {
+        FrameCodec.decode(in, maxPayload, (type, payload) -> {
+            if (connection.isOpen()) {
+                onFrame(connection, type, payload);
+            }
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package fun.jevon.Socket.nio;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 行协议（BufferedReader/PrintWriter + String）vs 长度前缀帧（FrameCodec + 池化直接内存）
+ *
+ * 两边都是回显同样 100 字节的消息，客户端每轮连续发送 BATCH 条再读回 BATCH 条回复；
+ * 输出每秒消息数，以及服务端 worker 线程平均每条消息分配的堆内存
+ */
+public class FrameVsLineDemo {
+
+    private static final int BATCH = 64;
+    private static final int MESSAGE_SIZE = 100;
+    private static final int FRAME_TYPE = 1;
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        String message = "x".repeat(MESSAGE_SIZE);
+
+        LineHandler lineEcho = new LineHandler() {
+            @Override
+            protected void onLine(NioConnection connection, String line) {
+                connection.writeLine(line);
+            }
+        };
+        System.out.printf("每条消息 %d 字节，每轮 %d 条，每种协议跑两次（第一次预热）%n", MESSAGE_SIZE, BATCH);
+        for (int round = 1; round <= 2; round++) {
+            try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), lineEcho, 1)) {
+                report("行协议", round, seconds, () -> runLineClient(server.port(), message, seconds));
+            }
+            try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), new EchoFrameHandler(), 1)) {
+                report("帧协议", round, seconds, () -> runFrameClient(server.port(), message, seconds));
+            }
+        }
+    }
+
+    interface Client {
+        long run() throws IOException;
+    }
+
+    private static void report(String name, int round, int seconds, Client client) throws IOException {
+        long workerId = workerThreadId();
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getThreadAllocatedBytes(workerId);
+        long messages = client.run();
+        long allocated = threads.getThreadAllocatedBytes(workerId) - allocatedBefore;
+        System.out.printf("第 %d 次 %s: %,10.0f 条/秒，服务端每条消息分配 %,6.1f 字节%n", round, name,
+                messages / (double) seconds, allocated / (double) messages);
+    }
+
+    private static long workerThreadId() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("nio-worker"))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+    }
+
+    // 与 SocketClient 相同的写法：PrintWriter.println 发送，BufferedReader.readLine 读取
+    private static long runLineClient(int port, String message, int seconds) throws IOException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long messages = 0;
+        try (Socket socket = new Socket("127.0.0.1", port)) {
+            socket.setTcpNoDelay(true);
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            while (System.nanoTime() < deadline) {
+                for (int i = 0; i < BATCH; i++) {
+                    out.println(message);
+                }
+                out.flush();
+                for (int i = 0; i < BATCH; i++) {
+                    if (in.readLine() == null) {
+                        throw new IOException("服务端提前关闭连接");
+                    }
+                }
+                messages += BATCH;
+            }
+        }
+        return messages;
+    }
+
+    // 发送端把一轮的帧编码进同一块直接内存，一次写出；接收端在直接内存上解码，只数帧不拷贝
+    private static long runFrameClient(int port, String message, int seconds) throws IOException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long messages = 0;
+        ByteBuffer payload = ByteBuffer.allocateDirect(MESSAGE_SIZE);
+        payload.put(message.getBytes(StandardCharsets.US_ASCII)).flip();
+        ByteBuffer out = ByteBuffer.allocateDirect(BATCH * (FrameCodec.MAX_HEADER_LENGTH + MESSAGE_SIZE));
+        ByteBuffer in = ByteBuffer.allocateDirect(64 * 1024);
+        int[] received = new int[1];
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", port))) {
+            channel.socket().setTcpNoDelay(true);
+            while (System.nanoTime() < deadline) {
+                out.clear();
+                for (int i = 0; i < BATCH; i++) {
+                    FrameCodec.writeVarint(out, payload.remaining());
+                    out.put((byte) FRAME_TYPE);
+                    out.put(payload.duplicate());
+                }
+                out.flip();
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                received[0] = 0;
+                while (received[0] < BATCH) {
+                    if (channel.read(in) < 0) {
+                        throw new IOException("服务端提前关闭连接");
+                    }
+                    in.flip();
+                    FrameCodec.decode(in, FrameCodec.DEFAULT_MAX_PAYLOAD, (type, p) -> received[0]++);
+                    in.compact();
+                }
+                messages += BATCH;
+            }
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,40 @@
+package fun.jevon.Socket.nio;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 行协议：按 '\n' 切分（兼容 "\r\n"），UTF-8 解码后逐行回调 onLine
+ *
+ * 一行的长度不能超过 NioConnection.MAX_READ_BUFFER_SIZE，超过时连接会被关闭
+ */
+public abstract class LineHandler implements ChannelHandler {
+
+    protected abstract void onLine(NioConnection connection, String line);
+
+    @Override
+    public final void onData(NioConnection connection, ByteBuffer in) {
+        int start = in.position();
+        int limit = in.limit();
+        for (int i = start; i < limit; i++) {
+            if (in.get(i) == '\n') {
+                int end = i > start && in.get(i - 1) == '\r' ? i - 1 : i;
+                onLine(connection, decode(in, start, end));
+                start = i + 1;
+                if (!connection.isOpen()) {
+                    break;
+                }
+            }
+        }
+        in.position(start);
+    }
+
+    private static String decode(ByteBuffer in, int from, int to) {
+        if (in.hasArray()) {
+            return new String(in.array(), in.arrayOffset() + from, to - from, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[to - from];
+        in.get(from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,512 @@
+package fun.jevon.Socket.nio;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 一个客户端连接：非阻塞 SocketChannel + 读缓冲区 + 待发送队列
+ *
+ * 线程约定：
+ * - 读写状态只在所属事件循环线程上修改，不需要加锁
+ * - write / writeLine / writeFrame / close 可以在任意线程调用，非事件循环线程会把操作投递到事件循环上执行
+ * - 写入时先直接写 socket，内核发送缓冲区满写不完时才排队并关注 OP_WRITE，可写后继续发送
+ *
+ * 缓冲区：
+ * - 读缓冲区是从事件循环的 ByteBufferPool 取的直接内存，初始 READ_BUFFER_SIZE；
+ *   一条消息放不下时成倍扩容，最大 MAX_READ_BUFFER_SIZE，读空后换回初始大小，连接关闭时归还
+ * - writeAndRelease / writeFrame 发送的池化缓冲区在写完（或连接关闭）后自动归还
+ *
+ * 文件：
+ * - writeFile 用 FileChannel.transferTo 把文件区间直接从页缓存发到 socket（Linux 上是 sendfile），数据不经过 Java 堆
+ * - writeMapped 发送 FileChannel.map 映射的文件区间；两者都由页缓存承载，不计入待发送字节数
+ * - 每次可写事件最多发送 FILE_CHUNK_SIZE 字节就让出，同一个事件循环上的大量并发传输轮流推进
+ *
+ * 背压（见 OutboundLimits）：
+ * - 待发送队列超过高水位时停止读取这个连接，对端不读回复就发不进新请求，服务端内存不会随之增长；降到低水位以下恢复
+ * - 单次写入会让队列超过上限时按慢消费者策略断开连接或丢弃这次写入；已经写出一部分的消息不会被丢弃
+ * - 推送型 handler 可以用 isWritable / onWritabilityChanged 主动暂停生产
+ */
+public final class NioConnection {
+
+    public static final int READ_BUFFER_SIZE = 8192;
+    public static final int MAX_READ_BUFFER_SIZE = ByteBufferPool.MAX_POOLED_CAPACITY;
+    public static final int FILE_CHUNK_SIZE = 1 << 20;
+
+    // 内核发送缓冲区满时排队的数据
+    private abstract static class PendingWrite {
+        // 发送一次，全部发完返回 true
+        abstract boolean writeTo(NioConnection connection) throws IOException;
+
+        // 已经写出过至少一个字节
+        abstract boolean started();
+
+        // 计入待发送字节数的部分
+        abstract long queuedSize();
+
+        // 发完或连接关闭（completed 为 false）时调用一次
+        abstract void release(NioConnection connection, boolean completed);
+    }
+
+    // pooled 表示写完后归还给连接的缓冲池；counted 为 false 的是映射的文件区间，不占内存，不计入
+    private static final class BufferWrite extends PendingWrite {
+        final ByteBuffer data;
+        final boolean pooled;
+        final boolean counted;
+        final int start;
+
+        BufferWrite(ByteBuffer data, boolean pooled, boolean counted) {
+            this.data = data;
+            this.pooled = pooled;
+            this.counted = counted;
+            this.start = data.position();
+        }
+
+        @Override
+        boolean writeTo(NioConnection connection) throws IOException {
+            connection.loop.recordBytesOut(connection.channel.write(data));
+            return !data.hasRemaining();
+        }
+
+        @Override
+        boolean started() {
+            return data.position() != start;
+        }
+
+        @Override
+        long queuedSize() {
+            return counted ? data.remaining() : 0;
+        }
+
+        @Override
+        void release(NioConnection connection, boolean completed) {
+            if (pooled) {
+                connection.pool.release(data);
+            }
+        }
+    }
+
+    private static final class FileWrite extends PendingWrite {
+        final FileChannel file;
+        final long start;
+        final long end;
+        final FileTransferListener listener;
+        long position;
+
+        FileWrite(FileChannel file, long position, long count, FileTransferListener listener) {
+            this.file = file;
+            this.start = position;
+            this.end = position + count;
+            this.listener = listener;
+            this.position = position;
+        }
+
+        @Override
+        boolean writeTo(NioConnection connection) throws IOException {
+            if (position >= end) {
+                // 长度为 0 的区间（空文件、偏移等于文件长度）直接完成，transferTo 对它返回 0 不代表截断
+                return true;
+            }
+            long n = file.transferTo(position, Math.min(FILE_CHUNK_SIZE, end - position), connection.channel);
+            if (n == 0 && position >= file.size()) {
+                // 文件在发送过程中被截断，不处理的话会一直空转
+                throw new EOFException("文件长度不足 " + end + " 字节");
+            }
+            position += n;
+            connection.loop.recordBytesOut((int) n);
+            if (n > 0) {
+                listener.onProgress(position - start, end - start);
+            }
+            return position >= end;
+        }
+
+        @Override
+        boolean started() {
+            return position != start;
+        }
+
+        @Override
+        long queuedSize() {
+            return 0;
+        }
+
+        @Override
+        void release(NioConnection connection, boolean completed) {
+            listener.onComplete(completed);
+        }
+    }
+
+    private final EventLoop loop;
+    private final ChannelHandler handler;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ByteBufferPool pool;
+    private final SocketAddress remoteAddress;
+    private final OutboundLimits limits;
+    private final ArrayDeque<PendingWrite> outbound = new ArrayDeque<>();
+    // 以下统计只由事件循环线程写入
+    private volatile long queuedBytes;
+    private volatile long peakQueuedBytes;
+    private volatile boolean writable = true;
+    private volatile long droppedWrites;
+    private ByteBuffer readBuffer;
+    // onData 回调期间关闭连接时，读缓冲区等回调返回后再归还
+    private boolean reading;
+    private volatile boolean open = true;
+    private Object attachment;
+
+    NioConnection(EventLoop loop, ChannelHandler handler, SocketChannel channel, SelectionKey key,
+                  OutboundLimits limits) throws IOException {
+        this.loop = loop;
+        this.handler = handler;
+        this.channel = channel;
+        this.key = key;
+        this.limits = limits;
+        this.remoteAddress = channel.getRemoteAddress();
+        this.pool = loop.bufferPool();
+        this.readBuffer = pool.acquire(READ_BUFFER_SIZE);
+    }
+
+    /**
+     * 对端地址；Unix 域套接字上客户端一般没有绑定路径，服务端看到的是空路径的 UnixDomainSocketAddress
+     */
+    public SocketAddress remoteAddress() {
+        return remoteAddress;
+    }
+
+    /**
+     * 负责这个连接的事件循环；handler 里需要延后执行的操作可以投递给它
+     */
+    public EventLoop eventLoop() {
+        return loop;
+    }
+
+    /**
+     * 这个连接所在事件循环的缓冲池，用于 FrameCodec.beginFrame 等直接写入帧
+     */
+    public ByteBufferPool bufferPool() {
+        return pool;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public OutboundLimits limits() {
+        return limits;
+    }
+
+    /**
+     * 待发送队列未超过高水位；为 false 时连接已停止读取，直到队列降到低水位以下
+     */
+    public boolean isWritable() {
+        return writable;
+    }
+
+    /**
+     * 当前待发送队列中计入限制的字节数
+     */
+    public long queuedBytes() {
+        return queuedBytes;
+    }
+
+    /**
+     * 连接建立以来待发送队列的最大字节数
+     */
+    public long peakQueuedBytes() {
+        return peakQueuedBytes;
+    }
+
+    /**
+     * 按 DROP 策略丢弃的写入次数
+     */
+    public long droppedWrites() {
+        return droppedWrites;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T attachment() {
+        return (T) attachment;
+    }
+
+    public void attach(Object attachment) {
+        this.attachment = attachment;
+    }
+
+    public void writeLine(String line) {
+        write(ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 编码成一帧发送，payload 会被拷贝进池化的直接内存缓冲区，调用返回后即可复用
+     */
+    public void writeFrame(int type, ByteBuffer payload) {
+        writeAndRelease(FrameCodec.encode(pool, type, payload));
+    }
+
+    /**
+     * 发送 data 中 position 到 limit 的字节；调用后不要再修改 data
+     */
+    public void write(ByteBuffer data) {
+        enqueue(new BufferWrite(data, false, true));
+    }
+
+    /**
+     * 发送 bufferPool() 中取出的缓冲区，写完后归还；调用后不要再访问 data
+     */
+    public void writeAndRelease(ByteBuffer data) {
+        enqueue(new BufferWrite(data, true, true));
+    }
+
+    /**
+     * 发送 FileChannel.map 映射的文件区间；数据在页缓存里，排队时不计入待发送字节数，也不受水位与上限约束
+     */
+    public void writeMapped(MappedByteBuffer region) {
+        enqueue(new BufferWrite(region, false, false));
+    }
+
+    /**
+     * 发送 file 中 [position, position + count) 的内容，排在之前的写入之后；
+     * 发送进度与结束通过 listener 在事件循环线程上回调，file 由调用方关闭（通常在 onComplete 里）；
+     * count 为 0 时排到队首即以成功完成，不会回调 onProgress
+     */
+    public void writeFile(FileChannel file, long position, long count, FileTransferListener listener) {
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException("position 与 count 不能为负");
+        }
+        enqueue(new FileWrite(file, position, count, listener));
+    }
+
+    private void enqueue(PendingWrite write) {
+        if (!loop.inEventLoop()) {
+            try {
+                loop.execute(() -> enqueue(write));
+            } catch (RejectedExecutionException e) {
+                // 事件循环已退出，连接已经关闭，与关闭后写入一样处理
+                write.release(this, false);
+            }
+            return;
+        }
+        if (!open) {
+            write.release(this, false);
+            return;
+        }
+        try {
+            if (outbound.isEmpty() && write.writeTo(this)) {
+                write.release(this, true);
+                return;
+            }
+        } catch (IOException e) {
+            write.release(this, false);
+            close();
+            return;
+        }
+        long size = write.queuedSize();
+        // DROP 不能丢弃已经写出一部分的消息，否则对端会收到半条消息；剩余部分照常排队发完
+        boolean partial = write.started();
+        if (queuedBytes + size > limits.maxQueuedBytes()
+                && !(partial && limits.policy() == OutboundLimits.SlowConsumerPolicy.DROP)) {
+            rejectSlowConsumer(write, size);
+            return;
+        }
+        outbound.add(write);
+        key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+        addQueuedBytes(size);
+    }
+
+    // 对端读得太慢，队列已到上限
+    private void rejectSlowConsumer(PendingWrite write, long size) {
+        write.release(this, false);
+        if (limits.policy() == OutboundLimits.SlowConsumerPolicy.DROP) {
+            droppedWrites++;
+            loop.writeDropped(size);
+            return;
+        }
+        loop.slowConsumerDisconnected();
+        close();
+    }
+
+    // 跨过高水位时停止读取，回到低水位以下时恢复
+    private void addQueuedBytes(long delta) {
+        if (delta == 0) {
+            return;
+        }
+        long queued = queuedBytes + delta;
+        queuedBytes = queued;
+        loop.queuedBytesChanged(delta);
+        if (queued > peakQueuedBytes) {
+            peakQueuedBytes = queued;
+        }
+        if (writable && queued > limits.highWatermark()) {
+            setWritable(false);
+        } else if (!writable && queued <= limits.lowWatermark()) {
+            setWritable(true);
+        }
+    }
+
+    private void setWritable(boolean writable) {
+        this.writable = writable;
+        loop.writabilityChanged(writable);
+        if (key.isValid()) {
+            key.interestOps(writable ? key.interestOps() | SelectionKey.OP_READ
+                    : key.interestOps() & ~SelectionKey.OP_READ);
+        }
+        handler.onWritabilityChanged(this);
+    }
+
+    public void close() {
+        if (!loop.inEventLoop()) {
+            try {
+                loop.execute(this::close);
+            } catch (RejectedExecutionException e) {
+                // 事件循环退出时已经关闭了所有连接
+            }
+            return;
+        }
+        if (!open) {
+            return;
+        }
+        open = false;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // 关闭失败也没有可恢复的操作
+        }
+        PendingWrite pending;
+        while ((pending = outbound.poll()) != null) {
+            pending.release(this, false);
+        }
+        loop.queuedBytesChanged(-queuedBytes);
+        queuedBytes = 0;
+        if (!writable) {
+            writable = true;
+            loop.writabilityChanged(true);
+        }
+        if (!reading) {
+            pool.release(readBuffer);
+            readBuffer = null;
+        }
+        loop.connectionClosed();
+        handler.onClose(this);
+    }
+
+    /**
+     * onData 以外的回调（onClose、onWritabilityChanged、FileTransferListener）抛出异常时由事件循环调用：
+     * 连接还打开时交给 handler.onError；onError 本身出错则直接关闭这个连接
+     */
+    void handleFailure(RuntimeException cause) {
+        if (!open) {
+            System.err.println("连接 " + this + " 关闭时回调出错: " + cause);
+            return;
+        }
+        try {
+            handler.onError(this, cause);
+        } catch (RuntimeException e) {
+            System.err.println("连接 " + this + " onError 出错: " + e);
+            try {
+                close();
+            } catch (RuntimeException ignored) {
+                // onClose 再次出错，连接已经关闭
+            }
+        }
+    }
+
+    void handleReady(SelectionKey key) {
+        if (key.isReadable()) {
+            handleRead();
+        }
+        if (key.isValid() && key.isWritable()) {
+            handleWrite();
+        }
+    }
+
+    // OP_READ 就绪：读一次，交给 handler 解析；对端关闭时关闭连接，一条消息放不下时扩容读缓冲区
+    private void handleRead() {
+        int n;
+        try {
+            n = channel.read(readBuffer);
+        } catch (IOException e) {
+            close();
+            return;
+        }
+        if (n < 0) {
+            close();
+            return;
+        }
+        loop.recordBytesIn(n);
+        readBuffer.flip();
+        reading = true;
+        try {
+            handler.onData(this, readBuffer);
+        } catch (RuntimeException e) {
+            handler.onError(this, e);
+        } finally {
+            reading = false;
+        }
+        if (!open) {
+            pool.release(readBuffer);
+            readBuffer = null;
+            return;
+        }
+        readBuffer.compact();
+        if (readBuffer.position() == 0 && readBuffer.capacity() > READ_BUFFER_SIZE) {
+            pool.release(readBuffer);
+            readBuffer = pool.acquire(READ_BUFFER_SIZE);
+        } else if (!readBuffer.hasRemaining()) {
+            growReadBuffer();
+        }
+    }
+
+    private void growReadBuffer() {
+        int capacity = readBuffer.capacity();
+        if (capacity >= MAX_READ_BUFFER_SIZE) {
+            handler.onError(this, new IOException("单条消息超过 " + MAX_READ_BUFFER_SIZE + " 字节"));
+            // 缓冲区已满，不关闭的话之后每次都读不到数据，事件循环会一直空转
+            close();
+            return;
+        }
+        ByteBuffer larger = pool.acquire(Math.min(capacity << 1, MAX_READ_BUFFER_SIZE));
+        readBuffer.flip();
+        larger.put(readBuffer);
+        pool.release(readBuffer);
+        readBuffer = larger;
+    }
+
+    // OP_WRITE 就绪：按顺序发送积压的数据，全部发完后取消 OP_WRITE；文件每次只发一块，剩下的等下一次可写事件
+    private void handleWrite() {
+        try {
+            PendingWrite head;
+            while ((head = outbound.peek()) != null) {
+                long before = head.queuedSize();
+                boolean done = head.writeTo(this);
+                addQueuedBytes(head.queuedSize() - before);
+                if (!open) {
+                    // onWritabilityChanged 里关闭了连接
+                    return;
+                }
+                if (!done) {
+                    return;
+                }
+                outbound.poll();
+                head.release(this, true);
+            }
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Transport.describe(remoteAddress);
+    }
+}
@@ -0,0 +1,154 @@
+package fun.jevon.Socket.nio;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.List;
+
+/**
+ * 基于 Selector 的非阻塞服务端（主从 Reactor），替代只能服务一个客户端的 SocketServer
+ *
+ * 与 SocketServer 的区别：
+ * - SocketServer 用阻塞 IO，accept 一个连接、读一行、回复后就退出
+ * - boss 事件循环只负责 accept，接受的连接按轮询交给 N 个 worker 事件循环；
+ *   每个 worker 有自己的 Selector 和线程，连接在整个生命周期内只由一个 worker 读写，多核时吞吐随 worker 数增长
+ * - 协议由 ChannelHandler 决定，默认 EchoLineHandler 与 SocketServer 的行协议兼容，可以直接用 SocketClient 测试
+ * - handler 在 worker 线程上执行，不能阻塞；需要阻塞调用（数据库、远程服务）时用 OffloadLineHandler 交给单独的线程池
+ * - 每个连接的待发送队列按 OutboundLimits 限制（默认 OutboundLimits.DEFAULT）：对端读得慢时停止读取它的请求，
+ *   超过上限时断开或丢弃，下游卡住时服务端堆内存保持平稳
+ * - 地址可以是 InetSocketAddress（TCP）或 UnixDomainSocketAddress（Unix 域套接字），见 Transport；
+ *   客户端与服务端在同一台机器上时用 UDS 延迟更低，handler 和客户端代码不需要改
+ *
+ * 本地验证：先运行 NioServer.main，再运行 SocketClient.main（127.0.0.1:8080）；
+ * 两边都加 -Dsocket.address=unix:/tmp/jevon.sock 即改用 Unix 域套接字
+ */
+public class NioServer implements Closeable {
+
+    private final ChannelHandler handler;
+    private final OutboundLimits limits;
+    private final ServerSocketChannel serverChannel;
+    private final SocketAddress localAddress;
+    private final EventLoop boss;
+    private final EventLoopGroup workers;
+
+    public NioServer(int port, ChannelHandler handler) throws IOException {
+        this(new InetSocketAddress(port), handler);
+    }
+
+    public NioServer(SocketAddress address, ChannelHandler handler) throws IOException {
+        this(address, handler, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * 绑定地址后立即开始服务；TCP 端口传 0 时由系统分配，用 port() 查询
+     */
+    public NioServer(SocketAddress address, ChannelHandler handler, int workerCount) throws IOException {
+        this(address, handler, workerCount, OutboundLimits.DEFAULT);
+    }
+
+    /**
+     * limits 应用于每个接受的连接，OutboundLimits.UNBOUNDED 表示不限制
+     */
+    public NioServer(SocketAddress address, ChannelHandler handler, int workerCount, OutboundLimits limits)
+            throws IOException {
+        this.handler = handler;
+        this.limits = limits;
+        // 短时间内大量连接同时到达时，backlog 太小会让客户端连接被拒绝或超时重试
+        this.serverChannel = Transport.bind(address, 4096);
+        EventLoop bossLoop = null;
+        EventLoopGroup workerGroup = null;
+        try {
+            this.localAddress = serverChannel.getLocalAddress();
+            workerGroup = new EventLoopGroup("nio-worker", workerCount);
+            bossLoop = new EventLoop("nio-boss-" + Transport.describe(localAddress));
+            bossLoop.registerChannel(serverChannel, SelectionKey.OP_ACCEPT, this::accept);
+        } catch (IOException | RuntimeException e) {
+            if (bossLoop != null) {
+                bossLoop.close();
+            }
+            if (workerGroup != null) {
+                workerGroup.close();
+            }
+            serverChannel.close();
+            Transport.cleanup(address);
+            throw e;
+        }
+        this.boss = bossLoop;
+        this.workers = workerGroup;
+    }
+
+    /**
+     * TCP 监听端口；Unix 域套接字没有端口，返回 -1
+     */
+    public int port() {
+        return localAddress instanceof InetSocketAddress ? ((InetSocketAddress) localAddress).getPort() : -1;
+    }
+
+    /**
+     * 实际绑定的地址（TCP 端口 0 时已替换为系统分配的端口），客户端可以直接用它连接
+     */
+    public SocketAddress localAddress() {
+        return localAddress;
+    }
+
+    /**
+     * 当前打开的客户端连接数
+     */
+    public int connectionCount() {
+        int count = 0;
+        for (EventLoop.Metrics m : workers.metrics()) {
+            count += m.connections;
+        }
+        return count;
+    }
+
+    /**
+     * 每个 worker 事件循环的连接数、收发字节数与循环延迟
+     */
+    public List<EventLoop.Metrics> metrics() {
+        return workers.metrics();
+    }
+
+    /**
+     * 所有 worker 的合计
+     */
+    public EventLoop.Metrics totalMetrics() {
+        return EventLoop.Metrics.sum("nio-workers", metrics());
+    }
+
+    // 在 boss 线程上执行；一次就绪可能对应多个待接受的连接，循环到 accept 返回 null
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = serverChannel.accept()) != null) {
+                Transport.configureAccepted(channel);
+                workers.next().register(channel, handler, limits);
+            }
+        } catch (IOException e) {
+            System.err.println("accept 失败: " + e);
+        }
+    }
+
+    /**
+     * 先停止接受新连接，再关闭所有连接并等待事件循环线程退出
+     */
+    @Override
+    public void close() {
+        boss.close();
+        workers.close();
+        Transport.cleanup(localAddress);
+    }
+
+    public static void main(String[] args) throws IOException {
+        // 参数或 -Dsocket.address 指定地址，例如 8080、127.0.0.1:9000、unix:/tmp/jevon.sock
+        SocketAddress address = args.length > 0 ? Transport.parse(args[0]) : Transport.fromConfig("8080");
+        NioServer server = new NioServer(address, new EchoLineHandler());
+        System.out.println("NIO 服务器启动，正在监听 " + Transport.describe(server.localAddress()) + "，worker 数 "
+                + server.workers.size() + "...（Ctrl+C 退出）");
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+    }
+}
@@ -0,0 +1,70 @@
+package fun.jevon.Socket.nio;
+
+import fun.jevon.Socket.SocketClient;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 本地验证 NioServer：
+ * 1. 在 8080 端口启动 NioServer，直接运行原有的 SocketClient
+ * 2. 同时保持数千个连接：先全部连上，再逐个发送一行、读取回复，服务端始终只有一个事件循环线程
+ */
+public class NioServerDemo {
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        try (NioServer server = new NioServer(8080, new EchoLineHandler())) {
+            System.out.println("1) 原有 SocketClient 连接 NioServer");
+            SocketClient.main(new String[0]);
+
+            System.out.printf("%n2) %,d 个并发连接%n", connections);
+            long start = System.nanoTime();
+            Socket[] sockets = new Socket[connections];
+            BufferedReader[] readers = new BufferedReader[connections];
+            try {
+                for (int i = 0; i < connections; i++) {
+                    sockets[i] = new Socket("127.0.0.1", server.port());
+                    readers[i] = new BufferedReader(new InputStreamReader(sockets[i].getInputStream(), StandardCharsets.UTF_8));
+                }
+                long connected = System.nanoTime();
+                Thread.sleep(100);
+                System.out.printf("全部连接建立: %.1f ms，服务端当前连接数: %d%n",
+                        (connected - start) / 1_000_000.0, server.connectionCount());
+
+                for (int i = 0; i < connections; i++) {
+                    OutputStream out = sockets[i].getOutputStream();
+                    out.write(("client-" + i + "\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+                int ok = 0;
+                for (int i = 0; i < connections; i++) {
+                    if (("服务器已收到消息：client-" + i).equals(readers[i].readLine())) {
+                        ok++;
+                    }
+                }
+                System.out.printf("每个连接各一次请求/回复: %.1f ms，正确回复 %d/%d%n",
+                        (System.nanoTime() - connected) / 1_000_000.0, ok, connections);
+            } finally {
+                for (Socket socket : sockets) {
+                    closeQuietly(socket);
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket == null) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // 演示结束时关闭，忽略
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package fun.jevon.Socket.nio;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 主从 Reactor 演示
+ * 1. worker 数从 1 增加到 CPU 数：固定数量的客户端线程持续请求，对比吞吐与每个 worker 的统计
+ * 2. 阻塞型 handler：直接在 worker 上阻塞 vs 交给 OffloadLineHandler 的线程池
+ *
+ * 客户端与服务端在同一台机器上，客户端也要占用 CPU；单核机器上增加 worker 不会提升吞吐
+ */
+public class NioServerScalingDemo {
+
+    private static final int CONNECTIONS_PER_CLIENT = 16;
+    private static final int BLOCKING_CONNECTIONS = 50;
+
+    public static void main(String[] args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int clients = Math.max(2, cores);
+        System.out.printf("1) CPU 数 %d，%d 个客户端线程 × %d 个连接，每轮 %d 秒%n", cores, clients,
+                CONNECTIONS_PER_CLIENT, seconds);
+        for (int workers = 1; ; workers = Math.min(workers * 2, cores)) {
+            try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), new EchoLineHandler(), workers)) {
+                long requests = runLoad(server.port(), clients, seconds);
+                System.out.printf("worker=%d: %,.0f 请求/秒%n", workers, requests / (double) seconds);
+                for (EventLoop.Metrics m : server.metrics()) {
+                    System.out.println("    " + m);
+                }
+            }
+            if (workers >= cores) {
+                break;
+            }
+        }
+
+        System.out.println("\n2) 每个请求阻塞 20 ms（模拟一次数据库查询），1 个 worker，50 个连接同时发送一个请求");
+        blockingComparison();
+    }
+
+    // 每个客户端线程管理若干连接：先在所有连接上各发一行，再逐个读回复，循环直到时间用完
+    private static long runLoad(int port, int clients, int seconds) throws InterruptedException {
+        LongAdder completed = new LongAdder();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        Thread[] threads = new Thread[clients];
+        for (int t = 0; t < clients; t++) {
+            threads[t] = new Thread(() -> {
+                Socket[] sockets = new Socket[CONNECTIONS_PER_CLIENT];
+                try {
+                    BufferedReader[] readers = new BufferedReader[sockets.length];
+                    OutputStream[] outs = new OutputStream[sockets.length];
+                    for (int i = 0; i < sockets.length; i++) {
+                        sockets[i] = new Socket("127.0.0.1", port);
+                        sockets[i].setTcpNoDelay(true);
+                        readers[i] = new BufferedReader(new InputStreamReader(sockets[i].getInputStream(), StandardCharsets.UTF_8));
+                        outs[i] = sockets[i].getOutputStream();
+                    }
+                    byte[] request = "ping\n".getBytes(StandardCharsets.UTF_8);
+                    while (System.nanoTime() < deadline) {
+                        for (OutputStream out : outs) {
+                            out.write(request);
+                            out.flush();
+                        }
+                        for (BufferedReader reader : readers) {
+                            reader.readLine();
+                        }
+                        completed.add(sockets.length);
+                    }
+                } catch (IOException e) {
+                    System.err.println("客户端出错: " + e);
+                } finally {
+                    for (Socket socket : sockets) {
+                        closeQuietly(socket);
+                    }
+                }
+            }, "load-client-" + t);
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return completed.sum();
+    }
+
+    private static void closeQuietly(Socket socket) {
+        if (socket == null) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // 演示结束时关闭，忽略
+        }
+    }
+
+    private static void blockingComparison() throws Exception {
+        OffloadLineHandler.LineService slowQuery = line -> {
+            Thread.sleep(20);
+            return "查询结果：" + line;
+        };
+
+        LineHandler inline = new LineHandler() {
+            @Override
+            protected void onLine(NioConnection connection, String line) {
+                try {
+                    connection.writeLine(slowQuery.handle(line));
+                } catch (Exception e) {
+                    connection.writeLine("ERROR " + e.getMessage());
+                }
+            }
+        };
+        runBlockingRound("直接在 worker 上阻塞", inline);
+
+        ThreadPoolExecutor offload = new ThreadPoolExecutor(BLOCKING_CONNECTIONS, BLOCKING_CONNECTIONS, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(1_000), new NamedThreadFactory("offload"), new ThreadPoolExecutor.AbortPolicy());
+        try {
+            runBlockingRound("OffloadLineHandler（" + BLOCKING_CONNECTIONS + " 线程）", new OffloadLineHandler(slowQuery, offload));
+        } finally {
+            offload.shutdown();
+        }
+    }
+
+    private static void runBlockingRound(String name, ChannelHandler handler) throws Exception {
+        try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), handler, 1)) {
+            Socket[] sockets = new Socket[BLOCKING_CONNECTIONS];
+            try {
+                for (int i = 0; i < BLOCKING_CONNECTIONS; i++) {
+                    sockets[i] = new Socket("127.0.0.1", server.port());
+                }
+                long start = System.nanoTime();
+                for (int i = 0; i < BLOCKING_CONNECTIONS; i++) {
+                    OutputStream out = sockets[i].getOutputStream();
+                    out.write(("order-" + i + "\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+                int ok = 0;
+                for (int i = 0; i < BLOCKING_CONNECTIONS; i++) {
+                    BufferedReader reader = new BufferedReader(new InputStreamReader(sockets[i].getInputStream(), StandardCharsets.UTF_8));
+                    if (("查询结果：order-" + i).equals(reader.readLine())) {
+                        ok++;
+                    }
+                }
+                System.out.printf("%-28s 全部回复耗时 %6.1f ms，正确 %d/%d%n", name,
+                        (System.nanoTime() - start) / 1_000_000.0, ok, BLOCKING_CONNECTIONS);
+                System.out.println("    " + server.metrics().get(0));
+            } finally {
+                for (Socket socket : sockets) {
+                    closeQuietly(socket);
+                }
+            }
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger counter = new AtomicInteger(1);
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, prefix + "-" + counter.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package fun.jevon.Socket.nio;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 把阻塞的行处理逻辑（查数据库、调用远程服务等）交给单独的线程池，worker 事件循环只负责收发
+ *
+ * - 不同连接的请求在线程池里并行执行；同一连接的请求按收到的顺序串行执行，回复顺序与请求顺序一致
+ * - 线程池拒绝任务时（队列已满）回复 "ERROR 服务繁忙"，不会阻塞事件循环
+ * - service 抛出的异常回复为 "ERROR " + 异常信息，连接保持打开
+ */
+public class OffloadLineHandler extends LineHandler {
+
+    @FunctionalInterface
+    public interface LineService {
+        String handle(String line) throws Exception;
+    }
+
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    private final LineService service;
+    private final Executor executor;
+
+    public OffloadLineHandler(LineService service, Executor executor) {
+        this.service = service;
+        this.executor = executor;
+    }
+
+    @Override
+    protected void onLine(NioConnection connection, String line) {
+        // 连接上挂着上一条请求的 future，新请求排在它后面
+        CompletableFuture<Void> previous = connection.attachment();
+        CompletableFuture<Void> next = (previous == null ? DONE : previous)
+                .thenRunAsync(() -> connection.writeLine(handle(line)), executor)
+                .exceptionally(e -> {
+                    connection.writeLine("ERROR 服务繁忙，请稍后重试");
+                    return null;
+                });
+        connection.attach(next);
+    }
+
+    private String handle(String line) {
+        try {
+            return service.handle(line);
+        } catch (Exception e) {
+            return "ERROR " + e.getMessage();
+        }
+    }
+}
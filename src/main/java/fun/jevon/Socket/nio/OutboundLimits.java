@@ -0,0 +1,71 @@
+package fun.jevon.Socket.nio;
+
+/**
+ * 连接待发送队列的上限与水位线
+ *
+ * - 排队字节数超过 highWatermark：连接变为不可写，停止读取这个连接（不再接收新请求），回调 onWritabilityChanged
+ * - 降到 lowWatermark 以下：恢复可写并继续读取；高低水位分开，避免在临界值附近频繁切换
+ * - 再写入会超过 maxQueuedBytes 时按 policy 处理慢消费者：DISCONNECT 断开连接，DROP 丢弃这次写入（整条消息，不会写出半条）；
+ *   队列为空时消息先直接写 socket，已经写出一部分的消息不再丢弃，剩余部分照常排队，这时队列最多超出上限一条消息
+ *
+ * 只统计占内存的缓冲区；writeMapped 与 writeFile 的文件区间由页缓存承载，不计入
+ */
+public final class OutboundLimits {
+
+    public enum SlowConsumerPolicy {
+        DISCONNECT, DROP
+    }
+
+    /**
+     * 服务端默认值：32 KB / 64 KB 水位，最多排队 4 MB，超过时断开
+     */
+    public static final OutboundLimits DEFAULT =
+            new OutboundLimits(32 * 1024, 64 * 1024, 4 * 1024 * 1024, SlowConsumerPolicy.DISCONNECT);
+
+    /**
+     * 不限制：客户端连接的发送量由调用方自己控制（AsyncSocketClient 的信号量、压测的发送速率）；
+     * 客户端也按水位停止读取的话，两端可能互相等待对方读取而死锁
+     */
+    public static final OutboundLimits UNBOUNDED =
+            new OutboundLimits(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE, SlowConsumerPolicy.DISCONNECT);
+
+    private final long lowWatermark;
+    private final long highWatermark;
+    private final long maxQueuedBytes;
+    private final SlowConsumerPolicy policy;
+
+    public OutboundLimits(long lowWatermark, long highWatermark, long maxQueuedBytes, SlowConsumerPolicy policy) {
+        if (lowWatermark < 0 || lowWatermark > highWatermark || highWatermark > maxQueuedBytes) {
+            throw new IllegalArgumentException("需要满足 0 <= lowWatermark <= highWatermark <= maxQueuedBytes");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("policy 不能为空");
+        }
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.policy = policy;
+    }
+
+    public long lowWatermark() {
+        return lowWatermark;
+    }
+
+    public long highWatermark() {
+        return highWatermark;
+    }
+
+    public long maxQueuedBytes() {
+        return maxQueuedBytes;
+    }
+
+    public SlowConsumerPolicy policy() {
+        return policy;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboundLimits[low=" + lowWatermark + ", high=" + highWatermark + ", max=" + maxQueuedBytes
+                + ", policy=" + policy + "]";
+    }
+}
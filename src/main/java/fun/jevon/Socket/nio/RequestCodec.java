@@ -0,0 +1,52 @@
+package fun.jevon.Socket.nio;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 请求/响应协议，建立在 FrameCodec 之上：帧类型区分请求、响应与错误，payload = 4 字节关联 ID + body
+ *
+ * 关联 ID 由客户端分配，服务端原样带回；同一个连接上可以连续发出多个请求（流水线），
+ * 响应可以乱序返回，客户端按 ID 找到对应的请求
+ */
+public final class RequestCodec {
+
+    public static final int TYPE_REQUEST = 1;
+    public static final int TYPE_RESPONSE = 2;
+    public static final int TYPE_ERROR = 3;
+
+    private static final int ID_LENGTH = 4;
+
+    private RequestCodec() {
+    }
+
+    /**
+     * 编码一帧，body 的 position 不变；返回池中的缓冲区，交给 NioConnection.writeAndRelease 发送
+     */
+    public static ByteBuffer encode(ByteBufferPool pool, int type, int id, ByteBuffer body) {
+        int length = body.remaining();
+        ByteBuffer frame = FrameCodec.beginFrame(pool, ID_LENGTH + length);
+        frame.putInt(id);
+        frame.put(frame.position(), body, body.position(), length);
+        frame.position(frame.position() + length);
+        return FrameCodec.finishFrame(frame, type);
+    }
+
+    public static ByteBuffer encodeError(ByteBufferPool pool, int id, String message) {
+        return encode(pool, TYPE_ERROR, id, ByteBuffer.wrap(String.valueOf(message).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static int id(ByteBuffer payload) {
+        if (payload.remaining() < ID_LENGTH) {
+            throw new IllegalStateException("请求帧缺少关联 ID");
+        }
+        return payload.getInt(payload.position());
+    }
+
+    /**
+     * payload 中 ID 之后的部分（视图，不拷贝）
+     */
+    public static ByteBuffer body(ByteBuffer payload) {
+        return payload.slice(payload.position() + ID_LENGTH, payload.remaining() - ID_LENGTH);
+    }
+}
@@ -0,0 +1,63 @@
+package fun.jevon.Socket.nio;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 服务端的请求处理器：按 RequestCodec 解析请求，调用 RequestService，把结果或错误带着同一个关联 ID 写回
+ *
+ * - 不传 executor 时 service 直接在 worker 事件循环上执行，只适合不阻塞的计算
+ * - 传 executor 时 body 先拷贝一份再交给线程池，响应按完成顺序返回（可能与请求顺序不同）
+ */
+public class RequestHandler extends FrameHandler {
+
+    @FunctionalInterface
+    public interface RequestService {
+        /**
+         * body 只在调用期间有效；返回的 ByteBuffer 从 position 到 limit 作为响应 body
+         */
+        ByteBuffer handle(ByteBuffer body) throws Exception;
+    }
+
+    private final RequestService service;
+    private final Executor executor;
+
+    public RequestHandler(RequestService service) {
+        this(service, null);
+    }
+
+    public RequestHandler(RequestService service, Executor executor) {
+        this.service = service;
+        this.executor = executor;
+    }
+
+    @Override
+    protected void onFrame(NioConnection connection, int type, ByteBuffer payload) {
+        if (type != RequestCodec.TYPE_REQUEST) {
+            throw new IllegalStateException("未知的帧类型: " + type);
+        }
+        int id = RequestCodec.id(payload);
+        ByteBuffer body = RequestCodec.body(payload);
+        if (executor == null) {
+            respond(connection, id, body);
+            return;
+        }
+        ByteBuffer copy = ByteBuffer.allocate(body.remaining()).put(body).flip();
+        try {
+            executor.execute(() -> respond(connection, id, copy));
+        } catch (RejectedExecutionException e) {
+            connection.writeAndRelease(RequestCodec.encodeError(connection.bufferPool(), id, "服务繁忙，请稍后重试"));
+        }
+    }
+
+    private void respond(NioConnection connection, int id, ByteBuffer body) {
+        ByteBuffer frame;
+        try {
+            frame = RequestCodec.encode(connection.bufferPool(), RequestCodec.TYPE_RESPONSE, id, service.handle(body));
+        } catch (Exception e) {
+            frame = RequestCodec.encodeError(connection.bufferPool(), id, e.getMessage());
+        }
+        connection.writeAndRelease(frame);
+    }
+}
@@ -0,0 +1,254 @@
+package fun.jevon.Socket.rpc;
+
+import fun.jevon.Socket.nio.EventLoop;
+import fun.jevon.Socket.nio.FrameHandler;
+import fun.jevon.Socket.nio.NioConnection;
+import fun.jevon.Socket.nio.Transport;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 多路复用 RPC 客户端：一个连接上同时进行任意多个调用，替代每个在途请求一个 socket
+ *
+ * 与 AsyncSocketClient 的区别：
+ * - AsyncSocketClient 是一问一答的连接池；这里一个调用是一个流，服务端可以返回多条响应（流式下载、订阅）
+ * - 每个流有自己的发送窗口：onNext 处理完的字节才归还给服务端，处理慢的流只会让自己暂停，不会堵住其他流
+ * - 可以取消：call 返回的 future 被 cancel、或 Call.cancel 时发送 CANCEL 帧，服务端停止这个流
+ *
+ * 约定：
+ * - 协议见 RpcCodec，服务端使用 RpcHandler + RpcRegistry
+ * - 所有回调（future、RpcObserver）都在客户端事件循环线程上执行，后续的阻塞处理请交给其他线程
+ * - 连接断开时所有未结束的流以 IOException 结束，不自动重连
+ */
+public class RpcClient implements Closeable {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    /**
+     * 一个进行中的调用
+     */
+    public final class Call {
+        private final int id;
+        private final RpcObserver observer;
+        // 已处理但还没归还给服务端的字节数，只在事件循环线程上访问
+        private int unacknowledged;
+
+        Call(int id, RpcObserver observer) {
+            this.id = id;
+            this.observer = observer;
+        }
+
+        public int streamId() {
+            return id;
+        }
+
+        /**
+         * 取消这个调用：observer 以 CancellationException 结束，之后到达的响应被丢弃；已结束时不做任何事
+         */
+        public void cancel() {
+            if (!loop.inEventLoop()) {
+                try {
+                    loop.execute(this::cancel);
+                } catch (RejectedExecutionException e) {
+                    // 客户端已关闭，流已经以 IOException 结束
+                }
+                return;
+            }
+            if (streams.remove(id) != null && connection != null) {
+                connection.writeAndRelease(RpcCodec.encodeCancel(loop.bufferPool(), id));
+                observer.onError(new CancellationException("调用已取消"));
+            }
+        }
+    }
+
+    private final EventLoop loop;
+    private final AtomicInteger nextId = new AtomicInteger();
+    private volatile boolean closed;
+
+    // 以下只在事件循环线程上访问
+    private final HashMap<Integer, Call> streams = new HashMap<>();
+    private NioConnection connection;
+
+    /**
+     * address 可以是 TCP 或 Unix 域套接字地址，见 Transport
+     */
+    public RpcClient(SocketAddress address) throws IOException {
+        this.loop = new EventLoop("rpc-client-" + Transport.describe(address));
+        CountDownLatch opened = new CountDownLatch(1);
+        try {
+            SocketChannel channel = Transport.connect(address);
+            loop.register(channel, new ResponseHandler(opened));
+            if (!opened.await(10, TimeUnit.SECONDS)) {
+                throw new IOException("连接注册超时");
+            }
+        } catch (IOException e) {
+            loop.close();
+            throw e;
+        } catch (InterruptedException e) {
+            loop.close();
+            Thread.currentThread().interrupt();
+            throw new IOException("建立连接时被中断", e);
+        }
+    }
+
+    /**
+     * 打开一个流，服务端的每条响应回调一次 observer.onNext；request 在调用线程上编码，返回后即可复用
+     * 客户端已关闭时直接在调用线程上回调 onError
+     */
+    public Call stream(String method, ByteBuffer request, RpcObserver observer) {
+        int id = nextId.incrementAndGet();
+        ByteBuffer frame = RpcCodec.encodeOpen(loop.bufferPool(), id, method, request);
+        Call call = new Call(id, observer);
+        if (closed) {
+            loop.bufferPool().release(frame);
+            observer.onError(new IOException("客户端已关闭"));
+            return call;
+        }
+        try {
+            loop.execute(() -> {
+                if (connection == null) {
+                    loop.bufferPool().release(frame);
+                    observer.onError(new IOException("连接已断开"));
+                    return;
+                }
+                streams.put(id, call);
+                connection.writeAndRelease(frame);
+            });
+        } catch (RejectedExecutionException e) {
+            // 与 close 竞争：通过了 closed 检查但事件循环已经退出
+            loop.bufferPool().release(frame);
+            observer.onError(new IOException("客户端已关闭"));
+        }
+        return call;
+    }
+
+    /**
+     * 一问一答：返回第一条响应；服务端没有返回消息就结束时得到空的 ByteBuffer
+     * 取消返回的 future 会同时取消服务端的流
+     */
+    public CompletableFuture<ByteBuffer> call(String method, ByteBuffer request) {
+        CompletableFuture<ByteBuffer> future = new CompletableFuture<>();
+        Call call = stream(method, request, new RpcObserver() {
+            @Override
+            public void onNext(ByteBuffer message) {
+                // message 是读缓冲区的视图，交给调用方前拷贝一份
+                future.complete(ByteBuffer.allocate(message.remaining()).put(message).flip());
+            }
+
+            @Override
+            public void onCompleted() {
+                future.complete(EMPTY.duplicate());
+            }
+
+            @Override
+            public void onError(Throwable cause) {
+                future.completeExceptionally(cause);
+            }
+        });
+        future.whenComplete((r, e) -> {
+            if (e instanceof CancellationException) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    public CompletableFuture<String> call(String method, String request) {
+        CompletableFuture<ByteBuffer> response = call(method, ByteBuffer.wrap(request.getBytes(StandardCharsets.UTF_8)));
+        CompletableFuture<String> text = response.thenApply(body -> StandardCharsets.UTF_8.decode(body).toString());
+        // thenApply 得到的是新的 future，取消它不会传到 response，需要手动转发
+        text.whenComplete((r, e) -> {
+            if (e instanceof CancellationException) {
+                response.cancel(false);
+            }
+        });
+        return text;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        // 事件循环退出时关闭连接，onClose 会让未结束的流失败
+        loop.close();
+    }
+
+    private void onFrame(int type, ByteBuffer payload) {
+        int id = RpcCodec.streamId(payload);
+        Call call = streams.get(id);
+        if (call == null) {
+            // 已取消的流，响应直接丢弃
+            return;
+        }
+        ByteBuffer body = RpcCodec.body(payload);
+        if (type == RpcCodec.TYPE_ERROR) {
+            streams.remove(id);
+            call.observer.onError(new RpcException(StandardCharsets.UTF_8.decode(body).toString()));
+            return;
+        }
+        if (type != RpcCodec.TYPE_DATA) {
+            throw new IllegalStateException("未知的帧类型: " + type);
+        }
+        boolean end = (RpcCodec.flags(payload) & RpcCodec.FLAG_END) != 0;
+        int bytes = body.remaining();
+        if (!end || bytes > 0) {
+            call.observer.onNext(body);
+        }
+        if (end) {
+            streams.remove(id);
+            call.observer.onCompleted();
+            return;
+        }
+        // 攒够半个窗口再归还，减少 WINDOW_UPDATE 帧的数量
+        call.unacknowledged += bytes;
+        if (call.unacknowledged >= RpcCodec.INITIAL_WINDOW / 2 && streams.containsKey(id)) {
+            connection.writeAndRelease(RpcCodec.encodeWindowUpdate(loop.bufferPool(), id, call.unacknowledged));
+            call.unacknowledged = 0;
+        }
+    }
+
+    private void connectionLost() {
+        connection = null;
+        IOException cause = new IOException("连接已断开");
+        for (Call call : new ArrayList<>(streams.values())) {
+            call.observer.onError(cause);
+        }
+        streams.clear();
+    }
+
+    private final class ResponseHandler extends FrameHandler {
+        private final CountDownLatch opened;
+
+        ResponseHandler(CountDownLatch opened) {
+            this.opened = opened;
+        }
+
+        @Override
+        public void onOpen(NioConnection connection) {
+            RpcClient.this.connection = connection;
+            opened.countDown();
+        }
+
+        @Override
+        protected void onFrame(NioConnection connection, int type, ByteBuffer payload) {
+            RpcClient.this.onFrame(type, payload);
+        }
+
+        @Override
+        public void onClose(NioConnection connection) {
+            connectionLost();
+        }
+    }
+}
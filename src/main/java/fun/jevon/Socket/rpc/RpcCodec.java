@@ -0,0 +1,128 @@
+package fun.jevon.Socket.rpc;
+
+import fun.jevon.Socket.nio.ByteBufferPool;
+import fun.jevon.Socket.nio.FrameCodec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 多路复用 RPC 协议，建立在 FrameCodec 之上：一个连接上同时存在多个流，每帧都带流 ID
+ *
+ * payload = 4 字节流 ID + 1 字节标志 + body，帧类型：
+ * - OPEN（客户端 -> 服务端）：打开一个流，body = 1 字节方法名长度 + 方法名（UTF-8）+ 请求消息
+ * - DATA（服务端 -> 客户端）：一条响应消息，带 FLAG_END 表示流正常结束（可以是空 body）
+ * - WINDOW_UPDATE（客户端 -> 服务端）：body = 4 字节增量，客户端处理完多少字节就归还多少发送窗口
+ * - CANCEL（客户端 -> 服务端）：取消流，服务端丢弃还没发出的响应
+ * - ERROR（服务端 -> 客户端）：流以错误结束，body = UTF-8 原因
+ *
+ * 流控：每个流的初始窗口为 INITIAL_WINDOW 字节，服务端只在窗口大于 0 时发送 DATA（最后一条可以透支），
+ * 一个大流不会占满连接，其他流的响应能插在中间发出，避免队头阻塞
+ */
+public final class RpcCodec {
+
+    public static final int TYPE_OPEN = 1;
+    public static final int TYPE_DATA = 2;
+    public static final int TYPE_WINDOW_UPDATE = 3;
+    public static final int TYPE_CANCEL = 4;
+    public static final int TYPE_ERROR = 5;
+
+    public static final int FLAG_END = 1;
+
+    public static final int INITIAL_WINDOW = 64 * 1024;
+    public static final int MAX_METHOD_LENGTH = 0xFF;
+
+    private static final int HEADER_LENGTH = 5;
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private RpcCodec() {
+    }
+
+    /**
+     * 编码一帧，body 的 position 不变；返回池中的缓冲区，交给 NioConnection.writeAndRelease 发送
+     */
+    public static ByteBuffer encode(ByteBufferPool pool, int type, int streamId, int flags, ByteBuffer body) {
+        int length = body.remaining();
+        ByteBuffer frame = FrameCodec.beginFrame(pool, HEADER_LENGTH + length);
+        frame.putInt(streamId).put((byte) flags);
+        frame.put(frame.position(), body, body.position(), length);
+        frame.position(frame.position() + length);
+        return FrameCodec.finishFrame(frame, type);
+    }
+
+    public static ByteBuffer encodeOpen(ByteBufferPool pool, int streamId, String method, ByteBuffer request) {
+        byte[] name = method.getBytes(StandardCharsets.UTF_8);
+        if (name.length == 0 || name.length > MAX_METHOD_LENGTH) {
+            throw new IllegalArgumentException("方法名长度必须在 1~" + MAX_METHOD_LENGTH + " 字节之间: " + method);
+        }
+        int length = request.remaining();
+        ByteBuffer frame = FrameCodec.beginFrame(pool, HEADER_LENGTH + 1 + name.length + length);
+        frame.putInt(streamId).put((byte) 0).put((byte) name.length).put(name);
+        frame.put(frame.position(), request, request.position(), length);
+        frame.position(frame.position() + length);
+        return FrameCodec.finishFrame(frame, TYPE_OPEN);
+    }
+
+    public static ByteBuffer encodeWindowUpdate(ByteBufferPool pool, int streamId, int increment) {
+        ByteBuffer frame = FrameCodec.beginFrame(pool, HEADER_LENGTH + 4);
+        frame.putInt(streamId).put((byte) 0).putInt(increment);
+        return FrameCodec.finishFrame(frame, TYPE_WINDOW_UPDATE);
+    }
+
+    public static ByteBuffer encodeCancel(ByteBufferPool pool, int streamId) {
+        return encode(pool, TYPE_CANCEL, streamId, 0, EMPTY);
+    }
+
+    public static ByteBuffer encodeError(ByteBufferPool pool, int streamId, String message) {
+        return encode(pool, TYPE_ERROR, streamId, FLAG_END,
+                ByteBuffer.wrap(String.valueOf(message).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static int streamId(ByteBuffer payload) {
+        if (payload.remaining() < HEADER_LENGTH) {
+            throw new IllegalStateException("RPC 帧缺少流 ID 与标志");
+        }
+        return payload.getInt(payload.position());
+    }
+
+    public static int flags(ByteBuffer payload) {
+        return payload.get(payload.position() + 4) & 0xFF;
+    }
+
+    /**
+     * payload 中帧头之后的部分（视图，不拷贝）
+     */
+    public static ByteBuffer body(ByteBuffer payload) {
+        return payload.slice(payload.position() + HEADER_LENGTH, payload.remaining() - HEADER_LENGTH);
+    }
+
+    public static String openMethod(ByteBuffer body) {
+        int length = methodLength(body);
+        byte[] name = new byte[length];
+        body.get(body.position() + 1, name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * OPEN 帧 body 中方法名之后的请求消息（视图，不拷贝）
+     */
+    public static ByteBuffer openRequest(ByteBuffer body) {
+        int skip = 1 + methodLength(body);
+        return body.slice(body.position() + skip, body.remaining() - skip);
+    }
+
+    public static int windowIncrement(ByteBuffer body) {
+        if (body.remaining() < 4) {
+            throw new IllegalStateException("WINDOW_UPDATE 帧缺少增量");
+        }
+        return body.getInt(body.position());
+    }
+
+    private static int methodLength(ByteBuffer body) {
+        int length = body.hasRemaining() ? body.get(body.position()) & 0xFF : 0;
+        if (length == 0 || body.remaining() < 1 + length) {
+            throw new IllegalStateException("OPEN 帧的方法名不完整");
+        }
+        return length;
+    }
+}
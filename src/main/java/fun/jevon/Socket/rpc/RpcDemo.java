@@ -0,0 +1,175 @@
+package fun.jevon.Socket.rpc;
+
+import fun.jevon.Socket.nio.NioServer;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 多路复用 RPC 演示，所有调用都走同一个连接
+ * 1. 队头阻塞：先发一个耗时 200 ms 的调用，再发 1000 个快调用，快调用不需要等慢调用
+ * 2. 并发：一次发出大量一问一答的调用
+ * 3. 流控：下载 64 MB 的同时发一问一答的调用，大流每次最多占用一个窗口，其他调用的延迟不受影响
+ * 4. 取消：无限推送的流，客户端收到 100 条后取消，服务端停止推送并清理这个流
+ */
+public class RpcDemo {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        RpcRegistry registry = new RpcRegistry()
+                .registerUnary("echo", body -> body)
+                .registerUnary("slow", body -> {
+                    Thread.sleep(200);
+                    return body;
+                }, executor)
+                .register("download", RpcDemo::download, executor)
+                .register("ticks", (request, stream) -> new Ticker(stream).run());
+        RpcHandler handler = new RpcHandler(registry);
+        try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), handler, 1);
+             RpcClient client = new RpcClient(new InetSocketAddress("127.0.0.1", server.port()))) {
+            // 预热：JIT 编译编解码与事件循环路径
+            concurrent(client, Math.min(calls, 20_000), false);
+            headOfLine(client);
+            concurrent(client, calls, true);
+            flowControl(client);
+            cancellation(client, handler);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void headOfLine(RpcClient client) throws Exception {
+        long start = System.nanoTime();
+        CompletableFuture<String> slow = client.call("slow", "slow");
+        CompletableFuture<?>[] fast = new CompletableFuture<?>[1000];
+        for (int i = 0; i < fast.length; i++) {
+            fast[i] = client.call("echo", "fast-" + i);
+        }
+        CompletableFuture.allOf(fast).get();
+        long fastDone = System.nanoTime() - start;
+        slow.get();
+        System.out.printf("1) 1000 个快调用 %.1f ms 内全部完成，排在它们前面的慢调用 %.1f ms 后才完成%n",
+                fastDone / 1e6, (System.nanoTime() - start) / 1e6);
+    }
+
+    private static void concurrent(RpcClient client, int calls, boolean print) throws Exception {
+        ByteBuffer request = ByteBuffer.wrap(new byte[64]);
+        long start = System.nanoTime();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[calls];
+        for (int i = 0; i < calls; i++) {
+            futures[i] = client.call("echo", request.duplicate());
+        }
+        CompletableFuture.allOf(futures).get();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (!print) {
+            return;
+        }
+        System.out.printf("2) %,d 个并发调用，1 个连接: %,.0f 次/秒%n", calls, calls / seconds);
+    }
+
+    private static void flowControl(RpcClient client) throws Exception {
+        long total = 64L << 20;
+        AtomicLong received = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(1);
+        long start = System.nanoTime();
+        client.stream("download", ByteBuffer.allocate(8).putLong(0, total), new RpcObserver() {
+            @Override
+            public void onNext(ByteBuffer message) {
+                received.addAndGet(message.remaining());
+            }
+
+            @Override
+            public void onCompleted() {
+                done.countDown();
+            }
+
+            @Override
+            public void onError(Throwable cause) {
+                System.err.println("下载失败: " + cause);
+                done.countDown();
+            }
+        });
+        long[] latencies = new long[200];
+        for (int i = 0; i < latencies.length; i++) {
+            long t = System.nanoTime();
+            client.call("echo", "ping").get();
+            latencies[i] = System.nanoTime() - t;
+        }
+        done.await();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Arrays.sort(latencies);
+        System.out.printf("3) 下载 %,d MB，%.0f MB/秒；同时进行的 %d 次调用延迟 p50 %.2f ms，max %.2f ms%n",
+                received.get() >> 20, (received.get() >> 20) / seconds, latencies.length,
+                latencies[latencies.length / 2] / 1e6, latencies[latencies.length - 1] / 1e6);
+    }
+
+    private static void cancellation(RpcClient client, RpcHandler handler) throws Exception {
+        AtomicReference<RpcClient.Call> call = new AtomicReference<>();
+        CountDownLatch cancelled = new CountDownLatch(1);
+        AtomicLong ticks = new AtomicLong();
+        call.set(client.stream("ticks", ByteBuffer.allocate(0), new RpcObserver() {
+            @Override
+            public void onNext(ByteBuffer message) {
+                if (ticks.incrementAndGet() == 100) {
+                    call.get().cancel();
+                }
+            }
+
+            @Override
+            public void onError(Throwable cause) {
+                if (cause instanceof CancellationException) {
+                    cancelled.countDown();
+                }
+            }
+        }));
+        cancelled.await(5, TimeUnit.SECONDS);
+        // 等 CANCEL 帧到达服务端
+        Thread.sleep(100);
+        System.out.printf("4) 收到 %d 条后取消；服务端活动流 %d，已取消 %d，正常结束 %d%n", ticks.get(),
+                handler.activeStreams(), handler.cancelledStreams(), handler.completedStreams());
+    }
+
+    // 在线程池上执行：窗口用完时阻塞等待客户端归还
+    private static void download(ByteBuffer request, RpcStream stream) throws InterruptedException {
+        long total = request.getLong(0);
+        ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        for (long sent = 0; sent < total; sent += CHUNK_SIZE) {
+            if (!stream.awaitReady()) {
+                return;
+            }
+            stream.send(chunk.duplicate());
+        }
+        stream.complete();
+    }
+
+    // 在事件循环上执行：窗口有剩余就一直推送，用完后等 onReady 回调再继续，直到被取消
+    static final class Ticker implements Runnable {
+        private final RpcStream stream;
+        private final ByteBuffer tick = ByteBuffer.allocate(8);
+        private long sequence;
+
+        Ticker(RpcStream stream) {
+            this.stream = stream;
+            stream.setOnReady(this);
+        }
+
+        @Override
+        public void run() {
+            while (stream.isReady()) {
+                stream.send(tick.putLong(0, sequence++).duplicate());
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package fun.jevon.Socket.rpc;
+
+import java.io.IOException;
+
+/**
+ * 服务端以 ERROR 帧结束了这个流：方法不存在、方法抛出异常或主动 fail
+ */
+public class RpcException extends IOException {
+
+    public RpcException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,134 @@
+package fun.jevon.Socket.rpc;
+
+import fun.jevon.Socket.nio.FrameHandler;
+import fun.jevon.Socket.nio.NioConnection;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 服务端的 RPC 处理器：按 RpcCodec 解析帧，OPEN 按方法名在 RpcRegistry 中找到方法并调用，
+ * WINDOW_UPDATE / CANCEL 交给对应的 RpcStream
+ *
+ * 每个连接的活动流记在连接的 attachment 里，只在 worker 事件循环上访问；连接断开时所有流按取消处理
+ */
+public class RpcHandler extends FrameHandler {
+
+    private final RpcRegistry registry;
+    private final AtomicInteger activeStreams = new AtomicInteger();
+    private final LongAdder completedStreams = new LongAdder();
+    private final LongAdder cancelledStreams = new LongAdder();
+
+    public RpcHandler(RpcRegistry registry) {
+        this.registry = registry;
+    }
+
+    public int activeStreams() {
+        return activeStreams.get();
+    }
+
+    /**
+     * 正常结束（包括以错误结束）的流数
+     */
+    public long completedStreams() {
+        return completedStreams.sum();
+    }
+
+    /**
+     * 被客户端取消或因连接断开而终止的流数
+     */
+    public long cancelledStreams() {
+        return cancelledStreams.sum();
+    }
+
+    @Override
+    public void onOpen(NioConnection connection) {
+        connection.attach(new HashMap<Integer, RpcStream>());
+    }
+
+    @Override
+    protected void onFrame(NioConnection connection, int type, ByteBuffer payload) {
+        Map<Integer, RpcStream> streams = connection.attachment();
+        int id = RpcCodec.streamId(payload);
+        ByteBuffer body = RpcCodec.body(payload);
+        switch (type) {
+            case RpcCodec.TYPE_OPEN:
+                open(connection, streams, id, body);
+                break;
+            case RpcCodec.TYPE_WINDOW_UPDATE: {
+                RpcStream stream = streams.get(id);
+                if (stream != null) {
+                    stream.addWindow(RpcCodec.windowIncrement(body));
+                }
+                break;
+            }
+            case RpcCodec.TYPE_CANCEL: {
+                // 流可能刚好已经结束，取消帧直接忽略
+                RpcStream stream = streams.get(id);
+                if (stream != null) {
+                    stream.cancel();
+                }
+                break;
+            }
+            default:
+                throw new IllegalStateException("未知的帧类型: " + type);
+        }
+    }
+
+    private void open(NioConnection connection, Map<Integer, RpcStream> streams, int id, ByteBuffer body) {
+        if (streams.containsKey(id)) {
+            throw new IllegalStateException("流 ID 重复: " + id);
+        }
+        String name = RpcCodec.openMethod(body);
+        RpcRegistry.Entry entry = registry.lookup(name);
+        if (entry == null) {
+            connection.writeAndRelease(RpcCodec.encodeError(connection.bufferPool(), id, "未知方法: " + name));
+            return;
+        }
+        RpcStream stream = new RpcStream(connection, id, this);
+        streams.put(id, stream);
+        activeStreams.incrementAndGet();
+        ByteBuffer request = RpcCodec.openRequest(body);
+        if (entry.executor == null) {
+            invoke(entry.method, request, stream);
+            return;
+        }
+        ByteBuffer copy = ByteBuffer.allocate(request.remaining()).put(request).flip();
+        try {
+            entry.executor.execute(() -> invoke(entry.method, copy, stream));
+        } catch (RejectedExecutionException e) {
+            stream.fail("服务繁忙，请稍后重试");
+        }
+    }
+
+    private static void invoke(RpcMethod method, ByteBuffer request, RpcStream stream) {
+        try {
+            method.invoke(request, stream);
+        } catch (Exception e) {
+            stream.fail(String.valueOf(e.getMessage()));
+        }
+    }
+
+    // RpcStream 结束（最后一帧已发出）或被取消时在事件循环线程上调用
+    void streamClosed(NioConnection connection, RpcStream stream, boolean cancelled) {
+        Map<Integer, RpcStream> streams = connection.attachment();
+        if (streams.remove(stream.id()) == null) {
+            return;
+        }
+        activeStreams.decrementAndGet();
+        (cancelled ? cancelledStreams : completedStreams).increment();
+    }
+
+    @Override
+    public void onClose(NioConnection connection) {
+        Map<Integer, RpcStream> streams = connection.attachment();
+        for (RpcStream stream : new ArrayList<>(streams.values())) {
+            stream.cancel();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package fun.jevon.Socket.rpc;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 服务端方法：通过 stream 发送任意条响应，最后调用 complete 或 fail；可以在返回后再从其他线程继续发送
+ *
+ * 在事件循环上执行时 request 只在调用期间有效；注册时指定了 executor 的方法拿到的是拷贝，可以保留
+ * 抛出异常等同于 stream.fail(异常信息)
+ */
+@FunctionalInterface
+public interface RpcMethod {
+
+    void invoke(ByteBuffer request, RpcStream stream) throws Exception;
+}
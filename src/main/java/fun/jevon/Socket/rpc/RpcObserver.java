@@ -0,0 +1,26 @@
+package fun.jevon.Socket.rpc;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 客户端接收一个流的响应，所有回调都在客户端事件循环线程上执行，不能阻塞
+ *
+ * onNext 返回后这条消息的字节才归还给服务端的发送窗口：处理得慢的流会让服务端暂停发送这个流，
+ * 但不影响同一连接上的其他流
+ */
+public interface RpcObserver {
+
+    /**
+     * message 是读缓冲区的视图，只在回调期间有效；需要保留时自行拷贝
+     */
+    void onNext(ByteBuffer message);
+
+    default void onCompleted() {
+    }
+
+    /**
+     * 服务端返回错误（RpcException）、被取消（CancellationException）或连接断开（IOException）
+     */
+    default void onError(Throwable cause) {
+    }
+}
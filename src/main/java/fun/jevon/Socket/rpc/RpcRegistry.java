@@ -0,0 +1,62 @@
+package fun.jevon.Socket.rpc;
+
+import fun.jevon.Socket.nio.RequestHandler;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * 服务端方法注册表：方法名 -> RpcMethod，供 RpcHandler 分发；可以在服务运行期间继续注册
+ *
+ * - 不指定 executor 的方法在 worker 事件循环上执行，只适合不阻塞的计算
+ * - 指定 executor 时请求先拷贝一份再交给线程池，线程池拒绝时流以 "服务繁忙" 错误结束
+ */
+public final class RpcRegistry {
+
+    static final class Entry {
+        final RpcMethod method;
+        final Executor executor;
+
+        Entry(RpcMethod method, Executor executor) {
+            this.method = method;
+            this.executor = executor;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> methods = new ConcurrentHashMap<>();
+
+    public RpcRegistry register(String name, RpcMethod method) {
+        return register(name, method, null);
+    }
+
+    public RpcRegistry register(String name, RpcMethod method, Executor executor) {
+        if (name.isEmpty() || name.length() > RpcCodec.MAX_METHOD_LENGTH) {
+            throw new IllegalArgumentException("方法名长度必须在 1~" + RpcCodec.MAX_METHOD_LENGTH + " 之间: " + name);
+        }
+        if (methods.putIfAbsent(name, new Entry(method, executor)) != null) {
+            throw new IllegalArgumentException("方法已注册: " + name);
+        }
+        return this;
+    }
+
+    /**
+     * 一问一答的方法：返回值作为唯一一条响应并结束流
+     */
+    public RpcRegistry registerUnary(String name, RequestHandler.RequestService service) {
+        return registerUnary(name, service, null);
+    }
+
+    public RpcRegistry registerUnary(String name, RequestHandler.RequestService service, Executor executor) {
+        return register(name, (request, stream) -> stream.complete(service.handle(request)), executor);
+    }
+
+    public Set<String> methods() {
+        return Collections.unmodifiableSet(methods.keySet());
+    }
+
+    Entry lookup(String name) {
+        return methods.get(name);
+    }
+}
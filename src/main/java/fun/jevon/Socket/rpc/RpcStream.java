@@ -0,0 +1,209 @@
+package fun.jevon.Socket.rpc;
+
+import fun.jevon.Socket.nio.NioConnection;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 服务端的一个流：向客户端发送响应，受这个流的发送窗口限制
+ *
+ * 线程约定：
+ * - send / complete / fail 可以在任意线程调用，消息在调用线程上编码，调用返回后 message 即可复用
+ * - 窗口用完后消息先在服务端排队，收到客户端的 WINDOW_UPDATE 再发出；生产者应根据 isReady 控制速度：
+ *   事件循环上的生产者用 setOnReady 在窗口重新打开时继续，线程池上的生产者可以用 awaitReady 阻塞等待
+ * - 客户端取消或连接断开后 isCancelled 为 true，之后的 send 被丢弃，setOnCancel 的回调在事件循环线程上执行一次
+ */
+public final class RpcStream {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+    private static final class Outgoing {
+        final ByteBuffer frame;
+        final int bytes;
+        final boolean last;
+
+        Outgoing(ByteBuffer frame, int bytes, boolean last) {
+            this.frame = frame;
+            this.bytes = bytes;
+            this.last = last;
+        }
+    }
+
+    private final NioConnection connection;
+    private final int id;
+    private final RpcHandler handler;
+    // 调用方视角的剩余窗口：send 时扣减，决定 isReady
+    private final AtomicLong available = new AtomicLong(RpcCodec.INITIAL_WINDOW);
+    private final AtomicBoolean finishing = new AtomicBoolean();
+    private volatile boolean cancelled;
+    private volatile Runnable onReady;
+    private volatile Runnable onCancel;
+
+    // 以下只在事件循环线程上访问：实际发出时扣减的窗口与等待窗口的帧
+    private final ArrayDeque<Outgoing> pending = new ArrayDeque<>();
+    private long window = RpcCodec.INITIAL_WINDOW;
+    private boolean closed;
+
+    RpcStream(NioConnection connection, int id, RpcHandler handler) {
+        this.connection = connection;
+        this.id = id;
+        this.handler = handler;
+    }
+
+    public int id() {
+        return id;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 窗口还有剩余：现在 send 的消息不会在服务端排队
+     */
+    public boolean isReady() {
+        return !cancelled && !finishing.get() && available.get() > 0;
+    }
+
+    /**
+     * 窗口从用完变为有剩余时在事件循环线程上回调，不能阻塞
+     */
+    public void setOnReady(Runnable onReady) {
+        this.onReady = onReady;
+    }
+
+    public void setOnCancel(Runnable onCancel) {
+        this.onCancel = onCancel;
+    }
+
+    /**
+     * 阻塞到窗口有剩余或流被取消，返回 isReady()；不能在事件循环线程上调用
+     */
+    public boolean awaitReady() throws InterruptedException {
+        if (connection.eventLoop().inEventLoop()) {
+            throw new IllegalStateException("不能在事件循环线程上等待发送窗口");
+        }
+        synchronized (this) {
+            while (!isReady() && !cancelled && !finishing.get()) {
+                wait();
+            }
+        }
+        return isReady();
+    }
+
+    public void send(ByteBuffer message) {
+        if (finishing.get()) {
+            throw new IllegalStateException("流 " + id + " 已经结束");
+        }
+        enqueue(RpcCodec.TYPE_DATA, 0, message, false);
+    }
+
+    public void complete() {
+        complete(EMPTY);
+    }
+
+    /**
+     * 发送最后一条消息并结束流
+     */
+    public void complete(ByteBuffer last) {
+        if (!finishing.compareAndSet(false, true)) {
+            throw new IllegalStateException("流 " + id + " 已经结束");
+        }
+        enqueue(RpcCodec.TYPE_DATA, RpcCodec.FLAG_END, last, true);
+    }
+
+    /**
+     * 以错误结束流；流已经结束时忽略
+     */
+    public void fail(String reason) {
+        if (finishing.compareAndSet(false, true) && !cancelled) {
+            ByteBuffer frame = RpcCodec.encodeError(connection.bufferPool(), id, reason);
+            enqueue(new Outgoing(frame, 0, true));
+        }
+    }
+
+    private void enqueue(int type, int flags, ByteBuffer message, boolean last) {
+        if (cancelled) {
+            return;
+        }
+        int bytes = message.remaining();
+        available.addAndGet(-bytes);
+        enqueue(new Outgoing(RpcCodec.encode(connection.bufferPool(), type, id, flags, message), bytes, last));
+    }
+
+    private void enqueue(Outgoing outgoing) {
+        if (!connection.eventLoop().inEventLoop()) {
+            try {
+                connection.eventLoop().execute(() -> enqueue(outgoing));
+            } catch (RejectedExecutionException e) {
+                // 服务端已关闭，连接上的流都已按取消处理
+                connection.bufferPool().release(outgoing.frame);
+            }
+            return;
+        }
+        if (closed) {
+            connection.bufferPool().release(outgoing.frame);
+            return;
+        }
+        pending.add(outgoing);
+        flush();
+    }
+
+    // 按顺序发出窗口允许的帧；窗口大于 0 时可以发出一整条消息（允许透支），不带数据的帧不受窗口限制
+    private void flush() {
+        Outgoing head;
+        while ((head = pending.peek()) != null && (head.bytes == 0 || window > 0)) {
+            pending.poll();
+            window -= head.bytes;
+            connection.writeAndRelease(head.frame);
+            if (head.last) {
+                close(false);
+                return;
+            }
+        }
+    }
+
+    void addWindow(int increment) {
+        if (closed || increment <= 0) {
+            return;
+        }
+        window += increment;
+        long after = available.addAndGet(increment);
+        flush();
+        if (!closed && after > 0 && after - increment <= 0) {
+            signal(onReady);
+        }
+    }
+
+    void cancel() {
+        if (closed) {
+            return;
+        }
+        cancelled = true;
+        Outgoing outgoing;
+        while ((outgoing = pending.poll()) != null) {
+            connection.bufferPool().release(outgoing.frame);
+        }
+        close(true);
+        signal(onCancel);
+    }
+
+    private void close(boolean cancelled) {
+        closed = true;
+        handler.streamClosed(connection, this, cancelled);
+    }
+
+    // 唤醒 awaitReady 的线程并执行回调
+    private void signal(Runnable callback) {
+        synchronized (this) {
+            notifyAll();
+        }
+        if (callback != null) {
+            callback.run();
+        }
+    }
+}
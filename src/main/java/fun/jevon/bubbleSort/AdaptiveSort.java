@@ -0,0 +1,130 @@
+package fun.jevon.bubbleSort;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * 自适应排序入口：先用一次 O(n) 扫描看数组规模与有序程度，再选择算法
+ *
+ * 选择规则：
+ * - 已经升序：直接返回；降序：原地翻转
+ * - 基本有序（逆序点很少）：Arrays.sort，JDK 的双轴快排会识别已有的有序段并直接归并
+ * - 小数组（< SMALL）：Arrays.sort，基数排序的直方图与辅助数组开销不划算
+ * - 大数组且有多个 CPU（≥ PARALLEL）：ParallelMergeSort
+ * - 其余：RadixSort，O(n) 且与数据分布无关
+ */
+public class AdaptiveSort {
+
+    public enum Algorithm {
+        ALREADY_SORTED, REVERSE, JDK, RADIX, PARALLEL_MERGE
+    }
+
+    private static final int SMALL = 1 << 12;
+    private static final int PARALLEL = 1 << 20;
+
+    public static Algorithm sort(int[] a) {
+        Algorithm algorithm = choose(a);
+        switch (algorithm) {
+            case ALREADY_SORTED:
+                break;
+            case REVERSE:
+                reverse(a);
+                break;
+            case JDK:
+                Arrays.sort(a);
+                break;
+            case RADIX:
+                RadixSort.sort(a);
+                break;
+            case PARALLEL_MERGE:
+                ParallelMergeSort.sort(a);
+                break;
+        }
+        return algorithm;
+    }
+
+    public static Algorithm sort(long[] a) {
+        Algorithm algorithm = choose(a);
+        switch (algorithm) {
+            case ALREADY_SORTED:
+                break;
+            case REVERSE:
+                reverse(a);
+                break;
+            case JDK:
+                Arrays.sort(a);
+                break;
+            case RADIX:
+                RadixSort.sort(a);
+                break;
+            case PARALLEL_MERGE:
+                ParallelMergeSort.sort(a);
+                break;
+        }
+        return algorithm;
+    }
+
+    /**
+     * 只做判断不排序
+     */
+    public static Algorithm choose(int[] a) {
+        int n = a.length;
+        int descents = 0;
+        int ascents = 0;
+        // 写成条件表达式，JIT 可以编译成无分支指令；随机数据上 if 分支几乎每次都会预测失败
+        for (int i = 1; i < n; i++) {
+            int prev = a[i - 1];
+            int cur = a[i];
+            descents += prev > cur ? 1 : 0;
+            ascents += prev < cur ? 1 : 0;
+        }
+        return choose(n, descents, ascents);
+    }
+
+    public static Algorithm choose(long[] a) {
+        int n = a.length;
+        int descents = 0;
+        int ascents = 0;
+        for (int i = 1; i < n; i++) {
+            long prev = a[i - 1];
+            long cur = a[i];
+            descents += prev > cur ? 1 : 0;
+            ascents += prev < cur ? 1 : 0;
+        }
+        return choose(n, descents, ascents);
+    }
+
+    private static Algorithm choose(int n, int descents, int ascents) {
+        if (descents == 0) {
+            return Algorithm.ALREADY_SORTED;
+        }
+        // 没有上升的相邻对：非升序，翻转即可（基本类型不需要考虑稳定性）
+        if (ascents == 0) {
+            return Algorithm.REVERSE;
+        }
+        // 逆序点不到 n/64：平均每段有序长度超过 64，交给能识别有序段的 JDK 实现
+        if (n < SMALL || descents < n >>> 6) {
+            return Algorithm.JDK;
+        }
+        if (n >= PARALLEL && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            return Algorithm.PARALLEL_MERGE;
+        }
+        return Algorithm.RADIX;
+    }
+
+    private static void reverse(int[] a) {
+        for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    private static void reverse(long[] a) {
+        for (int i = 0, j = a.length - 1; i < j; i++, j--) {
+            long t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+}
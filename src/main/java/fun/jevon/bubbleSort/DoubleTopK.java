@@ -0,0 +1,70 @@
+package fun.jevon.bubbleSort;
+
+import java.util.Arrays;
+
+/**
+ * 流式 Top-K（double）：把 double 转成保序的 long 后复用 LongTopK
+ *
+ * 转换：正数的位模式本身就按数值递增；负数把除符号位以外的位取反，数值越小得到的 long 越小。
+ * 顺序与 Double.compare 一致：-0.0 < 0.0，NaN 视为最大
+ */
+public class DoubleTopK {
+
+    private final LongTopK delegate;
+
+    public DoubleTopK(int k) {
+        this.delegate = new LongTopK(k);
+    }
+
+    public void add(double value) {
+        delegate.add(toSortable(value));
+    }
+
+    /**
+     * 批量加入：批次远大于 k 时先用快速选择挑出这一批最大的 k 个，再入堆
+     */
+    public void addAll(double[] values, int from, int to) {
+        int n = to - from;
+        int k = delegate.k();
+        if (n > k << 2) {
+            double[] batch = Arrays.copyOfRange(values, from, to);
+            PartialSort.selectTopK(batch, 0, n, k);
+            for (int i = 0; i < k; i++) {
+                add(batch[i]);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                add(values[i]);
+            }
+        }
+    }
+
+    public void merge(DoubleTopK other) {
+        delegate.merge(other.delegate);
+    }
+
+    public int size() {
+        return delegate.size();
+    }
+
+    /**
+     * 结果按降序返回
+     */
+    public double[] toSortedArray() {
+        long[] sorted = delegate.toSortedArray();
+        double[] result = new double[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            result[i] = fromSortable(sorted[i]);
+        }
+        return result;
+    }
+
+    static long toSortable(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    static double fromSortable(long sortable) {
+        return Double.longBitsToDouble(sortable ^ ((sortable >> 63) & Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,431 @@
+package fun.jevon.bubbleSort;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 外部归并排序：对超过堆大小的 int / long 二进制文件排序（大端序，紧密排列，无文件头）
+ *
+ * 流程：
+ * 1. 生成有序段：输入文件按段内存映射（mmap），每个工作线程把一段读进自己的数组，
+ *    用 RadixSort 排好序后用 FileChannel 顺序写成一个临时段文件；工作线程数默认等于 CPU 数
+ * 2. k 路归并：每个段文件配一个大块的直接内存读缓冲，用败者树每次选出最小值，
+ *    写入同样大块的输出缓冲；段数超过 fanIn 时先分组归并成更少的段，再做最后一轮
+ *
+ * 内存：
+ * - 堆上只有"线程数 × 段长度"的数组（以及基数排序的同等大小辅助数组），由 memoryBudget 控制
+ * - 归并阶段的 I/O 缓冲在堆外，约 (fanIn + 1) × ioBufferBytes
+ */
+public class ExternalSort {
+
+    public enum ElementType {
+        INT(Integer.BYTES), LONG(Long.BYTES);
+
+        final int width;
+
+        ElementType(int width) {
+            this.width = width;
+        }
+    }
+
+    /**
+     * 一次排序的统计：有序段数、归并轮数、字节数、耗时、堆使用峰值
+     * （堆峰值是各堆内存池峰值之和，含尚未回收的垃圾，是实际需要的上界）
+     */
+    public static final class Stats {
+        public final int runs;
+        public final int mergePasses;
+        public final long bytes;
+        public final long runNanos;
+        public final long mergeNanos;
+        public final long peakHeapBytes;
+
+        Stats(int runs, int mergePasses, long bytes, long runNanos, long mergeNanos, long peakHeapBytes) {
+            this.runs = runs;
+            this.mergePasses = mergePasses;
+            this.bytes = bytes;
+            this.runNanos = runNanos;
+            this.mergeNanos = mergeNanos;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+
+        public double bytesPerSecond() {
+            return bytes / ((runNanos + mergeNanos) / 1_000_000_000.0);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("段数=%d, 归并轮数=%d, 数据=%d MB, 生成段=%.0f ms, 归并=%.0f ms, 吞吐=%.1f MB/s, 堆峰值=%d MB",
+                    runs, mergePasses, bytes >> 20, runNanos / 1_000_000.0, mergeNanos / 1_000_000.0,
+                    bytesPerSecond() / (1 << 20), peakHeapBytes >> 20);
+        }
+    }
+
+    private static final int DEFAULT_IO_BUFFER = 1 << 20;
+    private static final int DEFAULT_FAN_IN = 128;
+
+    private final long memoryBudget;
+    private final int threads;
+    private final Path tempDir;
+    private final int ioBufferBytes;
+    private final int fanIn;
+
+    /**
+     * @param memoryBudget 生成有序段时可用的堆内存（字节）
+     * @param threads      生成有序段的线程数
+     * @param tempDir      临时段文件目录
+     */
+    public ExternalSort(long memoryBudget, int threads, Path tempDir) {
+        this(memoryBudget, threads, tempDir, DEFAULT_IO_BUFFER, DEFAULT_FAN_IN);
+    }
+
+    public ExternalSort(long memoryBudget, int threads, Path tempDir, int ioBufferBytes, int fanIn) {
+        if (memoryBudget <= 0 || threads <= 0 || ioBufferBytes < Long.BYTES || fanIn < 2) {
+            throw new IllegalArgumentException("参数不合法: memoryBudget=" + memoryBudget + ", threads=" + threads
+                    + ", ioBufferBytes=" + ioBufferBytes + ", fanIn=" + fanIn);
+        }
+        this.memoryBudget = memoryBudget;
+        this.threads = threads;
+        this.tempDir = tempDir;
+        // 缓冲区大小取元素宽度的整数倍
+        this.ioBufferBytes = ioBufferBytes & ~(Long.BYTES - 1);
+        this.fanIn = fanIn;
+    }
+
+    public Stats sortLongs(Path input, Path output) throws IOException {
+        return sort(input, output, ElementType.LONG);
+    }
+
+    public Stats sortInts(Path input, Path output) throws IOException {
+        return sort(input, output, ElementType.INT);
+    }
+
+    public Stats sort(Path input, Path output, ElementType type) throws IOException {
+        List<MemoryPoolMXBean> heapPools = heapPools();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long bytes = Files.size(input);
+        if (bytes % type.width != 0) {
+            throw new IOException("文件长度 " + bytes + " 不是 " + type.width + " 的整数倍: " + input);
+        }
+        long start = System.nanoTime();
+        List<Path> runs = createRuns(input, bytes / type.width, type);
+        long runsDone = System.nanoTime();
+        int runCount = runs.size();
+        int passes = 0;
+        try {
+            while (runs.size() > fanIn) {
+                runs = mergeGroups(runs, type);
+                passes++;
+            }
+            merge(runs, output, type);
+            passes++;
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+        long end = System.nanoTime();
+
+        long peak = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peak += pool.getPeakUsage().getUsed();
+        }
+        return new Stats(runCount, passes, bytes, runsDone - start, end - runsDone, peak);
+    }
+
+    // ---------------- 第一阶段：并行生成有序段 ----------------
+
+    private List<Path> createRuns(Path input, long total, ElementType type) throws IOException {
+        // 每个线程一块数组，基数排序还要一块等长辅助数组；FileChannel.map 一次最多映射 Integer.MAX_VALUE 字节
+        long perThread = memoryBudget / threads / (2L * type.width);
+        int runLength = (int) Math.max(1024, Math.min(perThread, Integer.MAX_VALUE / type.width));
+        int runCount = (int) ((total + runLength - 1) / runLength);
+        Path[] runs = new Path[runCount];
+        AtomicInteger nextRun = new AtomicInteger();
+
+        int workers = Math.max(1, Math.min(threads, runCount));
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                futures.add(pool.submit(() -> {
+                    // 数组在同一线程的多个段之间复用
+                    int[] ints = type == ElementType.INT ? new int[(int) Math.min(runLength, total)] : null;
+                    long[] longs = type == ElementType.LONG ? new long[(int) Math.min(runLength, total)] : null;
+                    ByteBuffer out = ByteBuffer.allocateDirect(ioBufferBytes);
+                    int r;
+                    while (!Thread.currentThread().isInterrupted() && (r = nextRun.getAndIncrement()) < runCount) {
+                        long first = (long) r * runLength;
+                        int n = (int) Math.min(runLength, total - first);
+                        // 映射只在读入数组时使用，之后交给 GC 解除映射
+                        MappedByteBuffer mapped = in.map(FileChannel.MapMode.READ_ONLY,
+                                first * type.width, (long) n * type.width);
+                        Path run = Files.createTempFile(tempDir, "run-" + r + "-", ".bin");
+                        runs[r] = run;
+                        try (FileChannel ch = FileChannel.open(run, StandardOpenOption.WRITE)) {
+                            if (type == ElementType.INT) {
+                                mapped.asIntBuffer().get(ints, 0, n);
+                                RadixSort.sort(ints, 0, n);
+                                writeInts(ch, out, ints, n);
+                            } else {
+                                mapped.asLongBuffer().get(longs, 0, n);
+                                RadixSort.sort(longs, 0, n);
+                                writeLongs(ch, out, longs, n);
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            abandonRuns(pool, runs);
+            Thread.currentThread().interrupt();
+            throw new IOException("生成有序段被中断", e);
+        } catch (ExecutionException e) {
+            abandonRuns(pool, runs);
+            throw new IOException("生成有序段失败", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        List<Path> result = new ArrayList<>(runCount);
+        for (Path run : runs) {
+            result.add(run);
+        }
+        return result;
+    }
+
+    private static void writeInts(FileChannel ch, ByteBuffer out, int[] a, int n) throws IOException {
+        int perBuffer = out.capacity() / Integer.BYTES;
+        for (int off = 0; off < n; off += perBuffer) {
+            int m = Math.min(perBuffer, n - off);
+            out.clear();
+            out.asIntBuffer().put(a, off, m);
+            out.limit(m * Integer.BYTES);
+            writeFully(ch, out);
+        }
+    }
+
+    private static void writeLongs(FileChannel ch, ByteBuffer out, long[] a, int n) throws IOException {
+        int perBuffer = out.capacity() / Long.BYTES;
+        for (int off = 0; off < n; off += perBuffer) {
+            int m = Math.min(perBuffer, n - off);
+            out.clear();
+            out.asLongBuffer().put(a, off, m);
+            out.limit(m * Long.BYTES);
+            writeFully(ch, out);
+        }
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+    }
+
+    // 生成有序段失败或被中断：先停下其余工作线程（它们还会继续创建段文件），再删除已创建的段
+    private static void abandonRuns(ExecutorService pool, Path[] runs) throws IOException {
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Path run : runs) {
+            if (run != null) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    // ---------------- 第二阶段：k 路归并 ----------------
+
+    // 段数太多时每 fanIn 个一组归并成一个新段，返回新段列表（旧段删除）；
+    // 中途失败时本轮已生成的新段由这里删除，调用方只负责清理传入的旧段
+    private List<Path> mergeGroups(List<Path> runs, ElementType type) throws IOException {
+        List<Path> merged = new ArrayList<>();
+        try {
+            for (int i = 0; i < runs.size(); i += fanIn) {
+                List<Path> group = runs.subList(i, Math.min(i + fanIn, runs.size()));
+                Path out = Files.createTempFile(tempDir, "merge-", ".bin");
+                merged.add(out);
+                merge(group, out, type);
+                for (Path run : group) {
+                    Files.deleteIfExists(run);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Path out : merged) {
+                try {
+                    Files.deleteIfExists(out);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+        return merged;
+    }
+
+    private void merge(List<Path> runs, Path output, ElementType type) throws IOException {
+        RunReader[] readers = new RunReader[runs.size()];
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int i = 0; i < readers.length; i++) {
+                readers[i] = new RunReader(FileChannel.open(runs.get(i), StandardOpenOption.READ), type, ioBufferBytes);
+            }
+            LoserTree tree = new LoserTree(readers);
+            ByteBuffer buf = ByteBuffer.allocateDirect(ioBufferBytes);
+            int winner;
+            while ((winner = tree.winner()) >= 0) {
+                if (buf.remaining() < type.width) {
+                    buf.flip();
+                    writeFully(out, buf);
+                    buf.clear();
+                }
+                if (type == ElementType.INT) {
+                    buf.putInt((int) readers[winner].current);
+                } else {
+                    buf.putLong(readers[winner].current);
+                }
+                tree.advance(winner);
+            }
+            buf.flip();
+            writeFully(out, buf);
+        } finally {
+            for (RunReader r : readers) {
+                if (r != null) {
+                    r.channel.close();
+                }
+            }
+        }
+    }
+
+    // 顺序读取一个段文件，current 为当前元素
+    static final class RunReader {
+        final FileChannel channel;
+        final ElementType type;
+        final ByteBuffer buf;
+        long current;
+        boolean exhausted;
+
+        RunReader(FileChannel channel, ElementType type, int bufferBytes) throws IOException {
+            this.channel = channel;
+            this.type = type;
+            this.buf = ByteBuffer.allocateDirect(bufferBytes);
+            buf.flip();
+            advance();
+        }
+
+        void advance() throws IOException {
+            if (buf.remaining() < type.width) {
+                buf.compact();
+                while (buf.position() < type.width) {
+                    if (channel.read(buf) < 0) {
+                        exhausted = true;
+                        return;
+                    }
+                }
+                buf.flip();
+            }
+            current = type == ElementType.INT ? buf.getInt() : buf.getLong();
+        }
+    }
+
+    /**
+     * 败者树：内部节点记录"比赛的失败者"，tree[0] 记录总冠军
+     * 取走冠军后只需沿冠军所在叶子到根的一条路径重赛，每次比较 log2(k) 次，
+     * 比普通堆的下沉（每层两次比较）少一半
+     */
+    static final class LoserTree {
+        private final RunReader[] readers;
+        private final int k;
+        private final int[] tree;
+
+        LoserTree(RunReader[] readers) {
+            this.readers = readers;
+            this.k = readers.length;
+            this.tree = new int[Math.max(k, 1)];
+            if (k == 0) {
+                tree[0] = -1;
+                return;
+            }
+            // 自底向上建树：叶子 i 位于虚拟下标 k + i
+            int[] winners = new int[k << 1];
+            for (int i = 0; i < k; i++) {
+                winners[k + i] = i;
+            }
+            for (int node = k - 1; node >= 1; node--) {
+                int a = winners[node << 1];
+                int b = winners[(node << 1) + 1];
+                if (beats(a, b)) {
+                    winners[node] = a;
+                    tree[node] = b;
+                } else {
+                    winners[node] = b;
+                    tree[node] = a;
+                }
+            }
+            tree[0] = k == 1 ? 0 : winners[1];
+        }
+
+        /**
+         * 当前最小元素所在的段；全部读完返回 -1
+         */
+        int winner() {
+            int w = tree[0];
+            return w < 0 || readers[w].exhausted ? -1 : w;
+        }
+
+        void advance(int s) throws IOException {
+            readers[s].advance();
+            for (int node = (s + k) >> 1; node > 0; node >>= 1) {
+                if (beats(tree[node], s)) {
+                    int t = tree[node];
+                    tree[node] = s;
+                    s = t;
+                }
+            }
+            tree[0] = s;
+        }
+
+        // 读完的段视为无穷大
+        private boolean beats(int a, int b) {
+            RunReader ra = readers[a];
+            RunReader rb = readers[b];
+            if (ra.exhausted) {
+                return false;
+            }
+            return rb.exhausted || ra.current < rb.current;
+        }
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+}
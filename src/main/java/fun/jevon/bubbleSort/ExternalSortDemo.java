@@ -0,0 +1,111 @@
+package fun.jevon.bubbleSort;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * 外部排序演示：生成随机 long / int 文件，用 ExternalSort 排序并校验
+ *
+ * 参数：[元素个数，默认 2000 万] [内存预算 MB，默认 32]
+ * 想验证"数据比堆大"时，可以用 -Xmx128m 运行并把元素个数调到 1 亿（800MB 的 long 文件）
+ */
+public class ExternalSortDemo {
+
+    public static void main(String[] args) throws IOException {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 20_000_000L;
+        long budget = (args.length > 1 ? Long.parseLong(args[1]) : 32) << 20;
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.printf("=== 外部归并排序：%,d 个元素, 内存预算 %d MB, 最大堆 %d MB, 线程数 %d ===%n",
+                count, budget >> 20, Runtime.getRuntime().maxMemory() >> 20, threads);
+
+        Path dir = Files.createTempDirectory("external-sort-");
+        ExternalSort sorter = new ExternalSort(budget, threads, dir);
+        try {
+            for (ExternalSort.ElementType type : ExternalSort.ElementType.values()) {
+                Path input = dir.resolve("input-" + type + ".bin");
+                Path output = dir.resolve("sorted-" + type + ".bin");
+                long checksum = generate(input, count, type);
+
+                ExternalSort.Stats stats = sorter.sort(input, output, type);
+                System.out.println(type + ": " + stats);
+                System.out.println(type + ": 校验 " + verify(output, count, checksum, type));
+                Files.delete(input);
+                Files.delete(output);
+            }
+        } finally {
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    // 写入随机数据，返回元素之和用于校验
+    private static long generate(Path file, long count, ExternalSort.ElementType type) throws IOException {
+        Random random = new Random(42);
+        long sum = 0;
+        ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long i = 0; i < count; i++) {
+                if (buf.remaining() < Long.BYTES) {
+                    flush(ch, buf);
+                }
+                if (type == ExternalSort.ElementType.INT) {
+                    int v = random.nextInt();
+                    buf.putInt(v);
+                    sum += v;
+                } else {
+                    long v = random.nextLong();
+                    buf.putLong(v);
+                    sum += v;
+                }
+            }
+            flush(ch, buf);
+        }
+        return sum;
+    }
+
+    private static void flush(FileChannel ch, ByteBuffer buf) throws IOException {
+        buf.flip();
+        while (buf.hasRemaining()) {
+            ch.write(buf);
+        }
+        buf.clear();
+    }
+
+    // 流式检查：元素个数、元素之和、是否非降序
+    private static String verify(Path file, long count, long checksum, ExternalSort.ElementType type)
+            throws IOException {
+        long n = 0;
+        long sum = 0;
+        long prev = Long.MIN_VALUE;
+        boolean sorted = true;
+        ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (ch.read(buf) > 0 || buf.position() > 0) {
+                buf.flip();
+                while (buf.remaining() >= Long.BYTES
+                        || (type == ExternalSort.ElementType.INT && buf.remaining() >= Integer.BYTES)) {
+                    long v = type == ExternalSort.ElementType.INT ? buf.getInt() : buf.getLong();
+                    sorted &= prev <= v;
+                    prev = v;
+                    sum += v;
+                    n++;
+                }
+                if (!buf.hasRemaining()) {
+                    buf.clear();
+                } else {
+                    buf.compact();
+                }
+                if (ch.position() == ch.size() && buf.position() == 0) {
+                    break;
+                }
+            }
+        }
+        return String.format("个数=%s, 校验和=%s, 有序=%s", n == count, sum == checksum, sorted);
+    }
+}
@@ -0,0 +1,120 @@
+package fun.jevon.bubbleSort;
+
+import java.util.Arrays;
+
+/**
+ * 流式 Top-K（int / long）：容量为 k 的原始类型小顶堆，保留到目前为止最大的 k 个
+ *
+ * - 堆顶是当前第 k 大的值（门槛）；新值不大于门槛时只比较一次就丢弃，大多数元素走这条路
+ * - 只占 k 个 long，不装箱；数据可以一边到达一边 add，不需要先收集到数组里
+ * - 各分区（线程）各自统计，再用 merge 合并，结果与整体统计相同；
+ *   可直接用于 LongStream.parallel().collect(() -> new LongTopK(k), LongTopK::add, LongTopK::merge)
+ * - 非线程安全
+ */
+public class LongTopK {
+
+    private final int k;
+    private final long[] heap;
+    private int size;
+
+    public LongTopK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k 必须大于 0: " + k);
+        }
+        this.k = k;
+        this.heap = new long[k];
+    }
+
+    public void add(int value) {
+        add((long) value);
+    }
+
+    public void add(long value) {
+        if (size < k) {
+            heap[size] = value;
+            siftUp(size++);
+        } else if (value > heap[0]) {
+            heap[0] = value;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * 批量加入：批次远大于 k 时先用快速选择挑出这一批最大的 k 个，再入堆
+     */
+    public void addAll(long[] values, int from, int to) {
+        int n = to - from;
+        if (n > k << 2) {
+            long[] batch = Arrays.copyOfRange(values, from, to);
+            PartialSort.selectTopK(batch, 0, n, k);
+            for (int i = 0; i < k; i++) {
+                add(batch[i]);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                add(values[i]);
+            }
+        }
+    }
+
+    /**
+     * 合并另一个分区的结果
+     */
+    public void merge(LongTopK other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.heap[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int k() {
+        return k;
+    }
+
+    /**
+     * 结果按降序返回
+     */
+    public long[] toSortedArray() {
+        long[] result = Arrays.copyOf(heap, size);
+        Arrays.sort(result);
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            long t = result[i];
+            result[i] = result[j];
+            result[j] = t;
+        }
+        return result;
+    }
+
+    private void siftUp(int i) {
+        long v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= v) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = v;
+    }
+
+    private void siftDown(int i) {
+        long v = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (v <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = v;
+    }
+}
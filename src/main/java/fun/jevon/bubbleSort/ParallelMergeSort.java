@@ -0,0 +1,263 @@
+package fun.jevon.bubbleSort;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 并行归并排序（Fork/Join）
+ *
+ * 做法：
+ * - 递归二分，区间小于 SORT_THRESHOLD 时直接 Arrays.sort，两半用 fork 并行排序
+ * - 两个数组轮流作为"结果"和"辅助"（乒乓），每层归并只写一次，不需要再拷回
+ * - 归并本身也并行：取较长一段的中点，在另一段里二分找到切分位置，左右两部分分别 fork 归并，
+ *   避免顶层一次 O(n) 的单线程归并成为瓶颈
+ * - 需要一块与输入等长的辅助数组；默认使用 ForkJoinPool.commonPool()
+ */
+public class ParallelMergeSort {
+
+    // 小于该长度的区间直接串行排序
+    private static final int SORT_THRESHOLD = 1 << 13;
+    // 小于该长度的归并直接串行归并
+    private static final int MERGE_THRESHOLD = 1 << 14;
+
+    public static void sort(int[] a) {
+        sort(a, ForkJoinPool.commonPool());
+    }
+
+    public static void sort(int[] a, ForkJoinPool pool) {
+        if (a.length <= SORT_THRESHOLD) {
+            Arrays.sort(a);
+            return;
+        }
+        // 辅助数组先复制一份：叶子区间无论在哪个数组上排序，数据都是完整的
+        pool.invoke(new IntSortTask(a, a.clone(), 0, a.length));
+    }
+
+    public static void sort(long[] a) {
+        sort(a, ForkJoinPool.commonPool());
+    }
+
+    public static void sort(long[] a, ForkJoinPool pool) {
+        if (a.length <= SORT_THRESHOLD) {
+            Arrays.sort(a);
+            return;
+        }
+        pool.invoke(new LongSortTask(a, a.clone(), 0, a.length));
+    }
+
+    // 把 [lo, hi) 排好序写入 dst，scratch 作为子区间的结果数组
+    static final class IntSortTask extends RecursiveAction {
+        private final int[] dst;
+        private final int[] scratch;
+        private final int lo;
+        private final int hi;
+
+        IntSortTask(int[] dst, int[] scratch, int lo, int hi) {
+            this.dst = dst;
+            this.scratch = scratch;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= SORT_THRESHOLD) {
+                Arrays.sort(dst, lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new IntSortTask(scratch, dst, lo, mid), new IntSortTask(scratch, dst, mid, hi));
+            new IntMergeTask(scratch, lo, mid, mid, hi, dst, lo).compute();
+        }
+    }
+
+    // 把 src[lo1, hi1) 与 src[lo2, hi2) 两段有序区间归并到 dst[out, ...)
+    static final class IntMergeTask extends RecursiveAction {
+        private final int[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int[] dst;
+        private final int out;
+
+        IntMergeTask(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dst, int out) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 <= MERGE_THRESHOLD) {
+                mergeSequential();
+                return;
+            }
+            if (n1 >= n2) {
+                int m1 = (lo1 + hi1) >>> 1;
+                int m2 = lowerBound(src, lo2, hi2, src[m1]);
+                int at = out + (m1 - lo1) + (m2 - lo2);
+                dst[at] = src[m1];
+                invokeAll(new IntMergeTask(src, lo1, m1, lo2, m2, dst, out),
+                        new IntMergeTask(src, m1 + 1, hi1, m2, hi2, dst, at + 1));
+            } else {
+                int m2 = (lo2 + hi2) >>> 1;
+                // 相等元素时第一段的排在前面，保证两种切分方式结果一致
+                int m1 = upperBound(src, lo1, hi1, src[m2]);
+                int at = out + (m1 - lo1) + (m2 - lo2);
+                dst[at] = src[m2];
+                invokeAll(new IntMergeTask(src, lo1, m1, lo2, m2, dst, out),
+                        new IntMergeTask(src, m1, hi1, m2 + 1, hi2, dst, at + 1));
+            }
+        }
+
+        private void mergeSequential() {
+            int i = lo1;
+            int j = lo2;
+            int k = out;
+            while (i < hi1 && j < hi2) {
+                dst[k++] = src[j] < src[i] ? src[j++] : src[i++];
+            }
+            System.arraycopy(src, i, dst, k, hi1 - i);
+            System.arraycopy(src, j, dst, k + (hi1 - i), hi2 - j);
+        }
+
+        // 第一个 >= key 的位置
+        private static int lowerBound(int[] a, int lo, int hi, int key) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        // 第一个 > key 的位置
+        private static int upperBound(int[] a, int lo, int hi, int key) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] <= key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+
+    static final class LongSortTask extends RecursiveAction {
+        private final long[] dst;
+        private final long[] scratch;
+        private final int lo;
+        private final int hi;
+
+        LongSortTask(long[] dst, long[] scratch, int lo, int hi) {
+            this.dst = dst;
+            this.scratch = scratch;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo <= SORT_THRESHOLD) {
+                Arrays.sort(dst, lo, hi);
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new LongSortTask(scratch, dst, lo, mid), new LongSortTask(scratch, dst, mid, hi));
+            new LongMergeTask(scratch, lo, mid, mid, hi, dst, lo).compute();
+        }
+    }
+
+    static final class LongMergeTask extends RecursiveAction {
+        private final long[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final long[] dst;
+        private final int out;
+
+        LongMergeTask(long[] src, int lo1, int hi1, int lo2, int hi2, long[] dst, int out) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dst = dst;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 <= MERGE_THRESHOLD) {
+                mergeSequential();
+                return;
+            }
+            if (n1 >= n2) {
+                int m1 = (lo1 + hi1) >>> 1;
+                int m2 = lowerBound(src, lo2, hi2, src[m1]);
+                int at = out + (m1 - lo1) + (m2 - lo2);
+                dst[at] = src[m1];
+                invokeAll(new LongMergeTask(src, lo1, m1, lo2, m2, dst, out),
+                        new LongMergeTask(src, m1 + 1, hi1, m2, hi2, dst, at + 1));
+            } else {
+                int m2 = (lo2 + hi2) >>> 1;
+                int m1 = upperBound(src, lo1, hi1, src[m2]);
+                int at = out + (m1 - lo1) + (m2 - lo2);
+                dst[at] = src[m2];
+                invokeAll(new LongMergeTask(src, lo1, m1, lo2, m2, dst, out),
+                        new LongMergeTask(src, m1, hi1, m2 + 1, hi2, dst, at + 1));
+            }
+        }
+
+        private void mergeSequential() {
+            int i = lo1;
+            int j = lo2;
+            int k = out;
+            while (i < hi1 && j < hi2) {
+                dst[k++] = src[j] < src[i] ? src[j++] : src[i++];
+            }
+            System.arraycopy(src, i, dst, k, hi1 - i);
+            System.arraycopy(src, j, dst, k + (hi1 - i), hi2 - j);
+        }
+
+        private static int lowerBound(long[] a, int lo, int hi, long key) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] < key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private static int upperBound(long[] a, int lo, int hi, long key) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (a[mid] <= key) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
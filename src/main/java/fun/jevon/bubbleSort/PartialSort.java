@@ -0,0 +1,298 @@
+package fun.jevon.bubbleSort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 基于快速选择（quickselect）的部分排序：只需要最大的 k 个时，不必把整个数组排好序
+ *
+ * - selectTopK：平均 O(n)，把最大的 k 个换到区间最前面（前 k 个内部无序）
+ * - partialSort：selectTopK 之后只对前 k 个排序，O(n + k log k)，而完整排序是 O(n log n)
+ * - 三路划分（大于 / 等于 / 小于主元），大量重复值时不会退化
+ * - 原地进行，会打乱输入数组
+ * - double 的顺序与 Double.compare 一致（-0.0 < 0.0，NaN 最大）；对象按 Comparator 取最大的 k 个，
+ *   比较相等的元素中保留哪几个不保证
+ */
+public class PartialSort {
+
+    // 区间小于该长度时直接插入排序
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * 最大的 k 个按降序放到 a[0, k)
+     */
+    public static void partialSort(long[] a, int k) {
+        k = Math.min(k, a.length);
+        selectTopK(a, 0, a.length, k);
+        Arrays.sort(a, 0, k);
+        reverse(a, 0, k);
+    }
+
+    /**
+     * 最大的 k 个按降序放到 a[0, k)
+     */
+    public static void partialSort(int[] a, int k) {
+        k = Math.min(k, a.length);
+        selectTopK(a, 0, a.length, k);
+        Arrays.sort(a, 0, k);
+        reverse(a, 0, k);
+    }
+
+    /**
+     * 最大的 k 个按降序放到 a[0, k)
+     */
+    public static void partialSort(double[] a, int k) {
+        k = Math.min(k, a.length);
+        selectTopK(a, 0, a.length, k);
+        Arrays.sort(a, 0, k);
+        reverse(a, 0, k);
+    }
+
+    /**
+     * 按 comparator 最大的 k 个降序放到 a[0, k)
+     */
+    public static <T> void partialSort(T[] a, int k, Comparator<? super T> comparator) {
+        k = Math.min(k, a.length);
+        selectTopK(a, 0, a.length, k, comparator);
+        Arrays.sort(a, 0, k, comparator.reversed());
+    }
+
+    /**
+     * 把 a[from, to) 中最大的 k 个移到 a[from, from + k)，顺序不保证
+     */
+    public static void selectTopK(long[] a, int from, int to, int k) {
+        if (k <= 0 || k >= to - from) {
+            return;
+        }
+        int target = from + k;
+        int lo = from;
+        int hi = to - 1;
+        while (hi - lo > INSERTION_THRESHOLD) {
+            long pivot = median(a[lo], a[(lo + hi) >>> 1], a[hi]);
+            // 划分后：[lo, lt) > pivot，[lt, gt] == pivot，(gt, hi] < pivot
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i <= gt) {
+                long v = a[i];
+                if (v > pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (v < pivot) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (target <= lt) {
+                hi = lt - 1;
+            } else if (target <= gt + 1) {
+                // 边界落在等于主元的一段里，前 k 个已经确定
+                return;
+            } else {
+                lo = gt + 1;
+            }
+        }
+        // 剩下的小区间按降序插入排序
+        for (int i = lo + 1; i <= hi; i++) {
+            long v = a[i];
+            int j = i - 1;
+            while (j >= lo && a[j] < v) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = v;
+        }
+    }
+
+    /**
+     * 把 a[from, to) 中最大的 k 个移到 a[from, from + k)，顺序不保证
+     */
+    public static void selectTopK(int[] a, int from, int to, int k) {
+        if (k <= 0 || k >= to - from) {
+            return;
+        }
+        int target = from + k;
+        int lo = from;
+        int hi = to - 1;
+        while (hi - lo > INSERTION_THRESHOLD) {
+            int pivot = (int) median(a[lo], a[(lo + hi) >>> 1], a[hi]);
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i <= gt) {
+                int v = a[i];
+                if (v > pivot) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (v < pivot) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (target <= lt) {
+                hi = lt - 1;
+            } else if (target <= gt + 1) {
+                return;
+            } else {
+                lo = gt + 1;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            int v = a[i];
+            int j = i - 1;
+            while (j >= lo && a[j] < v) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = v;
+        }
+    }
+
+    /**
+     * 把 a[from, to) 中最大的 k 个移到 a[from, from + k)，顺序不保证
+     */
+    public static void selectTopK(double[] a, int from, int to, int k) {
+        if (k <= 0 || k >= to - from) {
+            return;
+        }
+        int target = from + k;
+        int lo = from;
+        int hi = to - 1;
+        while (hi - lo > INSERTION_THRESHOLD) {
+            double pivot = median(a[lo], a[(lo + hi) >>> 1], a[hi]);
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i <= gt) {
+                double v = a[i];
+                int c = Double.compare(v, pivot);
+                if (c > 0) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (c < 0) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (target <= lt) {
+                hi = lt - 1;
+            } else if (target <= gt + 1) {
+                return;
+            } else {
+                lo = gt + 1;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            double v = a[i];
+            int j = i - 1;
+            while (j >= lo && Double.compare(a[j], v) < 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = v;
+        }
+    }
+
+    /**
+     * 把 a[from, to) 中按 comparator 最大的 k 个移到 a[from, from + k)，顺序不保证
+     */
+    public static <T> void selectTopK(T[] a, int from, int to, int k, Comparator<? super T> comparator) {
+        if (k <= 0 || k >= to - from) {
+            return;
+        }
+        int target = from + k;
+        int lo = from;
+        int hi = to - 1;
+        while (hi - lo > INSERTION_THRESHOLD) {
+            T pivot = median(a[lo], a[(lo + hi) >>> 1], a[hi], comparator);
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i <= gt) {
+                T v = a[i];
+                int c = comparator.compare(v, pivot);
+                if (c > 0) {
+                    a[i++] = a[lt];
+                    a[lt++] = v;
+                } else if (c < 0) {
+                    a[i] = a[gt];
+                    a[gt--] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (target <= lt) {
+                hi = lt - 1;
+            } else if (target <= gt + 1) {
+                return;
+            } else {
+                lo = gt + 1;
+            }
+        }
+        for (int i = lo + 1; i <= hi; i++) {
+            T v = a[i];
+            int j = i - 1;
+            while (j >= lo && comparator.compare(a[j], v) < 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = v;
+        }
+    }
+
+    // 三数取中：已有序或逆序的输入也能选到接近中间的主元
+    private static long median(long a, long b, long c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static double median(double a, double b, double c) {
+        if (Double.compare(a, b) > 0) {
+            double t = a;
+            a = b;
+            b = t;
+        }
+        // 此时 a <= b，中位数是 b 与 max(a, c) 中较小的一个
+        double ac = Double.compare(a, c) >= 0 ? a : c;
+        return Double.compare(b, ac) <= 0 ? b : ac;
+    }
+
+    private static <T> T median(T a, T b, T c, Comparator<? super T> comparator) {
+        if (comparator.compare(a, b) > 0) {
+            T t = a;
+            a = b;
+            b = t;
+        }
+        T ac = comparator.compare(a, c) >= 0 ? a : c;
+        return comparator.compare(b, ac) <= 0 ? b : ac;
+    }
+
+    private static void reverse(long[] a, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            long t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    private static void reverse(double[] a, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            double t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+
+    private static void reverse(int[] a, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            int t = a[i];
+            a[i] = a[j];
+            a[j] = t;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package fun.jevon.bubbleSort;
+
+/**
+ * LSD 基数排序（int[] / long[]）
+ *
+ * 与 Arrays.sort 的区别：
+ * - 不做比较，按字节从低位到高位做稳定的计数分配：int 最多 4 趟，long 最多 8 趟，复杂度 O(n)
+ * - 一趟扫描先统计出所有字节位的直方图；某一字节位上所有元素都相同时（例如数值范围很小）整趟跳过
+ * - 最高字节按有符号处理（异或符号位），负数排在正数前面
+ * - 需要一块与输入等长的辅助数组
+ */
+public class RadixSort {
+
+    private static final int RADIX = 256;
+
+    public static void sort(int[] a) {
+        sort(a, 0, a.length);
+    }
+
+    /**
+     * 对 a[from, to) 升序排序
+     */
+    public static void sort(int[] a, int from, int to) {
+        int n = to - from;
+        if (n < 2) {
+            return;
+        }
+        int[][] counts = new int[4][RADIX];
+        for (int i = from; i < to; i++) {
+            int v = a[i] ^ Integer.MIN_VALUE;
+            counts[0][v & 0xFF]++;
+            counts[1][(v >>> 8) & 0xFF]++;
+            counts[2][(v >>> 16) & 0xFF]++;
+            counts[3][v >>> 24]++;
+        }
+        int[] src = a;
+        int srcOff = from;
+        int[] dst = new int[n];
+        int dstOff = 0;
+        for (int pass = 0; pass < 4; pass++) {
+            int[] count = counts[pass];
+            if (isTrivial(count, n)) {
+                continue;
+            }
+            int shift = pass << 3;
+            toOffsets(count);
+            for (int i = srcOff, end = srcOff + n; i < end; i++) {
+                int v = src[i];
+                dst[dstOff + count[((v ^ Integer.MIN_VALUE) >>> shift) & 0xFF]++] = v;
+            }
+            int[] t = src;
+            src = dst;
+            dst = t;
+            int o = srcOff;
+            srcOff = dstOff;
+            dstOff = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, from, n);
+        }
+    }
+
+    public static void sort(long[] a) {
+        sort(a, 0, a.length);
+    }
+
+    /**
+     * 对 a[from, to) 升序排序
+     */
+    public static void sort(long[] a, int from, int to) {
+        int n = to - from;
+        if (n < 2) {
+            return;
+        }
+        int[][] counts = new int[8][RADIX];
+        for (int i = from; i < to; i++) {
+            long v = a[i] ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < 8; pass++) {
+                counts[pass][(int) (v >>> (pass << 3)) & 0xFF]++;
+            }
+        }
+        long[] src = a;
+        int srcOff = from;
+        long[] dst = new long[n];
+        int dstOff = 0;
+        for (int pass = 0; pass < 8; pass++) {
+            int[] count = counts[pass];
+            if (isTrivial(count, n)) {
+                continue;
+            }
+            int shift = pass << 3;
+            toOffsets(count);
+            for (int i = srcOff, end = srcOff + n; i < end; i++) {
+                long v = src[i];
+                dst[dstOff + count[(int) ((v ^ Long.MIN_VALUE) >>> shift) & 0xFF]++] = v;
+            }
+            long[] t = src;
+            src = dst;
+            dst = t;
+            int o = srcOff;
+            srcOff = dstOff;
+            dstOff = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, from, n);
+        }
+    }
+
+    // 所有元素在这一字节位上取值相同，这一趟分配不会改变顺序
+    private static boolean isTrivial(int[] count, int n) {
+        for (int c : count) {
+            if (c != 0) {
+                return c == n;
+            }
+        }
+        return true;
+    }
+
+    // 计数 -> 每个桶的起始下标
+    private static void toOffsets(int[] count) {
+        int sum = 0;
+        for (int b = 0; b < RADIX; b++) {
+            int c = count[b];
+            count[b] = sum;
+            sum += c;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package fun.jevon.bubbleSort;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * 排序性能对比：Arrays.sort / Arrays.parallelSort / RadixSort / ParallelMergeSort / AdaptiveSort
+ *
+ * 数据分布：随机、已升序、降序、少量重复值（只有 16 种取值）
+ * 规模：1e3 起每次 ×10，默认到 1e7；传参可指定最大规模，例如 100000000（需要 -Xmx4g 左右）
+ */
+public class SortPerformanceDemo {
+
+    private static final String[] DISTRIBUTIONS = {"随机", "升序", "降序", "少量重复值"};
+
+    public static void main(String[] args) {
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        System.out.println("=== 排序性能对比（CPU 数 = " + Runtime.getRuntime().availableProcessors() + "） ===");
+        System.out.println("冒泡排序 O(n^2)：1e5 个元素就需要约 50 亿次比较，这里不参与对比\n");
+
+        for (long n = 1_000; n <= maxSize; n *= 10) {
+            for (int d = 0; d < DISTRIBUTIONS.length; d++) {
+                int[] data = generate((int) n, d, 42);
+                int[] expected = data.clone();
+                Arrays.sort(expected);
+                System.out.printf("n=%,d %s（自适应选择: %s）%n", n, DISTRIBUTIONS[d], AdaptiveSort.choose(data));
+                run("Arrays.sort", data, expected, Arrays::sort);
+                run("Arrays.parallelSort", data, expected, Arrays::parallelSort);
+                run("RadixSort", data, expected, RadixSort::sort);
+                run("ParallelMergeSort", data, expected, ParallelMergeSort::sort);
+                run("AdaptiveSort", data, expected, AdaptiveSort::sort);
+            }
+            System.out.println();
+        }
+
+        // long[] 只对比随机数据
+        int n = Math.min(maxSize, 1_000_000);
+        long[] longs = new Random(42).longs(n).toArray();
+        System.out.printf("long[] n=%,d 随机%n", n);
+        long[] copy = longs.clone();
+        long start = System.nanoTime();
+        Arrays.sort(copy);
+        System.out.printf("  %-20s %8.2f ms%n", "Arrays.sort", (System.nanoTime() - start) / 1_000_000.0);
+        copy = longs.clone();
+        start = System.nanoTime();
+        RadixSort.sort(copy);
+        System.out.printf("  %-20s %8.2f ms%n", "RadixSort", (System.nanoTime() - start) / 1_000_000.0);
+        copy = longs.clone();
+        start = System.nanoTime();
+        ParallelMergeSort.sort(copy);
+        System.out.printf("  %-20s %8.2f ms%n", "ParallelMergeSort", (System.nanoTime() - start) / 1_000_000.0);
+    }
+
+    // 小规模重复多次取平均，避免 1e3 的单次耗时只有几微秒无法比较
+    private static void run(String name, int[] data, int[] expected, Consumer<int[]> sorter) {
+        int repeats = Math.max(1, 1_000_000 / data.length);
+        long total = 0;
+        int[] copy = null;
+        for (int r = 0; r < repeats; r++) {
+            copy = data.clone();
+            long start = System.nanoTime();
+            sorter.accept(copy);
+            total += System.nanoTime() - start;
+        }
+        System.out.printf("  %-20s %10.3f ms%s%n", name, total / 1_000_000.0 / repeats,
+                Arrays.equals(copy, expected) ? "" : "  结果错误!");
+    }
+
+    static int[] generate(int n, int distribution, long seed) {
+        Random random = new Random(seed);
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) {
+            switch (distribution) {
+                case 0:
+                    a[i] = random.nextInt();
+                    break;
+                case 1:
+                    a[i] = i;
+                    break;
+                case 2:
+                    a[i] = n - i;
+                    break;
+                default:
+                    a[i] = random.nextInt(16);
+                    break;
+            }
+        }
+        return a;
+    }
+}
@@ -0,0 +1,142 @@
+package fun.jevon.bubbleSort;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 流式 Top-K（对象）：按 Comparator 保留最大的 k 个，容量为 k 的小顶堆
+ *
+ * 例如"每个部门工资最高的 3 人"：每个部门一个 TopK，按工资比较，
+ * 相当于 SQL 的 ROW_NUMBER() OVER (PARTITION BY dept_id ORDER BY salary DESC) <= 3，
+ * 但只需扫描一遍、每个部门只保留 3 条
+ *
+ * 原始类型请用 LongTopK / DoubleTopK，避免装箱；非线程安全，分区统计后用 merge 合并
+ */
+public class TopK<T> {
+
+    private final int k;
+    private final Comparator<? super T> comparator;
+    private final Object[] heap;
+    private int size;
+
+    public TopK(int k, Comparator<? super T> comparator) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k 必须大于 0: " + k);
+        }
+        this.k = k;
+        this.comparator = comparator;
+        this.heap = new Object[k];
+    }
+
+    /**
+     * 按自然顺序取最大的 k 个
+     */
+    public static <T extends Comparable<? super T>> TopK<T> natural(int k) {
+        return new TopK<>(k, Comparator.naturalOrder());
+    }
+
+    public void add(T value) {
+        if (size < k) {
+            heap[size] = value;
+            siftUp(size++);
+        } else if (comparator.compare(value, elementAt(0)) > 0) {
+            heap[0] = value;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * 已知大小且远大于 k 的集合与 addAll(T[], int, int) 一样走快速选择
+     */
+    @SuppressWarnings("unchecked")
+    public void addAll(Iterable<? extends T> values) {
+        if (values instanceof Collection && ((Collection<?>) values).size() > k << 2) {
+            addLargest((T[]) ((Collection<?>) values).toArray());
+            return;
+        }
+        for (T v : values) {
+            add(v);
+        }
+    }
+
+    /**
+     * 批量加入：批次远大于 k 时先用快速选择挑出这一批最大的 k 个，再入堆
+     */
+    public void addAll(T[] values, int from, int to) {
+        if (to - from > k << 2) {
+            addLargest(Arrays.copyOfRange(values, from, to));
+        } else {
+            for (int i = from; i < to; i++) {
+                add(values[i]);
+            }
+        }
+    }
+
+    public void merge(TopK<? extends T> other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.elementAt(i));
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 结果按降序返回
+     */
+    public List<T> toSortedList() {
+        List<T> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(elementAt(i));
+        }
+        result.sort(comparator.reversed());
+        return result;
+    }
+
+    // batch 是可以打乱的副本
+    private void addLargest(T[] batch) {
+        PartialSort.selectTopK(batch, 0, batch.length, k, comparator);
+        for (int i = 0; i < k; i++) {
+            add(batch[i]);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T elementAt(int i) {
+        return (T) heap[i];
+    }
+
+    private void siftUp(int i) {
+        T v = elementAt(i);
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (comparator.compare(elementAt(parent), v) <= 0) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = v;
+    }
+
+    private void siftDown(int i) {
+        T v = elementAt(i);
+        int half = size >>> 1;
+        while (i < half) {
+            int child = (i << 1) + 1;
+            if (child + 1 < size && comparator.compare(elementAt(child + 1), elementAt(child)) < 0) {
+                child++;
+            }
+            if (comparator.compare(v, elementAt(child)) <= 0) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = v;
+    }
+}
@@ -0,0 +1,106 @@
+package fun.jevon.bubbleSort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+
+/**
+ * Top-K 演示
+ * 1. 每个部门工资最高的 3 人（对应 sql 目录下 employee 表的分组取前 N 查询）
+ * 2. 只要最大的 K 个时：完整排序 vs 流式小顶堆 vs 快速选择部分排序 vs 多分区并行合并
+ */
+public class TopKDemo {
+
+    private static final int N = 10_000_000;
+
+    static final class Employee {
+        final String name;
+        final int deptId;
+        final long salary;
+
+        Employee(String name, int deptId, long salary) {
+            this.name = name;
+            this.deptId = deptId;
+            this.salary = salary;
+        }
+
+        @Override
+        public String toString() {
+            return name + "(" + salary + ")";
+        }
+    }
+
+    public static void main(String[] args) {
+        demoTopSalaryPerDept();
+        System.out.println();
+        benchmark();
+    }
+
+    // SELECT * FROM (SELECT e.*, ROW_NUMBER() OVER (PARTITION BY dept_id ORDER BY salary DESC) rn FROM employee e) t
+    // WHERE rn <= 3
+    private static void demoTopSalaryPerDept() {
+        System.out.println("1) 每个部门工资最高的 3 人（100 万员工, 20 个部门, 一次扫描）");
+        Random random = new Random(42);
+        Employee[] employees = new Employee[1_000_000];
+        for (int i = 0; i < employees.length; i++) {
+            employees[i] = new Employee("emp" + i, 1 + random.nextInt(20), 5_000 + random.nextInt(45_000));
+        }
+
+        long start = System.nanoTime();
+        Map<Integer, TopK<Employee>> topByDept = new TreeMap<>();
+        Comparator<Employee> bySalary = Comparator.comparingLong(e -> e.salary);
+        for (Employee e : employees) {
+            topByDept.computeIfAbsent(e.deptId, d -> new TopK<>(3, bySalary)).add(e);
+        }
+        long end = System.nanoTime();
+
+        topByDept.entrySet().stream().limit(3).forEach(entry ->
+                System.out.println("部门 " + entry.getKey() + ": " + entry.getValue().toSortedList()));
+        System.out.printf("耗时: %.1f ms（每个部门只保留 3 条，不需要对 100 万条记录排序）%n", (end - start) / 1_000_000.0);
+    }
+
+    private static void benchmark() {
+        System.out.printf("2) 从 %,d 个随机 long 中取最大的 K 个%n", N);
+        long[] data = new Random(42).longs(N).toArray();
+
+        for (int k = 10; k <= 100_000; k *= 10) {
+            final int topK = k;
+
+            long t0 = System.nanoTime();
+            long[] sorted = data.clone();
+            Arrays.sort(sorted);
+            long[] bySort = new long[k];
+            for (int i = 0; i < k; i++) {
+                bySort[i] = sorted[N - 1 - i];
+            }
+            long t1 = System.nanoTime();
+
+            LongTopK heap = new LongTopK(k);
+            for (long v : data) {
+                heap.add(v);
+            }
+            long[] byHeap = heap.toSortedArray();
+            long t2 = System.nanoTime();
+
+            long[] copy = data.clone();
+            PartialSort.partialSort(copy, k);
+            long[] bySelect = Arrays.copyOf(copy, k);
+            long t3 = System.nanoTime();
+
+            long[] byParallel = LongStream.of(data).parallel()
+                    .collect(() -> new LongTopK(topK), LongTopK::add, LongTopK::merge)
+                    .toSortedArray();
+            long t4 = System.nanoTime();
+
+            boolean same = Arrays.equals(bySort, byHeap) && Arrays.equals(bySort, bySelect)
+                    && Arrays.equals(bySort, byParallel);
+            System.out.printf("K=%-7d 完整排序: %7.1f ms, 小顶堆: %6.1f ms, 快速选择: %6.1f ms, 并行分区合并: %6.1f ms, 结果一致=%s%n",
+                    k, (t1 - t0) / 1_000_000.0, (t2 - t1) / 1_000_000.0, (t3 - t2) / 1_000_000.0,
+                    (t4 - t3) / 1_000_000.0, same);
+        }
+        System.out.println("说明：K 远小于 N 时小顶堆几乎每个元素只比较一次；K 较大时快速选择的 O(n) 更稳定。");
+    }
+}
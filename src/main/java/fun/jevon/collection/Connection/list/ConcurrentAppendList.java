@@ -0,0 +1,251 @@
+package fun.jevon.collection.Connection.list;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 无竞争的并发追加列表（只追加，不删除）
+ *
+ * 与 Vector / Collections.synchronizedList 的区别：
+ * - 每个写线程有自己的 Appender，元素写进自己的块（Chunk），add() 不加锁也不做 CAS
+ * - 块满了就挂到该线程自己的块目录里；所有 Appender 登记在共享目录 appenders 中（只在线程首次写入时修改一次）
+ * - 按线程 ID 找 Appender 用列表自己的一张开放寻址表，不用 ThreadLocal：ThreadLocal 的值挂在线程上，
+ *   列表丢弃后线程池里的线程仍会持有它的 Appender 和所有块，直到偶然被清理；这张表随列表一起回收
+ * - 单写者原则：每个块只有一个线程写，写完元素后用 release 语义发布 count，读者用 acquire 读取
+ *
+ * 读取语义：
+ * - snapshot() 对每个写线程取其"已发布前缀"，size() 与迭代器都基于同一个快照，数量与内容一致
+ * - 元素顺序：按写线程分组，同一线程内保持追加顺序；不同线程之间没有全局顺序
+ * - 适合写多读少的采集场景
+ */
+public class ConcurrentAppendList<E> extends AbstractCollection<E> {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    private static final VarHandle COUNT;
+
+    static {
+        try {
+            COUNT = MethodHandles.lookup().findVarHandle(Chunk.class, "count", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static final class Chunk {
+        final Object[] items = new Object[CHUNK_SIZE];
+        // 只由所属线程写；通过 COUNT 以 release/acquire 方式访问
+        int count;
+    }
+
+    // 单个写线程的块目录
+    static final class Appender {
+        final long ownerId;
+        volatile Chunk[] chunks = new Chunk[4];
+        volatile int chunkCount;
+        // 仅所属线程访问，省去每次 add 的 volatile 读
+        Chunk current;
+        int currentCount;
+
+        Appender(long ownerId) {
+            this.ownerId = ownerId;
+        }
+    }
+
+    // 共享目录：所有写线程的 Appender
+    private final CopyOnWriteArrayList<Appender> appenders = new CopyOnWriteArrayList<>();
+
+    // 线程 ID -> Appender 的开放寻址表（线性探测），装载率不超过 1/2；
+    // 只在线程首次写入时加锁插入，查找不加锁：每个线程只找自己插入的条目，一定看得到
+    private volatile Appender[] table = new Appender[16];
+
+    @Override
+    public boolean add(E e) {
+        Appender a = appender();
+        Chunk c = a.current;
+        int n = a.currentCount;
+        if (c == null || n == CHUNK_SIZE) {
+            c = newChunk(a);
+            n = 0;
+        }
+        c.items[n] = e;
+        a.currentCount = n + 1;
+        // 先写元素，再发布 count；读者看到 count 就一定能看到元素
+        COUNT.setRelease(c, n + 1);
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return snapshot().size();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return snapshot().iterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        snapshot().forEach(action);
+    }
+
+    /**
+     * 取一致快照：之后的追加不影响快照的 size 与内容
+     */
+    public Snapshot<E> snapshot() {
+        Object[][] arrays = new Object[16][];
+        int[] lengths = new int[16];
+        int n = 0;
+        long total = 0;
+        for (Appender a : appenders) {
+            // 先读 chunkCount 再读 chunks：写线程是先放数组再递增计数
+            int chunkCount = a.chunkCount;
+            Chunk[] chunks = a.chunks;
+            for (int i = 0; i < chunkCount; i++) {
+                Chunk c = chunks[i];
+                int len = (int) COUNT.getAcquire(c);
+                if (len == 0) {
+                    continue;
+                }
+                if (n == arrays.length) {
+                    arrays = Arrays.copyOf(arrays, n << 1);
+                    lengths = Arrays.copyOf(lengths, n << 1);
+                }
+                arrays[n] = c.items;
+                lengths[n] = len;
+                n++;
+                total += len;
+            }
+        }
+        return new Snapshot<>(arrays, lengths, n, (int) Math.min(total, Integer.MAX_VALUE));
+    }
+
+    private Appender appender() {
+        long id = Thread.currentThread().getId();
+        Appender[] t = table;
+        int mask = t.length - 1;
+        for (int i = spread(id) & mask; ; i = (i + 1) & mask) {
+            Appender a = t[i];
+            if (a == null) {
+                return register(id);
+            }
+            if (a.ownerId == id) {
+                return a;
+            }
+        }
+    }
+
+    private synchronized Appender register(long id) {
+        Appender a = new Appender(id);
+        Appender[] t = table;
+        if ((appenders.size() + 1) << 1 > t.length) {
+            // 扩容时复制到新表再整体发布，正在查找旧表的线程不受影响
+            Appender[] larger = new Appender[t.length << 1];
+            for (Appender old : t) {
+                if (old != null) {
+                    insert(larger, old);
+                }
+            }
+            insert(larger, a);
+            table = larger;
+        } else {
+            insert(t, a);
+        }
+        appenders.add(a);
+        return a;
+    }
+
+    private static void insert(Appender[] t, Appender a) {
+        int mask = t.length - 1;
+        int i = spread(a.ownerId) & mask;
+        while (t[i] != null) {
+            i = (i + 1) & mask;
+        }
+        t[i] = a;
+    }
+
+    private static int spread(long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32);
+    }
+
+    private Chunk newChunk(Appender a) {
+        Chunk c = new Chunk();
+        Chunk[] chunks = a.chunks;
+        int count = a.chunkCount;
+        if (count == chunks.length) {
+            chunks = Arrays.copyOf(chunks, count << 1);
+        }
+        chunks[count] = c;
+        a.chunks = chunks;
+        a.chunkCount = count + 1;
+        a.current = c;
+        a.currentCount = 0;
+        return c;
+    }
+
+    /**
+     * 不可变快照，只持有块数组引用与当时的长度，不复制元素
+     */
+    public static final class Snapshot<E> implements Iterable<E> {
+        private final Object[][] arrays;
+        private final int[] lengths;
+        private final int chunkCount;
+        private final int size;
+
+        Snapshot(Object[][] arrays, int[] lengths, int chunkCount, int size) {
+            this.arrays = arrays;
+            this.lengths = lengths;
+            this.chunkCount = chunkCount;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEach(Consumer<? super E> action) {
+            for (int c = 0; c < chunkCount; c++) {
+                Object[] items = arrays[c];
+                for (int i = 0, n = lengths[c]; i < n; i++) {
+                    action.accept((E) items[i]);
+                }
+            }
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new Iterator<E>() {
+                private int chunk;
+                private int offset;
+
+                @Override
+                public boolean hasNext() {
+                    return chunk < chunkCount;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public E next() {
+                    if (chunk >= chunkCount) {
+                        throw new NoSuchElementException();
+                    }
+                    E e = (E) arrays[chunk][offset];
+                    if (++offset == lengths[chunk]) {
+                        chunk++;
+                        offset = 0;
+                    }
+                    return e;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package fun.jevon.collection.Connection.list;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * 读多写少的并发列表：读与 CopyOnWriteArrayList 一样无锁读快照，写入按"组提交"合并复制
+ *
+ * 与 CopyOnWriteArrayList 的区别：
+ * - CopyOnWriteArrayList 每次 add 都复制一次整个数组，N 个线程并发写入 M 个元素就要复制 N*M 次
+ * - 这里 add/addAll 先把元素放进待提交队列，再去抢提交锁：拿到锁的线程（本轮的提交者）
+ *   把队列里所有线程的待提交元素一次性追加到新数组并发布，一轮（epoch）只复制一次
+ * - 等锁的线程拿到锁时发现自己的元素已被上一轮提交，直接返回；写入突发时并发越高，每轮合并的越多
+ *
+ * 约定：
+ * - add 返回时元素一定已经发布，随后的读能看到（与 CopyOnWriteArrayList 相同）
+ * - 同一线程的写入保持先后顺序；不同线程并发写入之间的顺序由入队顺序决定
+ * - set / remove / removeIf / add(index, e) / clear / sort / replaceAll 走慢路径：先提交待写入元素，再单独复制一次
+ * - 迭代器（iterator / listIterator）是快照，不支持 remove / set / add；subList 返回调用时数组的只读快照
+ * - sort / replaceAll 不借助 ListIterator.set（AbstractList 的默认实现），在副本上整体完成后一次发布
+ */
+public class GroupCommitArrayList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    // 一次 add（单个元素）或一次 addAll（一批元素）
+    static final class Pending {
+        final Object[] items;
+        volatile boolean committed;
+
+        Pending(Object[] items) {
+            this.items = items;
+        }
+    }
+
+    private volatile Object[] array = EMPTY;
+    private final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock commitLock = new ReentrantLock();
+    // 发布次数 = 数组复制次数，只在持锁时修改
+    private volatile long publishCount;
+
+    public GroupCommitArrayList() {
+    }
+
+    public GroupCommitArrayList(Collection<? extends E> c) {
+        Object[] items = c.toArray();
+        array = Arrays.copyOf(items, items.length, Object[].class);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Object[] a = array;
+        Objects.checkIndex(index, a.length);
+        return (E) a[index];
+    }
+
+    @Override
+    public int size() {
+        return array.length;
+    }
+
+    @Override
+    public boolean add(E e) {
+        commit(new Pending(new Object[]{e}));
+        return true;
+    }
+
+    /**
+     * 整批作为一个提交单元：要么全部可见，要么都不可见
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        Object[] items = c.toArray();
+        if (items.length == 0) {
+            return false;
+        }
+        commit(new Pending(Arrays.copyOf(items, items.length, Object[].class)));
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        commitLock.lock();
+        try {
+            Object[] a = drainPending();
+            Objects.checkIndex(index, a.length);
+            E old = (E) a[index];
+            a = a.clone();
+            a[index] = element;
+            publish(a);
+            return old;
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    @Override
+    public void add(int index, E element) {
+        commitLock.lock();
+        try {
+            Object[] a = drainPending();
+            Objects.checkIndex(index, a.length + 1);
+            Object[] b = new Object[a.length + 1];
+            System.arraycopy(a, 0, b, 0, index);
+            b[index] = element;
+            System.arraycopy(a, index, b, index + 1, a.length - index);
+            publish(b);
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        commitLock.lock();
+        try {
+            Object[] a = drainPending();
+            Objects.checkIndex(index, a.length);
+            E old = (E) a[index];
+            publish(without(a, index));
+            return old;
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        commitLock.lock();
+        try {
+            Object[] a = drainPending();
+            for (int i = 0; i < a.length; i++) {
+                if (Objects.equals(o, a[i])) {
+                    publish(without(a, i));
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        commitLock.lock();
+        try {
+            Object[] a = drainPending();
+            Object[] kept = new Object[a.length];
+            int n = 0;
+            for (Object o : a) {
+                if (!filter.test((E) o)) {
+                    kept[n++] = o;
+                }
+            }
+            if (n == a.length) {
+                return false;
+            }
+            publish(Arrays.copyOf(kept, n));
+            return true;
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return removeIf(e -> !c.contains(e));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void sort(Comparator<? super E> c) {
+        commitLock.lock();
+        try {
+            Object[] a = drainPending().clone();
+            Arrays.sort((E[]) a, c);
+            publish(a);
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    // operator 抛出异常时什么都不发布
+    @Override
+    @SuppressWarnings("unchecked")
+    public void replaceAll(UnaryOperator<E> operator) {
+        Objects.requireNonNull(operator);
+        commitLock.lock();
+        try {
+            Object[] a = drainPending().clone();
+            for (int i = 0; i < a.length; i++) {
+                a[i] = operator.apply((E) a[i]);
+            }
+            publish(a);
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        commitLock.lock();
+        try {
+            drainPending();
+            publish(EMPTY);
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new SnapshotIterator<>(array, 0);
+    }
+
+    @Override
+    public ListIterator<E> listIterator() {
+        return new SnapshotIterator<>(array, 0);
+    }
+
+    // AbstractList 的实现每一步都重新读 array，而且从不递增 modCount，并发写入时会混读多个版本
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        Object[] a = array;
+        Objects.checkIndex(index, a.length + 1);
+        return new SnapshotIterator<>(a, index);
+    }
+
+    // 已发布的数组不会再被修改，直接包装成只读视图
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<E> subList(int fromIndex, int toIndex) {
+        Object[] a = array;
+        Objects.checkFromToIndex(fromIndex, toIndex, a.length);
+        return (List<E>) Collections.unmodifiableList(Arrays.asList(a).subList(fromIndex, toIndex));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        for (Object o : array) {
+            action.accept((E) o);
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        return array.clone();
+    }
+
+    /**
+     * 数组一共被复制发布了多少次（CopyOnWriteArrayList 相当于每次写入一次）
+     */
+    public long publishCount() {
+        return publishCount;
+    }
+
+    // 入队后抢锁；拿到锁时如果自己的元素已被别的提交者发布，直接返回
+    private void commit(Pending p) {
+        pending.offer(p);
+        if (!commitLock.tryLock()) {
+            // 有提交者正在复制：先让出一次 CPU（类似数据库组提交的 commit_delay），
+            // 让同时到达的写线程也入队，下一轮多合并一些；没有竞争时不付这次调度的开销
+            Thread.yield();
+            commitLock.lock();
+        }
+        try {
+            if (!p.committed) {
+                drainPending();
+            }
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    // 持锁调用：把当前队列里的全部待提交元素合并成一次复制并发布，返回发布后的数组
+    private Object[] drainPending() {
+        Object[] a = array;
+        Pending first = pending.poll();
+        if (first == null) {
+            return a;
+        }
+        // 先数出本轮要提交的元素数，只分配一次新数组
+        Pending[] batch = new Pending[8];
+        int batchSize = 0;
+        int added = 0;
+        for (Pending p = first; p != null; p = pending.poll()) {
+            if (batchSize == batch.length) {
+                batch = Arrays.copyOf(batch, batchSize << 1);
+            }
+            batch[batchSize++] = p;
+            added += p.items.length;
+        }
+        Object[] b = Arrays.copyOf(a, a.length + added);
+        int n = a.length;
+        for (int i = 0; i < batchSize; i++) {
+            Object[] items = batch[i].items;
+            System.arraycopy(items, 0, b, n, items.length);
+            n += items.length;
+        }
+        publish(b);
+        for (int i = 0; i < batchSize; i++) {
+            batch[i].committed = true;
+        }
+        return b;
+    }
+
+    private void publish(Object[] a) {
+        array = a;
+        publishCount++;
+    }
+
+    static final class SnapshotIterator<E> implements ListIterator<E> {
+        private final Object[] snapshot;
+        private int cursor;
+
+        SnapshotIterator(Object[] snapshot, int cursor) {
+            this.snapshot = snapshot;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < snapshot.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (cursor >= snapshot.length) {
+                throw new NoSuchElementException();
+            }
+            return (E) snapshot[cursor++];
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return cursor > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E previous() {
+            if (cursor <= 0) {
+                throw new NoSuchElementException();
+            }
+            return (E) snapshot[--cursor];
+        }
+
+        @Override
+        public int nextIndex() {
+            return cursor;
+        }
+
+        @Override
+        public int previousIndex() {
+            return cursor - 1;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("快照迭代器不支持修改");
+        }
+
+        @Override
+        public void set(E e) {
+            throw new UnsupportedOperationException("快照迭代器不支持修改");
+        }
+
+        @Override
+        public void add(E e) {
+            throw new UnsupportedOperationException("快照迭代器不支持修改");
+        }
+    }
+
+    private static Object[] without(Object[] a, int index) {
+        Object[] b = new Object[a.length - 1];
+        System.arraycopy(a, 0, b, 0, index);
+        System.arraycopy(a, index + 1, b, index, a.length - index - 1);
+        return b;
+    }
+}
@@ -1,17 +1,33 @@
 package fun.jevon.collection.Connection.list;
 
+import fun.jevon.collection.HeapUsage;
+import fun.jevon.collection.linkedlist.UnrolledLinkedList;
+
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.Supplier;
 
 public class ListPerformanceDemo {
     private static final int N = 10_000000; // 每个线程添加元素数量
     private static final int THREADS = 10; // 并发线程数
+    private static final int MIDDLE_INSERTS = 1_000; // 中间插入次数
+    private static final int APPEND_OPS = 2_000_000; // 并发追加扩展性测试的总追加次数
+    private static final int[] SCALING_THREADS = {1, 2, 4, 8, THREADS};
+    private static final int COW_APPEND_OPS = 20_000; // CopyOnWriteArrayList 每次 add 都复制数组，只能用小规模
 
     public static void main(String[] args) throws InterruptedException {
         // 单线程性能测试
         testPerformance(new ArrayList<>(), "ArrayList 单线程");
         testPerformance(new Vector<>(), "Vector 单线程");
         testPerformance(new LinkedList<>(), "LinkedList 单线程");
+        testPerformance(new UnrolledLinkedList<>(), "UnrolledLinkedList 单线程");
+        testOffHeapPerformance("OffHeapIntList 单线程");
+
+        // 遍历与中间插入
+        testIterationAndMiddleInsert(new ArrayList<>(), "ArrayList");
+        testIterationAndMiddleInsert(new Vector<>(), "Vector");
+        testIterationAndMiddleInsert(new LinkedList<>(), "LinkedList");
+        testIterationAndMiddleInsert(new UnrolledLinkedList<>(), "UnrolledLinkedList");
 
         // 线程不安全体验
         testThreadSafety(new ArrayList<>(), "ArrayList（线程不安全）", false);
@@ -19,16 +35,71 @@ public class ListPerformanceDemo {
 
         // 线程安全体验
         testThreadSafety(new Vector<>(), "Vector（线程安全）", true);
+        testThreadSafety(new ConcurrentAppendList<>(), "ConcurrentAppendList（线程安全，无竞争）", true);
+
+        // 并发追加扩展性：1..THREADS 个线程
+        testAppendScaling(Vector::new, "Vector", APPEND_OPS);
+        testAppendScaling(() -> Collections.synchronizedList(new ArrayList<>()), "SynchronizedList", APPEND_OPS);
+        testAppendScaling(CopyOnWriteArrayList::new, "CopyOnWriteArrayList", COW_APPEND_OPS);
+        testAppendScaling(ConcurrentAppendList::new, "ConcurrentAppendList", APPEND_OPS);
     }
 
     private static void testPerformance(List<Integer> list, String name) {
+        long heapBefore = HeapUsage.usedHeap();
         long start = System.nanoTime();
         for (int i = 0; i < N; i++) list.add(i);
         long end = System.nanoTime();
-        System.out.printf("%s add()耗时: %d ms%n", name, (end - start) / 1_000_000);
+        long heapAfter = HeapUsage.usedHeap();
+        // 在测量之后仍使用 list，保证 GC 时它还是存活对象
+        System.out.printf("%s add()耗时: %d ms, 大小= %d, 堆增量: %d MB%n", name, (end - start) / 1_000_000,
+                list.size(), (heapAfter - heapBefore) >> 20);
+    }
+
+    // 堆外列表：add / 遍历 / 排序，并对比堆增量与堆外占用
+    private static void testOffHeapPerformance(String name) {
+        long heapBefore = HeapUsage.usedHeap();
+        try (OffHeapIntList list = new OffHeapIntList()) {
+            long start = System.nanoTime();
+            // 逆序写入，让 sort() 有实际工作量
+            for (int i = N - 1; i >= 0; i--) list.add(i);
+            long added = System.nanoTime();
+
+            long[] sum = {0};
+            list.forEach(v -> sum[0] += v);
+            long iterated = System.nanoTime();
+
+            list.sort();
+            long sorted = System.nanoTime();
+
+            long heapAfter = HeapUsage.usedHeap();
+            System.out.printf("%s add()耗时: %d ms, 遍历耗时: %d ms, sort()耗时: %d ms, 堆增量: %d MB, 堆外: %d MB, "
+                            + "首元素=%d, checksum=%d%n",
+                    name, (added - start) / 1_000_000, (iterated - added) / 1_000_000,
+                    (sorted - iterated) / 1_000_000, (heapAfter - heapBefore) >> 20,
+                    list.offHeapBytes() >> 20, list.get(0), sum[0]);
+        }
+    }
+
+    // 先填充 N 个元素，再测一次完整遍历，以及在中间位置通过 ListIterator 连续插入
+    private static void testIterationAndMiddleInsert(List<Integer> list, String name) {
+        for (int i = 0; i < N; i++) list.add(i);
+
+        long start = System.nanoTime();
+        long sum = 0;
+        for (Integer v : list) sum += v;
+        long iterated = System.nanoTime();
+
+        // 定位一次，之后每次插入都在游标处；ArrayList/Vector 每次仍要搬移后半段数组
+        ListIterator<Integer> it = list.listIterator(list.size() / 2);
+        for (int i = 0; i < MIDDLE_INSERTS; i++) it.add(i);
+        long end = System.nanoTime();
+
+        System.out.printf("%s 遍历耗时: %d ms, 中间插入%d次耗时: %d ms, 大小= %d, checksum=%d%n",
+                name, (iterated - start) / 1_000_000, MIDDLE_INSERTS, (end - iterated) / 1_000_000,
+                list.size(), sum);
     }
 
-    private static void testThreadSafety(List<Integer> list, String name, boolean safe)
+    private static void testThreadSafety(Collection<Integer> list, String name, boolean safe)
             throws InterruptedException {
         ExecutorService pool = Executors.newFixedThreadPool(THREADS);
         long start = System.nanoTime();
@@ -50,4 +121,40 @@ public class ListPerformanceDemo {
                 name, (end - start) / 1_000_000, list.size(),
                 safe ? "线程安全" : "线程不安全");
     }
+
+    // 总追加量固定，按线程数均分，输出吞吐（次/ms），观察加线程后是变快还是被锁拖慢
+    private static void testAppendScaling(Supplier<Collection<Integer>> factory, String name, int totalOps)
+            throws InterruptedException {
+        for (int threads : SCALING_THREADS) {
+            Collection<Integer> list = factory.get();
+            int perThread = totalOps / threads;
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch ready = new CountDownLatch(threads);
+            CountDownLatch go = new CountDownLatch(1);
+            for (int t = 0; t < threads; t++) {
+                pool.execute(() -> {
+                    ready.countDown();
+                    try {
+                        go.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (int j = 0; j < perThread; j++) {
+                        list.add(j);
+                    }
+                });
+            }
+            ready.await();
+            long start = System.nanoTime();
+            go.countDown();
+            pool.shutdown();
+            pool.awaitTermination(60, TimeUnit.SECONDS);
+            long end = System.nanoTime();
+
+            double ms = (end - start) / 1_000_000.0;
+            System.out.printf("%s 追加扩展性 threads=%d: %.2f ms, 吞吐= %.0f 次/ms, 大小= %d（期望 %d）%n",
+                    name, threads, ms, perThread * threads / ms, list.size(), perThread * threads);
+        }
+    }
 }
@@ -0,0 +1,277 @@
+package fun.jevon.collection.Connection.list;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * 堆外 int 列表：数据放在一组固定大小的直接内存段（DirectByteBuffer）中
+ *
+ * 与 ArrayList<Integer> 的区别：
+ * - 每个元素只占 4 字节堆外内存，不创建 Integer 对象，堆上只有几十个段的引用
+ * - 不会随元素增多而增大 GC 压力，存放上亿个 int 也不需要调大 -Xmx（受 -XX:MaxDirectMemorySize 限制）
+ * - 按段扩容：满了就再分配一段，不需要像 ArrayList 那样整体复制
+ *
+ * 注意：
+ * - 用完必须 close() 归还堆外内存；close 之后再访问会抛 IllegalStateException
+ * - 非线程安全
+ */
+public class OffHeapIntList implements AutoCloseable {
+
+    // 每段 2^20 个 int = 4MB
+    private static final int SEGMENT_SHIFT = 20;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private ByteBuffer[] buffers = new ByteBuffer[8];
+    private IntBuffer[] segments = new IntBuffer[8];
+    private int segmentCount;
+    private long size;
+    private boolean closed;
+
+    public void add(int value) {
+        ensureOpen();
+        int seg = (int) (size >>> SEGMENT_SHIFT);
+        if (seg == segmentCount) {
+            addSegment();
+        }
+        segments[seg].put((int) (size & SEGMENT_MASK), value);
+        size++;
+    }
+
+    public int get(long index) {
+        ensureOpen();
+        checkIndex(index);
+        return segments[(int) (index >>> SEGMENT_SHIFT)].get((int) (index & SEGMENT_MASK));
+    }
+
+    public void set(long index, int value) {
+        ensureOpen();
+        checkIndex(index);
+        segments[(int) (index >>> SEGMENT_SHIFT)].put((int) (index & SEGMENT_MASK), value);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 已分配的堆外字节数
+     */
+    public long offHeapBytes() {
+        return (long) segmentCount * SEGMENT_SIZE * Integer.BYTES;
+    }
+
+    /**
+     * 顺序遍历，按段访问，不产生装箱
+     */
+    public void forEach(IntConsumer action) {
+        ensureOpen();
+        long remaining = size;
+        for (int s = 0; s < segmentCount && remaining > 0; s++) {
+            IntBuffer seg = segments[s];
+            int n = (int) Math.min(remaining, SEGMENT_SIZE);
+            for (int i = 0; i < n; i++) {
+                action.accept(seg.get(i));
+            }
+            remaining -= n;
+        }
+    }
+
+    public PrimitiveIterator.OfInt iterator() {
+        ensureOpen();
+        return new PrimitiveIterator.OfInt() {
+            private long cursor;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+                ensureOpen();
+                long i = cursor++;
+                return segments[(int) (i >>> SEGMENT_SHIFT)].get((int) (i & SEGMENT_MASK));
+            }
+        };
+    }
+
+    /**
+     * 升序排序：
+     * 1. 每段借一块段大小的堆内数组排好序再写回（堆上只占用一段 4MB）
+     * 2. 各段之间做 k 路归并，结果写入新分配的段，再释放旧段
+     */
+    public void sort() {
+        ensureOpen();
+        if (size < 2) {
+            return;
+        }
+        int[] scratch = new int[(int) Math.min(size, SEGMENT_SIZE)];
+        long remaining = size;
+        int[] lengths = new int[segmentCount];
+        for (int s = 0; s < segmentCount; s++) {
+            int n = (int) Math.min(remaining, SEGMENT_SIZE);
+            IntBuffer seg = segments[s];
+            seg.get(0, scratch, 0, n);
+            Arrays.sort(scratch, 0, n);
+            seg.put(0, scratch, 0, n);
+            lengths[s] = n;
+            remaining -= n;
+        }
+        if (segmentCount > 1) {
+            mergeSegments(lengths);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int s = 0; s < segmentCount; s++) {
+            free(buffers[s]);
+            buffers[s] = null;
+            segments[s] = null;
+        }
+        segmentCount = 0;
+        size = 0;
+    }
+
+    // k 路归并：用最小堆维护"各段当前头元素"所在的段号
+    private void mergeSegments(int[] lengths) {
+        ByteBuffer[] srcBuffers = buffers;
+        IntBuffer[] src = segments;
+        int k = segmentCount;
+        int[] pos = new int[k];
+        int[] heap = new int[k];
+        int heapSize = k;
+        for (int s = 0; s < k; s++) {
+            heap[s] = s;
+        }
+        for (int i = (heapSize >>> 1) - 1; i >= 0; i--) {
+            siftDown(src, pos, heap, heapSize, i);
+        }
+
+        buffers = new ByteBuffer[srcBuffers.length];
+        segments = new IntBuffer[src.length];
+        segmentCount = 0;
+
+        long out = 0;
+        while (heapSize > 0) {
+            int s = heap[0];
+            int value = src[s].get(pos[s]++);
+            int seg = (int) (out >>> SEGMENT_SHIFT);
+            if (seg == segmentCount) {
+                addSegment();
+            }
+            segments[seg].put((int) (out & SEGMENT_MASK), value);
+            out++;
+            if (pos[s] == lengths[s]) {
+                // 归并完一段就释放一段，峰值堆外内存不超过数据量再加一段
+                free(srcBuffers[s]);
+                srcBuffers[s] = null;
+                src[s] = null;
+                heap[0] = heap[--heapSize];
+            }
+            if (heapSize > 0) {
+                siftDown(src, pos, heap, heapSize, 0);
+            }
+        }
+    }
+
+    private static void siftDown(IntBuffer[] src, int[] pos, int[] heap, int heapSize, int i) {
+        int s = heap[i];
+        int v = src[s].get(pos[s]);
+        while (true) {
+            int child = (i << 1) + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            int cv = src[heap[child]].get(pos[heap[child]]);
+            if (child + 1 < heapSize) {
+                int rv = src[heap[child + 1]].get(pos[heap[child + 1]]);
+                if (rv < cv) {
+                    child++;
+                    cv = rv;
+                }
+            }
+            if (v <= cv) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = s;
+    }
+
+    private void addSegment() {
+        if (segmentCount == segments.length) {
+            buffers = Arrays.copyOf(buffers, segmentCount << 1);
+            segments = Arrays.copyOf(segments, segmentCount << 1);
+        }
+        ByteBuffer buf = ByteBuffer.allocateDirect(SEGMENT_SIZE * Integer.BYTES).order(ByteOrder.nativeOrder());
+        buffers[segmentCount] = buf;
+        segments[segmentCount] = buf.asIntBuffer();
+        segmentCount++;
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("OffHeapIntList 已关闭");
+        }
+    }
+
+    private void checkIndex(long index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    // ---------------- 堆外内存释放 ----------------
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method cleaner = null;
+        try {
+            Class<?> clazz = Class.forName("sun.misc.Unsafe");
+            Field f = clazz.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            unsafe = f.get(null);
+            cleaner = clazz.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // 拿不到 Unsafe 时退化为等待 GC 回收 DirectByteBuffer
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = cleaner;
+    }
+
+    // 立即归还直接内存，而不是等下一次 GC 触发 Cleaner
+    private static void free(ByteBuffer buffer) {
+        if (buffer == null || INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            // 忽略，交给 GC
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package fun.jevon.collection.Connection.set;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁并发 int 集合（开放寻址 + 线性探测 + CAS）
+ *
+ * 与 Collections.synchronizedSet(new HashSet<>()) 的区别：
+ * - 表就是一个 int[]，add 只对一个槽位做 CAS，线程之间不会在同一把锁上排队
+ * - 不装箱、没有 Node 对象，每个元素 4 字节 / 负载因子
+ * - 协作扩容：表满时由发现的线程创建两倍大的新表，所有写线程按段（STRIPE）领取迁移任务，一起搬完再切换
+ *
+ * 约定：
+ * - 面向"去重"场景，只支持 add / contains，不支持 remove
+ * - 0 与 Integer.MIN_VALUE 被用作空槽与"已迁移"标记，这两个值单独用 AtomicBoolean 记录
+ * - size() 在并发写入时是近似值，写入全部结束后是准确值
+ */
+public class ConcurrentIntHashSet {
+
+    private static final int EMPTY = 0;
+    private static final int MOVED = Integer.MIN_VALUE;
+    // 插入时探测次数达到该值才去统计总数判断是否扩容，避免每次 add 都对计数求和
+    private static final int PROBE_CHECK = 4;
+    // 每次领取的迁移段长度
+    private static final int STRIPE = 1024;
+
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(int[].class);
+    private static final VarHandle TABLE;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TABLE = lookup.findVarHandle(ConcurrentIntHashSet.class, "table", Table.class);
+            NEXT = lookup.findVarHandle(Table.class, "next", Table.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static final class Table {
+        final int[] keys;
+        final int mask;
+        final int threshold;
+        final LongAdder count = new LongAdder();
+        // 扩容目标表，非 null 表示正在迁移
+        volatile Table next;
+        final AtomicInteger transferIndex = new AtomicInteger();
+        final AtomicInteger transferred = new AtomicInteger();
+
+        Table(int capacity) {
+            keys = new int[capacity];
+            mask = capacity - 1;
+            threshold = capacity >>> 1;
+        }
+    }
+
+    private volatile Table table;
+    private final AtomicBoolean hasZero = new AtomicBoolean();
+    private final AtomicBoolean hasMinValue = new AtomicBoolean();
+
+    public ConcurrentIntHashSet() {
+        this(16);
+    }
+
+    public ConcurrentIntHashSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize 不能为负数: " + expectedSize);
+        }
+        int capacity = Integer.highestOneBit(Math.max(expectedSize, 8) - 1) << 2;
+        table = new Table(capacity);
+    }
+
+    /**
+     * 添加元素，返回 true 表示本次调用是第一次加入该元素
+     */
+    public boolean add(int key) {
+        if (key == EMPTY) {
+            return hasZero.compareAndSet(false, true);
+        }
+        if (key == MOVED) {
+            return hasMinValue.compareAndSet(false, true);
+        }
+        for (;;) {
+            Table t = table;
+            Table nt = t.next;
+            if (nt != null) {
+                // 正在扩容：先帮忙迁移，迁完再去新表里插
+                helpTransfer(t, nt);
+                continue;
+            }
+            int[] keys = t.keys;
+            int idx = hash(key) & t.mask;
+            int probes = 0;
+            boolean retry = false;
+            while (probes <= t.mask) {
+                int k = (int) SLOT.getVolatile(keys, idx);
+                if (k == key) {
+                    return false;
+                }
+                if (k == MOVED) {
+                    retry = true;
+                    break;
+                }
+                if (k == EMPTY) {
+                    if (SLOT.compareAndSet(keys, idx, EMPTY, key)) {
+                        t.count.increment();
+                        if (probes >= PROBE_CHECK && t.count.sum() >= t.threshold) {
+                            resize(t);
+                        }
+                        return true;
+                    }
+                    // CAS 失败：别的线程刚写入了这个槽，重读同一个槽（可能正好是同一个 key）
+                    continue;
+                }
+                idx = (idx + 1) & t.mask;
+                probes++;
+            }
+            if (!retry) {
+                // 整张表探测完都没有空槽
+                resize(t);
+            }
+        }
+    }
+
+    public boolean contains(int key) {
+        if (key == EMPTY) {
+            return hasZero.get();
+        }
+        if (key == MOVED) {
+            return hasMinValue.get();
+        }
+        return contains(table, key);
+    }
+
+    public int size() {
+        long n = table.count.sum();
+        if (hasZero.get()) {
+            n++;
+        }
+        if (hasMinValue.get()) {
+            n++;
+        }
+        return (int) Math.min(n, Integer.MAX_VALUE);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    private static boolean contains(Table t, int key) {
+        int[] keys = t.keys;
+        int idx = hash(key) & t.mask;
+        boolean sawMoved = false;
+        for (int probes = 0; probes <= t.mask; probes++) {
+            int k = (int) SLOT.getVolatile(keys, idx);
+            if (k == key) {
+                return true;
+            }
+            if (k == EMPTY) {
+                break;
+            }
+            if (k == MOVED) {
+                // 该槽原来的元素已复制到新表，后面的槽可能还没迁移，继续探测
+                sawMoved = true;
+            }
+            idx = (idx + 1) & t.mask;
+        }
+        Table nt = t.next;
+        return sawMoved && nt != null && contains(nt, key);
+    }
+
+    private void resize(Table t) {
+        Table nt = t.next;
+        if (nt == null) {
+            Table created = new Table(t.keys.length << 1);
+            nt = NEXT.compareAndSet(t, null, created) ? created : t.next;
+        }
+        helpTransfer(t, nt);
+    }
+
+    // 领取迁移段直到全部领完；最后一个完成的线程负责切换 table；其余线程等待切换完成
+    private void helpTransfer(Table t, Table nt) {
+        int[] keys = t.keys;
+        int length = keys.length;
+        int start;
+        while ((start = t.transferIndex.getAndAdd(STRIPE)) < length) {
+            int end = Math.min(start + STRIPE, length);
+            for (int i = start; i < end; i++) {
+                transferSlot(keys, i, nt);
+            }
+            if (t.transferred.addAndGet(end - start) == length) {
+                TABLE.compareAndSet(this, t, nt);
+            }
+        }
+        while (table == t) {
+            Thread.yield();
+        }
+    }
+
+    // 先把元素复制到新表，再把旧槽标记为 MOVED，保证读线程看到 MOVED 时新表里一定已经有该元素
+    private static void transferSlot(int[] keys, int i, Table nt) {
+        for (;;) {
+            int k = (int) SLOT.getVolatile(keys, i);
+            if (k == EMPTY) {
+                if (SLOT.compareAndSet(keys, i, EMPTY, MOVED)) {
+                    return;
+                }
+                // 迁移过程中有线程抢先写入，重读后按非空槽处理
+                continue;
+            }
+            insertForTransfer(nt, k);
+            SLOT.setVolatile(keys, i, MOVED);
+            return;
+        }
+    }
+
+    private static void insertForTransfer(Table nt, int key) {
+        int[] keys = nt.keys;
+        int idx = hash(key) & nt.mask;
+        for (;;) {
+            int k = (int) SLOT.getVolatile(keys, idx);
+            if (k == key) {
+                return;
+            }
+            if (k == EMPTY) {
+                if (SLOT.compareAndSet(keys, idx, EMPTY, key)) {
+                    nt.count.increment();
+                    return;
+                }
+                continue;
+            }
+            idx = (idx + 1) & nt.mask;
+        }
+    }
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,784 @@
+package fun.jevon.collection.Connection.set;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * 压缩位图 int 集合（Roaring 风格）
+ *
+ * 与 HashSet<Integer> / TreeSet<Integer> 的区别：
+ * - 按高 16 位分桶，每个桶（容器）只存低 16 位，不装箱、没有 Node 对象
+ * - 容器按密度选择三种表示之一：
+ *   ArrayContainer：元素 ≤ 4096 时用有序 char[]，每个元素 2 字节
+ *   BitmapContainer：元素 > 4096 时用 1024 个 long 的位图，固定 8KB（稠密时每个元素约 1 bit）
+ *   RunContainer：连续区间用 (起点, 长度-1) 表示，由 runOptimize() 在更省空间时转换
+ * - 集合运算（and / or / andNot）按桶对齐，位图之间直接按 long 做位运算
+ *
+ * 约定：
+ * - 遍历顺序是无符号 int 顺序（负数排在所有非负数之后）
+ * - 非线程安全；集合运算返回新集合，不修改参与运算的集合
+ */
+public class RoaringIntSet {
+
+    // 数组容器的最大元素数：超过后数组（2 字节/元素）比位图（8KB）更大
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1 << 10;
+    private static final int BITMAP_BYTES = BITMAP_WORDS * Long.BYTES;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    /**
+     * 添加元素，返回 true 表示集合中原来没有该元素
+     */
+    public boolean add(int x) {
+        char hb = highBits(x);
+        int idx = indexOf(hb);
+        if (idx >= 0) {
+            Container c = containers[idx];
+            int before = c.cardinality();
+            Container updated = c.add(lowBits(x));
+            containers[idx] = updated;
+            return updated.cardinality() != before;
+        }
+        insertContainer(-idx - 1, hb, new ArrayContainer().add(lowBits(x)));
+        return true;
+    }
+
+    public boolean contains(int x) {
+        int idx = indexOf(highBits(x));
+        return idx >= 0 && containers[idx].contains(lowBits(x));
+    }
+
+    public long cardinality() {
+        long n = 0;
+        for (int i = 0; i < size; i++) {
+            n += containers[i].cardinality();
+        }
+        return n;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 交集
+     */
+    public RoaringIntSet and(RoaringIntSet other) {
+        RoaringIntSet result = new RoaringIntSet();
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            int cmp = Character.compare(keys[i], other.keys[j]);
+            if (cmp < 0) {
+                i++;
+            } else if (cmp > 0) {
+                j++;
+            } else {
+                result.appendIfNotEmpty(keys[i], and(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 并集
+     */
+    public RoaringIntSet or(RoaringIntSet other) {
+        RoaringIntSet result = new RoaringIntSet();
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            int cmp = i == size ? 1 : j == other.size ? -1 : Character.compare(keys[i], other.keys[j]);
+            if (cmp < 0) {
+                result.appendIfNotEmpty(keys[i], containers[i].copy());
+                i++;
+            } else if (cmp > 0) {
+                result.appendIfNotEmpty(other.keys[j], other.containers[j].copy());
+                j++;
+            } else {
+                result.appendIfNotEmpty(keys[i], or(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 差集：在本集合中、不在 other 中的元素
+     */
+    public RoaringIntSet andNot(RoaringIntSet other) {
+        RoaringIntSet result = new RoaringIntSet();
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.size && other.keys[j] == keys[i]) {
+                result.appendIfNotEmpty(keys[i], andNot(containers[i], other.containers[j]));
+            } else {
+                result.appendIfNotEmpty(keys[i], containers[i].copy());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 把每个容器换成三种表示中最省空间的一种；批量写入完成后调用一次即可
+     */
+    public void runOptimize() {
+        for (int i = 0; i < size; i++) {
+            containers[i] = containers[i].runOptimize();
+        }
+    }
+
+    /**
+     * 按无符号顺序遍历，位图容器逐个取最低位的 1，不产生装箱
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            // 一次展开一个容器（最多 65536 个 char）
+            private int container;
+            private char[] values = new char[0];
+            private int high;
+            private int offset;
+
+            @Override
+            public boolean hasNext() {
+                while (offset == values.length) {
+                    if (container == size) {
+                        return false;
+                    }
+                    high = keys[container] << 16;
+                    values = containers[container++].toArray();
+                    offset = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return high | values[offset++];
+            }
+        };
+    }
+
+    /**
+     * 估算占用的堆字节数（对象头按 16 字节、数组头按 16 字节计）
+     */
+    public long sizeInBytes() {
+        long bytes = 16 + (16 + keys.length * 2L) + (16 + containers.length * 4L);
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        PrimitiveIterator.OfInt it = iterator();
+        for (int n = 0; it.hasNext(); n++) {
+            if (n == 20) {
+                sb.append(", ...");
+                break;
+            }
+            if (n > 0) {
+                sb.append(", ");
+            }
+            sb.append(Integer.toUnsignedString(it.nextInt()));
+        }
+        return sb.append(']').toString();
+    }
+
+    private int indexOf(char hb) {
+        // 顺序写入时新元素几乎总落在最后一个桶
+        if (size > 0 && keys[size - 1] == hb) {
+            return size - 1;
+        }
+        return Arrays.binarySearch(keys, 0, size, hb);
+    }
+
+    private void insertContainer(int idx, char hb, Container c) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size << 1);
+            containers = Arrays.copyOf(containers, size << 1);
+        }
+        System.arraycopy(keys, idx, keys, idx + 1, size - idx);
+        System.arraycopy(containers, idx, containers, idx + 1, size - idx);
+        keys[idx] = hb;
+        containers[idx] = c;
+        size++;
+    }
+
+    // 集合运算按 key 升序产出结果，直接追加到末尾
+    private void appendIfNotEmpty(char hb, Container c) {
+        if (c.cardinality() > 0) {
+            insertContainer(size, hb, c);
+        }
+    }
+
+    private static char highBits(int x) {
+        return (char) (x >>> 16);
+    }
+
+    private static char lowBits(int x) {
+        return (char) x;
+    }
+
+    // ---------------- 容器之间的运算 ----------------
+
+    private static Container and(Container a, Container b) {
+        if (a instanceof ArrayContainer && b instanceof ArrayContainer) {
+            ArrayContainer x = (ArrayContainer) a;
+            ArrayContainer y = (ArrayContainer) b;
+            char[] out = new char[Math.min(x.card, y.card)];
+            int n = 0;
+            for (int i = 0, j = 0; i < x.card && j < y.card; ) {
+                if (x.content[i] < y.content[j]) {
+                    i++;
+                } else if (x.content[i] > y.content[j]) {
+                    j++;
+                } else {
+                    out[n++] = x.content[i];
+                    i++;
+                    j++;
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+        // 数组容器很小：逐个在另一侧查找
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, true);
+        }
+        if (b instanceof ArrayContainer) {
+            return ((ArrayContainer) b).filter(a, true);
+        }
+        long[] words = a.toBitmap().words.clone();
+        long[] other = b.toBitmap().words;
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            words[i] &= other[i];
+        }
+        return new BitmapContainer(words).normalize();
+    }
+
+    private static Container or(Container a, Container b) {
+        if (a instanceof ArrayContainer && b instanceof ArrayContainer) {
+            ArrayContainer x = (ArrayContainer) a;
+            ArrayContainer y = (ArrayContainer) b;
+            char[] out = new char[x.card + y.card];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < x.card && j < y.card) {
+                char cx = x.content[i];
+                char cy = y.content[j];
+                if (cx <= cy) {
+                    out[n++] = cx;
+                    i++;
+                    if (cx == cy) {
+                        j++;
+                    }
+                } else {
+                    out[n++] = cy;
+                    j++;
+                }
+            }
+            while (i < x.card) {
+                out[n++] = x.content[i++];
+            }
+            while (j < y.card) {
+                out[n++] = y.content[j++];
+            }
+            ArrayContainer merged = new ArrayContainer(out, n);
+            return n > ARRAY_MAX ? merged.toBitmap() : merged;
+        }
+        // 以非数组的一侧为底，再把另一侧的元素并进去
+        if (a instanceof ArrayContainer) {
+            Container t = a;
+            a = b;
+            b = t;
+        }
+        BitmapContainer result = new BitmapContainer(a.toBitmap().words.clone());
+        b.orInto(result.words);
+        result.recount();
+        return result;
+    }
+
+    private static Container andNot(Container a, Container b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, false);
+        }
+        BitmapContainer result = new BitmapContainer(a.toBitmap().words.clone());
+        b.clearFrom(result.words);
+        result.recount();
+        return result.normalize();
+    }
+
+    // 把 [from, to) 区间内的位全部置 1
+    private static void setRange(long[] words, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    // 把 [from, to) 区间内的位全部清 0
+    private static void clearRange(long[] words, int from, int to) {
+        if (from >= to) {
+            return;
+        }
+        int first = from >>> 6;
+        int last = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> -to;
+        if (first == last) {
+            words[first] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[first] &= ~firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = 0;
+        }
+        words[last] &= ~lastMask;
+    }
+
+    // ---------------- 三种容器 ----------------
+
+    abstract static class Container {
+        /**
+         * 添加低 16 位；可能返回转换后的新容器
+         */
+        abstract Container add(char x);
+
+        abstract boolean contains(char x);
+
+        abstract int cardinality();
+
+        abstract void forEach(int high, IntConsumer action);
+
+        abstract char[] toArray();
+
+        abstract BitmapContainer toBitmap();
+
+        abstract void orInto(long[] words);
+
+        abstract void clearFrom(long[] words);
+
+        abstract long sizeInBytes();
+
+        abstract Container copy();
+
+        abstract int numberOfRuns();
+
+        Container runOptimize() {
+            int card = cardinality();
+            long runBytes = 4L * numberOfRuns();
+            long plainBytes = card <= ARRAY_MAX ? 2L * card : BITMAP_BYTES;
+            if (runBytes < plainBytes) {
+                return this instanceof RunContainer ? this : RunContainer.of(toArray());
+            }
+            if (this instanceof RunContainer) {
+                return card <= ARRAY_MAX ? new ArrayContainer(toArray(), card) : toBitmap();
+            }
+            return this;
+        }
+    }
+
+    static final class ArrayContainer extends Container {
+        char[] content;
+        int card;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] content, int card) {
+            this.content = content;
+            this.card = card;
+        }
+
+        @Override
+        Container add(char x) {
+            int idx = card > 0 && content[card - 1] < x ? -card - 1 : Arrays.binarySearch(content, 0, card, x);
+            if (idx >= 0) {
+                return this;
+            }
+            if (card == ARRAY_MAX) {
+                return toBitmap().add(x);
+            }
+            int ins = -idx - 1;
+            if (card == content.length) {
+                content = Arrays.copyOf(content, Math.min(card << 1, ARRAY_MAX));
+            }
+            System.arraycopy(content, ins, content, ins + 1, card - ins);
+            content[ins] = x;
+            card++;
+            return this;
+        }
+
+        @Override
+        boolean contains(char x) {
+            return Arrays.binarySearch(content, 0, card, x) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < card; i++) {
+                action.accept(high | content[i]);
+            }
+        }
+
+        @Override
+        char[] toArray() {
+            return Arrays.copyOf(content, card);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            BitmapContainer b = new BitmapContainer(new long[BITMAP_WORDS]);
+            orInto(b.words);
+            b.card = card;
+            return b;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < card; i++) {
+                char v = content[i];
+                words[v >>> 6] |= 1L << v;
+            }
+        }
+
+        @Override
+        void clearFrom(long[] words) {
+            for (int i = 0; i < card; i++) {
+                char v = content[i];
+                words[v >>> 6] &= ~(1L << v);
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 16 + content.length * 2L;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(toArray(), card);
+        }
+
+        @Override
+        int numberOfRuns() {
+            int runs = card > 0 ? 1 : 0;
+            for (int i = 1; i < card; i++) {
+                if (content[i] != content[i - 1] + 1) {
+                    runs++;
+                }
+            }
+            return runs;
+        }
+
+        // keep=true 保留在 other 中的元素（交集），keep=false 保留不在 other 中的元素（差集）
+        ArrayContainer filter(Container other, boolean keep) {
+            char[] out = new char[card];
+            int n = 0;
+            for (int i = 0; i < card; i++) {
+                if (other.contains(content[i]) == keep) {
+                    out[n++] = content[i];
+                }
+            }
+            return new ArrayContainer(out, n);
+        }
+    }
+
+    static final class BitmapContainer extends Container {
+        final long[] words;
+        int card;
+
+        BitmapContainer(long[] words) {
+            this.words = words;
+            recount();
+        }
+
+        @Override
+        Container add(char x) {
+            long bit = 1L << x;
+            long w = words[x >>> 6];
+            if ((w & bit) == 0) {
+                words[x >>> 6] = w | bit;
+                card++;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char x) {
+            return (words[x >>> 6] & (1L << x)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long w = words[i];
+                int base = high | (i << 6);
+                while (w != 0) {
+                    action.accept(base | Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+        }
+
+        @Override
+        char[] toArray() {
+            char[] out = new char[card];
+            int n = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    out[n++] = (char) ((i << 6) | Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+            return out;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return this;
+        }
+
+        @Override
+        void orInto(long[] target) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                target[i] |= words[i];
+            }
+        }
+
+        @Override
+        void clearFrom(long[] target) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                target[i] &= ~words[i];
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 16 + BITMAP_BYTES;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone());
+        }
+
+        // 一个 1 的前一位是 0（跨 long 时看上一个 long 的最高位）就是一段的起点
+        @Override
+        int numberOfRuns() {
+            int runs = 0;
+            long carry = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long w = words[i];
+                runs += Long.bitCount(w & ~((w << 1) | carry));
+                carry = w >>> 63;
+            }
+            return runs;
+        }
+
+        void recount() {
+            int n = 0;
+            for (long w : words) {
+                n += Long.bitCount(w);
+            }
+            card = n;
+        }
+
+        // 元素变少后退回数组容器
+        Container normalize() {
+            return card <= ARRAY_MAX ? new ArrayContainer(toArray(), card) : this;
+        }
+    }
+
+    static final class RunContainer extends Container {
+        // 第 i 段：起点 runs[2i]，长度-1 runs[2i+1]
+        char[] runs;
+        int nruns;
+        int card;
+
+        RunContainer(char[] runs, int nruns, int card) {
+            this.runs = runs;
+            this.nruns = nruns;
+            this.card = card;
+        }
+
+        static RunContainer of(char[] sorted) {
+            RunContainer r = new RunContainer(new char[8], 0, 0);
+            for (char v : sorted) {
+                r.add(v);
+            }
+            r.runs = Arrays.copyOf(r.runs, r.nruns << 1);
+            return r;
+        }
+
+        private int start(int i) {
+            return runs[i << 1];
+        }
+
+        private int end(int i) {
+            return runs[i << 1] + runs[(i << 1) + 1];
+        }
+
+        // 起点 <= x 的最后一段，没有则为 -1
+        private int floorRun(int x) {
+            int lo = 0;
+            int hi = nruns - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (start(mid) <= x) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi;
+        }
+
+        @Override
+        Container add(char x) {
+            int i = nruns > 0 && start(nruns - 1) <= x ? nruns - 1 : floorRun(x);
+            if (i >= 0 && x <= end(i)) {
+                return this;
+            }
+            card++;
+            boolean joinsPrev = i >= 0 && end(i) + 1 == x;
+            boolean joinsNext = i + 1 < nruns && start(i + 1) == x + 1;
+            if (joinsPrev && joinsNext) {
+                // x 正好填上两段之间的空位：合并成一段
+                runs[(i << 1) + 1] = (char) (end(i + 1) - start(i));
+                System.arraycopy(runs, (i + 2) << 1, runs, (i + 1) << 1, (nruns - i - 2) << 1);
+                nruns--;
+            } else if (joinsPrev) {
+                runs[(i << 1) + 1]++;
+            } else if (joinsNext) {
+                runs[(i + 1) << 1] = x;
+                runs[((i + 1) << 1) + 1]++;
+            } else {
+                if (nruns << 1 == runs.length) {
+                    runs = Arrays.copyOf(runs, Math.max(4, runs.length << 1));
+                }
+                int at = (i + 1) << 1;
+                System.arraycopy(runs, at, runs, at + 2, (nruns << 1) - at);
+                runs[at] = x;
+                runs[at + 1] = 0;
+                nruns++;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char x) {
+            int i = floorRun(x);
+            return i >= 0 && x <= end(i);
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < nruns; i++) {
+                for (int v = start(i), end = end(i); v <= end; v++) {
+                    action.accept(high | v);
+                }
+            }
+        }
+
+        @Override
+        char[] toArray() {
+            char[] out = new char[card];
+            int n = 0;
+            for (int i = 0; i < nruns; i++) {
+                for (int v = start(i), end = end(i); v <= end; v++) {
+                    out[n++] = (char) v;
+                }
+            }
+            return out;
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            long[] words = new long[BITMAP_WORDS];
+            orInto(words);
+            return new BitmapContainer(words);
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < nruns; i++) {
+                setRange(words, start(i), end(i) + 1);
+            }
+        }
+
+        @Override
+        void clearFrom(long[] words) {
+            for (int i = 0; i < nruns; i++) {
+                clearRange(words, start(i), end(i) + 1);
+            }
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 16 + runs.length * 2L;
+        }
+
+        @Override
+        Container copy() {
+            return new RunContainer(Arrays.copyOf(runs, nruns << 1), nruns, card);
+        }
+
+        @Override
+        int numberOfRuns() {
+            return nruns;
+        }
+    }
+}
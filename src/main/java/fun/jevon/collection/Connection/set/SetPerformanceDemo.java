@@ -1,5 +1,7 @@
 package fun.jevon.collection.Connection.set;
 
+import fun.jevon.collection.HeapUsage;
+
 import java.util.*;
 import java.util.concurrent.*;
 
@@ -12,6 +14,7 @@ public class SetPerformanceDemo {
         testPerformance(new HashSet<>(), "HashSet 单线程");
         testPerformance(new LinkedHashSet<>(), "LinkedHashSet 单线程");
         testPerformance(new TreeSet<>(), "TreeSet 单线程");
+        testRoaringPerformance("RoaringIntSet 单线程");
 
         // 线程不安全体验
         testThreadSafety(new HashSet<>(), "HashSet（线程不安全）", false);
@@ -21,13 +24,48 @@ public class SetPerformanceDemo {
         // 线程安全体验
         testThreadSafety(Collections.synchronizedSet(new HashSet<>()),
                 "Synchronized HashSet（线程安全）", true);
+        testThreadSafety(ConcurrentHashMap.newKeySet(),
+                "ConcurrentHashMap.newKeySet（线程安全）", true);
+        testIntSetThreadSafety(new ConcurrentIntHashSet(), "ConcurrentIntHashSet（线程安全，无锁）");
     }
 
     private static void testPerformance(Set<Integer> set, String name) {
+        long heapBefore = HeapUsage.usedHeap();
         long start = System.nanoTime();
         for (int i = 0; i < N; i++) set.add(i);
         long end = System.nanoTime();
-        System.out.printf("%s add()耗时: %d ms%n", name, (end - start) / 1_000_000);
+        long heapAfter = HeapUsage.usedHeap();
+        // 在测量之后仍使用 set，保证 GC 时它还是存活对象
+        System.out.printf("%s add()耗时: %d ms, 每元素内存: %.1f 字节%n", name, (end - start) / 1_000_000,
+                (double) (heapAfter - heapBefore) / set.size());
+    }
+
+    // 同样写入 0..N-1：稠密区间在 runOptimize() 后压缩为连续段，再演示集合运算与遍历
+    private static void testRoaringPerformance(String name) {
+        long heapBefore = HeapUsage.usedHeap();
+        long start = System.nanoTime();
+        RoaringIntSet set = new RoaringIntSet();
+        for (int i = 0; i < N; i++) set.add(i);
+        long end = System.nanoTime();
+        long heapAfter = HeapUsage.usedHeap();
+        long bitmapBytes = set.sizeInBytes();
+        set.runOptimize();
+        System.out.printf("%s add()耗时: %d ms, 每元素内存: %.2f 字节（位图容器 %.2f 字节, runOptimize 后 %.4f 字节）%n",
+                name, (end - start) / 1_000_000, (double) (heapAfter - heapBefore) / set.cardinality(),
+                (double) bitmapBytes / N, (double) set.sizeInBytes() / N);
+
+        RoaringIntSet evens = new RoaringIntSet();
+        for (int i = 0; i < 2 * N; i += 2) evens.add(i);
+        long opStart = System.nanoTime();
+        long and = set.and(evens).cardinality();
+        long or = set.or(evens).cardinality();
+        long andNot = set.andNot(evens).cardinality();
+        long opEnd = System.nanoTime();
+        long[] sum = {0};
+        set.forEach(v -> sum[0] += v);
+        long iterEnd = System.nanoTime();
+        System.out.printf("%s and/or/andNot 基数= %d/%d/%d, 运算耗时: %.2f ms, 遍历耗时: %.2f ms, checksum=%d%n",
+                name, and, or, andNot, (opEnd - opStart) / 1_000_000.0, (iterEnd - opEnd) / 1_000_000.0, sum[0]);
     }
 
     private static void testThreadSafety(Set<Integer> set, String name, boolean safe)
@@ -49,8 +87,35 @@ public class SetPerformanceDemo {
         pool.awaitTermination(10, TimeUnit.SECONDS);
         long end = System.nanoTime();
 
-        System.out.printf("%s耗时: %d ms, 大小= %d, %s%n",
-                name, (end - start) / 1_000_000, set.size(),
+        System.out.printf("%s耗时: %d ms, 大小= %d, 每线程吞吐= %.0f 次/ms, %s%n",
+                name, (end - start) / 1_000_000, set.size(), perThreadThroughput(start, end),
                 safe ? "线程安全" : "线程不安全");
     }
+
+    // 与 testThreadSafety 相同的负载，走原始 int API，不装箱
+    private static void testIntSetThreadSafety(ConcurrentIntHashSet set, String name)
+            throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+
+        for (int i = 0; i < THREADS; i++) {
+            pool.execute(() -> {
+                for (int j = 0; j < N; j++) {
+                    set.add(j);
+                }
+            });
+        }
+
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+        long end = System.nanoTime();
+
+        System.out.printf("%s耗时: %d ms, 大小= %d, 每线程吞吐= %.0f 次/ms, 线程安全%n",
+                name, (end - start) / 1_000_000, set.size(), perThreadThroughput(start, end));
+    }
+
+    // 每个线程执行 N 次 add，按总耗时折算单线程吞吐
+    private static double perThreadThroughput(long start, long end) {
+        return N / Math.max((end - start) / 1_000_000.0, 0.001);
+    }
 }
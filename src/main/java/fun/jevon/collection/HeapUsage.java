@@ -0,0 +1,19 @@
+package fun.jevon.collection;
+
+/**
+ * 各 PerformanceDemo 与 BackpressureDemo 共用的堆占用测量
+ */
+public final class HeapUsage {
+
+    private HeapUsage() {
+    }
+
+    /**
+     * 先 GC 再读取已用堆，近似得到存活对象的大小；只适合前后两次相减估算增量
+     */
+    public static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
@@ -0,0 +1,402 @@
+package fun.jevon.collection.Map;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * 紧凑的插入有序 Map（CPython dict 的做法）
+ *
+ * 与 LinkedHashMap 的区别：
+ * - 条目按插入顺序依次追加到三个平行数组 hashes / keys / values 中，不创建 Entry 对象，
+ *   也没有 before/after/next 指针；插入顺序就是数组顺序
+ * - 另有一张 int[] 索引表做开放寻址（线性探测），槽位里只存条目下标
+ * - 每个条目约 12 字节 + 索引表 8 字节，而 LinkedHashMap.Entry 约 40 字节；遍历是顺序扫数组
+ *
+ * 约定：
+ * - 删除只在数组里留一个 DELETED 标记，索引表用"回移"删除；数组写满时若删除过多就原地压缩，否则扩容
+ * - 允许 null key 与 null value
+ * - 非线程安全；迭代器 fail-fast
+ */
+public class CompactOrderedMap<K, V> extends AbstractMap<K, V> {
+
+    private static final Object NULL_KEY = new Object();
+    private static final Object DELETED = new Object();
+
+    // 槽位：0 表示空，否则为条目下标 + 1；条目数超过一半时扩容
+    private int[] index;
+    private int mask;
+    // 32 - log2(索引表长度)，槽位取散列值的高位
+    private int shift;
+    private int[] hashes;
+    private Object[] keys;
+    private Object[] values;
+    // 已使用的条目下标（含已删除），新条目追加在 used 处
+    private int used;
+    private int size;
+    private int modCount;
+
+    private Set<Entry<K, V>> entrySet;
+
+    public CompactOrderedMap() {
+        this(8);
+    }
+
+    public CompactOrderedMap(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize 不能为负数: " + expectedSize);
+        }
+        int capacity = Math.max(expectedSize, 8);
+        hashes = new int[capacity];
+        keys = new Object[capacity];
+        values = new Object[capacity];
+        allocateIndex(tableSizeFor(capacity << 1));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        int e = find(key);
+        return e < 0 ? null : (V) values[e];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        Object k = maskNull(key);
+        int h = hash(k);
+        int existing = find(k, h);
+        if (existing >= 0) {
+            V old = (V) values[existing];
+            values[existing] = value;
+            return old;
+        }
+        // 扩容与压缩会移动条目下标，只在插入新 key（随后 modCount++）时做，覆盖已有 key 不影响进行中的迭代
+        if (used == keys.length) {
+            growEntries();
+        }
+        if (size >= index.length >>> 1) {
+            rebuildIndex(index.length << 1);
+        }
+        int slot = home(h);
+        while (index[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        int e = used++;
+        hashes[e] = h;
+        keys[e] = k;
+        values[e] = value;
+        index[slot] = e + 1;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        int e = find(key);
+        if (e < 0) {
+            return null;
+        }
+        V old = (V) values[e];
+        removeEntry(e);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(keys, 0, used, null);
+        Arrays.fill(values, 0, used, null);
+        Arrays.fill(index, 0);
+        used = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * 按插入顺序遍历，不创建 Entry 对象
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        int expected = modCount;
+        for (int e = 0; e < used; e++) {
+            Object k = keys[e];
+            if (k != DELETED) {
+                action.accept((K) unmaskNull(k), (V) values[e]);
+            }
+        }
+        if (modCount != expected) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        Set<Entry<K, V>> es = entrySet;
+        if (es == null) {
+            es = entrySet = new EntrySet();
+        }
+        return es;
+    }
+
+    private int find(Object key) {
+        Object k = maskNull(key);
+        return find(k, hash(k));
+    }
+
+    private int find(Object k, int h) {
+        int slot = home(h);
+        int s;
+        while ((s = index[slot]) != 0) {
+            int e = s - 1;
+            if (hashes[e] == h && Objects.equals(keys[e], k)) {
+                return e;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void removeEntry(int e) {
+        int slot = home(hashes[e]);
+        while (index[slot] != e + 1) {
+            slot = (slot + 1) & mask;
+        }
+        shiftSlots(slot);
+        keys[e] = DELETED;
+        values[e] = null;
+        // 末尾的已删除条目直接回收，删最后插入的元素不会留下空洞
+        while (used > 0 && keys[used - 1] == DELETED) {
+            keys[--used] = null;
+        }
+        size--;
+        modCount++;
+    }
+
+    // 删除后把后续探测链上的槽位往前挪，保证查找遇到空槽即可停止
+    private void shiftSlots(int pos) {
+        int last;
+        int s;
+        while (true) {
+            last = pos;
+            pos = (pos + 1) & mask;
+            while (true) {
+                if ((s = index[pos]) == 0) {
+                    index[last] = 0;
+                    return;
+                }
+                int home = home(hashes[s - 1]);
+                // 槽位的理想位置不在 (last, pos] 区间内时，才能挪到 last
+                if (last <= pos ? (last >= home || home > pos) : (last >= home && home > pos)) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            index[last] = s;
+        }
+    }
+
+    // 数组写满：已删除条目超过 1/4 时原地压缩，否则扩容为两倍
+    private void growEntries() {
+        if (used - size >= used >>> 2) {
+            compact();
+            return;
+        }
+        int capacity = keys.length << 1;
+        hashes = Arrays.copyOf(hashes, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    // 去掉 DELETED 空洞，条目下标变化后重建索引
+    private void compact() {
+        int j = 0;
+        for (int e = 0; e < used; e++) {
+            if (keys[e] != DELETED) {
+                hashes[j] = hashes[e];
+                keys[j] = keys[e];
+                values[j] = values[e];
+                j++;
+            }
+        }
+        Arrays.fill(keys, j, used, null);
+        Arrays.fill(values, j, used, null);
+        used = j;
+        rebuildIndex(index.length);
+    }
+
+    private void rebuildIndex(int capacity) {
+        allocateIndex(capacity);
+        for (int e = 0; e < used; e++) {
+            if (keys[e] != DELETED) {
+                int slot = home(hashes[e]);
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = e + 1;
+            }
+        }
+    }
+
+    private void allocateIndex(int capacity) {
+        index = new int[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(mask);
+    }
+
+    private static int tableSizeFor(int n) {
+        return Integer.highestOneBit(Math.max(n, 2) - 1) << 1;
+    }
+
+    // 乘法散列（黄金分割常数）：乘法把 hashCode 的每一位都扩散到高位，槽位取高位；
+    // 不能只做 HashMap 的 h ^ (h >>> 16)——HashMap 靠链表/红黑树兜底，线性探测遇到低位相同的 key（如 i << 20）会整片聚集
+    private static int hash(Object k) {
+        return k.hashCode() * 0x9E3779B9;
+    }
+
+    private int home(int h) {
+        return h >>> shift;
+    }
+
+    private static Object maskNull(Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    private static Object unmaskNull(Object key) {
+        return key == NULL_KEY ? null : key;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<K, V>> {
+        @Override
+        public Iterator<Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactOrderedMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<K, V>> {
+        private int cursor = skipDeleted(0);
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < used;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (cursor >= used) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = cursor;
+            cursor = skipDeleted(cursor + 1);
+            return new EntryView(lastReturned);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeEntry(lastReturned);
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        private int skipDeleted(int e) {
+            while (e < used && keys[e] == DELETED) {
+                e++;
+            }
+            return e;
+        }
+    }
+
+    // 创建时取出 key/value，条目被删除后仍可读取；setValue 在条目仍存在时写回 values 数组
+    private final class EntryView implements Entry<K, V> {
+        private final int e;
+        private final Object rawKey;
+        private V value;
+
+        @SuppressWarnings("unchecked")
+        EntryView(int e) {
+            this.e = e;
+            this.rawKey = keys[e];
+            this.value = (V) values[e];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public K getKey() {
+            return (K) unmaskNull(rawKey);
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V old = this.value;
+            this.value = value;
+            if (e < used && keys[e] == rawKey) {
+                values[e] = value;
+            }
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return Objects.equals(getKey(), other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package fun.jevon.collection.Map;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 高并发计数 Map：每个 key 对应一个 LongAdder（分段计数单元）
+ *
+ * 与 ConcurrentHashMap.compute(key, (k, v) -> v + 1) 的区别：
+ * - compute/merge 每次都要锁住 key 所在的桶，并分配一个新的 Integer/Long；热点 key 上所有线程排队
+ * - 这里 key 已存在时只做一次无锁 get，然后在 LongAdder 上累加；
+ *   LongAdder 冲突时会把线程分散到不同的 Cell（各自独占缓存行），热点 key 也不会互相阻塞
+ * - 读取 sum 时才把各 Cell 加起来：写多读少的计数场景（按接口统计请求数等）最合适
+ *
+ * 快照语义：
+ * - snapshot()：逐个 key 读取当前值，不清零；不同 key 之间不是同一时刻的值
+ * - snapshotThenReset()：逐个 Cell 原子地取出并清零，每一次累加恰好被导出一次，不会丢也不会重复，
+ *   适合定时上报（每个周期导出增量）
+ */
+public class ConcurrentCounterMap<K> {
+
+    private final ConcurrentHashMap<K, LongAdder> counters;
+
+    public ConcurrentCounterMap() {
+        this(16);
+    }
+
+    public ConcurrentCounterMap(int expectedKeys) {
+        this.counters = new ConcurrentHashMap<>(expectedKeys);
+    }
+
+    public void increment(K key) {
+        counter(key).increment();
+    }
+
+    public void add(K key, long delta) {
+        counter(key).add(delta);
+    }
+
+    /**
+     * 当前累计值；key 不存在时为 0
+     */
+    public long sum(K key) {
+        LongAdder adder = counters.get(key);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * 取出当前值并清零；key 本身保留，避免下一次计数重新创建
+     */
+    public long sumThenReset(K key) {
+        LongAdder adder = counters.get(key);
+        return adder == null ? 0 : adder.sumThenReset();
+    }
+
+    /**
+     * 所有 key 的总和
+     */
+    public long total() {
+        long total = 0;
+        for (LongAdder adder : counters.values()) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    public Set<K> keySet() {
+        return Collections.unmodifiableSet(counters.keySet());
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * 导出当前各 key 的计数（不可变）
+     */
+    public Map<K, Long> snapshot() {
+        Map<K, Long> result = new LinkedHashMap<>(counters.size() * 2);
+        counters.forEach((k, adder) -> result.put(k, adder.sum()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * 导出自上次导出以来的增量并清零（不可变）；计数为 0 的 key 不出现在结果中
+     */
+    public Map<K, Long> snapshotThenReset() {
+        Map<K, Long> result = new LinkedHashMap<>(counters.size() * 2);
+        counters.forEach((k, adder) -> {
+            long v = adder.sumThenReset();
+            if (v != 0) {
+                result.put(k, v);
+            }
+        });
+        return Collections.unmodifiableMap(result);
+    }
+
+    // 先无锁 get，只有 key 第一次出现时才走 computeIfAbsent（需要加锁）
+    private LongAdder counter(K key) {
+        Objects.requireNonNull(key);
+        LongAdder adder = counters.get(key);
+        if (adder == null) {
+            adder = counters.computeIfAbsent(key, k -> new LongAdder());
+        }
+        return adder;
+    }
+}
@@ -0,0 +1,260 @@
+package fun.jevon.collection.Map;
+
+import java.util.Arrays;
+
+/**
+ * int -> int 的原始类型哈希表（开放寻址 + 线性探测）
+ *
+ * 与 HashMap<Integer, Integer> 的区别：
+ * - 不创建 Entry/Node 对象，也不对 key/value 装箱，数据只放在两个 int[] 里
+ * - 每个条目大约 8 字节 / 负载因子，而 HashMap 每个条目约 40+ 字节（Node + 两个 Integer）
+ * - 查找时连续访问数组，缓存友好，无指针追逐
+ *
+ * 约定：
+ * - key 为 0 作为"空槽"标记，真正的 key=0 单独用 hasZeroKey/zeroValue 存储
+ * - get 未命中时返回构造时指定的 noValue（默认 0）
+ * - 删除使用"回移"（backward shift），不留墓碑，探测链始终保持紧凑
+ * - 非线程安全
+ */
+public class IntIntHashMap {
+
+    private static final int FREE_KEY = 0;
+    private static final float DEFAULT_LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;       // 不含 key=0 的条目数
+    private int threshold;
+    private final float loadFactor;
+    private final int noValue;
+
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntHashMap() {
+        this(16, DEFAULT_LOAD_FACTOR, 0);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR, 0);
+    }
+
+    public IntIntHashMap(int expectedSize, float loadFactor, int noValue) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize 不能为负数: " + expectedSize);
+        }
+        if (loadFactor <= 0 || loadFactor >= 1) {
+            throw new IllegalArgumentException("loadFactor 必须在 (0, 1) 之间: " + loadFactor);
+        }
+        this.loadFactor = loadFactor;
+        this.noValue = noValue;
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 2) / loadFactor));
+        allocate(capacity);
+    }
+
+    public int get(int key) {
+        if (key == FREE_KEY) {
+            return hasZeroKey ? zeroValue : noValue;
+        }
+        int idx = slot(key);
+        int k;
+        while ((k = keys[idx]) != FREE_KEY) {
+            if (k == key) {
+                return values[idx];
+            }
+            idx = (idx + 1) & mask;
+        }
+        return noValue;
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE_KEY) {
+            return hasZeroKey;
+        }
+        int idx = slot(key);
+        int k;
+        while ((k = keys[idx]) != FREE_KEY) {
+            if (k == key) {
+                return true;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * 放入键值对，返回旧值；不存在时返回 noValue
+     */
+    public int put(int key, int value) {
+        if (key == FREE_KEY) {
+            int old = hasZeroKey ? zeroValue : noValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return old;
+        }
+        int idx = slot(key);
+        int k;
+        while ((k = keys[idx]) != FREE_KEY) {
+            if (k == key) {
+                int old = values[idx];
+                values[idx] = value;
+                return old;
+            }
+            idx = (idx + 1) & mask;
+        }
+        keys[idx] = key;
+        values[idx] = value;
+        if (++size >= threshold) {
+            rehash(keys.length << 1);
+        }
+        return noValue;
+    }
+
+    /**
+     * 累加：key 不存在时视为 0 再加 delta，返回新值（计数场景无需 get + put 两次探测）
+     */
+    public int addTo(int key, int delta) {
+        if (key == FREE_KEY) {
+            zeroValue = (hasZeroKey ? zeroValue : 0) + delta;
+            hasZeroKey = true;
+            return zeroValue;
+        }
+        int idx = slot(key);
+        int k;
+        while ((k = keys[idx]) != FREE_KEY) {
+            if (k == key) {
+                return values[idx] += delta;
+            }
+            idx = (idx + 1) & mask;
+        }
+        keys[idx] = key;
+        values[idx] = delta;
+        if (++size >= threshold) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+
+    /**
+     * 删除 key，返回被删除的值；不存在时返回 noValue
+     */
+    public int remove(int key) {
+        if (key == FREE_KEY) {
+            if (!hasZeroKey) {
+                return noValue;
+            }
+            hasZeroKey = false;
+            return zeroValue;
+        }
+        int idx = slot(key);
+        int k;
+        while ((k = keys[idx]) != FREE_KEY) {
+            if (k == key) {
+                int old = values[idx];
+                shiftKeys(idx);
+                size--;
+                return old;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return noValue;
+    }
+
+    public int size() {
+        return hasZeroKey ? size + 1 : size;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        size = 0;
+        hasZeroKey = false;
+    }
+
+    /**
+     * 遍历所有条目（顺序不保证），避免为迭代器创建 Entry 对象
+     */
+    public void forEach(IntIntConsumer action) {
+        if (hasZeroKey) {
+            action.accept(FREE_KEY, zeroValue);
+        }
+        int[] ks = keys;
+        int[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != FREE_KEY) {
+                action.accept(ks[i], vs[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+
+    // 删除后把后续探测链上的元素往前挪，保证查找遇到空槽即可停止
+    private void shiftKeys(int pos) {
+        int last;
+        int k;
+        while (true) {
+            last = pos;
+            pos = (pos + 1) & mask;
+            while (true) {
+                if ((k = keys[pos]) == FREE_KEY) {
+                    keys[last] = FREE_KEY;
+                    return;
+                }
+                int home = slot(k);
+                // 元素的理想位置不在 (last, pos] 区间内时，才能挪到 last
+                if (last <= pos ? (last >= home || home > pos) : (last >= home && home > pos)) {
+                    break;
+                }
+                pos = (pos + 1) & mask;
+            }
+            keys[last] = k;
+            values[last] = values[pos];
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            int k = oldKeys[i];
+            if (k != FREE_KEY) {
+                int idx = slot(k);
+                while (keys[idx] != FREE_KEY) {
+                    idx = (idx + 1) & mask;
+                }
+                keys[idx] = k;
+                values[idx] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        threshold = Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    // 乘法散列（黄金分割常数）打散连续 key，避免线性探测时聚集
+    private int slot(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private static int tableSizeFor(int n) {
+        int cap = Integer.highestOneBit(Math.max(n - 1, 1)) << 1;
+        if (cap <= 0) {
+            throw new IllegalArgumentException("容量过大: " + n);
+        }
+        return cap;
+    }
+}
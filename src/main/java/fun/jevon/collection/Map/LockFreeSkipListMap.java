@@ -0,0 +1,629 @@
+package fun.jevon.collection.Map;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+/**
+ * 无锁并发跳表 Map：按 key 有序，可以作为 TreeMap 的并发替代
+ *
+ * 原理：
+ * - 多层有序链表，越往上层节点越稀疏，查找时从最高层往下"跳"，期望复杂度 O(log n)
+ * - 每个指针是一个不可变的 Link（目标节点 + 删除标记），修改只用 CAS 替换 Link，不加锁；
+ *   指向某节点的未标记 Link 随节点一起分配并复用，插入时的 CAS 不产生新对象
+ * - 删除分两步：先把 value CAS 成 null（逻辑删除，线性化点），再从上到下给各层 next 打删除标记；
+ *   之后任何线程在查找路径上遇到带标记的节点都会顺手把它摘掉（物理删除）
+ *
+ * 支持：
+ * - put / putIfAbsent / get / remove / containsKey
+ * - ConcurrentMap 的条件操作：remove(key, value) 与 replace 都是对 value 的一次 CAS；compute / computeIfAbsent /
+ *   computeIfPresent / merge 沿用 ConcurrentMap 基于这些原子操作的重试实现，竞争时函数可能被调用多次
+ * - floor / ceiling / lower / higher、firstKey / lastKey
+ * - 区间扫描 forEachInRange，以及升序/降序迭代（迭代器弱一致，不抛 ConcurrentModificationException）
+ *
+ * 约定：key 与 value 都不允许为 null；size() 为计数器求和，并发修改时是近似值；
+ * 没有 NavigableMap 的子视图（subMap / headMap / descendingMap），区间访问用 forEachInRange 与 descendingIterator
+ */
+public class LockFreeSkipListMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+    private static final int MAX_LEVEL = 16;
+
+    private static final VarHandle VALUE;
+    private static final VarHandle NEXT = MethodHandles.arrayElementVarHandle(Link[].class);
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Node.class, "value", Object.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    static final class Node<K, V> {
+        final K key;
+        // null 表示已被逻辑删除；通过 VALUE 做 CAS
+        volatile Object value;
+        // 各层的后继指针，通过 NEXT 以 volatile/CAS 方式访问
+        final Link<K, V>[] next;
+        final int topLevel;
+        // 指向本节点的未标记 Link，所有前驱共用这一份；带标记的 Link 只在删除时才创建
+        final Link<K, V> ref = new Link<>(this, false);
+
+        @SuppressWarnings("unchecked")
+        Node(K key, Object value, int topLevel) {
+            this.key = key;
+            this.value = value;
+            this.topLevel = topLevel;
+            this.next = new Link[topLevel + 1];
+        }
+    }
+
+    // 不可变的 (后继节点, 删除标记) 对，作用等同于 AtomicMarkableReference 内部的 Pair
+    static final class Link<K, V> {
+        final Node<K, V> node;
+        final boolean marked;
+
+        Link(Node<K, V> node, boolean marked) {
+            this.node = node;
+            this.marked = marked;
+        }
+    }
+
+    private final Comparator<? super K> comparator;
+    private final Node<K, V> head;
+    private final Node<K, V> tail;
+    private final LongAdder count = new LongAdder();
+
+    public LockFreeSkipListMap() {
+        this(null);
+    }
+
+    public LockFreeSkipListMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+        // head/tail 为哨兵：head 视为负无穷，tail 视为正无穷
+        head = new Node<>(null, null, MAX_LEVEL);
+        tail = new Node<>(null, null, MAX_LEVEL);
+        for (int i = 0; i <= MAX_LEVEL; i++) {
+            head.next[i] = tail.ref;
+        }
+    }
+
+    // ---------------- 基本操作 ----------------
+
+    @Override
+    public V put(K key, V value) {
+        return doPut(key, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return doPut(key, value, true);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Node<K, V> n = findNode((K) Objects.requireNonNull(key));
+        return n == null ? null : (V) n.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        return doRemove(key, null);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        Objects.requireNonNull(key);
+        return value != null && doRemove(key, value) != null;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        Node<K, V> n = findNode(Objects.requireNonNull(key));
+        while (n != null) {
+            Object v = n.value;
+            if (v == null || !oldValue.equals(v)) {
+                return false;
+            }
+            if (VALUE.compareAndSet(n, v, newValue)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V replace(K key, V value) {
+        Objects.requireNonNull(value);
+        Node<K, V> n = findNode(Objects.requireNonNull(key));
+        while (n != null) {
+            Object v = n.value;
+            if (v == null) {
+                return null;
+            }
+            if (VALUE.compareAndSet(n, v, value)) {
+                return (V) v;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.max(0, Math.min(count.sum(), Integer.MAX_VALUE));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return firstLiveNode(head) == null;
+    }
+
+    @Override
+    public void clear() {
+        Node<K, V> n;
+        while ((n = firstLiveNode(head)) != null) {
+            remove(n.key);
+        }
+    }
+
+    // ---------------- 有序查询 ----------------
+
+    public K firstKey() {
+        Node<K, V> n = firstLiveNode(head);
+        if (n == null) {
+            throw new NoSuchElementException();
+        }
+        return n.key;
+    }
+
+    public K lastKey() {
+        Map.Entry<K, V> e = lastEntry();
+        if (e == null) {
+            throw new NoSuchElementException();
+        }
+        return e.getKey();
+    }
+
+    public Map.Entry<K, V> firstEntry() {
+        return snapshot(firstLiveNode(head));
+    }
+
+    public Map.Entry<K, V> lastEntry() {
+        return findBelow(null, true);
+    }
+
+    /** 小于等于 key 的最大条目 */
+    public Map.Entry<K, V> floorEntry(K key) {
+        return findBelow(Objects.requireNonNull(key), true);
+    }
+
+    /** 严格小于 key 的最大条目 */
+    public Map.Entry<K, V> lowerEntry(K key) {
+        return findBelow(Objects.requireNonNull(key), false);
+    }
+
+    /** 大于等于 key 的最小条目 */
+    public Map.Entry<K, V> ceilingEntry(K key) {
+        return snapshot(findAbove(Objects.requireNonNull(key), true));
+    }
+
+    /** 严格大于 key 的最小条目 */
+    public Map.Entry<K, V> higherEntry(K key) {
+        return snapshot(findAbove(Objects.requireNonNull(key), false));
+    }
+
+    public K floorKey(K key) {
+        return keyOrNull(floorEntry(key));
+    }
+
+    public K lowerKey(K key) {
+        return keyOrNull(lowerEntry(key));
+    }
+
+    public K ceilingKey(K key) {
+        return keyOrNull(ceilingEntry(key));
+    }
+
+    public K higherKey(K key) {
+        return keyOrNull(higherEntry(key));
+    }
+
+    /**
+     * 区间扫描 [fromKey, toKey)：沿最底层链表顺序走，跳过已逻辑删除的节点
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachInRange(K fromKey, K toKey, BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(toKey);
+        Objects.requireNonNull(action);
+        Node<K, V> n = findAbove(Objects.requireNonNull(fromKey), true);
+        while (n != null && n != tail && compare(n.key, toKey) < 0) {
+            Object v = n.value;
+            if (v != null) {
+                action.accept(n.key, (V) v);
+            }
+            n = successor(n, 0);
+        }
+    }
+
+    /**
+     * 降序迭代：单向链表没有 prev 指针，每一步用 lowerEntry 重新定位，单步 O(log n)
+     */
+    public Iterator<Map.Entry<K, V>> descendingIterator() {
+        return new Iterator<Map.Entry<K, V>>() {
+            private Map.Entry<K, V> nextEntry = lastEntry();
+            private K lastReturned;
+
+            @Override
+            public boolean hasNext() {
+                return nextEntry != null;
+            }
+
+            @Override
+            public Map.Entry<K, V> next() {
+                Map.Entry<K, V> e = nextEntry;
+                if (e == null) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = e.getKey();
+                nextEntry = lowerEntry(lastReturned);
+                return e;
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                LockFreeSkipListMap.this.remove(lastReturned);
+                lastReturned = null;
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new AscendingIterator();
+            }
+
+            @Override
+            public int size() {
+                return LockFreeSkipListMap.this.size();
+            }
+        };
+    }
+
+    // 升序迭代：沿最底层链表走，弱一致；前进时即读取 value，hasNext() 为 true 时 next() 一定有返回值
+    private final class AscendingIterator implements Iterator<Map.Entry<K, V>> {
+        private Node<K, V> nextNode;
+        private Object nextValue;
+        private K lastReturned;
+
+        AscendingIterator() {
+            advance(head);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextNode != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            Node<K, V> n = nextNode;
+            if (n == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<K, V> e = new AbstractMap.SimpleImmutableEntry<>(n.key, (V) nextValue);
+            lastReturned = n.key;
+            advance(n);
+            return e;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            LockFreeSkipListMap.this.remove(lastReturned);
+            lastReturned = null;
+        }
+
+        private void advance(Node<K, V> from) {
+            Node<K, V> n = successor(from, 0);
+            while (n != tail) {
+                Object v = n.value;
+                if (v != null) {
+                    nextNode = n;
+                    nextValue = v;
+                    return;
+                }
+                n = successor(n, 0);
+            }
+            nextNode = null;
+            nextValue = null;
+        }
+    }
+
+    // ---------------- 内部实现 ----------------
+
+    // expected 不为 null 时只在当前 value 与它相等时删除
+    @SuppressWarnings("unchecked")
+    private V doRemove(Object key, Object expected) {
+        K k = (K) Objects.requireNonNull(key);
+        Node<K, V>[] preds = newNodeArray();
+        Node<K, V>[] succs = newNodeArray();
+        while (true) {
+            if (!find(k, preds, succs)) {
+                return null;
+            }
+            Node<K, V> victim = succs[0];
+            Object v = victim.value;
+            if (v == null) {
+                // 已被别的线程逻辑删除，视为不存在
+                return null;
+            }
+            if (expected != null && !expected.equals(v)) {
+                return null;
+            }
+            if (!VALUE.compareAndSet(victim, v, null)) {
+                continue;
+            }
+            // 逻辑删除成功，由本线程负责给各层打标记
+            for (int level = victim.topLevel; level >= 0; level--) {
+                Link<K, V> link = link(victim, level);
+                while (!link.marked) {
+                    casLink(victim, level, link, new Link<>(link.node, true));
+                    link = link(victim, level);
+                }
+            }
+            count.decrement();
+            // 借助 find 的清理逻辑完成物理删除
+            find(k, preds, succs);
+            return (V) v;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private V doPut(K key, V value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        int topLevel = randomLevel();
+        Node<K, V>[] preds = newNodeArray();
+        Node<K, V>[] succs = newNodeArray();
+        while (true) {
+            if (find(key, preds, succs)) {
+                Node<K, V> existing = succs[0];
+                Object v = existing.value;
+                if (v == null) {
+                    // 正在被删除，等删除线程打完标记、find 把它摘掉后再插入新节点
+                    Thread.onSpinWait();
+                    continue;
+                }
+                if (onlyIfAbsent || VALUE.compareAndSet(existing, v, value)) {
+                    return (V) v;
+                }
+                continue;
+            }
+
+            Node<K, V> node = new Node<>(key, value, topLevel);
+            for (int level = 0; level <= topLevel; level++) {
+                node.next[level] = succs[level].ref;
+            }
+            // 先链入最底层：成功即插入生效（线性化点）
+            if (!casLink(preds[0], 0, succs[0].ref, node.ref)) {
+                continue;
+            }
+            count.increment();
+            // 再逐层向上链接；节点若已被并发删除则停止
+            for (int level = 1; level <= topLevel; level++) {
+                while (true) {
+                    Link<K, V> current = link(node, level);
+                    if (current.marked) {
+                        return null;
+                    }
+                    Node<K, V> succ = succs[level];
+                    if (current.node != succ && !casLink(node, level, current, succ.ref)) {
+                        continue;
+                    }
+                    if (casLink(preds[level], level, succ.ref, node.ref)) {
+                        break;
+                    }
+                    if (!find(key, preds, succs) || succs[0] != node) {
+                        return null;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 查找 key 在每一层的前驱与后继，顺手摘掉路径上带删除标记的节点。
+     * 返回最底层后继的 key 是否等于目标 key。
+     */
+    private boolean find(K key, Node<K, V>[] preds, Node<K, V>[] succs) {
+        retry:
+        while (true) {
+            Node<K, V> pred = head;
+            Node<K, V> curr = null;
+            for (int level = MAX_LEVEL; level >= 0; level--) {
+                curr = successor(pred, level);
+                while (true) {
+                    if (curr == tail) {
+                        break;
+                    }
+                    Link<K, V> link = link(curr, level);
+                    while (link.marked) {
+                        // curr 已被删除：把它从 pred 之后摘掉
+                        Node<K, V> succ = link.node;
+                        if (!casLink(pred, level, curr.ref, succ.ref)) {
+                            continue retry;
+                        }
+                        curr = succ;
+                        if (curr == tail) {
+                            break;
+                        }
+                        link = link(curr, level);
+                    }
+                    if (curr != tail && compare(curr.key, key) < 0) {
+                        pred = curr;
+                        curr = link.node;
+                    } else {
+                        break;
+                    }
+                }
+                preds[level] = pred;
+                succs[level] = curr;
+            }
+            return curr != tail && compare(curr.key, key) == 0;
+        }
+    }
+
+    // 只读查找，不做清理：忽略删除标记，以 value 是否为 null 判断存活
+    private Node<K, V> findNode(K key) {
+        Node<K, V> pred = head;
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            Node<K, V> curr = successor(pred, level);
+            while (curr != tail) {
+                int c = compare(curr.key, key);
+                if (c < 0) {
+                    pred = curr;
+                    curr = successor(curr, level);
+                } else {
+                    if (c == 0) {
+                        return curr.value == null ? null : curr;
+                    }
+                    break;
+                }
+            }
+        }
+        return null;
+    }
+
+    // 最大的 (key <= bound 或 key < bound) 的存活条目；bound 为 null 表示正无穷
+    @SuppressWarnings("unchecked")
+    private Map.Entry<K, V> findBelow(K bound, boolean inclusive) {
+        while (true) {
+            Node<K, V> pred = head;
+            for (int level = MAX_LEVEL; level >= 0; level--) {
+                Node<K, V> curr = successor(pred, level);
+                while (curr != tail && (bound == null || below(curr.key, bound, inclusive))) {
+                    pred = curr;
+                    curr = successor(curr, level);
+                }
+            }
+            if (pred == head) {
+                return null;
+            }
+            Object v = pred.value;
+            if (v != null) {
+                return new AbstractMap.SimpleImmutableEntry<>(pred.key, (V) v);
+            }
+            // 找到的节点刚好被删除，收紧上界继续找
+            bound = pred.key;
+            inclusive = false;
+        }
+    }
+
+    // 最小的 (key >= bound 或 key > bound) 的存活节点
+    private Node<K, V> findAbove(K bound, boolean inclusive) {
+        Node<K, V> pred = head;
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            Node<K, V> curr = successor(pred, level);
+            while (curr != tail && compare(curr.key, bound) < 0) {
+                pred = curr;
+                curr = successor(curr, level);
+            }
+        }
+        Node<K, V> n = successor(pred, 0);
+        while (n != tail && (n.value == null || (!inclusive && compare(n.key, bound) == 0)
+                || compare(n.key, bound) < 0)) {
+            n = successor(n, 0);
+        }
+        return n == tail ? null : n;
+    }
+
+    // from 之后第一个存活节点
+    private Node<K, V> firstLiveNode(Node<K, V> from) {
+        Node<K, V> n = successor(from, 0);
+        while (n != tail && n.value == null) {
+            n = successor(n, 0);
+        }
+        return n == tail ? null : n;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Link<K, V> link(Node<K, V> n, int level) {
+        return (Link<K, V>) NEXT.getVolatile(n.next, level);
+    }
+
+    private static <K, V> Node<K, V> successor(Node<K, V> n, int level) {
+        return link(n, level).node;
+    }
+
+    private static <K, V> boolean casLink(Node<K, V> n, int level, Link<K, V> expected, Link<K, V> update) {
+        return NEXT.compareAndSet(n.next, level, expected, update);
+    }
+
+    private boolean below(K key, K bound, boolean inclusive) {
+        int c = compare(key, bound);
+        return inclusive ? c <= 0 : c < 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int compare(K a, K b) {
+        return comparator != null ? comparator.compare(a, b) : ((Comparable<? super K>) a).compareTo(b);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map.Entry<K, V> snapshot(Node<K, V> n) {
+        if (n == null) {
+            return null;
+        }
+        Object v = n.value;
+        return v == null ? null : new AbstractMap.SimpleImmutableEntry<>(n.key, (V) v);
+    }
+
+    private static <K> K keyOrNull(Map.Entry<K, ?> e) {
+        return e == null ? null : e.getKey();
+    }
+
+    // 层数服从 p = 1/4 的几何分布
+    private static int randomLevel() {
+        int level = 0;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (level < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            level++;
+        }
+        return level;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Node<K, V>[] newNodeArray() {
+        return (Node<K, V>[]) new Node[MAX_LEVEL + 1];
+    }
+}
@@ -1,10 +1,16 @@
 package fun.jevon.collection.Map;
 
+import fun.jevon.collection.HeapUsage;
+
 import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntUnaryOperator;
 
 /**
  * 四种 Map（HashMap / LinkedHashMap / TreeMap / Hashtable）
@@ -16,6 +22,9 @@ import java.util.concurrent.TimeUnit;
  * - LinkedHashMap：非线程安全；维持插入顺序；允许 null；性能略慢于 HashMap
  * - TreeMap：非线程安全；按 key 有序（默认升序或自定义 Comparator）；不允许 null key；性能最慢（基于红黑树）
  * - Hashtable：线程安全；不允许 null key/values；整体性能最慢（方法级同步）
+ * - IntIntHashMap：自实现的原始类型开放寻址表；无装箱、无 Entry 对象；int 键查找表的首选
+ * - LockFreeSkipListMap：自实现的无锁跳表；线程安全且按 key 有序；支持区间扫描与 floor/ceiling
+ * - CompactOrderedMap：自实现的紧凑插入有序 Map；条目存在平行数组里，没有 Entry 对象与前后指针
  */
 public class MapPerformanceDemo {
 
@@ -36,6 +45,16 @@ public class MapPerformanceDemo {
         benchmark("LinkedHashMap", new LinkedHashMap<>());
         benchmark("TreeMap", new TreeMap<>());
         benchmark("Hashtable", new Hashtable<>());
+        benchmarkIntInt("IntIntHashMap", new IntIntHashMap());
+
+        System.out.println();
+
+        // 1.1) 插入有序 Map：put / get / 按插入顺序遍历 / 每条目内存
+        // 前几轮包含 JIT 预热（LinkedHashMap 复用了上面已经编译过的 HashMap 代码），看最后一轮的数字
+        for (int round = 1; round <= 3; round++) {
+            orderedBenchmark("LinkedHashMap 第 " + round + " 轮", new LinkedHashMap<>());
+            orderedBenchmark("CompactOrderedMap 第 " + round + " 轮", new CompactOrderedMap<>());
+        }
 
         System.out.println();
 
@@ -44,11 +63,35 @@ public class MapPerformanceDemo {
         concurrencyCheck("LinkedHashMap", new LinkedHashMap<>());
         concurrencyCheck("TreeMap", new TreeMap<>());
         concurrencyCheck("Hashtable", new Hashtable<>());
+        concurrencyCheck("LockFreeSkipListMap", new LockFreeSkipListMap<>());
+
+        System.out.println();
+
+        // 3) 有序 + 并发：并发写入、区间扫描、floor 查询
+        LockFreeSkipListMap<Integer, Integer> skipList = new LockFreeSkipListMap<>();
+        sortedConcurrentBenchmark("LockFreeSkipListMap", skipList,
+                (from, to) -> {
+                    int[] c = {0};
+                    skipList.forEachInRange(from, to, (k, v) -> c[0]++);
+                    return c[0];
+                },
+                k -> orMinusOne(skipList.floorKey(k)));
+        ConcurrentSkipListMap<Integer, Integer> jdkSkipList = new ConcurrentSkipListMap<>();
+        sortedConcurrentBenchmark("ConcurrentSkipListMap", jdkSkipList,
+                (from, to) -> jdkSkipList.subMap(from, to).size(),
+                k -> orMinusOne(jdkSkipList.floorKey(k)));
+        NavigableMap<Integer, Integer> syncTreeMap = Collections.synchronizedNavigableMap(new TreeMap<>());
+        sortedConcurrentBenchmark("synchronized TreeMap", syncTreeMap,
+                (from, to) -> syncTreeMap.subMap(from, true, to, false).size(),
+                k -> orMinusOne(syncTreeMap.floorKey(k)));
 
         System.out.println("\n=== 说明 ===");
         System.out.println("- HashMap/LinkedHashMap/TreeMap 为非线程安全，多个线程同时写入可能导致数据丢失或状态不一致");
         System.out.println("- Hashtable 为线程安全（方法级 synchronized），但性能较差");
         System.out.println("- 如果需要高并发线程安全 Map，推荐使用 ConcurrentHashMap（此处未演示）");
+        System.out.println("- 需要并发且有序（区间扫描、floor/ceiling）时，用跳表：ConcurrentSkipListMap 或 LockFreeSkipListMap");
+        System.out.println("- 需要插入顺序时，CompactOrderedMap 用平行数组代替 LinkedHashMap 的双向链表，内存更省、遍历是顺序扫数组");
+        System.out.println("- key/value 都是 int 时，IntIntHashMap 省去装箱与 Entry 对象，内存约为 HashMap 的 1/3，GC 压力也更小");
     }
 
     private static void benchmark(String name, Map<Integer, Integer> map) {
@@ -78,6 +121,72 @@ public class MapPerformanceDemo {
                 sum);
     }
 
+    // 与 benchmark 相同的负载，但走原始类型 API，不产生任何 Integer 对象
+    private static void benchmarkIntInt(String name, IntIntHashMap map) {
+        System.out.println("— 单线程基准 — " + name);
+
+        long t1 = System.nanoTime();
+        for (int i = 0; i < PUT_COUNT; i++) {
+            map.put(i, i);
+        }
+        long t2 = System.nanoTime();
+
+        long sum = 0;
+        for (int i = 0; i < GET_COUNT; i++) {
+            sum += map.get(i % PUT_COUNT);
+        }
+        long t3 = System.nanoTime();
+
+        System.out.printf("put: %.2f ms, get: %.2f ms, size=%d, checksum=%d%n",
+                (t2 - t1) / 1_000_000.0,
+                (t3 - t2) / 1_000_000.0,
+                map.size(),
+                sum);
+    }
+
+    // 与 benchmark 相同的 put/get，另外测一次完整遍历，并用 GC 后的堆增量估算每条目内存
+    private static void orderedBenchmark(String name, Map<Integer, Integer> map) {
+        System.out.println("— 插入有序基准 — " + name);
+
+        // 预先装箱，堆增量里只计 Map 自身的结构（Integer 缓存之外的 key 对两者相同）
+        Integer[] keys = new Integer[PUT_COUNT];
+        for (int i = 0; i < PUT_COUNT; i++) {
+            keys[i] = i;
+        }
+        long heapBefore = HeapUsage.usedHeap();
+        long t1 = System.nanoTime();
+        for (int i = 0; i < PUT_COUNT; i++) {
+            map.put(keys[i], keys[i]);
+        }
+        long t2 = System.nanoTime();
+        long heapAfter = HeapUsage.usedHeap();
+
+        long t3 = System.nanoTime();
+        long sum = 0;
+        for (int i = 0; i < GET_COUNT; i++) {
+            Integer v = map.get(keys[i % PUT_COUNT]);
+            if (v != null) {
+                sum += v;
+            }
+        }
+        long t4 = System.nanoTime();
+
+        long iterSum = 0;
+        for (Map.Entry<Integer, Integer> e : map.entrySet()) {
+            iterSum += e.getKey();
+        }
+        long t5 = System.nanoTime();
+
+        System.out.printf("put: %.2f ms, get: %.2f ms, 遍历: %.2f ms, 每条目内存: %.1f 字节, size=%d, checksum=%d/%d%n",
+                (t2 - t1) / 1_000_000.0,
+                (t4 - t3) / 1_000_000.0,
+                (t5 - t4) / 1_000_000.0,
+                (double) (heapAfter - heapBefore) / map.size(),
+                map.size(),
+                sum,
+                iterSum);
+    }
+
     private static void concurrencyCheck(String name, Map<Integer, Integer> map) throws InterruptedException {
         System.out.println("\n— 并发写入安全性 — " + name);
 
@@ -128,4 +237,62 @@ public class MapPerformanceDemo {
         System.out.println("线程安全判断（仅供参考）: " + (correct && !hasError));
         System.out.println("说明: 非线程安全的 Map 在高并发写入时可能出现最终 size 小于期望或抛异常；Hashtable 由于同步通常能达到期望值。");
     }
+
+    // 多线程并发写入后，再多线程并发做区间扫描与 floor 查询（模拟按时间分桶的索引）
+    private static void sortedConcurrentBenchmark(String name, Map<Integer, Integer> map,
+                                                  IntBinaryOperator rangeCount, IntUnaryOperator floorKey)
+            throws InterruptedException {
+        System.out.println("\n— 有序并发 Map — " + name);
+        final int total = CONC_THREADS * CONC_PUTS_PER_THREAD;
+        final int rangeWidth = 1_000;
+        final int queriesPerThread = 2_000;
+
+        long t1 = System.nanoTime();
+        runConcurrently(threadId -> {
+            // 交错写入：线程 t 写 t, t+CONC_THREADS, ...，让各线程竞争相邻位置
+            for (int i = threadId; i < total; i += CONC_THREADS) {
+                map.put(i * 2, i);
+            }
+        });
+        long t2 = System.nanoTime();
+
+        long[] scanned = new long[CONC_THREADS];
+        runConcurrently(threadId -> {
+            Random random = new Random(threadId);
+            long sum = 0;
+            for (int q = 0; q < queriesPerThread; q++) {
+                int from = random.nextInt(total * 2);
+                sum += rangeCount.applyAsInt(from, from + rangeWidth);
+                sum += floorKey.applyAsInt(from + 1) >= 0 ? 1 : 0;
+            }
+            scanned[threadId] = sum;
+        });
+        long t3 = System.nanoTime();
+
+        System.out.printf("并发 put: %.2f ms, 区间扫描+floor: %.2f ms, size=%d（期望 %d）, checksum=%d%n",
+                (t2 - t1) / 1_000_000.0,
+                (t3 - t2) / 1_000_000.0,
+                map.size(), total, Arrays.stream(scanned).sum());
+    }
+
+    private static void runConcurrently(IntConsumer task) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(CONC_THREADS);
+        CountDownLatch done = new CountDownLatch(CONC_THREADS);
+        for (int t = 0; t < CONC_THREADS; t++) {
+            final int threadId = t;
+            pool.submit(() -> {
+                try {
+                    task.accept(threadId);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await(60, TimeUnit.SECONDS);
+        pool.shutdown();
+    }
+
+    private static int orMinusOne(Integer key) {
+        return key == null ? -1 : key;
+    }
 }
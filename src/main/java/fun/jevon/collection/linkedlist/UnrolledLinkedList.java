@@ -0,0 +1,535 @@
+package fun.jevon.collection.linkedlist;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 展开链表（Unrolled Linked List）：在 LinkedList.Node（data + next）的思路上，
+ * 把每个节点里的单个 data 换成一小段数组，节点之间仍用 prev/next 相连。
+ *
+ * 特点：
+ * - 迭代：一个块内是连续数组访问，指针跳转次数约为 size / CHUNK_CAPACITY，比 java.util.LinkedList 缓存友好得多
+ * - 插入/删除：只移动块内最多 CHUNK_CAPACITY 个元素，满了就把块一分为二，不会像 ArrayList 那样整体搬移
+ * - 通过 ListIterator 在已定位的位置插入/删除为 O(CHUNK_CAPACITY)，即常数时间
+ * - 按下标访问需要按块跳转，复杂度 O(size / CHUNK_CAPACITY)
+ * - 同时实现 List 与 Deque，可直接替换 java.util.LinkedList
+ * - 非线程安全；迭代器为 fail-fast
+ */
+public class UnrolledLinkedList<E> extends AbstractList<E> implements Deque<E> {
+
+    // 块容量：64 个引用约 256~512 字节，正好是几条缓存行
+    static final int CHUNK_CAPACITY = 64;
+
+    static final class Chunk<E> {
+        final Object[] items = new Object[CHUNK_CAPACITY];
+        int count;
+        Chunk<E> prev;
+        Chunk<E> next;
+    }
+
+    private Chunk<E> head;
+    private Chunk<E> tail;
+    private int size;
+
+    public UnrolledLinkedList() {
+    }
+
+    // ---------------- List ----------------
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(E e) {
+        addLast(e);
+        return true;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        checkPositionIndex(index);
+        listIterator(index).add(element);
+    }
+
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return listIterator(index).next();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        Objects.checkIndex(index, size);
+        ListIterator<E> it = listIterator(index);
+        E old = it.next();
+        it.set(element);
+        return old;
+    }
+
+    @Override
+    public E remove(int index) {
+        Objects.checkIndex(index, size);
+        ListIterator<E> it = listIterator(index);
+        E old = it.next();
+        it.remove();
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        head = tail = null;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr(0);
+    }
+
+    @Override
+    public ListIterator<E> listIterator() {
+        return new Itr(0);
+    }
+
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        checkPositionIndex(index);
+        return new Itr(index);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        int expected = modCount;
+        for (Chunk<E> c = head; c != null; c = c.next) {
+            Object[] items = c.items;
+            for (int i = 0, n = c.count; i < n; i++) {
+                action.accept((E) items[i]);
+            }
+        }
+        if (modCount != expected) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    // ---------------- Deque ----------------
+
+    @Override
+    public void addFirst(E e) {
+        insertAt(head, 0, e);
+    }
+
+    @Override
+    public void addLast(E e) {
+        insertAt(tail, tail == null ? 0 : tail.count, e);
+    }
+
+    @Override
+    public boolean offerFirst(E e) {
+        addFirst(e);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(E e) {
+        addLast(e);
+        return true;
+    }
+
+    @Override
+    public E removeFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return removeAt(head, 0);
+    }
+
+    @Override
+    public E removeLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return removeAt(tail, tail.count - 1);
+    }
+
+    @Override
+    public E pollFirst() {
+        return size == 0 ? null : removeAt(head, 0);
+    }
+
+    @Override
+    public E pollLast() {
+        return size == 0 ? null : removeAt(tail, tail.count - 1);
+    }
+
+    @Override
+    public E getFirst() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return peekFirst();
+    }
+
+    @Override
+    public E getLast() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return peekLast();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peekFirst() {
+        return size == 0 ? null : (E) head.items[0];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peekLast() {
+        return size == 0 ? null : (E) tail.items[tail.count - 1];
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        return remove(o);
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        Iterator<E> it = descendingIterator();
+        while (it.hasNext()) {
+            if (Objects.equals(o, it.next())) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        return offerLast(e);
+    }
+
+    @Override
+    public E remove() {
+        return removeFirst();
+    }
+
+    @Override
+    public E poll() {
+        return pollFirst();
+    }
+
+    @Override
+    public E element() {
+        return getFirst();
+    }
+
+    @Override
+    public E peek() {
+        return peekFirst();
+    }
+
+    @Override
+    public void push(E e) {
+        addFirst(e);
+    }
+
+    @Override
+    public E pop() {
+        return removeFirst();
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new Iterator<E>() {
+            private final Itr itr = new Itr(size);
+
+            @Override
+            public boolean hasNext() {
+                return itr.hasPrevious();
+            }
+
+            @Override
+            public E next() {
+                return itr.previous();
+            }
+
+            @Override
+            public void remove() {
+                itr.remove();
+            }
+        };
+    }
+
+    // ---------------- 块操作 ----------------
+
+    // 在块 c 的 off 位置插入；c 已满时先对半分裂。返回元素最终所在的块
+    private Chunk<E> insertAt(Chunk<E> c, int off, E e) {
+        if (c == null) {
+            // 空表：建第一个块
+            c = new Chunk<>();
+            head = tail = c;
+        } else if (c.count == CHUNK_CAPACITY) {
+            if (off == CHUNK_CAPACITY) {
+                // 在满块末尾追加（顺序 add 的常见情况）：直接开新块，前面的块保持满载
+                c = linkAfter(c);
+                off = 0;
+            } else {
+                Chunk<E> n = split(c);
+                if (off > c.count) {
+                    off -= c.count;
+                    c = n;
+                }
+            }
+        }
+        Object[] items = c.items;
+        System.arraycopy(items, off, items, off + 1, c.count - off);
+        items[off] = e;
+        c.count++;
+        size++;
+        modCount++;
+        return c;
+    }
+
+    // 把块 c 的后半部分搬到新块，新块挂在 c 后面
+    private Chunk<E> split(Chunk<E> c) {
+        Chunk<E> n = linkAfter(c);
+        int half = c.count >>> 1;
+        int moved = c.count - half;
+        System.arraycopy(c.items, half, n.items, 0, moved);
+        Arrays.fill(c.items, half, c.count, null);
+        n.count = moved;
+        c.count = half;
+        return n;
+    }
+
+    // 在块 c 后面挂一个空块
+    private Chunk<E> linkAfter(Chunk<E> c) {
+        Chunk<E> n = new Chunk<>();
+        n.prev = c;
+        n.next = c.next;
+        if (c.next != null) {
+            c.next.prev = n;
+        } else {
+            tail = n;
+        }
+        c.next = n;
+        return n;
+    }
+
+    // 删除块 c 的 off 位置元素；块空了就摘掉，过于稀疏则把后继块并进来
+    @SuppressWarnings("unchecked")
+    private E removeAt(Chunk<E> c, int off) {
+        Object[] items = c.items;
+        E old = (E) items[off];
+        int moved = c.count - off - 1;
+        if (moved > 0) {
+            System.arraycopy(items, off + 1, items, off, moved);
+        }
+        items[--c.count] = null;
+        size--;
+        modCount++;
+
+        if (c.count == 0) {
+            unlink(c);
+        } else {
+            Chunk<E> n = c.next;
+            if (n != null && c.count < CHUNK_CAPACITY / 4 && c.count + n.count <= CHUNK_CAPACITY * 3 / 4) {
+                System.arraycopy(n.items, 0, items, c.count, n.count);
+                c.count += n.count;
+                unlink(n);
+            }
+        }
+        return old;
+    }
+
+    // 摘除块时保留它自身的 prev/next，迭代器据此重新定位
+    private void unlink(Chunk<E> c) {
+        if (c.prev != null) {
+            c.prev.next = c.next;
+        } else {
+            head = c.next;
+        }
+        if (c.next != null) {
+            c.next.prev = c.prev;
+        } else {
+            tail = c.prev;
+        }
+    }
+
+    private void checkPositionIndex(int index) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    /**
+     * 游标 = (chunk, offset)：下一个元素是 chunk.items[offset]；
+     * offset == chunk.count 表示位于该块末尾，next() 时再跳到后继块
+     */
+    private class Itr implements ListIterator<E> {
+        private Chunk<E> chunk;
+        private int offset;
+        private int index;
+
+        private Chunk<E> lastChunk;
+        private int lastOffset = -1;
+        private boolean lastWasNext;
+        private int expectedModCount = modCount;
+
+        Itr(int index) {
+            this.index = index;
+            if (index <= size >>> 1) {
+                Chunk<E> c = head;
+                int remaining = index;
+                while (c != null && remaining > c.count) {
+                    remaining -= c.count;
+                    c = c.next;
+                }
+                chunk = c;
+                offset = remaining;
+            } else {
+                Chunk<E> c = tail;
+                int remaining = size - index;
+                while (remaining > c.count) {
+                    remaining -= c.count;
+                    c = c.prev;
+                }
+                chunk = c;
+                offset = c.count - remaining;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            checkForComodification();
+            if (index >= size) {
+                throw new NoSuchElementException();
+            }
+            if (offset >= chunk.count) {
+                chunk = chunk.next;
+                offset = 0;
+            }
+            lastChunk = chunk;
+            lastOffset = offset;
+            lastWasNext = true;
+            index++;
+            return (E) chunk.items[offset++];
+        }
+
+        @Override
+        public boolean hasPrevious() {
+            return index > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E previous() {
+            checkForComodification();
+            if (index <= 0) {
+                throw new NoSuchElementException();
+            }
+            if (offset == 0) {
+                chunk = chunk.prev;
+                offset = chunk.count;
+            }
+            offset--;
+            lastChunk = chunk;
+            lastOffset = offset;
+            lastWasNext = false;
+            index--;
+            return (E) chunk.items[offset];
+        }
+
+        @Override
+        public int nextIndex() {
+            return index;
+        }
+
+        @Override
+        public int previousIndex() {
+            return index - 1;
+        }
+
+        @Override
+        public void remove() {
+            if (lastOffset < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            Chunk<E> c = lastChunk;
+            removeAt(c, lastOffset);
+            if (lastWasNext) {
+                index--;
+            }
+            // 被删元素之后的元素左移一格，游标正好落在原位置
+            if (c.count == 0) {
+                if (c.prev != null) {
+                    chunk = c.prev;
+                    offset = chunk.count;
+                } else {
+                    chunk = c.next;
+                    offset = 0;
+                }
+            } else {
+                chunk = c;
+                offset = lastOffset;
+            }
+            lastOffset = -1;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public void set(E e) {
+            if (lastOffset < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            lastChunk.items[lastOffset] = e;
+        }
+
+        @Override
+        public void add(E e) {
+            checkForComodification();
+            Chunk<E> before = chunk;
+            Chunk<E> target = insertAt(before, offset, e);
+            if (before == null) {
+                offset = 0;
+            } else if (target != before) {
+                // 分裂（或末尾开新块）后插入点落在新块，before 只剩前半部分
+                offset -= before.count;
+            }
+            chunk = target;
+            offset++;
+            index++;
+            lastOffset = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package fun.jevon.collection.queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * 有界多生产者多消费者（MPMC）环形队列（Vyukov 算法）
+ *
+ * 与 ConcurrentLinkedQueue 的区别：
+ * - 预先分配固定大小的数组，入队/出队不再为每个元素分配链表节点，没有额外 GC 压力
+ * - 有界：队列满时 offer 直接返回 false，由调用方决定等待、丢弃还是降级，天然提供背压
+ * - 每个槽位带一个序号 sequence：
+ *   sequence == pos 表示槽位空闲，可供第 pos 次入队使用；
+ *   sequence == pos + 1 表示已写入，可供第 pos 次出队读取；
+ *   出队后把 sequence 置为 pos + capacity，留给下一圈的入队
+ * - 入队只 CAS tail，出队只 CAS head；head/tail 用填充字段隔开，避免伪共享（false sharing）
+ *
+ * 约定：不允许 null 元素；size() 是近似值；迭代器是弱一致的（见 iterator），
+ * 不支持 iterator().remove() 与 remove(Object)：从环中间删除元素会破坏槽位序号
+ */
+public class MpmcRingQueue<E> extends AbstractQueue<E> {
+
+    // ---- 通过继承层次在 tail、head 前后各填充 64 字节，让它们各自独占缓存行 ----
+
+    abstract static class Pad0 {
+        long p00, p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    abstract static class TailField extends Pad0 {
+        volatile long tail;
+    }
+
+    abstract static class Pad1 extends TailField {
+        long p10, p11, p12, p13, p14, p15, p16, p17;
+    }
+
+    abstract static class HeadField extends Pad1 {
+        volatile long head;
+    }
+
+    abstract static class Pad2 extends HeadField {
+        long p20, p21, p22, p23, p24, p25, p26, p27;
+    }
+
+    // head/tail 放在单独的对象里，不和 AbstractQueue 及本类的其他字段混排
+    static final class Indexes extends Pad2 {
+    }
+
+    private static final VarHandle TAIL;
+    private static final VarHandle HEAD;
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TAIL = lookup.findVarHandle(TailField.class, "tail", long.class);
+            HEAD = lookup.findVarHandle(HeadField.class, "head", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Indexes indexes = new Indexes();
+    private final Object[] buffer;
+    private final long[] sequences;
+    private final int mask;
+
+    public MpmcRingQueue(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity 至少为 2: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        buffer = new Object[size];
+        sequences = new long[size];
+        mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences[i] = i;
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        Indexes ix = indexes;
+        long pos = ix.tail;
+        while (true) {
+            int idx = (int) pos & mask;
+            long seq = (long) SEQUENCE.getAcquire(sequences, idx);
+            long dif = seq - pos;
+            if (dif == 0) {
+                if (TAIL.compareAndSet(ix, pos, pos + 1)) {
+                    ELEMENT.set(buffer, idx, e);
+                    // 发布：消费者看到新序号时一定能看到元素
+                    SEQUENCE.setRelease(sequences, idx, pos + 1);
+                    return true;
+                }
+                pos = ix.tail;
+            } else if (dif < 0) {
+                // 该槽位上一圈的元素还没被取走：队列已满
+                return false;
+            } else {
+                pos = ix.tail;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        Indexes ix = indexes;
+        long pos = ix.head;
+        while (true) {
+            int idx = (int) pos & mask;
+            long seq = (long) SEQUENCE.getAcquire(sequences, idx);
+            long dif = seq - (pos + 1);
+            if (dif == 0) {
+                if (HEAD.compareAndSet(ix, pos, pos + 1)) {
+                    E e = (E) ELEMENT.get(buffer, idx);
+                    ELEMENT.set(buffer, idx, null);
+                    SEQUENCE.setRelease(sequences, idx, pos + mask + 1);
+                    return e;
+                }
+                pos = ix.head;
+            } else if (dif < 0) {
+                // 槽位还没写入：队列为空
+                return null;
+            } else {
+                pos = ix.head;
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        Indexes ix = indexes;
+        while (true) {
+            long pos = ix.head;
+            int idx = (int) pos & mask;
+            long seq = (long) SEQUENCE.getAcquire(sequences, idx);
+            if (seq - (pos + 1) < 0) {
+                return null;
+            }
+            E e = (E) ELEMENT.get(buffer, idx);
+            // 读取期间没有被其他消费者取走才算有效
+            if (e != null && ix.head == pos) {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * 批量出队：一次 CAS 领取一段连续的已就绪槽位，再逐个交给 consumer，
+     * 比循环调用 poll() 少 (n - 1) 次 CAS。返回实际取出的个数。
+     *
+     * 领取的槽位必须全部归还，否则这一圈的生产者和消费者都会卡在这里：
+     * consumer 抛出异常时继续把剩下的元素交给它，全部交付后再抛出第一个异常（之后的异常作为 suppressed）
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super E> consumer, int limit) {
+        Objects.requireNonNull(consumer);
+        Indexes ix = indexes;
+        while (true) {
+            long pos = ix.head;
+            int n = 0;
+            while (n < limit) {
+                int idx = (int) (pos + n) & mask;
+                long seq = (long) SEQUENCE.getAcquire(sequences, idx);
+                if (seq != pos + n + 1) {
+                    break;
+                }
+                n++;
+            }
+            if (n == 0) {
+                return 0;
+            }
+            if (!HEAD.compareAndSet(ix, pos, pos + n)) {
+                continue;
+            }
+            RuntimeException failure = null;
+            for (int i = 0; i < n; i++) {
+                long p = pos + i;
+                int idx = (int) p & mask;
+                E e = (E) ELEMENT.get(buffer, idx);
+                ELEMENT.set(buffer, idx, null);
+                SEQUENCE.setRelease(sequences, idx, p + mask + 1);
+                try {
+                    consumer.accept(e);
+                } catch (RuntimeException ex) {
+                    if (failure == null) {
+                        failure = ex;
+                    } else {
+                        failure.addSuppressed(ex);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return n;
+        }
+    }
+
+    public int drainTo(Collection<? super E> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    public int drainTo(Collection<? super E> c, int maxElements) {
+        if (c == this) {
+            throw new IllegalArgumentException();
+        }
+        int total = 0;
+        int n;
+        while (total < maxElements && (n = drain(c::add, Math.min(maxElements - total, mask + 1))) > 0) {
+            total += n;
+        }
+        return total;
+    }
+
+    @Override
+    public int size() {
+        Indexes ix = indexes;
+        // 先读 head 再读 tail，保证差值不为负
+        long head = ix.head;
+        long tail = ix.tail;
+        return (int) Math.max(0, Math.min(tail - head, mask + 1));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return indexes.head == indexes.tail;
+    }
+
+    /**
+     * 弱一致的迭代器：从创建时的 head 开始按顺序返回还在队列里的元素，不抛 ConcurrentModificationException；
+     * 迭代期间被其他消费者取走的元素会被跳过，遇到还没写入的槽位即结束，
+     * 之后入队的元素可能看得到也可能看不到。不支持 remove
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    private final class Itr implements Iterator<E> {
+        // 下一个要检查的位置
+        private long cursor = indexes.head;
+        private E next;
+
+        Itr() {
+            advance();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void advance() {
+            next = null;
+            while (true) {
+                long pos = cursor;
+                int idx = (int) pos & mask;
+                long seq = (long) SEQUENCE.getAcquire(sequences, idx);
+                long dif = seq - (pos + 1);
+                if (dif < 0) {
+                    // 槽位还没写入：已到队尾
+                    return;
+                }
+                if (dif == 0) {
+                    Object e = ELEMENT.getAcquire(buffer, idx);
+                    // 读元素前后序号不变，说明读到的是第 pos 次入队的元素，且读取时还没被取走
+                    if (e != null && (long) SEQUENCE.getAcquire(sequences, idx) == seq) {
+                        cursor = pos + 1;
+                        next = (E) e;
+                        return;
+                    }
+                }
+                // 已被消费者取走（可能已经是下一圈的元素）：跳到当前 head
+                cursor = Math.max(pos + 1, indexes.head);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public E next() {
+            E e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            advance();
+            return e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MpmcRingQueue[size=" + size() + ", capacity=" + capacity() + "]";
+    }
+}
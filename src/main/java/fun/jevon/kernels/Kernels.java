@@ -0,0 +1,102 @@
+package fun.jevon.kernels;
+
+/**
+ * 聚合与小规模排序内核的统一入口：有 jdk.incubator.vector 模块时走 VectorKernels，否则走 ScalarKernels
+ *
+ * 使用：
+ * - 编译已在 pom.xml 中加上 --add-modules jdk.incubator.vector
+ * - 运行时加 --add-modules jdk.incubator.vector 才会启用向量实现；不加时照常运行，只是使用标量实现
+ * - -Dkernels.scalar=true 可强制使用标量实现，便于对比或排查
+ *
+ * 各方法语义见 ScalarKernels
+ */
+public final class Kernels {
+
+    /**
+     * 是否使用向量实现；static final 常量，JIT 编译后分支会被消除
+     */
+    public static final boolean VECTORIZED = !Boolean.getBoolean("kernels.scalar")
+            && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && VectorKernels.isProfitable();
+
+    public static final int SMALL_SORT_MAX = ScalarKernels.SMALL_SORT_MAX;
+
+    private Kernels() {
+    }
+
+    public static String describe() {
+        return VECTORIZED ? "向量实现（" + VectorKernels.describe() + "）" : "标量实现";
+    }
+
+    public static long sum(int[] a) {
+        return VECTORIZED ? VectorKernels.sum(a) : ScalarKernels.sum(a);
+    }
+
+    public static long sum(long[] a) {
+        return VECTORIZED ? VectorKernels.sum(a) : ScalarKernels.sum(a);
+    }
+
+    public static double sum(double[] a) {
+        return VECTORIZED ? VectorKernels.sum(a) : ScalarKernels.sum(a);
+    }
+
+    public static int min(int[] a) {
+        return VECTORIZED ? VectorKernels.min(a) : ScalarKernels.min(a);
+    }
+
+    public static int max(int[] a) {
+        return VECTORIZED ? VectorKernels.max(a) : ScalarKernels.max(a);
+    }
+
+    public static long min(long[] a) {
+        return VECTORIZED ? VectorKernels.min(a) : ScalarKernels.min(a);
+    }
+
+    public static long max(long[] a) {
+        return VECTORIZED ? VectorKernels.max(a) : ScalarKernels.max(a);
+    }
+
+    public static double min(double[] a) {
+        return VECTORIZED ? VectorKernels.min(a) : ScalarKernels.min(a);
+    }
+
+    public static double max(double[] a) {
+        return VECTORIZED ? VectorKernels.max(a) : ScalarKernels.max(a);
+    }
+
+    public static int countBetween(int[] a, int lo, int hi) {
+        return VECTORIZED ? VectorKernels.countBetween(a, lo, hi) : ScalarKernels.countBetween(a, lo, hi);
+    }
+
+    public static int countBetween(long[] a, long lo, long hi) {
+        return VECTORIZED ? VectorKernels.countBetween(a, lo, hi) : ScalarKernels.countBetween(a, lo, hi);
+    }
+
+    public static int countBetween(double[] a, double lo, double hi) {
+        return VECTORIZED ? VectorKernels.countBetween(a, lo, hi) : ScalarKernels.countBetween(a, lo, hi);
+    }
+
+    public static void sortSmall(int[] a, int from, int to) {
+        if (VECTORIZED) {
+            VectorKernels.sortSmall(a, from, to);
+        } else {
+            ScalarKernels.sortSmall(a, from, to);
+        }
+    }
+
+    public static void sortSmall(long[] a, int from, int to) {
+        if (VECTORIZED) {
+            VectorKernels.sortSmall(a, from, to);
+        } else {
+            ScalarKernels.sortSmall(a, from, to);
+        }
+    }
+
+    public static void sortSmall(double[] a, int from, int to) {
+        if (VECTORIZED) {
+            VectorKernels.sortSmall(a, from, to);
+        } else {
+            ScalarKernels.sortSmall(a, from, to);
+        }
+    }
+}
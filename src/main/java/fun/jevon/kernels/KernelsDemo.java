@@ -0,0 +1,108 @@
+package fun.jevon.kernels;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 标量内核 vs 向量内核
+ *
+ * 运行：java --add-modules jdk.incubator.vector fun.jevon.kernels.KernelsDemo [元素个数]
+ * 不加 --add-modules 也能运行，只是两列都是标量实现
+ */
+public class KernelsDemo {
+
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        System.out.println("Kernels: " + Kernels.describe());
+
+        Random random = new Random(42);
+        // 模拟 employee.salary 一列
+        int[] ints = new int[n];
+        for (int i = 0; i < n; i++) {
+            ints[i] = 3_000 + random.nextInt(47_000);
+        }
+        long[] longs = random.longs(n).toArray();
+        double[] doubles = random.doubles(n, 0, 10_000).toArray();
+
+        System.out.printf("%n1) 聚合：%,d 个元素，各跑 %d 轮取最快一轮%n", n, ROUNDS);
+        compare("SUM(int)", () -> ScalarKernels.sum(ints), () -> Kernels.sum(ints));
+        compare("SUM(long)", () -> ScalarKernels.sum(longs), () -> Kernels.sum(longs));
+        compare("SUM(double)", () -> ScalarKernels.sum(doubles), () -> Kernels.sum(doubles));
+        compare("MIN(int)", () -> ScalarKernels.min(ints), () -> Kernels.min(ints));
+        compare("MAX(long)", () -> ScalarKernels.max(longs), () -> Kernels.max(longs));
+        compare("MAX(double)", () -> ScalarKernels.max(doubles), () -> Kernels.max(doubles));
+        compare("COUNT BETWEEN(int)", () -> ScalarKernels.countBetween(ints, 10_000, 20_000),
+                () -> Kernels.countBetween(ints, 10_000, 20_000));
+        compare("COUNT BETWEEN(double)", () -> ScalarKernels.countBetween(doubles, 1_000.0, 2_000.0),
+                () -> Kernels.countBetween(doubles, 1_000.0, 2_000.0));
+        System.out.printf("AVG(int) = SUM / COUNT = %.2f%n", (double) Kernels.sum(ints) / n);
+
+        int section = 2;
+        for (int block : new int[]{8, Kernels.SMALL_SORT_MAX}) {
+            System.out.printf("%n%d) 小规模排序网络：把 %,d 个 int 按每 %d 个一组分别排序%n", section++, n, block);
+            compareSort("Arrays.sort", ints, block, (a, from, to) -> Arrays.sort(a, from, to));
+            compareSort("ScalarKernels.sortSmall", ints, block, ScalarKernels::sortSmall);
+            compareSort("Kernels.sortSmall", ints, block, Kernels::sortSmall);
+        }
+    }
+
+    interface RangeSort {
+        void sort(int[] a, int from, int to);
+    }
+
+    private static void compare(String name, Supplier<Object> scalar, Supplier<Object> vector) {
+        Object expected = null;
+        Object actual = null;
+        long scalarBest = Long.MAX_VALUE;
+        long vectorBest = Long.MAX_VALUE;
+        for (int r = 0; r < ROUNDS; r++) {
+            long start = System.nanoTime();
+            expected = scalar.get();
+            long mid = System.nanoTime();
+            actual = vector.get();
+            long end = System.nanoTime();
+            scalarBest = Math.min(scalarBest, mid - start);
+            vectorBest = Math.min(vectorBest, end - mid);
+        }
+        System.out.printf("%-22s 标量: %7.2f ms, Kernels: %7.2f ms, 加速 %5.2fx, 结果一致=%s%n", name,
+                scalarBest / 1_000_000.0, vectorBest / 1_000_000.0, (double) scalarBest / vectorBest,
+                sameResult(expected, actual));
+    }
+
+    // double 求和的结合顺序不同，允许末位的舍入误差
+    private static boolean sameResult(Object expected, Object actual) {
+        if (expected instanceof Double && actual instanceof Double) {
+            double e = (Double) expected;
+            double a = (Double) actual;
+            return Math.abs(e - a) <= Math.abs(e) * 1e-12;
+        }
+        return expected.equals(actual);
+    }
+
+    private static void compareSort(String name, int[] data, int block, RangeSort sorter) {
+        int[] expected = data.clone();
+        for (int from = 0; from < expected.length; from += block) {
+            Arrays.sort(expected, from, Math.min(from + block, expected.length));
+        }
+        long best = Long.MAX_VALUE;
+        boolean same = true;
+        for (int r = 0; r < ROUNDS; r++) {
+            int[] work = data.clone();
+            IntSupplier run = () -> {
+                for (int from = 0; from < work.length; from += block) {
+                    sorter.sort(work, from, Math.min(from + block, work.length));
+                }
+                return work.length;
+            };
+            long start = System.nanoTime();
+            run.getAsInt();
+            best = Math.min(best, System.nanoTime() - start);
+            same &= Arrays.equals(expected, work);
+        }
+        System.out.printf("%-24s %7.2f ms, 结果一致=%s%n", name, best / 1_000_000.0, same);
+    }
+}
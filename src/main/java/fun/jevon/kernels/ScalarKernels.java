@@ -0,0 +1,231 @@
+package fun.jevon.kernels;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * 聚合与小规模排序内核的标量实现，也是 VectorKernels 的回退版本
+ *
+ * 语义（VectorKernels 与之保持一致）：
+ * - sum：int[] 累加到 long，不会溢出；long[] 按补码回绕；double[] 按下标顺序累加
+ * - min/max：空数组抛 NoSuchElementException；double 按 Math.min/Math.max（NaN 传播，-0.0 < 0.0）
+ * - countBetween：统计 lo <= x <= hi 的元素个数，对应 SQL 的 COUNT(*) ... WHERE x BETWEEN lo AND hi
+ * - sortSmall：升序排序 a[from, to)，不超过 SMALL_SORT_MAX 个元素时用固定比较网络（Batcher 奇偶归并），
+ *   没有数据相关的分支；更长的区间交给 Arrays.sort。double 版本不支持 NaN
+ */
+public final class ScalarKernels {
+
+    public static final int SMALL_SORT_MAX = 16;
+
+    // NETWORKS[b] 是 2^b 个元素的比较网络，按 (i, j) 成对存放
+    private static final int[][] NETWORKS = new int[5][];
+
+    static {
+        for (int b = 1; b < NETWORKS.length; b++) {
+            NETWORKS[b] = oddEvenMergeNetwork(1 << b);
+        }
+    }
+
+    private ScalarKernels() {
+    }
+
+    public static long sum(int[] a) {
+        long sum = 0;
+        for (int v : a) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    public static long sum(long[] a) {
+        long sum = 0;
+        for (long v : a) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    public static double sum(double[] a) {
+        double sum = 0;
+        for (double v : a) {
+            sum += v;
+        }
+        return sum;
+    }
+
+    public static int min(int[] a) {
+        requireNonEmpty(a.length);
+        int min = Integer.MAX_VALUE;
+        for (int v : a) {
+            min = Math.min(min, v);
+        }
+        return min;
+    }
+
+    public static int max(int[] a) {
+        requireNonEmpty(a.length);
+        int max = Integer.MIN_VALUE;
+        for (int v : a) {
+            max = Math.max(max, v);
+        }
+        return max;
+    }
+
+    public static long min(long[] a) {
+        requireNonEmpty(a.length);
+        long min = Long.MAX_VALUE;
+        for (long v : a) {
+            min = Math.min(min, v);
+        }
+        return min;
+    }
+
+    public static long max(long[] a) {
+        requireNonEmpty(a.length);
+        long max = Long.MIN_VALUE;
+        for (long v : a) {
+            max = Math.max(max, v);
+        }
+        return max;
+    }
+
+    public static double min(double[] a) {
+        requireNonEmpty(a.length);
+        double min = Double.POSITIVE_INFINITY;
+        for (double v : a) {
+            min = Math.min(min, v);
+        }
+        return min;
+    }
+
+    public static double max(double[] a) {
+        requireNonEmpty(a.length);
+        double max = Double.NEGATIVE_INFINITY;
+        for (double v : a) {
+            max = Math.max(max, v);
+        }
+        return max;
+    }
+
+    public static int countBetween(int[] a, int lo, int hi) {
+        int count = 0;
+        for (int v : a) {
+            count += v >= lo && v <= hi ? 1 : 0;
+        }
+        return count;
+    }
+
+    public static int countBetween(long[] a, long lo, long hi) {
+        int count = 0;
+        for (long v : a) {
+            count += v >= lo && v <= hi ? 1 : 0;
+        }
+        return count;
+    }
+
+    public static int countBetween(double[] a, double lo, double hi) {
+        int count = 0;
+        for (double v : a) {
+            count += v >= lo && v <= hi ? 1 : 0;
+        }
+        return count;
+    }
+
+    public static void sortSmall(int[] a, int from, int to) {
+        int[] network = network(a.length, from, to);
+        if (network == null) {
+            if (to - from > SMALL_SORT_MAX) {
+                Arrays.sort(a, from, to);
+            }
+            return;
+        }
+        int n = to - from;
+        for (int p = 0; p < network.length; p += 2) {
+            int j = network[p + 1];
+            // 网络按 2 的幂生成，补位的元素视为 +∞ 永远不会交换，直接跳过
+            if (j < n) {
+                int x = a[from + network[p]];
+                int y = a[from + j];
+                a[from + network[p]] = Math.min(x, y);
+                a[from + j] = Math.max(x, y);
+            }
+        }
+    }
+
+    public static void sortSmall(long[] a, int from, int to) {
+        int[] network = network(a.length, from, to);
+        if (network == null) {
+            if (to - from > SMALL_SORT_MAX) {
+                Arrays.sort(a, from, to);
+            }
+            return;
+        }
+        int n = to - from;
+        for (int p = 0; p < network.length; p += 2) {
+            int j = network[p + 1];
+            if (j < n) {
+                long x = a[from + network[p]];
+                long y = a[from + j];
+                a[from + network[p]] = Math.min(x, y);
+                a[from + j] = Math.max(x, y);
+            }
+        }
+    }
+
+    public static void sortSmall(double[] a, int from, int to) {
+        int[] network = network(a.length, from, to);
+        if (network == null) {
+            if (to - from > SMALL_SORT_MAX) {
+                Arrays.sort(a, from, to);
+            }
+            return;
+        }
+        int n = to - from;
+        for (int p = 0; p < network.length; p += 2) {
+            int j = network[p + 1];
+            if (j < n) {
+                double x = a[from + network[p]];
+                double y = a[from + j];
+                a[from + network[p]] = Math.min(x, y);
+                a[from + j] = Math.max(x, y);
+            }
+        }
+    }
+
+    // 区间不超过 SMALL_SORT_MAX 时返回能覆盖它的最小网络，否则（包括不需要排序的 0/1 个元素）返回 null
+    private static int[] network(int length, int from, int to) {
+        if (from < 0 || from > to || to > length) {
+            throw new IndexOutOfBoundsException("from=" + from + ", to=" + to + ", length=" + length);
+        }
+        int n = to - from;
+        if (n < 2 || n > SMALL_SORT_MAX) {
+            return null;
+        }
+        return NETWORKS[32 - Integer.numberOfLeadingZeros(n - 1)];
+    }
+
+    // Batcher 奇偶归并排序网络，n 为 2 的幂
+    private static int[] oddEvenMergeNetwork(int n) {
+        int[] pairs = new int[n * n];
+        int size = 0;
+        for (int p = 1; p < n; p <<= 1) {
+            for (int k = p; k >= 1; k >>= 1) {
+                for (int j = k % p; j <= n - 1 - k; j += k << 1) {
+                    for (int i = 0; i <= Math.min(k - 1, n - j - k - 1); i++) {
+                        if ((i + j) / (p << 1) == (i + j + k) / (p << 1)) {
+                            pairs[size++] = i + j;
+                            pairs[size++] = i + j + k;
+                        }
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(pairs, size);
+    }
+
+    static void requireNonEmpty(int length) {
+        if (length == 0) {
+            throw new NoSuchElementException("空数组没有最小/最大值");
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package fun.jevon.kernels;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShuffle;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 基于 jdk.incubator.vector（Java 17 孵化模块）的 SIMD 实现，语义与 ScalarKernels 相同
+ *
+ * 说明：
+ * - 使用平台首选宽度（AVX2 为 256 位，AVX-512 为 512 位，ARM NEON 为 128 位），主循环一次处理一整个向量，尾部用标量补齐
+ * - int 求和先把每个向量拆成两半加宽成 long 再累加，结果与标量版本完全一致
+ * - double 求和按车道分组累加，结合顺序与标量版本不同，末位可能有舍入误差
+ * - sortSmall 在一个向量寄存器内做双调排序网络（每级 rearrange + min + max + blend），只处理恰好一个向量长的区间
+ *   （AVX-512 上 16 个 int / 8 个 long、double），其余长度回退到 ScalarKernels：
+ *   Java 17 的带掩码写回没有编译成向量指令，补位后掩码写回比标量网络还慢
+ * - 只能在 --add-modules jdk.incubator.vector 下加载；业务代码请通过 Kernels 调用，没有该模块时自动使用标量实现
+ */
+public final class VectorKernels {
+
+    private static final VectorSpecies<Integer> INT = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONG = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLE = DoubleVector.SPECIES_PREFERRED;
+
+    // 双调排序网络的每一级：与哪条车道比较（shuffle），以及哪些车道取较大值（mask）
+    // 按元素类型分开存放，JIT 能确定具体的向量类型并把 rearrange/blend 编译成单条指令
+    private static final VectorShuffle<Integer>[] INT_PARTNERS = bitonicPartners(INT);
+    private static final VectorMask<Integer>[] INT_TAKE_MAX = bitonicTakeMax(INT);
+    private static final VectorShuffle<Long>[] LONG_PARTNERS = bitonicPartners(LONG);
+    private static final VectorMask<Long>[] LONG_TAKE_MAX = bitonicTakeMax(LONG);
+    private static final VectorShuffle<Double>[] DOUBLE_PARTNERS = bitonicPartners(DOUBLE);
+    private static final VectorMask<Double>[] DOUBLE_TAKE_MAX = bitonicTakeMax(DOUBLE);
+
+    private VectorKernels() {
+    }
+
+    /**
+     * 至少 128 位宽时才值得向量化；更窄（或 JIT 无 SIMD 支持）时向量 API 会退化成逐车道模拟，比标量循环更慢
+     */
+    public static boolean isProfitable() {
+        return INT.vectorBitSize() >= 128;
+    }
+
+    public static String describe() {
+        return INT + ", " + LONG + ", " + DOUBLE;
+    }
+
+    public static long sum(int[] a) {
+        LongVector acc0 = LongVector.zero(LONG);
+        LongVector acc1 = LongVector.zero(LONG);
+        int i = 0;
+        for (int upper = INT.loopBound(a.length); i < upper; i += INT.length()) {
+            IntVector v = IntVector.fromArray(INT, a, i);
+            acc0 = acc0.add(v.convertShape(VectorOperators.I2L, LONG, 0));
+            acc1 = acc1.add(v.convertShape(VectorOperators.I2L, LONG, 1));
+        }
+        long sum = acc0.add(acc1).reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static long sum(long[] a) {
+        LongVector acc = LongVector.zero(LONG);
+        int i = 0;
+        for (int upper = LONG.loopBound(a.length); i < upper; i += LONG.length()) {
+            acc = acc.add(LongVector.fromArray(LONG, a, i));
+        }
+        long sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static double sum(double[] a) {
+        DoubleVector acc = DoubleVector.zero(DOUBLE);
+        int i = 0;
+        for (int upper = DOUBLE.loopBound(a.length); i < upper; i += DOUBLE.length()) {
+            acc = acc.add(DoubleVector.fromArray(DOUBLE, a, i));
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < a.length; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static int min(int[] a) {
+        ScalarKernels.requireNonEmpty(a.length);
+        IntVector acc = IntVector.broadcast(INT, Integer.MAX_VALUE);
+        int i = 0;
+        for (int upper = INT.loopBound(a.length); i < upper; i += INT.length()) {
+            acc = acc.min(IntVector.fromArray(INT, a, i));
+        }
+        int min = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < a.length; i++) {
+            min = Math.min(min, a[i]);
+        }
+        return min;
+    }
+
+    public static int max(int[] a) {
+        ScalarKernels.requireNonEmpty(a.length);
+        IntVector acc = IntVector.broadcast(INT, Integer.MIN_VALUE);
+        int i = 0;
+        for (int upper = INT.loopBound(a.length); i < upper; i += INT.length()) {
+            acc = acc.max(IntVector.fromArray(INT, a, i));
+        }
+        int max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < a.length; i++) {
+            max = Math.max(max, a[i]);
+        }
+        return max;
+    }
+
+    public static long min(long[] a) {
+        ScalarKernels.requireNonEmpty(a.length);
+        LongVector acc = LongVector.broadcast(LONG, Long.MAX_VALUE);
+        int i = 0;
+        for (int upper = LONG.loopBound(a.length); i < upper; i += LONG.length()) {
+            acc = acc.min(LongVector.fromArray(LONG, a, i));
+        }
+        long min = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < a.length; i++) {
+            min = Math.min(min, a[i]);
+        }
+        return min;
+    }
+
+    public static long max(long[] a) {
+        ScalarKernels.requireNonEmpty(a.length);
+        LongVector acc = LongVector.broadcast(LONG, Long.MIN_VALUE);
+        int i = 0;
+        for (int upper = LONG.loopBound(a.length); i < upper; i += LONG.length()) {
+            acc = acc.max(LongVector.fromArray(LONG, a, i));
+        }
+        long max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < a.length; i++) {
+            max = Math.max(max, a[i]);
+        }
+        return max;
+    }
+
+    public static double min(double[] a) {
+        ScalarKernels.requireNonEmpty(a.length);
+        DoubleVector acc = DoubleVector.broadcast(DOUBLE, Double.POSITIVE_INFINITY);
+        int i = 0;
+        for (int upper = DOUBLE.loopBound(a.length); i < upper; i += DOUBLE.length()) {
+            acc = acc.min(DoubleVector.fromArray(DOUBLE, a, i));
+        }
+        double min = acc.reduceLanes(VectorOperators.MIN);
+        for (; i < a.length; i++) {
+            min = Math.min(min, a[i]);
+        }
+        return min;
+    }
+
+    public static double max(double[] a) {
+        ScalarKernels.requireNonEmpty(a.length);
+        DoubleVector acc = DoubleVector.broadcast(DOUBLE, Double.NEGATIVE_INFINITY);
+        int i = 0;
+        for (int upper = DOUBLE.loopBound(a.length); i < upper; i += DOUBLE.length()) {
+            acc = acc.max(DoubleVector.fromArray(DOUBLE, a, i));
+        }
+        double max = acc.reduceLanes(VectorOperators.MAX);
+        for (; i < a.length; i++) {
+            max = Math.max(max, a[i]);
+        }
+        return max;
+    }
+
+    public static int countBetween(int[] a, int lo, int hi) {
+        int count = 0;
+        int i = 0;
+        for (int upper = INT.loopBound(a.length); i < upper; i += INT.length()) {
+            IntVector v = IntVector.fromArray(INT, a, i);
+            count += v.compare(VectorOperators.GE, lo).and(v.compare(VectorOperators.LE, hi)).trueCount();
+        }
+        for (; i < a.length; i++) {
+            count += a[i] >= lo && a[i] <= hi ? 1 : 0;
+        }
+        return count;
+    }
+
+    public static int countBetween(long[] a, long lo, long hi) {
+        int count = 0;
+        int i = 0;
+        for (int upper = LONG.loopBound(a.length); i < upper; i += LONG.length()) {
+            LongVector v = LongVector.fromArray(LONG, a, i);
+            count += v.compare(VectorOperators.GE, lo).and(v.compare(VectorOperators.LE, hi)).trueCount();
+        }
+        for (; i < a.length; i++) {
+            count += a[i] >= lo && a[i] <= hi ? 1 : 0;
+        }
+        return count;
+    }
+
+    public static int countBetween(double[] a, double lo, double hi) {
+        int count = 0;
+        int i = 0;
+        for (int upper = DOUBLE.loopBound(a.length); i < upper; i += DOUBLE.length()) {
+            DoubleVector v = DoubleVector.fromArray(DOUBLE, a, i);
+            count += v.compare(VectorOperators.GE, lo).and(v.compare(VectorOperators.LE, hi)).trueCount();
+        }
+        for (; i < a.length; i++) {
+            count += a[i] >= lo && a[i] <= hi ? 1 : 0;
+        }
+        return count;
+    }
+
+    public static void sortSmall(int[] a, int from, int to) {
+        int n = to - from;
+        if (n != INT.length() || from < 0 || to > a.length) {
+            ScalarKernels.sortSmall(a, from, to);
+            return;
+        }
+        IntVector v = IntVector.fromArray(INT, a, from);
+        for (int s = 0; s < INT_PARTNERS.length; s++) {
+            IntVector partner = v.rearrange(INT_PARTNERS[s]);
+            v = v.min(partner).blend(v.max(partner), INT_TAKE_MAX[s]);
+        }
+        v.intoArray(a, from);
+    }
+
+    public static void sortSmall(long[] a, int from, int to) {
+        int n = to - from;
+        if (n != LONG.length() || from < 0 || to > a.length) {
+            ScalarKernels.sortSmall(a, from, to);
+            return;
+        }
+        LongVector v = LongVector.fromArray(LONG, a, from);
+        for (int s = 0; s < LONG_PARTNERS.length; s++) {
+            LongVector partner = v.rearrange(LONG_PARTNERS[s]);
+            v = v.min(partner).blend(v.max(partner), LONG_TAKE_MAX[s]);
+        }
+        v.intoArray(a, from);
+    }
+
+    public static void sortSmall(double[] a, int from, int to) {
+        int n = to - from;
+        if (n != DOUBLE.length() || from < 0 || to > a.length) {
+            ScalarKernels.sortSmall(a, from, to);
+            return;
+        }
+        DoubleVector v = DoubleVector.fromArray(DOUBLE, a, from);
+        for (int s = 0; s < DOUBLE_PARTNERS.length; s++) {
+            DoubleVector partner = v.rearrange(DOUBLE_PARTNERS[s]);
+            v = v.min(partner).blend(v.max(partner), DOUBLE_TAKE_MAX[s]);
+        }
+        v.intoArray(a, from);
+    }
+
+    // 车道数为 2 的幂；第 k 轮把长度为 k 的段排成交替升降的双调序列，最后一轮整体升序。第 s 级与相距 j 的车道比较
+    @SuppressWarnings("unchecked")
+    private static <E> VectorShuffle<E>[] bitonicPartners(VectorSpecies<E> species) {
+        int[] distances = bitonicDistances(species.length());
+        VectorShuffle<E>[] partners = new VectorShuffle[distances.length];
+        for (int s = 0; s < distances.length; s++) {
+            int distance = distances[s];
+            partners[s] = VectorShuffle.fromOp(species, i -> i ^ distance);
+        }
+        return partners;
+    }
+
+    // 一对车道里，升序段的高位车道、降序段的低位车道取较大值
+    @SuppressWarnings("unchecked")
+    private static <E> VectorMask<E>[] bitonicTakeMax(VectorSpecies<E> species) {
+        int lanes = species.length();
+        int[] distances = bitonicDistances(lanes);
+        int[] segments = bitonicSegments(lanes);
+        VectorMask<E>[] masks = new VectorMask[distances.length];
+        for (int s = 0; s < distances.length; s++) {
+            boolean[] takeMax = new boolean[lanes];
+            for (int i = 0; i < lanes; i++) {
+                boolean lower = (i & distances[s]) == 0;
+                boolean ascending = (i & segments[s]) == 0;
+                takeMax[i] = lower != ascending;
+            }
+            masks[s] = VectorMask.fromArray(species, takeMax, 0);
+        }
+        return masks;
+    }
+
+    private static int[] bitonicDistances(int lanes) {
+        int log = Integer.numberOfTrailingZeros(lanes);
+        int[] distances = new int[log * (log + 1) / 2];
+        int s = 0;
+        for (int k = 2; k <= lanes; k <<= 1) {
+            for (int j = k >> 1; j > 0; j >>= 1) {
+                distances[s++] = j;
+            }
+        }
+        return distances;
+    }
+
+    private static int[] bitonicSegments(int lanes) {
+        int log = Integer.numberOfTrailingZeros(lanes);
+        int[] segments = new int[log * (log + 1) / 2];
+        int s = 0;
+        for (int k = 2; k <= lanes; k <<= 1) {
+            for (int j = k >> 1; j > 0; j >>= 1) {
+                segments[s++] = k;
+            }
+        }
+        return segments;
+    }
+}
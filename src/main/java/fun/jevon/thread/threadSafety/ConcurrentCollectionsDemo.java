@@ -1,23 +1,39 @@
 package fun.jevon.thread.threadSafety;
 
+import fun.jevon.collection.Connection.list.GroupCommitArrayList;
+import fun.jevon.collection.Map.ConcurrentCounterMap;
+import fun.jevon.collection.queue.MpmcRingQueue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
 
 /**
  * 并发容器（Concurrent Collections）最简单演示
  *
  * 要点：
  * 1. ConcurrentHashMap：分段/无锁化方案，支持并发读写；使用 compute/merge 等原子组合操作避免竞态。
+ * 1.1 ConcurrentCounterMap：按 key 计数的热点路径，每个 key 一个 LongAdder，避免 compute 在同一个桶上排队。
  * 2. CopyOnWriteArrayList：写时复制，读无锁，迭代器是快照；适合读多写少场景。
+ * 2.1 GroupCommitArrayList：读同样无锁，并发写入合并成一次复制（组提交），写入突发时复制次数远少于 CopyOnWriteArrayList。
  * 3. ConcurrentLinkedQueue：基于无锁的并发队列，适合多生产者/多消费者，高并发入队/出队。
+ * 4. MpmcRingQueue：有界环形数组队列，入队不分配节点，满了 offer 返回 false，提供背压。
  */
 public class ConcurrentCollectionsDemo {
 
@@ -32,6 +48,9 @@ public class ConcurrentCollectionsDemo {
         System.out.println();
         // 多生产者单消费者
         demoConcurrentLinkedQueue();
+        System.out.println();
+        // 多生产者多消费者：无界链表队列 vs 有界环形队列
+        demoMpmcQueueBenchmark();
     }
     // 使用 compute 进行原子读改写
     private static void demoConcurrentHashMap() throws InterruptedException {
@@ -57,6 +76,107 @@ public class ConcurrentCollectionsDemo {
         int expected = threads * perThreadOps;
         int actual = counter.getOrDefault(key, 0);
         System.out.println("预期计数 = " + expected + ", 实际计数 = " + actual + ", 正确性 = " + (expected == actual));
+
+        demoCounterMapBenchmark(threads, perThreadOps * 4);
+    }
+
+    // 按接口计数：key 服从 Zipf 分布（少数接口承担大部分请求），对比几种计数写法
+    private static void demoCounterMapBenchmark(int threads, int perThreadOps) throws InterruptedException {
+        System.out.println("1.1) 热点 key 计数对比（" + threads + " 线程, 每线程 " + perThreadOps + " 次, 100 个接口, Zipf s=1.1）");
+
+        String[] endpoints = new String[100];
+        for (int i = 0; i < endpoints.length; i++) {
+            endpoints[i] = "/api/endpoint/" + i;
+        }
+        // 预先生成每个线程的 key 序列，避免把随机数开销算进计时
+        String[][] keys = new String[threads][];
+        for (int t = 0; t < threads; t++) {
+            keys[t] = zipfKeys(endpoints, perThreadOps, 1.1, 42 + t);
+        }
+        long expected = (long) threads * perThreadOps;
+
+        // 第 1 轮包含 JIT 预热，看第 2 轮的数字
+        for (int round = 1; round <= 2; round++) {
+            System.out.println("-- 第 " + round + " 轮");
+            runCounterRound(endpoints, keys, expected);
+        }
+    }
+
+    private static void runCounterRound(String[] endpoints, String[][] keys, long expected) throws InterruptedException {
+        Map<String, Integer> compute = new ConcurrentHashMap<>();
+        runCounterBenchmark("compute(Integer)", keys,
+                k -> compute.compute(k, (key, v) -> v == null ? 1 : v + 1),
+                () -> compute.values().stream().mapToLong(Integer::longValue).sum(), expected);
+
+        Map<String, Long> merge = new ConcurrentHashMap<>();
+        runCounterBenchmark("merge(Long)", keys,
+                k -> merge.merge(k, 1L, Long::sum),
+                () -> merge.values().stream().mapToLong(Long::longValue).sum(), expected);
+
+        Map<String, AtomicLong> atomic = new ConcurrentHashMap<>();
+        runCounterBenchmark("AtomicLong 值", keys,
+                k -> atomic.computeIfAbsent(k, key -> new AtomicLong()).incrementAndGet(),
+                () -> atomic.values().stream().mapToLong(AtomicLong::get).sum(), expected);
+
+        ConcurrentCounterMap<String> counters = new ConcurrentCounterMap<>(endpoints.length);
+        runCounterBenchmark("ConcurrentCounterMap", keys, counters::increment, counters::total, expected);
+
+        // 导出：取出增量并清零，再次导出时只剩新产生的计数
+        Map<String, Long> exported = counters.snapshotThenReset();
+        long exportedTotal = exported.values().stream().mapToLong(Long::longValue).sum();
+        System.out.println("snapshotThenReset 导出 " + exported.size() + " 个接口, 合计 = " + exportedTotal
+                + ", 最热接口 " + endpoints[0] + " = " + exported.get(endpoints[0])
+                + ", 导出后总计 = " + counters.total());
+    }
+
+    private static void runCounterBenchmark(String name, String[][] keys, Consumer<String> increment,
+                                            LongSupplier total, long expected) throws InterruptedException {
+        int threads = keys.length;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            final String[] seq = keys[t];
+            pool.submit(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (String k : seq) {
+                    increment.accept(k);
+                }
+            });
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        pool.shutdown();
+        pool.awaitTermination(60, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        long actual = total.getAsLong();
+        System.out.printf("%-22s 耗时= %6.1f ms, 吞吐= %,.0f ops/s, 计数正确 = %s%n",
+                name, elapsed / 1_000_000.0, expected / (elapsed / 1_000_000_000.0), actual == expected);
+    }
+
+    // Zipf 分布抽样：第 i 个 key 的概率正比于 1 / (i+1)^s，按累积概率二分查找
+    private static String[] zipfKeys(String[] keys, int count, double s, long seed) {
+        double[] cdf = new double[keys.length];
+        double sum = 0;
+        for (int i = 0; i < keys.length; i++) {
+            sum += 1.0 / Math.pow(i + 1, s);
+            cdf[i] = sum;
+        }
+        Random random = new Random(seed);
+        String[] result = new String[count];
+        for (int i = 0; i < count; i++) {
+            int idx = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            result[i] = keys[idx < 0 ? Math.min(-idx - 1, keys.length - 1) : idx];
+        }
+        return result;
     }
 
     // 并发添加与快照迭代
@@ -94,6 +214,68 @@ public class ConcurrentCollectionsDemo {
         int expected = threads * perThreadAdds;
         System.out.println("最终列表大小 = " + list.size() + ", 预期 = " + expected + ", 正确性 = " + (list.size() == expected));
         System.out.println("说明：CopyOnWriteArrayList 适合读多写少；频繁写入会带来复制开销。");
+
+        demoReadMostlyListBenchmark(threads, perThreadAdds);
+    }
+
+    // 读写混合负载：按不同读写比例对比数组复制次数与耗时
+    private static void demoReadMostlyListBenchmark(int threads, int perThreadOps) throws InterruptedException {
+        System.out.println("2.1) 读多写少列表对比（" + threads + " 线程, 每线程 " + perThreadOps + " 次操作）");
+        for (int readsPerWrite : new int[]{1, 10, 100}) {
+            System.out.println("-- 读:写 = " + readsPerWrite + ":1");
+            List<Integer> cow = new CopyOnWriteArrayList<>();
+            runListMix("CopyOnWriteArrayList", cow, threads, perThreadOps, readsPerWrite, cow::size);
+            GroupCommitArrayList<Integer> groupCommit = new GroupCommitArrayList<>();
+            runListMix("GroupCommitArrayList", groupCommit, threads, perThreadOps, readsPerWrite,
+                    groupCommit::publishCount);
+            runListMix("synchronizedList", Collections.synchronizedList(new ArrayList<>()), threads, perThreadOps,
+                    readsPerWrite, () -> 0);
+        }
+        System.out.println("说明：复制次数越少写放大越小；synchronizedList 不复制，但每次读都要加锁。");
+    }
+
+    private static void runListMix(String name, List<Integer> list, int threads, int perThreadOps,
+                                   int readsPerWrite, LongSupplier copies) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(threads);
+        CountDownLatch go = new CountDownLatch(1);
+        long[] checksums = new long[threads];
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            pool.submit(() -> {
+                ready.countDown();
+                try {
+                    go.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                long sum = 0;
+                for (int j = 0; j < perThreadOps; j++) {
+                    if (j % (readsPerWrite + 1) == 0) {
+                        list.add(j);
+                    } else {
+                        // 列表只增不减，先取 size 再按下标读是安全的
+                        int n = list.size();
+                        if (n > 0) {
+                            sum += list.get(j % n);
+                        }
+                    }
+                }
+                checksums[id] = sum;
+            });
+        }
+        ready.await();
+        long start = System.nanoTime();
+        go.countDown();
+        pool.shutdown();
+        pool.awaitTermination(60, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        int writes = threads * ((perThreadOps + readsPerWrite) / (readsPerWrite + 1));
+        System.out.printf("%-22s 耗时= %7.1f ms, 写入= %d, 数组复制= %d, 大小正确 = %s, checksum=%d%n",
+                name, elapsed / 1_000_000.0, writes, copies.getAsLong(), list.size() == writes,
+                Arrays.stream(checksums).sum());
     }
 
     // 多生产者单消费者
@@ -137,6 +319,111 @@ public class ConcurrentCollectionsDemo {
 
         System.out.println("入队总数 = " + expected + ", 实际出队数 = " + consumed[0] + ", 正确性 = " + (consumed[0] == expected));
     }
-}
 
+    // 多生产者多消费者：吞吐（ops/s）与入队到出队的 p99 延迟
+    private static void demoMpmcQueueBenchmark() throws InterruptedException {
+        System.out.println("4) 多生产者多消费者队列对比：ConcurrentLinkedQueue（无界，每次 offer 分配节点） vs MpmcRingQueue（有界，零分配）");
+
+        runQueueBenchmark("ConcurrentLinkedQueue", new ConcurrentLinkedQueue<>(), false);
+        runQueueBenchmark("MpmcRingQueue(poll)", new MpmcRingQueue<>(1024), false);
+        runQueueBenchmark("MpmcRingQueue(drain 批量)", new MpmcRingQueue<>(1024), true);
+        System.out.println("说明：有界队列满时生产者让出 CPU 等待，这就是背压；ConcurrentLinkedQueue 只会无限增长。");
+    }
+
+    private static void runQueueBenchmark(String name, Queue<Long> queue, boolean batch) throws InterruptedException {
+        final int producers = 4;
+        final int consumers = 4;
+        final int perProducer = 250_000;
+        final int total = producers * perProducer;
+        // 结束标记：生产者全部结束后，为每个消费者放入一个
+        final Long poison = Long.MIN_VALUE;
+
+        ExecutorService pool = Executors.newFixedThreadPool(producers + consumers);
+        CountDownLatch producersDone = new CountDownLatch(producers);
+        CountDownLatch consumersDone = new CountDownLatch(consumers);
+        long[][] latencies = new long[consumers][total];
+        int[] recorded = new int[consumers];
+
+        long start = System.nanoTime();
+        for (int i = 0; i < producers; i++) {
+            pool.submit(() -> {
+                for (int j = 0; j < perProducer; j++) {
+                    Long stamp = System.nanoTime();
+                    while (!queue.offer(stamp)) {
+                        Thread.yield();
+                    }
+                }
+                producersDone.countDown();
+            });
+        }
+        for (int i = 0; i < consumers; i++) {
+            final int id = i;
+            pool.submit(() -> {
+                long[] lat = latencies[id];
+                int n = 0;
+                boolean stop = false;
+                while (!stop) {
+                    if (batch) {
+                        // count[0]：已记录的延迟数；count[1]：本批取到的结束标记数
+                        int[] count = {n, 0};
+                        int drained = ((MpmcRingQueue<Long>) queue).drain(v -> {
+                            if (v == poison) {
+                                count[1]++;
+                            } else {
+                                lat[count[0]++] = System.nanoTime() - v;
+                            }
+                        }, 64);
+                        n = count[0];
+                        // 一批里可能取到多个结束标记，多出来的放回去留给其他消费者
+                        for (int k = 1; k < count[1]; k++) {
+                            while (!queue.offer(poison)) {
+                                Thread.yield();
+                            }
+                        }
+                        stop = count[1] > 0;
+                        if (drained == 0) {
+                            Thread.yield();
+                        }
+                    } else {
+                        Long v = queue.poll();
+                        if (v == null) {
+                            Thread.yield();
+                        } else if (v == poison) {
+                            stop = true;
+                        } else {
+                            lat[n++] = System.nanoTime() - v;
+                        }
+                    }
+                }
+                recorded[id] = n;
+                consumersDone.countDown();
+            });
+        }
+
+        producersDone.await();
+        for (int i = 0; i < consumers; i++) {
+            while (!queue.offer(poison)) {
+                Thread.yield();
+            }
+        }
+        consumersDone.await();
+        long end = System.nanoTime();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
 
+        // 合并各消费者的延迟样本再排序取分位数
+        int consumed = Arrays.stream(recorded).sum();
+        long[] all = new long[consumed];
+        int offset = 0;
+        for (int i = 0; i < consumers; i++) {
+            System.arraycopy(latencies[i], 0, all, offset, recorded[i]);
+            offset += recorded[i];
+        }
+        Arrays.sort(all);
+        double seconds = (end - start) / 1_000_000_000.0;
+        System.out.printf("%s: 出队 %d/%d, 吞吐= %.0f ops/s, p50= %.1f us, p99= %.1f us%n",
+                name, consumed, total, consumed / seconds,
+                all[(int) (consumed * 0.50)] / 1_000.0,
+                all[Math.min(consumed - 1, (int) (consumed * 0.99))] / 1_000.0);
+    }
+}
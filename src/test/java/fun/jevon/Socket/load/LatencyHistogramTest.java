@@ -0,0 +1,78 @@
+package fun.jevon.Socket.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分位数与排序后直接取第 ceil(p * n) 个值对照：小于 256 的值精确，更大的值相对误差不超过 1/128；
+ * 协调遗漏修正按期望间隔补记缺失的样本
+ */
+class LatencyHistogramTest {
+
+    private static final double[] PERCENTILES = {0, 1, 10, 50, 90, 99, 99.9, 99.99, 100};
+
+    @Test
+    void percentilesMatchSortedSamples() {
+        Random random = new Random(71);
+        for (long range : new long[]{200, 10_000, 1_000_000_000L, Long.MAX_VALUE / 4}) {
+            long[] samples = new long[100_000];
+            LatencyHistogram histogram = new LatencyHistogram();
+            LatencyHistogram left = new LatencyHistogram();
+            LatencyHistogram right = new LatencyHistogram();
+            for (int i = 0; i < samples.length; i++) {
+                // 对数分布，各个数量级都有样本
+                samples[i] = (long) Math.min(range - 1, Math.exp(random.nextDouble() * Math.log(range)));
+                histogram.record(samples[i]);
+                (i % 2 == 0 ? left : right).record(samples[i]);
+            }
+            left.add(right);
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+
+            assertEquals(samples.length, histogram.count());
+            assertEquals(sorted[0], histogram.min());
+            assertEquals(sorted[sorted.length - 1], histogram.max());
+            assertEquals(Arrays.stream(samples).asDoubleStream().average().getAsDouble(), histogram.mean(), 1e-6 * histogram.mean());
+            for (double p : PERCENTILES) {
+                int rank = (int) Math.max(1, Math.ceil(p / 100 * samples.length));
+                long exact = sorted[rank - 1];
+                long actual = histogram.percentile(p);
+                String message = "range=" + range + ", p" + p + ": exact=" + exact + ", actual=" + actual;
+                if (exact < 256) {
+                    assertEquals(exact, actual, message);
+                } else {
+                    assertTrue(actual >= exact && actual - exact <= exact / 128, message);
+                }
+                assertEquals(actual, left.percentile(p), "合并后的直方图, " + message);
+            }
+        }
+    }
+
+    @Test
+    void coordinatedOmissionCorrection() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 99; i++) {
+            histogram.record(10);
+        }
+        // 一次卡顿 200，期望间隔 10：卡顿期间本该发出的请求补记为 190, 180 ... 10，共 19 个
+        histogram.record(200);
+        LatencyHistogram corrected = histogram.copyCorrectedForCoordinatedOmission(10);
+
+        assertEquals(100, histogram.count());
+        assertEquals(119, corrected.count());
+        assertEquals(10, histogram.percentile(90));
+        // 第 108 个：100 个 10 之后依次是 20, 30 ...
+        assertEquals(90, corrected.percentile(90));
+        assertEquals(histogram.max(), corrected.max());
+        assertEquals(histogram.count(), histogram.copyCorrectedForCoordinatedOmission(0).count());
+
+        assertEquals(0, new LatencyHistogram().percentile(99));
+        assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+    }
+}
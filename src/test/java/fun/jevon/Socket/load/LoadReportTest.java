@@ -0,0 +1,19 @@
+package fun.jevon.Socket.load;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * toJson 里的字符串按 JSON 规则转义：引号、反斜杠与控制字符不会破坏输出
+ */
+class LoadReportTest {
+
+    @Test
+    void quoteEscapesJsonSpecialCharacters() {
+        assertEquals("\"tcp://127.0.0.1:9000\"", LoadReport.quote("tcp://127.0.0.1:9000"));
+        assertEquals("\"unix:C:\\\\tmp\\\\a \\\"b\\\".sock\"", LoadReport.quote("unix:C:\\tmp\\a \"b\".sock"));
+        assertEquals("\"a\\nb\\rc\\td\\u0000e\\u001f\"", LoadReport.quote("a\nb\rc\td\u0000e\u001f"));
+        assertEquals("\"路径/套接字\"", LoadReport.quote("路径/套接字"));
+    }
+}
@@ -0,0 +1,99 @@
+package fun.jevon.Socket.nio;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 与 close 并发投递的任务要么执行、要么被拒绝，不会静默丢失；
+ * AsyncSocketClient 在关闭过程中发出的请求都会以某种结果结束，不会永远挂起
+ */
+class EventLoopTest {
+
+    private static final int THREADS = 4;
+
+    @Test
+    void tasksRacingCloseAreRunOrRejected() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            EventLoop loop = new EventLoop("race-" + round);
+            AtomicInteger ran = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            AtomicInteger submitted = new AtomicInteger();
+            CountDownLatch started = new CountDownLatch(THREADS);
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                Thread thread = new Thread(() -> {
+                    started.countDown();
+                    for (int i = 0; i < 20_000; i++) {
+                        submitted.incrementAndGet();
+                        try {
+                            loop.execute(ran::incrementAndGet);
+                        } catch (RejectedExecutionException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            started.await();
+            loop.close();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(submitted.get(), ran.get() + rejected.get(), "第 " + round + " 轮有任务丢失");
+            assertThrows(RejectedExecutionException.class, () -> loop.execute(() -> { }));
+        }
+    }
+
+    @Test
+    void sendsRacingCloseAlwaysComplete() throws Exception {
+        RequestHandler handler = new RequestHandler(body -> body);
+        try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), handler, 1)) {
+            for (int round = 0; round < 20; round++) {
+                // 不设超时：被遗漏的请求会一直挂起
+                AsyncSocketClient client = new AsyncSocketClient(new InetSocketAddress("127.0.0.1", server.port()),
+                        1, 4, Duration.ZERO);
+                List<CompletableFuture<ByteBuffer>> futures = new ArrayList<>();
+                CountDownLatch started = new CountDownLatch(THREADS);
+                List<Thread> threads = new ArrayList<>();
+                for (int t = 0; t < THREADS; t++) {
+                    Thread thread = new Thread(() -> {
+                        started.countDown();
+                        for (int i = 0; i < 2_000; i++) {
+                            CompletableFuture<ByteBuffer> future = client.send(ByteBuffer.allocate(8));
+                            synchronized (futures) {
+                                futures.add(future);
+                            }
+                        }
+                    });
+                    thread.start();
+                    threads.add(thread);
+                }
+                started.await();
+                client.close();
+                for (Thread thread : threads) {
+                    // 许可泄漏时 send 会一直阻塞在信号量上
+                    thread.join(TimeUnit.SECONDS.toMillis(10));
+                    assertTrue(!thread.isAlive(), "send 阻塞在未归还的许可上");
+                }
+                for (CompletableFuture<ByteBuffer> future : futures) {
+                    future.handle((r, e) -> null).get(10, TimeUnit.SECONDS);
+                }
+            }
+        }
+    }
+}
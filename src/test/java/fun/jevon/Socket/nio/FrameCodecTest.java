@@ -0,0 +1,102 @@
+package fun.jevon.Socket.nio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 编码一串随机帧，按随机大小的分片喂给 decode（模拟一次 read 只读到半帧），解出的帧与原始帧逐个相同；
+ * 损坏的长度前缀要抛 IllegalStateException
+ */
+class FrameCodecTest {
+
+    @Test
+    void roundTripWithArbitrarySplits() {
+        Random random = new Random(61);
+        ByteBufferPool pool = new ByteBufferPool();
+        int[] sizes = {0, 1, 127, 128, 300, 16383, 16384, 100_000};
+        List<int[]> types = new ArrayList<>();
+        List<byte[]> payloads = new ArrayList<>();
+        ByteBuffer stream = ByteBuffer.allocate(4 << 20);
+        for (int i = 0; i < 300; i++) {
+            byte[] payload = new byte[i < sizes.length ? sizes[i] : random.nextInt(i % 10 == 0 ? 70_000 : 200)];
+            random.nextBytes(payload);
+            int type = random.nextInt(256);
+            ByteBuffer source = ByteBuffer.wrap(payload);
+            ByteBuffer frame = FrameCodec.encode(pool, type, source);
+            assertEquals(0, source.position());
+            assertEquals(FrameCodec.varintSize(payload.length) + 1 + payload.length, frame.remaining());
+            stream.put(frame);
+            pool.release(frame);
+            types.add(new int[]{type});
+            payloads.add(payload);
+        }
+        stream.flip();
+
+        List<Integer> decodedTypes = new ArrayList<>();
+        List<byte[]> decoded = new ArrayList<>();
+        // 连接的读缓冲区：追加一片 -> flip -> decode -> compact
+        ByteBuffer in = ByteBuffer.allocate(FrameCodec.MAX_HEADER_LENGTH + 100_000);
+        while (stream.hasRemaining()) {
+            int chunk = Math.min(Math.min(stream.remaining(), in.remaining()), 1 + random.nextInt(20_000));
+            in.put(stream.slice(stream.position(), chunk));
+            stream.position(stream.position() + chunk);
+            in.flip();
+            FrameCodec.decode(in, FrameCodec.DEFAULT_MAX_PAYLOAD, (type, payload) -> {
+                byte[] copy = new byte[payload.remaining()];
+                payload.get(copy);
+                decodedTypes.add(type);
+                decoded.add(copy);
+            });
+            in.compact();
+        }
+        assertEquals(0, in.position(), "流末尾留下了半帧");
+        assertEquals(payloads.size(), decoded.size());
+        for (int i = 0; i < payloads.size(); i++) {
+            assertEquals(types.get(i)[0], decodedTypes.get(i).intValue());
+            assertArrayEquals(payloads.get(i), decoded.get(i), "第 " + i + " 帧");
+        }
+    }
+
+    @Test
+    void varintSizeMatchesEncodedLength() {
+        int[] values = {0, 1, 127, 128, 16383, 16384, (1 << 21) - 1, 1 << 21, (1 << 28) - 1, 1 << 28,
+                Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+        for (int v : values) {
+            ByteBuffer out = ByteBuffer.allocate(8);
+            FrameCodec.writeVarint(out, v);
+            assertEquals(out.position(), FrameCodec.varintSize(v), "value " + v);
+        }
+    }
+
+    @Test
+    void corruptHeadersAreRejected() {
+        // 长度超过上限
+        ByteBuffer tooLong = ByteBuffer.allocate(8);
+        FrameCodec.writeVarint(tooLong, 1025);
+        tooLong.put((byte) 1).flip();
+        assertThrows(IllegalStateException.class, () -> FrameCodec.decode(tooLong, 1024, (t, p) -> { }));
+
+        // varint 超过 5 字节
+        byte[] bytes = new byte[8];
+        Arrays.fill(bytes, (byte) 0x80);
+        assertThrows(IllegalStateException.class,
+                () -> FrameCodec.decode(ByteBuffer.wrap(bytes), FrameCodec.DEFAULT_MAX_PAYLOAD, (t, p) -> { }));
+
+        // 不完整的帧头留在缓冲区里，不算错误
+        ByteBuffer partial = ByteBuffer.wrap(new byte[]{(byte) 0x80});
+        assertEquals(0, FrameCodec.decode(partial, FrameCodec.DEFAULT_MAX_PAYLOAD, (t, p) -> { }));
+        assertEquals(0, partial.position());
+
+        ByteBufferPool pool = new ByteBufferPool();
+        assertThrows(IllegalArgumentException.class, () -> FrameCodec.encode(pool, 256, ByteBuffer.allocate(1)));
+    }
+}
@@ -0,0 +1,156 @@
+package fun.jevon.Socket.nio;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 对端只发不收时的背压：writeFrame 的池化缓冲区计入待发送字节数，超过高水位后服务端停止读取；
+ * DROP 策略下丢弃的只是整条消息，对端收到的帧流始终完整
+ */
+class NioConnectionTest {
+
+    private static final int REPLY_SIZE = 4096;
+
+    @Test
+    void stalledReaderStopsReadingAtHighWatermark() throws Exception {
+        OutboundLimits limits = new OutboundLimits(16 * 1024, 64 * 1024, 4 * 1024 * 1024,
+                OutboundLimits.SlowConsumerPolicy.DISCONNECT);
+        AtomicReference<NioConnection> server = new AtomicReference<>();
+        ChannelHandler handler = new ChannelHandler() {
+            @Override
+            public void onOpen(NioConnection connection) {
+                server.set(connection);
+            }
+
+            @Override
+            public void onData(NioConnection connection, ByteBuffer in) {
+                // 每读到一批请求回复一帧，回复走 writeFrame 的池化直接内存
+                in.position(in.limit());
+                connection.writeFrame(1, ByteBuffer.allocate(REPLY_SIZE));
+            }
+        };
+        try (NioServer nio = new NioServer(new InetSocketAddress("127.0.0.1", 0), handler, 1, limits);
+             SocketChannel client = SocketChannel.open()) {
+            client.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+            client.connect(new InetSocketAddress("127.0.0.1", nio.port()));
+            client.configureBlocking(false);
+            ByteBuffer request = ByteBuffer.allocate(64 * 1024);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while ((server.get() == null || server.get().isWritable()) && System.nanoTime() < deadline) {
+                sendSome(client, request);
+            }
+            NioConnection connection = server.get();
+            assertFalse(connection.isWritable(), "队列没有超过高水位");
+
+            // 停止读取后客户端继续发，服务端读入的字节数不再增长
+            long bytesIn = nio.totalMetrics().bytesIn;
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+            while (System.nanoTime() < until) {
+                sendSome(client, request);
+            }
+            assertEquals(bytesIn, nio.totalMetrics().bytesIn);
+            assertTrue(connection.queuedBytes() > limits.highWatermark());
+            // 越过高水位的那次读最多多排一帧回复
+            assertTrue(connection.peakQueuedBytes() <= limits.highWatermark() + REPLY_SIZE + FrameCodec.MAX_HEADER_LENGTH,
+                    "峰值 " + connection.peakQueuedBytes());
+            assertTrue(connection.isOpen());
+        }
+    }
+
+    @Test
+    void droppedWritesNeverCutAFrame() throws Exception {
+        // 单帧比上限还大：队列为空时先直接写 socket，写出一部分后剩余部分必须排队发完
+        OutboundLimits limits = new OutboundLimits(16 * 1024, 32 * 1024, 64 * 1024,
+                OutboundLimits.SlowConsumerPolicy.DROP);
+        int frames = 40;
+        int payloadSize = 512 * 1024;
+        CountDownLatch opened = new CountDownLatch(1);
+        AtomicReference<NioConnection> server = new AtomicReference<>();
+        ChannelHandler handler = new ChannelHandler() {
+            @Override
+            public void onOpen(NioConnection connection) {
+                server.set(connection);
+                opened.countDown();
+            }
+
+            @Override
+            public void onData(NioConnection connection, ByteBuffer in) {
+                in.position(in.limit());
+            }
+        };
+        try (NioServer nio = new NioServer(new InetSocketAddress("127.0.0.1", 0), handler, 1, limits);
+             SocketChannel client = SocketChannel.open()) {
+            client.setOption(StandardSocketOptions.SO_RCVBUF, 4096);
+            client.connect(new InetSocketAddress("127.0.0.1", nio.port()));
+            assertTrue(opened.await(5, TimeUnit.SECONDS));
+            NioConnection connection = server.get();
+            ByteBuffer payload = ByteBuffer.allocate(payloadSize);
+            for (int i = 0; i < frames; i++) {
+                payload.clear();
+                payload.putInt(i).putInt(payloadSize - 4, i).clear();
+                connection.writeFrame(i & 0xFF, payload);
+            }
+            // 事件循环按投递顺序执行，这个任务完成时所有写入都已经入队或被丢弃
+            CompletableFuture<Long> dropped = new CompletableFuture<>();
+            connection.eventLoop().execute(() -> dropped.complete(connection.droppedWrites()));
+            int expected = frames - dropped.get(5, TimeUnit.SECONDS).intValue();
+            assertTrue(expected < frames, "没有发生丢弃");
+
+            // 客户端读到连接关闭为止：被截断的帧要么破坏后面的帧，要么在结尾留下半帧
+            CompletableFuture<Integer> received = CompletableFuture.supplyAsync(() -> readFrames(client));
+            while (connection.queuedBytes() > 0) {
+                Thread.sleep(1);
+            }
+            connection.close();
+            assertEquals(expected, received.get(30, TimeUnit.SECONDS).intValue());
+        }
+    }
+
+    private static void sendSome(SocketChannel client, ByteBuffer request) throws IOException, InterruptedException {
+        if (client.write(request.clear()) == 0) {
+            // 内核发送缓冲区已满
+            Thread.sleep(1);
+        }
+    }
+
+    // 阻塞读取并解码直到对端关闭，每一帧的首尾序号都要与帧类型一致，结尾不能剩下半帧
+    private static int readFrames(SocketChannel client) {
+        ByteBuffer in = ByteBuffer.allocate(2 << 20);
+        int[] count = {0};
+        int[] last = {-1};
+        try {
+            while (client.read(in) >= 0) {
+                in.flip();
+                FrameCodec.decode(in, FrameCodec.DEFAULT_MAX_PAYLOAD, (type, payload) -> {
+                    int seq = payload.getInt(0);
+                    if (payload.remaining() != 512 * 1024 || payload.getInt(payload.remaining() - 4) != seq
+                            || (seq & 0xFF) != type || seq <= last[0]) {
+                        throw new IllegalStateException("第 " + count[0] + " 帧已损坏");
+                    }
+                    last[0] = seq;
+                    count[0]++;
+                });
+                in.compact();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        if (in.position() > 0) {
+            throw new IllegalStateException("结尾剩下 " + in.position() + " 字节的半帧");
+        }
+        return count[0];
+    }
+}
@@ -0,0 +1,51 @@
+package fun.jevon.Socket.nio;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 编码后经 FrameCodec 解帧，关联 ID（含负数）与 body 原样取回
+ */
+class RequestCodecTest {
+
+    @Test
+    void roundTrip() {
+        Random random = new Random(62);
+        ByteBufferPool pool = new ByteBufferPool();
+        for (int i = 0; i < 1000; i++) {
+            int id = random.nextInt();
+            byte[] body = new byte[random.nextInt(i % 100 == 0 ? 50_000 : 64)];
+            random.nextBytes(body);
+            ByteBuffer frame = RequestCodec.encode(pool, RequestCodec.TYPE_REQUEST, id, ByteBuffer.wrap(body));
+            int frames = FrameCodec.decode(frame, FrameCodec.DEFAULT_MAX_PAYLOAD, (type, payload) -> {
+                assertEquals(RequestCodec.TYPE_REQUEST, type);
+                assertEquals(id, RequestCodec.id(payload));
+                ByteBuffer view = RequestCodec.body(payload);
+                byte[] copy = new byte[view.remaining()];
+                view.get(copy);
+                assertArrayEquals(body, copy);
+            });
+            assertEquals(1, frames);
+            pool.release(frame);
+        }
+    }
+
+    @Test
+    void errorFrameAndMissingId() {
+        ByteBufferPool pool = new ByteBufferPool();
+        ByteBuffer frame = RequestCodec.encodeError(pool, 7, "失败");
+        FrameCodec.decode(frame, FrameCodec.DEFAULT_MAX_PAYLOAD, (type, payload) -> {
+            assertEquals(RequestCodec.TYPE_ERROR, type);
+            assertEquals(7, RequestCodec.id(payload));
+            assertEquals("失败", StandardCharsets.UTF_8.decode(RequestCodec.body(payload)).toString());
+        });
+        assertThrows(IllegalStateException.class, () -> RequestCodec.id(ByteBuffer.allocate(3)));
+    }
+}
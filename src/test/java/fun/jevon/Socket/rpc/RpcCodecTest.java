@@ -0,0 +1,102 @@
+package fun.jevon.Socket.rpc;
+
+import fun.jevon.Socket.nio.ByteBufferPool;
+import fun.jevon.Socket.nio.FrameCodec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 各类 RPC 帧编码后经 FrameCodec 解帧，流 ID、标志、方法名、请求与窗口增量原样取回
+ */
+class RpcCodecTest {
+
+    @Test
+    void openAndDataRoundTrip() {
+        Random random = new Random(63);
+        ByteBufferPool pool = new ByteBufferPool();
+        for (int i = 0; i < 500; i++) {
+            int streamId = random.nextInt(Integer.MAX_VALUE);
+            String method = "svc.方法" + i;
+            byte[] request = new byte[random.nextInt(2000)];
+            random.nextBytes(request);
+
+            ByteBuffer open = RpcCodec.encodeOpen(pool, streamId, method, ByteBuffer.wrap(request));
+            decodeOne(open, (type, payload) -> {
+                assertEquals(RpcCodec.TYPE_OPEN, type);
+                assertEquals(streamId, RpcCodec.streamId(payload));
+                assertEquals(0, RpcCodec.flags(payload));
+                ByteBuffer body = RpcCodec.body(payload);
+                assertEquals(method, RpcCodec.openMethod(body));
+                assertArrayEquals(request, bytes(RpcCodec.openRequest(body)));
+            });
+            pool.release(open);
+
+            int flags = random.nextBoolean() ? RpcCodec.FLAG_END : 0;
+            ByteBuffer data = RpcCodec.encode(pool, RpcCodec.TYPE_DATA, streamId, flags, ByteBuffer.wrap(request));
+            decodeOne(data, (type, payload) -> {
+                assertEquals(RpcCodec.TYPE_DATA, type);
+                assertEquals(streamId, RpcCodec.streamId(payload));
+                assertEquals(flags, RpcCodec.flags(payload));
+                assertArrayEquals(request, bytes(RpcCodec.body(payload)));
+            });
+            pool.release(data);
+        }
+    }
+
+    @Test
+    void controlFrames() {
+        ByteBufferPool pool = new ByteBufferPool();
+        decodeOne(RpcCodec.encodeWindowUpdate(pool, 3, RpcCodec.INITIAL_WINDOW), (type, payload) -> {
+            assertEquals(RpcCodec.TYPE_WINDOW_UPDATE, type);
+            assertEquals(3, RpcCodec.streamId(payload));
+            assertEquals(RpcCodec.INITIAL_WINDOW, RpcCodec.windowIncrement(RpcCodec.body(payload)));
+        });
+        decodeOne(RpcCodec.encodeCancel(pool, 5), (type, payload) -> {
+            assertEquals(RpcCodec.TYPE_CANCEL, type);
+            assertEquals(5, RpcCodec.streamId(payload));
+            assertEquals(0, RpcCodec.body(payload).remaining());
+        });
+        decodeOne(RpcCodec.encodeError(pool, 9, "超时"), (type, payload) -> {
+            assertEquals(RpcCodec.TYPE_ERROR, type);
+            assertEquals(RpcCodec.FLAG_END, RpcCodec.flags(payload));
+            assertEquals("超时", StandardCharsets.UTF_8.decode(RpcCodec.body(payload)).toString());
+        });
+    }
+
+    @Test
+    void malformedFramesAreRejected() {
+        ByteBufferPool pool = new ByteBufferPool();
+        assertThrows(IllegalArgumentException.class, () -> RpcCodec.encodeOpen(pool, 1, "", ByteBuffer.allocate(0)));
+        assertThrows(IllegalArgumentException.class,
+                () -> RpcCodec.encodeOpen(pool, 1, "m".repeat(RpcCodec.MAX_METHOD_LENGTH + 1), ByteBuffer.allocate(0)));
+        assertThrows(IllegalStateException.class, () -> RpcCodec.streamId(ByteBuffer.allocate(4)));
+        // 方法名长度写的是 10，实际只有 2 个字节
+        assertThrows(IllegalStateException.class, () -> RpcCodec.openMethod(ByteBuffer.wrap(new byte[]{10, 'a', 'b'})));
+        assertThrows(IllegalStateException.class, () -> RpcCodec.windowIncrement(ByteBuffer.allocate(3)));
+    }
+
+    private static void decodeOne(ByteBuffer frame, FrameCodec.FrameConsumer consumer) {
+        List<Integer> types = new ArrayList<>();
+        assertEquals(1, FrameCodec.decode(frame, FrameCodec.DEFAULT_MAX_PAYLOAD, (type, payload) -> {
+            types.add(type);
+            consumer.onFrame(type, payload);
+        }));
+        assertEquals(1, types.size());
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] copy = new byte[buffer.remaining()];
+        buffer.get(copy);
+        return copy;
+    }
+}
@@ -0,0 +1,302 @@
+package fun.jevon.Socket.rpc;
+
+import fun.jevon.Socket.nio.ByteBufferPool;
+import fun.jevon.Socket.nio.FrameCodec;
+import fun.jevon.Socket.nio.NioServer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 服务端与客户端走真实的本地连接：
+ * - 用手写帧的原始客户端控制 WINDOW_UPDATE，检查窗口用完后流停在"透支一条消息"处、归还窗口后继续，
+ *   且停住的流不影响同一连接上的其他流；断开连接时服务端把未结束的流按取消处理
+ * - 用 RpcClient 检查处理得慢的流不拖住其他调用，以及 Call.cancel / future.cancel 会停止服务端的流
+ */
+class RpcLoopbackTest {
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int CHUNKS = 20;
+    // 窗口 64 KB、每条 10000 字节：发出 6 条后还剩 5536 字节，第 7 条透支发出后停住
+    private static final int CHUNKS_PER_WINDOW = RpcCodec.INITIAL_WINDOW / CHUNK_SIZE + 1;
+
+    @Test
+    void windowStallsOnlyTheUnacknowledgedStream() throws Exception {
+        RpcHandler handler = new RpcHandler(new RpcRegistry()
+                .registerUnary("echo", body -> body)
+                .register("bulk", (request, stream) -> new Pusher(stream, CHUNKS).run()));
+        try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), handler, 1);
+             RawClient client = new RawClient(server.port())) {
+            client.open(1, "bulk");
+            client.open(3, "echo");
+            // 两个流的帧按服务端处理顺序到达，echo 结束时大流在第一个窗口内的帧都已收到
+            client.readUntil(() -> client.ended.contains(3));
+            client.readFor(100);
+            assertEquals(CHUNKS_PER_WINDOW * CHUNK_SIZE, client.received(1));
+            assertFalse(client.ended.contains(1));
+
+            client.windowUpdate(1, CHUNKS_PER_WINDOW * CHUNK_SIZE);
+            client.readUntil(() -> client.received(1) >= 2 * CHUNKS_PER_WINDOW * CHUNK_SIZE);
+            client.readFor(100);
+            assertEquals(2 * CHUNKS_PER_WINDOW * CHUNK_SIZE, client.received(1));
+
+            client.windowUpdate(1, 1 << 20);
+            client.readUntil(() -> client.ended.contains(1));
+            assertEquals(CHUNKS * CHUNK_SIZE, client.received(1));
+            awaitTrue(() -> handler.completedStreams() == 2);
+            assertEquals(0, handler.activeStreams());
+            assertEquals(0, handler.cancelledStreams());
+        }
+    }
+
+    @Test
+    void closingConnectionCancelsOpenStreams() throws Exception {
+        AtomicInteger cancelCallbacks = new AtomicInteger();
+        RpcHandler handler = new RpcHandler(new RpcRegistry()
+                .register("bulk", (request, stream) -> {
+                    stream.setOnCancel(cancelCallbacks::incrementAndGet);
+                    new Pusher(stream, CHUNKS).run();
+                }));
+        try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), handler, 1)) {
+            try (RawClient client = new RawClient(server.port())) {
+                client.open(1, "bulk");
+                client.open(3, "bulk");
+                client.readUntil(() -> client.received(3) == CHUNKS_PER_WINDOW * CHUNK_SIZE);
+                assertEquals(2, handler.activeStreams());
+            }
+            awaitTrue(() -> handler.activeStreams() == 0);
+            assertEquals(2, handler.cancelledStreams());
+            assertEquals(0, handler.completedStreams());
+            assertEquals(2, cancelCallbacks.get());
+        }
+    }
+
+    @Test
+    void slowObserverDoesNotDelayOtherCalls() throws Exception {
+        int chunks = 128;
+        RpcHandler handler = new RpcHandler(new RpcRegistry()
+                .registerUnary("echo", body -> body)
+                .register("bulk", (request, stream) -> new Pusher(stream, chunks).run()));
+        try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), handler, 1);
+             RpcClient client = new RpcClient(new InetSocketAddress("127.0.0.1", server.port()))) {
+            AtomicLong received = new AtomicLong();
+            CountDownLatch done = new CountDownLatch(1);
+            client.stream("bulk", ByteBuffer.allocate(0), new RpcObserver() {
+                @Override
+                public void onNext(ByteBuffer message) {
+                    received.addAndGet(message.remaining());
+                    // 每条消息处理 2 ms，整个流至少需要 256 ms
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void onCompleted() {
+                    done.countDown();
+                }
+            });
+            // 大流每次最多占用一个窗口的帧，echo 的响应排在其后很快就能处理到
+            assertEquals("ping", client.call("echo", "ping").get(5, TimeUnit.SECONDS));
+            assertEquals(1, done.getCount(), "echo 等到了慢流结束才完成");
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertEquals((long) chunks * CHUNK_SIZE, received.get());
+            awaitTrue(() -> handler.completedStreams() == 2);
+        }
+    }
+
+    @Test
+    void cancelStopsServerStream() throws Exception {
+        AtomicInteger cancelCallbacks = new AtomicInteger();
+        RpcHandler handler = new RpcHandler(new RpcRegistry()
+                .registerUnary("echo", body -> body)
+                .register("ticks", (request, stream) -> {
+                    stream.setOnCancel(cancelCallbacks::incrementAndGet);
+                    new RpcDemo.Ticker(stream).run();
+                })
+                .register("never", (request, stream) -> stream.setOnCancel(cancelCallbacks::incrementAndGet)));
+        try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), handler, 1);
+             RpcClient client = new RpcClient(new InetSocketAddress("127.0.0.1", server.port()))) {
+            // Call.cancel：回调在事件循环线程上执行，取消后不再收到 onNext
+            AtomicReference<RpcClient.Call> call = new AtomicReference<>();
+            AtomicLong ticks = new AtomicLong();
+            CompletableFuture<Throwable> error = new CompletableFuture<>();
+            call.set(client.stream("ticks", ByteBuffer.allocate(0), new RpcObserver() {
+                @Override
+                public void onNext(ByteBuffer message) {
+                    if (ticks.incrementAndGet() == 100) {
+                        call.get().cancel();
+                    }
+                }
+
+                @Override
+                public void onError(Throwable cause) {
+                    error.complete(cause);
+                }
+            }));
+            assertInstanceOf(CancellationException.class, error.get(5, TimeUnit.SECONDS));
+            awaitTrue(() -> handler.cancelledStreams() == 1);
+            assertEquals(100, ticks.get());
+
+            // 取消 call 返回的 future 同样取消服务端的流
+            CompletableFuture<String> pending = client.call("never", "");
+            awaitTrue(() -> handler.activeStreams() == 1);
+            assertTrue(pending.cancel(false));
+            awaitTrue(() -> handler.cancelledStreams() == 2);
+            assertThrows(CancellationException.class, pending::join);
+
+            assertEquals(0, handler.activeStreams());
+            assertEquals(0, handler.completedStreams());
+            assertEquals(2, cancelCallbacks.get());
+            // 取消之后连接仍然可用
+            assertEquals("ping", client.call("echo", "ping").get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void unknownMethodFailsOnlyThatCall() throws Exception {
+        RpcHandler handler = new RpcHandler(new RpcRegistry().registerUnary("echo", body -> body));
+        try (NioServer server = new NioServer(new InetSocketAddress("127.0.0.1", 0), handler, 1);
+             RpcClient client = new RpcClient(new InetSocketAddress("127.0.0.1", server.port()))) {
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> client.call("missing", "x").get(5, TimeUnit.SECONDS));
+            assertInstanceOf(RpcException.class, e.getCause());
+            assertEquals("x", client.call("echo", "x").get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "等待超时");
+            Thread.sleep(1);
+        }
+    }
+
+    // 在事件循环上推送固定条数的消息：窗口用完就返回，等 onReady 回调再继续
+    private static final class Pusher implements Runnable {
+        private final RpcStream stream;
+        private final ByteBuffer chunk = ByteBuffer.allocate(CHUNK_SIZE);
+        private int remaining;
+
+        Pusher(RpcStream stream, int chunks) {
+            this.stream = stream;
+            this.remaining = chunks;
+            stream.setOnReady(this);
+        }
+
+        @Override
+        public void run() {
+            while (remaining > 0 && stream.isReady()) {
+                if (--remaining == 0) {
+                    stream.complete(chunk.duplicate());
+                } else {
+                    stream.send(chunk.duplicate());
+                }
+            }
+        }
+    }
+
+    // 直接收发 RPC 帧的客户端，从不自动归还窗口
+    private static final class RawClient implements AutoCloseable {
+        private final ByteBufferPool pool = new ByteBufferPool();
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(1 << 20);
+        private final Map<Integer, Long> received = new HashMap<>();
+        final Set<Integer> ended = new HashSet<>();
+
+        RawClient(int port) throws IOException {
+            channel = SocketChannel.open(new InetSocketAddress("127.0.0.1", port));
+            channel.configureBlocking(false);
+        }
+
+        void open(int id, String method) throws IOException {
+            send(RpcCodec.encodeOpen(pool, id, method, ByteBuffer.allocate(0)));
+        }
+
+        void windowUpdate(int id, int increment) throws IOException {
+            send(RpcCodec.encodeWindowUpdate(pool, id, increment));
+        }
+
+        long received(int id) {
+            return received.getOrDefault(id, 0L);
+        }
+
+        void readUntil(BooleanSupplier condition) throws IOException, InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!condition.getAsBoolean()) {
+                assertTrue(System.nanoTime() < deadline, "等待超时");
+                readOnce();
+            }
+        }
+
+        // 在给定时间内继续读，用来确认没有多余的帧到达
+        void readFor(long millis) throws IOException, InterruptedException {
+            long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            while (System.nanoTime() < until) {
+                readOnce();
+            }
+        }
+
+        private void readOnce() throws IOException, InterruptedException {
+            int n = channel.read(in);
+            if (n < 0) {
+                throw new IOException("服务端关闭了连接");
+            }
+            if (n == 0) {
+                Thread.sleep(1);
+                return;
+            }
+            in.flip();
+            FrameCodec.decode(in, FrameCodec.DEFAULT_MAX_PAYLOAD, (type, payload) -> {
+                assertEquals(RpcCodec.TYPE_DATA, type);
+                int id = RpcCodec.streamId(payload);
+                received.merge(id, (long) RpcCodec.body(payload).remaining(), Long::sum);
+                if ((RpcCodec.flags(payload) & RpcCodec.FLAG_END) != 0) {
+                    ended.add(id);
+                }
+            });
+            in.compact();
+        }
+
+        private void send(ByteBuffer frame) throws IOException {
+            try {
+                while (frame.hasRemaining()) {
+                    channel.write(frame);
+                }
+            } finally {
+                pool.release(frame);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
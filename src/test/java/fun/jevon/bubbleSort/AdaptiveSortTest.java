@@ -0,0 +1,52 @@
+package fun.jevon.bubbleSort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 不管选中哪种算法，结果都与 Arrays.sort 一致；已有序、降序输入走 O(n) 的快速路径
+ */
+class AdaptiveSortTest {
+
+    @Test
+    void intsMatchArraysSort() {
+        for (int[] a : SortInputs.ints(7, SortInputs.SIZES)) {
+            int[] expected = a.clone();
+            Arrays.sort(expected);
+            AdaptiveSort.Algorithm chosen = AdaptiveSort.choose(a);
+            assertEquals(chosen, AdaptiveSort.sort(a));
+            assertArrayEquals(expected, a, "n=" + a.length + ", " + chosen);
+        }
+    }
+
+    @Test
+    void longsMatchArraysSort() {
+        for (long[] a : SortInputs.longs(8, SortInputs.SIZES)) {
+            long[] expected = a.clone();
+            Arrays.sort(expected);
+            AdaptiveSort.Algorithm chosen = AdaptiveSort.choose(a);
+            assertEquals(chosen, AdaptiveSort.sort(a));
+            assertArrayEquals(expected, a, "n=" + a.length + ", " + chosen);
+        }
+    }
+
+    @Test
+    void choosesFastPathsForOrderedInput() {
+        int[] ascending = new int[10_000];
+        int[] descending = new int[10_000];
+        for (int i = 0; i < ascending.length; i++) {
+            ascending[i] = i;
+            descending[i] = -i;
+        }
+        assertEquals(AdaptiveSort.Algorithm.ALREADY_SORTED, AdaptiveSort.sort(ascending));
+        assertEquals(AdaptiveSort.Algorithm.REVERSE, AdaptiveSort.sort(descending));
+        for (int i = 1; i < descending.length; i++) {
+            assertEquals(descending[i - 1] + 1, descending[i]);
+        }
+        assertEquals(AdaptiveSort.Algorithm.ALREADY_SORTED, AdaptiveSort.choose(new int[0]));
+    }
+}
@@ -0,0 +1,114 @@
+package fun.jevon.bubbleSort;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 用很小的内存预算与 fanIn 逼出多个有序段和多轮归并，结果与 Arrays.sort 对照，排序结束后临时目录为空
+ */
+class ExternalSortTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void sortLongsWithSeveralMergePasses() throws IOException {
+        Random random = new Random(41);
+        long[] values = new long[50_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(4) == 0 ? random.nextInt(100) : random.nextLong();
+        }
+        Path input = dir.resolve("in.bin");
+        Path output = dir.resolve("out.bin");
+        Path temp = Files.createDirectory(dir.resolve("tmp"));
+        write(input, values);
+
+        // 每个线程一段 1024 个 long（数组加辅助数组共 16 字节/个）
+        ExternalSort sorter = new ExternalSort(2 * 1024 * 16, 2, temp, 4096, 4);
+        ExternalSort.Stats stats = sorter.sortLongs(input, output);
+
+        long[] expected = values.clone();
+        Arrays.sort(expected);
+        assertArrayEquals(expected, readLongs(output));
+        assertEquals(49, stats.runs);
+        // 49 -> 13 -> 4 个段，再归并成输出
+        assertEquals(3, stats.mergePasses);
+        assertEquals(0, count(temp));
+    }
+
+    @Test
+    void sortIntsInOnePass() throws IOException {
+        Random random = new Random(42);
+        int[] values = new int[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt();
+        }
+        Path input = dir.resolve("in.bin");
+        Path output = dir.resolve("out.bin");
+        write(input, values);
+
+        ExternalSort.Stats stats = new ExternalSort(1 << 20, 4, dir).sortInts(input, output);
+
+        int[] expected = values.clone();
+        Arrays.sort(expected);
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(output));
+        int[] actual = new int[buf.remaining() / Integer.BYTES];
+        buf.asIntBuffer().get(actual);
+        assertArrayEquals(expected, actual);
+        assertEquals(1, stats.mergePasses);
+        // 只剩输入与输出
+        assertEquals(2, count(dir));
+    }
+
+    @Test
+    void emptyAndMalformedInput() throws IOException {
+        Path input = dir.resolve("in.bin");
+        Path output = dir.resolve("out.bin");
+        ExternalSort sorter = new ExternalSort(1 << 20, 2, dir);
+
+        Files.write(input, new byte[0]);
+        sorter.sortLongs(input, output);
+        assertEquals(0, Files.size(output));
+
+        Files.write(input, new byte[12]);
+        assertThrows(IOException.class, () -> sorter.sortLongs(input, output));
+        assertThrows(IllegalArgumentException.class, () -> new ExternalSort(1 << 20, 2, dir, 4096, 1));
+    }
+
+    private static void write(Path file, long[] values) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(values.length * Long.BYTES);
+        buf.asLongBuffer().put(values);
+        Files.write(file, buf.array());
+    }
+
+    private static void write(Path file, int[] values) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(values.length * Integer.BYTES);
+        buf.asIntBuffer().put(values);
+        Files.write(file, buf.array());
+    }
+
+    private static long[] readLongs(Path file) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(Files.readAllBytes(file));
+        long[] values = new long[buf.remaining() / Long.BYTES];
+        buf.asLongBuffer().get(values);
+        return values;
+    }
+
+    private static long count(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
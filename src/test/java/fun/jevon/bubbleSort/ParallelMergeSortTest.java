@@ -0,0 +1,52 @@
+package fun.jevon.bubbleSort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * 与 Arrays.sort 对照；规模跨过串行阈值，另用 4 线程的池确保并行归并路径在单核机器上也会走到
+ */
+class ParallelMergeSortTest {
+
+    private static final int[] SIZES = {0, 1, 8192, 8193, 50_000, 300_000};
+
+    @Test
+    void intsMatchArraysSort() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int[] a : SortInputs.ints(5, SIZES)) {
+                int[] expected = a.clone();
+                Arrays.sort(expected);
+                int[] b = a.clone();
+                ParallelMergeSort.sort(a);
+                ParallelMergeSort.sort(b, pool);
+                assertArrayEquals(expected, a, "n=" + a.length);
+                assertArrayEquals(expected, b, "n=" + b.length);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void longsMatchArraysSort() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (long[] a : SortInputs.longs(6, SIZES)) {
+                long[] expected = a.clone();
+                Arrays.sort(expected);
+                long[] b = a.clone();
+                ParallelMergeSort.sort(a);
+                ParallelMergeSort.sort(b, pool);
+                assertArrayEquals(expected, a, "n=" + a.length);
+                assertArrayEquals(expected, b, "n=" + b.length);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package fun.jevon.bubbleSort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 与"完整排序后取最大的 k 个"对照，k 覆盖 0、1、中间值、n 与超过 n；
+ * selectTopK 只保证集合相同，比较前先排序；double 按 Double.compare 的顺序，对象按 Comparator
+ */
+class PartialSortTest {
+
+    private static final int[] SIZES = {0, 1, 2, 15, 16, 17, 1000, 20_000};
+
+    @Test
+    void partialSortMatchesFullSort() {
+        for (int[] a : SortInputs.ints(21, SIZES)) {
+            for (int k : ks(a.length)) {
+                int[] actual = a.clone();
+                PartialSort.partialSort(actual, k);
+                int m = Math.min(k, a.length);
+                assertArrayEquals(largestDescending(a, m), Arrays.copyOf(actual, m), "n=" + a.length + ", k=" + k);
+                assertArrayEquals(sorted(a), sorted(actual), "元素集合被改变");
+            }
+        }
+        for (long[] a : SortInputs.longs(22, SIZES)) {
+            for (int k : ks(a.length)) {
+                long[] actual = a.clone();
+                PartialSort.partialSort(actual, k);
+                int m = Math.min(k, a.length);
+                long[] expected = a.clone();
+                Arrays.sort(expected);
+                long[] top = new long[m];
+                for (int i = 0; i < m; i++) {
+                    top[i] = expected[a.length - 1 - i];
+                }
+                assertArrayEquals(top, Arrays.copyOf(actual, m), "n=" + a.length + ", k=" + k);
+            }
+        }
+    }
+
+    @Test
+    void doublesFollowDoubleCompare() {
+        double[] specials = {Double.NaN, -0.0, 0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.MIN_VALUE, -Double.MIN_VALUE};
+        for (long[] source : SortInputs.longs(24, SIZES)) {
+            double[] a = new double[source.length];
+            for (int i = 0; i < a.length; i++) {
+                // 整数部分来自各种分布（含大量重复值），再混入特殊值
+                a[i] = i % 10 == 0 ? specials[i / 10 % specials.length] : source[i] / 7.0;
+            }
+            double[] sorted = a.clone();
+            Arrays.sort(sorted);
+            for (int k : ks(a.length)) {
+                double[] actual = a.clone();
+                PartialSort.partialSort(actual, k);
+                int m = Math.min(k, a.length);
+                double[] top = new double[m];
+                for (int i = 0; i < m; i++) {
+                    top[i] = sorted[a.length - 1 - i];
+                }
+                assertArrayEquals(top, Arrays.copyOf(actual, m), "n=" + a.length + ", k=" + k);
+                Arrays.sort(actual);
+                assertArrayEquals(sorted, actual, "元素集合被改变");
+            }
+        }
+    }
+
+    @Test
+    void objectsFollowComparator() {
+        // 按个位数比较，大量元素比较相等：只检查前 k 个的比较键与完整排序一致
+        Comparator<Integer> byLastDigit = Comparator.comparingInt(x -> Math.floorMod(x, 10));
+        for (int[] source : SortInputs.ints(25, SIZES)) {
+            Integer[] a = Arrays.stream(source).boxed().toArray(Integer[]::new);
+            Integer[] sorted = a.clone();
+            Arrays.sort(sorted, byLastDigit.reversed());
+            for (int k : ks(a.length)) {
+                Integer[] actual = a.clone();
+                PartialSort.partialSort(actual, k, byLastDigit);
+                int m = Math.min(k, a.length);
+                for (int i = 0; i < m; i++) {
+                    assertEquals(0, byLastDigit.compare(sorted[i], actual[i]), "n=" + a.length + ", k=" + k + ", i=" + i);
+                }
+                Arrays.sort(actual);
+                Integer[] all = a.clone();
+                Arrays.sort(all);
+                assertArrayEquals(all, actual, "元素集合被改变");
+            }
+        }
+    }
+
+    @Test
+    void selectTopKInSubRange() {
+        for (int[] a : SortInputs.ints(23, 1000)) {
+            for (int k : new int[]{1, 10, 400, 799}) {
+                int[] actual = a.clone();
+                PartialSort.selectTopK(actual, 100, 900, k);
+                int[] range = Arrays.copyOfRange(a, 100, 900);
+                assertArrayEquals(sorted(largestDescending(range, k)), sorted(Arrays.copyOfRange(actual, 100, 100 + k)));
+                // 区间外不动
+                assertArrayEquals(Arrays.copyOf(a, 100), Arrays.copyOf(actual, 100));
+                assertArrayEquals(Arrays.copyOfRange(a, 900, 1000), Arrays.copyOfRange(actual, 900, 1000));
+            }
+        }
+    }
+
+    private static int[] ks(int n) {
+        return new int[]{0, 1, n / 2, n, n + 5};
+    }
+
+    private static int[] largestDescending(int[] a, int k) {
+        int[] s = sorted(a);
+        int[] top = new int[k];
+        for (int i = 0; i < k; i++) {
+            top[i] = s[s.length - 1 - i];
+        }
+        return top;
+    }
+
+    private static int[] sorted(int[] a) {
+        int[] s = a.clone();
+        Arrays.sort(s);
+        return s;
+    }
+}
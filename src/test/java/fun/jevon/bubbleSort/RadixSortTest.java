@@ -0,0 +1,49 @@
+package fun.jevon.bubbleSort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * 与 Arrays.sort 对照（含负数与极值：基数排序最高位按有符号处理），以及只排子区间时区间外不被改动
+ */
+class RadixSortTest {
+
+    @Test
+    void intsMatchArraysSort() {
+        for (int[] a : SortInputs.ints(1, SortInputs.SIZES)) {
+            int[] expected = a.clone();
+            Arrays.sort(expected);
+            RadixSort.sort(a);
+            assertArrayEquals(expected, a, "n=" + a.length);
+        }
+    }
+
+    @Test
+    void longsMatchArraysSort() {
+        for (long[] a : SortInputs.longs(2, SortInputs.SIZES)) {
+            long[] expected = a.clone();
+            Arrays.sort(expected);
+            RadixSort.sort(a);
+            assertArrayEquals(expected, a, "n=" + a.length);
+        }
+    }
+
+    @Test
+    void rangeSortLeavesOutsideUntouched() {
+        for (int[] a : SortInputs.ints(3, 1000)) {
+            int[] expected = a.clone();
+            Arrays.sort(expected, 100, 900);
+            RadixSort.sort(a, 100, 900);
+            assertArrayEquals(expected, a);
+        }
+        for (long[] a : SortInputs.longs(4, 1000)) {
+            long[] expected = a.clone();
+            Arrays.sort(expected, 100, 900);
+            RadixSort.sort(a, 100, 900);
+            assertArrayEquals(expected, a);
+        }
+    }
+}
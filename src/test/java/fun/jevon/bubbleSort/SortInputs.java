@@ -0,0 +1,66 @@
+package fun.jevon.bubbleSort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 排序测试共用的输入：各种规模 × 各种分布（随机、大量重复、已升序、已降序、基本有序、含极值）
+ */
+final class SortInputs {
+
+    static final int[] SIZES = {0, 1, 2, 3, 17, 100, 4095, 4096, 5000, 100_000};
+
+    private SortInputs() {
+    }
+
+    static List<int[]> ints(long seed, int... sizes) {
+        Random random = new Random(seed);
+        List<int[]> inputs = new ArrayList<>();
+        for (int n : sizes) {
+            for (int shape = 0; shape < 6; shape++) {
+                int[] a = new int[n];
+                for (int i = 0; i < n; i++) {
+                    a[i] = value(random, shape, i, n);
+                }
+                inputs.add(a);
+            }
+        }
+        return inputs;
+    }
+
+    static List<long[]> longs(long seed, int... sizes) {
+        Random random = new Random(seed);
+        List<long[]> inputs = new ArrayList<>();
+        for (int n : sizes) {
+            for (int shape = 0; shape < 6; shape++) {
+                long[] a = new long[n];
+                for (int i = 0; i < n; i++) {
+                    // 高 32 位也要参与排序
+                    a[i] = shape == 0 ? random.nextLong() : (long) value(random, shape, i, n) << 16 ^ i % 3;
+                }
+                inputs.add(a);
+            }
+        }
+        return inputs;
+    }
+
+    private static int value(Random random, int shape, int i, int n) {
+        switch (shape) {
+            case 0:
+                return random.nextInt();
+            case 1:
+                return random.nextInt(16) - 8;
+            case 2:
+                return i;
+            case 3:
+                return n - i;
+            case 4:
+                // 基本有序：偶尔有一个乱序点
+                return random.nextInt(100) == 0 ? random.nextInt() : i;
+            default:
+                int r = random.nextInt(4);
+                return r == 0 ? Integer.MIN_VALUE : r == 1 ? Integer.MAX_VALUE : random.nextInt();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package fun.jevon.bubbleSort;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * TopK / LongTopK / DoubleTopK 与"完整排序后取前 k 个（降序）"对照；分区统计再 merge 与整体统计结果相同
+ */
+class TopKTest {
+
+    @Test
+    void longTopKMatchesFullSort() {
+        Random random = new Random(31);
+        for (int k : new int[]{1, 7, 100, 5000}) {
+            long[] values = new long[10_000];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(3) == 0 ? random.nextInt(50) : random.nextLong();
+            }
+            long[] sorted = values.clone();
+            Arrays.sort(sorted);
+            long[] expected = new long[Math.min(k, values.length)];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = sorted[sorted.length - 1 - i];
+            }
+
+            LongTopK one = new LongTopK(k);
+            for (long v : values) {
+                one.add(v);
+            }
+            assertArrayEquals(expected, one.toSortedArray(), "k=" + k);
+
+            // 分成 4 个分区，其中两个用批量加入
+            LongTopK merged = new LongTopK(k);
+            for (int p = 0; p < 4; p++) {
+                LongTopK part = new LongTopK(k);
+                int from = p * 2500;
+                if (p % 2 == 0) {
+                    part.addAll(values, from, from + 2500);
+                } else {
+                    for (int i = from; i < from + 2500; i++) {
+                        part.add(values[i]);
+                    }
+                }
+                merged.merge(part);
+            }
+            assertArrayEquals(expected, merged.toSortedArray(), "merge, k=" + k);
+        }
+    }
+
+    @Test
+    void doubleTopKFollowsDoubleCompare() {
+        double[] values = {1.5, -0.0, 0.0, Double.NaN, -3, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.MIN_VALUE, -Double.MIN_VALUE, 42};
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        for (int k = 1; k <= values.length; k++) {
+            DoubleTopK top = new DoubleTopK(k);
+            for (double v : values) {
+                top.add(v);
+            }
+            double[] expected = new double[k];
+            for (int i = 0; i < k; i++) {
+                expected[i] = sorted[sorted.length - 1 - i];
+            }
+            assertArrayEquals(expected, top.toSortedArray(), "k=" + k);
+        }
+
+        // 批量加入：批次远大于 k 时走快速选择
+        Random random = new Random(33);
+        double[] many = new double[10_000];
+        for (int i = 0; i < many.length; i++) {
+            many[i] = i % 100 == 0 ? values[i / 100 % values.length] : random.nextInt(1000) / 8.0;
+        }
+        double[] all = many.clone();
+        Arrays.sort(all);
+        for (int k : new int[]{1, 7, 100, 5000}) {
+            DoubleTopK top = new DoubleTopK(k);
+            top.addAll(many, 0, 6000);
+            DoubleTopK rest = new DoubleTopK(k);
+            rest.addAll(many, 6000, many.length);
+            top.merge(rest);
+            double[] expected = new double[k];
+            for (int i = 0; i < k; i++) {
+                expected[i] = all[all.length - 1 - i];
+            }
+            assertArrayEquals(expected, top.toSortedArray(), "addAll, k=" + k);
+        }
+    }
+
+    @Test
+    void objectTopKMatchesFullSort() {
+        Random random = new Random(32);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            values.add(Integer.toString(random.nextInt(100_000), 36));
+        }
+        Comparator<String> byLength = Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+        for (int k : new int[]{1, 10, 5000, 6000}) {
+            List<String> sorted = new ArrayList<>(values);
+            sorted.sort(byLength.reversed());
+            List<String> expected = sorted.subList(0, Math.min(k, sorted.size()));
+
+            TopK<String> top = new TopK<>(k, byLength);
+            TopK<String> left = new TopK<>(k, byLength);
+            TopK<String> right = new TopK<>(k, byLength);
+            top.addAll(values);
+            left.addAll(values.subList(0, 2000));
+            right.addAll(values.subList(2000, values.size()));
+            left.merge(right);
+            assertEquals(expected, top.toSortedList(), "k=" + k);
+            assertEquals(expected, left.toSortedList(), "merge, k=" + k);
+
+            // 数组批量加入，批次远大于 k 时走快速选择
+            String[] array = values.toArray(new String[0]);
+            TopK<String> batched = new TopK<>(k, byLength);
+            batched.addAll(array, 0, 3000);
+            batched.addAll(array, 3000, array.length);
+            assertEquals(expected, batched.toSortedList(), "addAll(array), k=" + k);
+        }
+        TopK<Integer> natural = TopK.natural(2);
+        natural.addAll(Arrays.asList(3, 9, 1, 9));
+        assertEquals(Arrays.asList(9, 9), natural.toSortedList());
+        assertThrows(IllegalArgumentException.class, () -> new LongTopK(0));
+    }
+}
@@ -0,0 +1,103 @@
+package fun.jevon.collection.Connection.list;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 多线程追加后元素不丢不重、同一线程内保持追加顺序；写入过程中读到的快照是每个线程的一段前缀
+ */
+class ConcurrentAppendListTest {
+
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 50_000;
+
+    @Test
+    void concurrentAppendsKeepPerThreadOrder() throws Exception {
+        ConcurrentAppendList<long[]> list = new ConcurrentAppendList<>();
+        AtomicBoolean done = new AtomicBoolean();
+        List<String> violations = new ArrayList<>();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                String error = checkPrefixes(list.snapshot(), false);
+                if (error != null) {
+                    violations.add(error);
+                    return;
+                }
+            }
+        });
+        reader.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long thread = t;
+                futures.add(pool.submit(() -> {
+                    for (long i = 0; i < PER_THREAD; i++) {
+                        list.add(new long[]{thread, i});
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+            done.set(true);
+            reader.join();
+        }
+
+        assertTrue(violations.isEmpty(), String.join("; ", violations));
+        assertEquals(THREADS * PER_THREAD, list.size());
+        ConcurrentAppendList.Snapshot<long[]> snapshot = list.snapshot();
+        assertEquals(list.size(), snapshot.size());
+        assertEquals(null, checkPrefixes(snapshot, true));
+    }
+
+    @Test
+    void iteratorAndForEachSeeTheSameElements() {
+        ConcurrentAppendList<Integer> list = new ConcurrentAppendList<>();
+        List<Integer> expected = new ArrayList<>();
+        // 跨越多个块
+        for (int i = 0; i < 5000; i++) {
+            list.add(i);
+            expected.add(i);
+        }
+        assertEquals(expected, new ArrayList<>(list));
+        List<Integer> visited = new ArrayList<>();
+        list.forEach(visited::add);
+        assertEquals(expected, visited);
+    }
+
+    // 每个线程的元素必须是 0, 1, 2 ... 的连续前缀；complete 时要求每个线程的元素都已全部可见
+    private static String checkPrefixes(ConcurrentAppendList.Snapshot<long[]> snapshot, boolean complete) {
+        long[] next = new long[THREADS];
+        int count = 0;
+        for (long[] e : snapshot) {
+            int thread = (int) e[0];
+            if (e[1] != next[thread]) {
+                return "线程 " + thread + " 期望 " + next[thread] + " 实际 " + e[1];
+            }
+            next[thread]++;
+            count++;
+        }
+        if (count != snapshot.size()) {
+            return "快照 size " + snapshot.size() + " 与遍历数量 " + count + " 不一致";
+        }
+        for (int t = 0; complete && t < THREADS; t++) {
+            if (next[t] != PER_THREAD) {
+                return "线程 " + t + " 只有 " + next[t] + " 个元素";
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,192 @@
+package fun.jevon.collection.Connection.list;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 单线程与 ArrayList 对照；多线程 add / addAll 不丢元素、同一线程保持顺序、addAll 整批连续可见；
+ * 迭代器与 subList 是调用时的快照，sort / replaceAll 整体发布、不经过快照迭代器
+ */
+class GroupCommitArrayListTest {
+
+    private static final int THREADS = 4;
+    private static final int PER_THREAD = 20_000;
+
+    @Test
+    void randomOperationsMatchArrayList() {
+        Random random = new Random(1);
+        GroupCommitArrayList<Integer> list = new GroupCommitArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(100);
+            int op = expected.isEmpty() ? 0 : random.nextInt(8);
+            switch (op) {
+                case 0:
+                case 1:
+                    assertEquals(expected.add(value), list.add(value));
+                    break;
+                case 2:
+                    List<Integer> batch = Arrays.asList(value, value + 1, value + 2);
+                    assertEquals(expected.addAll(batch), list.addAll(batch));
+                    break;
+                case 3:
+                    int index = random.nextInt(expected.size() + 1);
+                    expected.add(index, value);
+                    list.add(index, value);
+                    break;
+                case 4:
+                    int at = random.nextInt(expected.size());
+                    assertEquals(expected.set(at, value), list.set(at, value));
+                    break;
+                case 5:
+                    int removeAt = random.nextInt(expected.size());
+                    assertEquals(expected.remove(removeAt), list.remove(removeAt));
+                    break;
+                case 6:
+                    assertEquals(expected.remove(Integer.valueOf(value)), list.remove(Integer.valueOf(value)));
+                    break;
+                default:
+                    if (random.nextInt(50) == 0) {
+                        int mod = 2 + random.nextInt(5);
+                        assertEquals(expected.removeIf(v -> v % mod == 0), list.removeIf(v -> v % mod == 0));
+                    } else {
+                        assertEquals(expected.indexOf(value), list.indexOf(value));
+                    }
+                    break;
+            }
+            assertEquals(expected.size(), list.size());
+        }
+        assertEquals(expected, list);
+        assertEquals(expected, Arrays.asList(list.toArray()));
+        list.clear();
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    void concurrentWritersKeepOrderAndBatches() throws Exception {
+        GroupCommitArrayList<int[]> list = new GroupCommitArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < PER_THREAD; ) {
+                        if (i % 10 == 0) {
+                            // 一批 3 个，发布后必须连续出现
+                            list.addAll(Arrays.asList(new int[]{thread, i}, new int[]{thread, i + 1},
+                                    new int[]{thread, i + 2}));
+                            i += 3;
+                        } else {
+                            list.add(new int[]{thread, i});
+                            // add 返回时元素已经发布
+                            assertTrue(list.size() > 0);
+                            i++;
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertEquals(THREADS * PER_THREAD, list.size());
+        int[] next = new int[THREADS];
+        for (int i = 0; i < list.size(); i++) {
+            int[] e = list.get(i);
+            assertEquals(next[e[0]], e[1], "线程 " + e[0] + " 的第 " + next[e[0]] + " 个元素");
+            if (e[1] % 10 == 0) {
+                assertEquals(e[0], list.get(i + 1)[0], "addAll 的一批被拆开了");
+                assertEquals(e[0], list.get(i + 2)[0], "addAll 的一批被拆开了");
+            }
+            next[e[0]]++;
+        }
+        assertTrue(list.publishCount() <= THREADS * PER_THREAD);
+    }
+
+    @Test
+    void iteratorsAndSubListAreSnapshots() {
+        GroupCommitArrayList<Integer> list = new GroupCommitArrayList<>(Arrays.asList(0, 1, 2, 3, 4));
+        Iterator<Integer> it = list.iterator();
+        ListIterator<Integer> li = list.listIterator(5);
+        List<Integer> sub = list.subList(1, 4);
+
+        list.add(5);
+        list.remove(0);
+
+        List<Integer> seen = new ArrayList<>();
+        it.forEachRemaining(seen::add);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), seen);
+        List<Integer> backwards = new ArrayList<>();
+        while (li.hasPrevious()) {
+            backwards.add(li.previous());
+        }
+        assertEquals(Arrays.asList(4, 3, 2, 1, 0), backwards);
+        assertFalse(li.hasPrevious());
+        assertEquals(Arrays.asList(1, 2, 3), sub);
+
+        assertThrows(UnsupportedOperationException.class, () -> sub.set(0, 9));
+        ListIterator<Integer> readOnly = list.listIterator();
+        readOnly.next();
+        assertThrows(UnsupportedOperationException.class, readOnly::remove);
+        assertThrows(UnsupportedOperationException.class, () -> readOnly.add(9));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.listIterator(list.size() + 1));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), list);
+    }
+
+    @Test
+    void sortAndReplaceAllMatchArrayList() {
+        Random random = new Random(13);
+        GroupCommitArrayList<Integer> list = new GroupCommitArrayList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            int value = random.nextInt(1000);
+            list.add(value);
+            expected.add(value);
+        }
+        List<Integer> original = new ArrayList<>(expected);
+        Iterator<Integer> before = list.iterator();
+
+        list.sort(null);
+        expected.sort(null);
+        assertEquals(expected, list);
+        Collections.sort(list, Comparator.reverseOrder());
+        Collections.sort(expected, Comparator.reverseOrder());
+        assertEquals(expected, list);
+        list.replaceAll(v -> v * 2 + 1);
+        expected.replaceAll(v -> v * 2 + 1);
+        assertEquals(expected, list);
+
+        // 失败的 replaceAll 不发布任何修改
+        assertThrows(IllegalStateException.class, () -> list.replaceAll(v -> {
+            if (v < 100) {
+                throw new IllegalStateException();
+            }
+            return 0;
+        }));
+        assertEquals(expected, list);
+        // 之前取得的迭代器仍是排序前的快照
+        List<Integer> seen = new ArrayList<>();
+        before.forEachRemaining(seen::add);
+        assertEquals(original, seen);
+    }
+}
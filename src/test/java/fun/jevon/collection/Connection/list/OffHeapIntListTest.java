@@ -0,0 +1,89 @@
+package fun.jevon.collection.Connection.list;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 与 int[] 对照，元素数跨越多个段（每段 2^20 个），覆盖段边界上的读写和多段归并排序
+ */
+class OffHeapIntListTest {
+
+    private static final int SIZE = 3 * (1 << 20) + 12345;
+
+    @Test
+    void addGetSetMatchArray() {
+        Random random = new Random(2);
+        int[] expected = new int[SIZE];
+        try (OffHeapIntList list = new OffHeapIntList()) {
+            for (int i = 0; i < SIZE; i++) {
+                expected[i] = random.nextInt();
+                list.add(expected[i]);
+            }
+            assertEquals(SIZE, list.size());
+            for (int i = 0; i < 100_000; i++) {
+                int index = random.nextInt(SIZE);
+                if (random.nextBoolean()) {
+                    expected[index] = random.nextInt();
+                    list.set(index, expected[index]);
+                }
+                assertEquals(expected[index], list.get(index));
+            }
+            assertArrayEquals(expected, toArray(list));
+            int[] visited = new int[SIZE];
+            int[] n = {0};
+            list.forEach(v -> visited[n[0]++] = v);
+            assertArrayEquals(expected, visited);
+
+            assertThrows(IndexOutOfBoundsException.class, () -> list.get(SIZE));
+            assertThrows(IndexOutOfBoundsException.class, () -> list.get(-1));
+        }
+    }
+
+    @Test
+    void sortMatchesArraysSort() {
+        Random random = new Random(4);
+        for (int size : new int[]{0, 1, 2, 1000, (1 << 20) + 1, SIZE}) {
+            int[] expected = new int[size];
+            try (OffHeapIntList list = new OffHeapIntList()) {
+                for (int i = 0; i < size; i++) {
+                    // 取值范围小，有大量重复值
+                    expected[i] = random.nextInt(size / 2 + 1) - size / 4;
+                    list.add(expected[i]);
+                }
+                list.sort();
+                Arrays.sort(expected);
+                assertEquals(size, list.size());
+                assertArrayEquals(expected, toArray(list), "size " + size);
+            }
+        }
+    }
+
+    @Test
+    void closedListRejectsAccess() {
+        OffHeapIntList list = new OffHeapIntList();
+        list.add(1);
+        list.close();
+        list.close();
+        assertEquals(0, list.size());
+        assertThrows(IllegalStateException.class, () -> list.add(2));
+        assertThrows(IllegalStateException.class, () -> list.get(0));
+    }
+
+    private static int[] toArray(OffHeapIntList list) {
+        int[] result = new int[(int) list.size()];
+        PrimitiveIterator.OfInt it = list.iterator();
+        for (int i = 0; i < result.length; i++) {
+            result[i] = it.nextInt();
+        }
+        assertFalse(it.hasNext());
+        return result;
+    }
+}
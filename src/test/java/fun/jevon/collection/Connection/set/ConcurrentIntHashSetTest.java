@@ -0,0 +1,133 @@
+package fun.jevon.collection.Connection.set;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 单线程与 HashSet 对照（含两个特殊值 0 与 Integer.MIN_VALUE）；多线程下从很小的初始容量开始写，
+ * 让协作扩容反复发生，检查每个元素恰好一次 add 返回 true，以及扩容期间已加入的元素始终可见
+ */
+class ConcurrentIntHashSetTest {
+
+    private static final int THREADS = 4;
+
+    @Test
+    void randomOperationsMatchHashSet() {
+        Random random = new Random(5);
+        ConcurrentIntHashSet set = new ConcurrentIntHashSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(10) == 0 ? special(random) : random.nextInt();
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(key), set.add(key));
+            } else {
+                assertEquals(expected.contains(key), set.contains(key));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (int key : expected) {
+            assertTrue(set.contains(key));
+        }
+    }
+
+    @Test
+    void concurrentAddsHaveOneWinnerPerKey() throws Exception {
+        int keys = 200_000;
+        ConcurrentIntHashSet set = new ConcurrentIntHashSet(8);
+        AtomicInteger added = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t * keys / THREADS;
+                futures.add(pool.submit(() -> {
+                    // 每个线程从不同位置开始把同一批 key 全部加一遍，既有抢同一个槽也有各写各的
+                    for (int i = 0; i < keys; i++) {
+                        int key = (i + offset) % keys - keys / 2;
+                        if (set.add(key * 31)) {
+                            added.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(keys, added.get());
+        assertEquals(keys, set.size());
+        for (int i = 0; i < keys; i++) {
+            assertTrue(set.contains((i - keys / 2) * 31), "缺少 " + i);
+        }
+        assertFalse(set.contains(1));
+    }
+
+    @Test
+    void addedKeysStayVisibleDuringResize() throws Exception {
+        int keys = 500_000;
+        ConcurrentIntHashSet set = new ConcurrentIntHashSet(8);
+        // 写线程已确认加入的最大 key
+        AtomicLong published = new AtomicLong(-1);
+        AtomicInteger misses = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(pool.submit(() -> {
+                try {
+                    for (int i = 1; i <= keys; i++) {
+                        set.add(i);
+                        published.set(i);
+                    }
+                } finally {
+                    // 写线程异常退出时也让读线程结束，异常由 Future.get 抛出
+                    published.set(keys);
+                }
+            }));
+            for (int t = 1; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    Random random = new Random();
+                    long max;
+                    while ((max = published.get()) < keys) {
+                        if (max > 0 && !set.contains(1 + random.nextInt((int) max))) {
+                            misses.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(0, misses.get());
+        assertEquals(keys, set.size());
+    }
+
+    private static int special(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return 0;
+            case 1:
+                return Integer.MIN_VALUE;
+            default:
+                return random.nextInt(16);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package fun.jevon.collection.Connection.set;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 与按无符号顺序排列的 TreeSet<Integer> 对照；数据同时包含稀疏值（数组容器）、
+ * 单个桶内超过 4096 个的稠密值（位图容器）和长连续区间（runOptimize 后为 run 容器）
+ */
+class RoaringIntSetTest {
+
+    @Test
+    void addAndIterateMatchTreeSet() {
+        Random random = new Random(3);
+        RoaringIntSet set = new RoaringIntSet();
+        TreeSet<Integer> expected = unsignedSet();
+        fill(random, set, expected);
+        assertContent(expected, set);
+
+        set.runOptimize();
+        assertContent(expected, set);
+
+        // run / 位图容器上继续写入，容器需要在几种表示之间转换
+        for (int i = 0; i < 20_000; i++) {
+            int x = random.nextInt(1 << 20);
+            assertEquals(expected.add(x), set.add(x));
+        }
+        assertContent(expected, set);
+        for (int i = 0; i < 20_000; i++) {
+            int x = random.nextInt();
+            assertEquals(expected.contains(x), set.contains(x));
+        }
+    }
+
+    @Test
+    void setOperationsMatchTreeSet() {
+        Random random = new Random(9);
+        RoaringIntSet a = new RoaringIntSet();
+        RoaringIntSet b = new RoaringIntSet();
+        TreeSet<Integer> ea = unsignedSet();
+        TreeSet<Integer> eb = unsignedSet();
+        fill(random, a, ea);
+        fill(random, b, eb);
+        b.runOptimize();
+
+        TreeSet<Integer> and = unsignedSet();
+        and.addAll(ea);
+        and.retainAll(eb);
+        TreeSet<Integer> or = unsignedSet();
+        or.addAll(ea);
+        or.addAll(eb);
+        TreeSet<Integer> andNot = unsignedSet();
+        andNot.addAll(ea);
+        andNot.removeAll(eb);
+
+        assertContent(and, a.and(b));
+        assertContent(and, b.and(a));
+        assertContent(or, a.or(b));
+        assertContent(andNot, a.andNot(b));
+        // 参与运算的集合不变
+        assertContent(ea, a);
+        assertContent(eb, b);
+        assertTrue(a.andNot(a).isEmpty());
+    }
+
+    private static TreeSet<Integer> unsignedSet() {
+        return new TreeSet<>(Integer::compareUnsigned);
+    }
+
+    private static void fill(Random random, RoaringIntSet set, TreeSet<Integer> expected) {
+        // 稀疏：整个 int 范围（含负数）
+        for (int i = 0; i < 20_000; i++) {
+            int x = random.nextInt();
+            assertEquals(expected.add(x), set.add(x));
+        }
+        // 稠密：集中在少数几个桶里
+        for (int i = 0; i < 60_000; i++) {
+            int x = (random.nextInt(4) << 16) | random.nextInt(1 << 16);
+            assertEquals(expected.add(x), set.add(x));
+        }
+        // 连续区间
+        for (int r = 0; r < 20; r++) {
+            int start = random.nextInt(1 << 24);
+            int length = 1 + random.nextInt(100_000);
+            for (int x = start; x < start + length; x++) {
+                assertEquals(expected.add(x), set.add(x));
+            }
+        }
+    }
+
+    private static void assertContent(TreeSet<Integer> expected, RoaringIntSet set) {
+        assertEquals(expected.size(), set.cardinality());
+        List<Integer> iterated = new ArrayList<>();
+        set.iterator().forEachRemaining((int x) -> iterated.add(x));
+        assertIterableEquals(expected, iterated);
+        List<Integer> visited = new ArrayList<>();
+        set.forEach(x -> visited.add(x));
+        assertIterableEquals(expected, visited);
+    }
+}
@@ -0,0 +1,121 @@
+package fun.jevon.collection.Map;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 与 LinkedHashMap（插入顺序）对照：内容、遍历顺序、删除后的压缩与扩容都要一致
+ */
+class CompactOrderedMapTest {
+
+    @Test
+    void randomOperationsMatchLinkedHashMap() {
+        Random random = new Random(7);
+        CompactOrderedMap<Integer, String> map = new CompactOrderedMap<>();
+        Map<Integer, String> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            // null 也作为 key 参与
+            Integer key = random.nextInt(50) == 0 ? null : random.nextInt(512);
+            String value = random.nextInt(20) == 0 ? null : "v" + random.nextInt(100);
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    assertEquals(expected.put(key, value), map.put(key, value));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(key));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+            if (i % 1000 == 0) {
+                assertIterableEquals(expected.entrySet(), map.entrySet());
+            }
+        }
+        assertIterableEquals(expected.entrySet(), map.entrySet());
+        assertEquals(expected, map);
+        assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    void stridedKeysKeepInsertionOrder() {
+        CompactOrderedMap<Long, Long> map = new CompactOrderedMap<>();
+        List<Long> order = new ArrayList<>();
+        for (long i = 0; i < 50_000; i++) {
+            // 只在高位变化的 key，hashCode 的低位全相同
+            long key = i << 20;
+            map.put(key, i);
+            order.add(key);
+        }
+        assertIterableEquals(order, map.keySet());
+        for (long i = 0; i < 50_000; i += 2) {
+            map.remove(i << 20);
+        }
+        order.removeIf(k -> (k >> 20) % 2 == 0);
+        assertIterableEquals(order, map.keySet());
+        assertEquals(Long.valueOf(49_999), map.get(49_999L << 20));
+    }
+
+    @Test
+    void iteratorRemoveAndFailFast() {
+        CompactOrderedMap<Integer, Integer> map = new CompactOrderedMap<>();
+        Map<Integer, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, i);
+            expected.put(i, i);
+        }
+        map.values().removeIf(v -> v % 3 == 0);
+        expected.values().removeIf(v -> v % 3 == 0);
+        assertIterableEquals(expected.entrySet(), map.entrySet());
+
+        Iterator<Integer> it = map.keySet().iterator();
+        it.next();
+        map.put(1000, 1000);
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+    @Test
+    void overwritingPutKeepsIteratorValid() {
+        // 默认 8 个条目：写满后删掉前一半，条目数组已满且空洞足以触发压缩
+        CompactOrderedMap<Integer, Integer> map = new CompactOrderedMap<>();
+        for (int i = 0; i < 8; i++) {
+            map.put(i, i);
+        }
+        for (int i = 0; i < 4; i++) {
+            map.remove(i);
+        }
+        Iterator<Map.Entry<Integer, Integer>> it = map.entrySet().iterator();
+        Map.Entry<Integer, Integer> first = it.next();
+        List<Integer> keys = new ArrayList<>();
+        keys.add(first.getKey());
+        // 覆盖已有 key 不能移动条目，迭代器既不跳过也不重复，之前取得的条目仍能写回
+        map.put(5, 50);
+        while (it.hasNext()) {
+            Map.Entry<Integer, Integer> entry = it.next();
+            keys.add(entry.getKey());
+            entry.setValue(entry.getValue() + 100);
+        }
+        first.setValue(40);
+        assertEquals(List.of(4, 5, 6, 7), keys);
+        Map<Integer, Integer> expected = new LinkedHashMap<>();
+        expected.put(4, 40);
+        expected.put(5, 150);
+        expected.put(6, 106);
+        expected.put(7, 107);
+        assertIterableEquals(expected.entrySet(), map.entrySet());
+    }
+}
@@ -0,0 +1,96 @@
+package fun.jevon.collection.Map;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 多线程计数不丢失；一边累加一边 snapshotThenReset 时，各次导出的增量之和等于总累加量
+ */
+class ConcurrentCounterMapTest {
+
+    private static final int THREADS = 4;
+    private static final int KEYS = 8;
+    private static final int PER_THREAD = 200_000;
+
+    @Test
+    void concurrentIncrementsAreNotLost() throws Exception {
+        ConcurrentCounterMap<String> counters = new ConcurrentCounterMap<>();
+        runWriters(counters);
+        for (int k = 0; k < KEYS; k++) {
+            assertEquals((long) THREADS * PER_THREAD / KEYS, counters.sum("k" + k));
+        }
+        assertEquals((long) THREADS * PER_THREAD, counters.total());
+        assertEquals(KEYS, counters.size());
+        assertEquals(0, counters.sum("missing"));
+    }
+
+    @Test
+    void snapshotThenResetExportsEveryIncrementOnce() throws Exception {
+        ConcurrentCounterMap<String> counters = new ConcurrentCounterMap<>();
+        Map<String, Long> exported = new HashMap<>();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread reporter = new Thread(() -> {
+            while (!done.get()) {
+                counters.snapshotThenReset().forEach((k, v) -> exported.merge(k, v, Long::sum));
+            }
+        });
+        reporter.start();
+        try {
+            runWriters(counters);
+        } finally {
+            done.set(true);
+            reporter.join();
+        }
+        counters.snapshotThenReset().forEach((k, v) -> exported.merge(k, v, Long::sum));
+
+        assertEquals(KEYS, exported.size());
+        for (int k = 0; k < KEYS; k++) {
+            assertEquals(Long.valueOf((long) THREADS * PER_THREAD / KEYS), exported.get("k" + k));
+        }
+        assertEquals(0, counters.total());
+        assertTrue(counters.snapshotThenReset().isEmpty());
+    }
+
+    @Test
+    void addAndSnapshot() {
+        ConcurrentCounterMap<String> counters = new ConcurrentCounterMap<>();
+        counters.add("a", 5);
+        counters.add("a", -2);
+        counters.increment("b");
+        assertEquals(Map.of("a", 3L, "b", 1L), counters.snapshot());
+        assertEquals(3, counters.sumThenReset("a"));
+        assertEquals(0, counters.sum("a"));
+        assertEquals(1, counters.total());
+    }
+
+    // 每个线程依次轮流累加 KEYS 个 key
+    private static void runWriters(ConcurrentCounterMap<String> counters) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        counters.increment("k" + (i % KEYS));
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package fun.jevon.collection.Map;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 随机操作序列与 HashMap<Integer, Integer> 对照，key 范围小以便反复命中同一批槽位（含 key=0 与回移删除）
+ */
+class IntIntHashMapTest {
+
+    private static final int NO_VALUE = -1;
+
+    @Test
+    void randomOperationsMatchHashMap() {
+        Random random = new Random(42);
+        IntIntHashMap map = new IntIntHashMap(4, 0.75f, NO_VALUE);
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            int key = random.nextInt(2048) - 1024;
+            int value = random.nextInt(1000);
+            switch (random.nextInt(5)) {
+                case 0:
+                case 1:
+                    assertEquals(expected.getOrDefault(key, NO_VALUE).intValue(), map.put(key, value));
+                    expected.put(key, value);
+                    break;
+                case 2:
+                    assertEquals(expected.getOrDefault(key, NO_VALUE).intValue(), map.remove(key));
+                    expected.remove(key);
+                    break;
+                case 3:
+                    // addTo 对不存在的 key 从 0 开始累加，与 noValue 无关
+                    assertEquals(expected.merge(key, value, Integer::sum).intValue(), map.addTo(key, value));
+                    break;
+                default:
+                    assertEquals(expected.getOrDefault(key, NO_VALUE).intValue(), map.get(key));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertContentEquals(expected, map);
+    }
+
+    @Test
+    void growsAndClears() {
+        IntIntHashMap map = new IntIntHashMap();
+        Map<Integer, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            // 步长为 2 的幂的 key 专门考验散列是否把低位相同的 key 打散
+            int key = i << 10;
+            map.put(key, i);
+            expected.put(key, i);
+        }
+        assertContentEquals(expected, map);
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.containsKey(0));
+        assertEquals(0, map.get(1 << 10));
+        map.put(7, 7);
+        assertEquals(1, map.size());
+    }
+
+    private static void assertContentEquals(Map<Integer, Integer> expected, IntIntHashMap map) {
+        assertEquals(expected.size(), map.size());
+        Map<Integer, Integer> actual = new HashMap<>();
+        map.forEach((k, v) -> assertEquals(null, actual.put(k, v), "forEach 重复访问 key " + k));
+        assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,237 @@
+package fun.jevon.collection.Map;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 单线程与 TreeMap 对照（含各种导航查询与 ConcurrentMap 条件操作）；多线程下检查线性化结果：
+ * 每个线程只写自己的 key 时最终内容确定，抢同一批 key 时 putIfAbsent / remove 每个 key 恰好一个线程成功，
+ * 并发 merge / compute / replace 累加计数不丢更新
+ */
+class LockFreeSkipListMapTest {
+
+    private static final int THREADS = 4;
+
+    @Test
+    void randomOperationsMatchTreeMap() {
+        Random random = new Random(11);
+        LockFreeSkipListMap<Integer, Integer> map = new LockFreeSkipListMap<>();
+        NavigableMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(1000);
+            int value = random.nextInt();
+            switch (random.nextInt(8)) {
+                case 0:
+                    assertEquals(expected.put(key, value), map.put(key, value));
+                    break;
+                case 1:
+                    assertEquals(expected.putIfAbsent(key, value), map.putIfAbsent(key, value));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                case 3:
+                    assertEquals(expected.get(key), map.get(key));
+                    assertEquals(expected.containsKey(key), map.containsKey(key));
+                    break;
+                case 4:
+                    // 一半概率用当前值作为期望值，条件操作才会成功
+                    Integer current = random.nextBoolean() ? expected.get(key) : Integer.valueOf(value);
+                    if (current != null) {
+                        assertEquals(expected.replace(key, current, value), map.replace(key, current, value));
+                        assertEquals(expected.remove(key, current), map.remove(key, current));
+                    }
+                    assertEquals(expected.replace(key, value), map.replace(key, value));
+                    break;
+                case 5:
+                    int delta = value & 7;
+                    assertEquals(expected.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b),
+                            map.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b));
+                    assertEquals(expected.computeIfPresent(key, (k, v) -> v % 3 == 0 ? null : v),
+                            map.computeIfPresent(key, (k, v) -> v % 3 == 0 ? null : v));
+                    assertEquals(expected.computeIfAbsent(key, k -> k), map.computeIfAbsent(key, k -> k));
+                    break;
+                default:
+                    assertEquals(expected.floorKey(key), map.floorKey(key));
+                    assertEquals(expected.lowerKey(key), map.lowerKey(key));
+                    assertEquals(expected.ceilingKey(key), map.ceilingKey(key));
+                    assertEquals(expected.higherKey(key), map.higherKey(key));
+                    assertEquals(expected.floorEntry(key), map.floorEntry(key));
+                    assertEquals(expected.higherEntry(key), map.higherEntry(key));
+                    break;
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        assertIterableEquals(expected.entrySet(), map.entrySet());
+        assertEquals(expected.firstEntry(), map.firstEntry());
+        assertEquals(expected.lastEntry(), map.lastEntry());
+
+        List<Map.Entry<Integer, Integer>> descending = new ArrayList<>();
+        map.descendingIterator().forEachRemaining(descending::add);
+        assertIterableEquals(expected.descendingMap().entrySet(), descending);
+
+        List<Integer> range = new ArrayList<>();
+        map.forEachInRange(250, 750, (k, v) -> range.add(k));
+        assertIterableEquals(expected.subMap(250, 750).keySet(), range);
+    }
+
+    @Test
+    void iteratorRemove() {
+        LockFreeSkipListMap<Integer, Integer> map = new LockFreeSkipListMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i);
+        }
+        map.keySet().removeIf(k -> k % 2 == 0);
+        Iterator<Map.Entry<Integer, Integer>> it = map.descendingIterator();
+        while (it.hasNext()) {
+            if (it.next().getKey() % 3 == 0) {
+                it.remove();
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 != 0 && i % 3 != 0, map.containsKey(i), "key " + i);
+        }
+    }
+
+    @Test
+    void concurrentDisjointWritersMatchExpected() throws Exception {
+        LockFreeSkipListMap<Integer, Integer> map = new LockFreeSkipListMap<>();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    // key 交错分配（t, t + THREADS, ...），各线程的节点在同一条链表里相邻
+                    for (int i = 0; i < 20_000; i++) {
+                        int key = i * THREADS + thread;
+                        map.put(key, key);
+                        if (i % 3 == 0) {
+                            map.remove(key);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        for (int key = 0; key < 20_000 * THREADS; key++) {
+            if ((key / THREADS) % 3 != 0) {
+                expected.put(key, key);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        assertIterableEquals(expected.entrySet(), map.entrySet());
+    }
+
+    @Test
+    void concurrentPutIfAbsentAndRemoveHaveOneWinnerPerKey() throws Exception {
+        int keys = 20_000;
+        LockFreeSkipListMap<Integer, Integer> map = new LockFreeSkipListMap<>();
+        AtomicInteger inserted = new AtomicInteger();
+        AtomicInteger removed = new AtomicInteger();
+        // 所有线程插完再开始删除，否则删掉的 key 会被还在插入的线程重新插回去
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < keys; i++) {
+                        if (map.putIfAbsent(i, thread) == null) {
+                            inserted.incrementAndGet();
+                        }
+                    }
+                    barrier.await();
+                    for (int i = 0; i < keys; i += 2) {
+                        if (map.remove(i) != null) {
+                            removed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(keys, inserted.get());
+        assertEquals(keys / 2, removed.get());
+        assertEquals(keys / 2, map.size());
+        int previous = -1;
+        for (Map.Entry<Integer, Integer> e : map.entrySet()) {
+            assertTrue(e.getKey() > previous && e.getKey() % 2 == 1, "key " + e.getKey());
+            previous = e.getKey();
+        }
+    }
+
+    @Test
+    void concurrentMergeComputeAndReplaceDoNotLoseUpdates() throws Exception {
+        int keys = 64;
+        int perThread = 20_000;
+        LockFreeSkipListMap<Integer, Integer> map = new LockFreeSkipListMap<>();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        int key = (i * 7 + thread) % keys;
+                        switch (thread % 3) {
+                            case 0:
+                                map.merge(key, 1, Integer::sum);
+                                break;
+                            case 1:
+                                map.compute(key, (k, v) -> v == null ? 1 : v + 1);
+                                break;
+                            default:
+                                // 手写的 CAS 循环：replace(k, old, new) 失败说明被别人改过，重读再试
+                                while (true) {
+                                    Integer old = map.putIfAbsent(key, 1);
+                                    if (old == null || map.replace(key, old, old + 1)) {
+                                        break;
+                                    }
+                                }
+                                break;
+                        }
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        long total = 0;
+        for (int v : map.values()) {
+            total += v;
+        }
+        assertEquals((long) THREADS * perThread, total);
+        assertEquals(keys, map.size());
+    }
+}
@@ -0,0 +1,158 @@
+package fun.jevon.collection.linkedlist;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * List 接口与 java.util.ArrayList 对照、Deque 接口与 ArrayDeque 对照；
+ * 随机位置的插入删除会反复触发节点拆分与合并
+ */
+class UnrolledLinkedListTest {
+
+    @Test
+    void randomListOperationsMatchArrayList() {
+        Random random = new Random(8);
+        UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(1000);
+            int op = expected.isEmpty() ? 0 : random.nextInt(6);
+            switch (op) {
+                case 0:
+                    int index = random.nextInt(expected.size() + 1);
+                    expected.add(index, value);
+                    list.add(index, value);
+                    break;
+                case 1:
+                    assertEquals(expected.add(value), list.add(value));
+                    break;
+                case 2:
+                    int removeAt = random.nextInt(expected.size());
+                    assertEquals(expected.remove(removeAt), list.remove(removeAt));
+                    break;
+                case 3:
+                    int at = random.nextInt(expected.size());
+                    assertEquals(expected.set(at, value), list.set(at, value));
+                    break;
+                case 4:
+                    assertEquals(expected.remove(Integer.valueOf(value)), list.remove(Integer.valueOf(value)));
+                    break;
+                default:
+                    int get = random.nextInt(expected.size());
+                    assertEquals(expected.get(get), list.get(get));
+                    break;
+            }
+            assertEquals(expected.size(), list.size());
+        }
+        assertEquals(expected, list);
+        List<Integer> visited = new ArrayList<>();
+        list.forEach(visited::add);
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void listIteratorEditsMatchArrayList() {
+        Random random = new Random(12);
+        UnrolledLinkedList<Integer> list = new UnrolledLinkedList<>();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            list.add(i);
+            expected.add(i);
+        }
+        for (int round = 0; round < 20; round++) {
+            int start = random.nextInt(expected.size() + 1);
+            ListIterator<Integer> a = list.listIterator(start);
+            ListIterator<Integer> e = expected.listIterator(start);
+            for (int step = 0; step < 500; step++) {
+                boolean forward = random.nextInt(3) != 0;
+                if (forward ? !e.hasNext() : !e.hasPrevious()) {
+                    continue;
+                }
+                assertEquals(forward ? e.next() : e.previous(), forward ? a.next() : a.previous());
+                switch (random.nextInt(4)) {
+                    case 0:
+                        e.remove();
+                        a.remove();
+                        break;
+                    case 1:
+                        e.set(-step);
+                        a.set(-step);
+                        break;
+                    case 2:
+                        e.add(step);
+                        a.add(step);
+                        break;
+                    default:
+                        break;
+                }
+                assertEquals(e.nextIndex(), a.nextIndex());
+                assertEquals(e.previousIndex(), a.previousIndex());
+            }
+            assertEquals(expected, list);
+        }
+    }
+
+    @Test
+    void dequeOperationsMatchArrayDeque() {
+        Random random = new Random(6);
+        UnrolledLinkedList<Integer> deque = new UnrolledLinkedList<>();
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(100);
+            switch (random.nextInt(8)) {
+                case 0:
+                    expected.addFirst(value);
+                    deque.addFirst(value);
+                    break;
+                case 1:
+                    assertEquals(expected.offerLast(value), deque.offerLast(value));
+                    break;
+                case 2:
+                    assertEquals(expected.pollFirst(), deque.pollFirst());
+                    break;
+                case 3:
+                    assertEquals(expected.pollLast(), deque.pollLast());
+                    break;
+                case 4:
+                    assertEquals(expected.peekFirst(), deque.peekFirst());
+                    assertEquals(expected.peekLast(), deque.peekLast());
+                    break;
+                case 5:
+                    expected.push(value);
+                    deque.push(value);
+                    break;
+                case 6:
+                    assertEquals(expected.removeLastOccurrence(value), deque.removeLastOccurrence(value));
+                    break;
+                default:
+                    assertEquals(expected.removeFirstOccurrence(value), deque.removeFirstOccurrence(value));
+                    break;
+            }
+            assertEquals(expected.size(), deque.size());
+        }
+        List<Integer> descending = new ArrayList<>();
+        deque.descendingIterator().forEachRemaining(descending::add);
+        List<Integer> expectedDescending = new ArrayList<>();
+        expected.descendingIterator().forEachRemaining(expectedDescending::add);
+        assertEquals(expectedDescending, descending);
+
+        deque.clear();
+        assertNull(deque.poll());
+        assertNull(deque.peekLast());
+        assertThrows(NoSuchElementException.class, deque::removeFirst);
+        assertThrows(NoSuchElementException.class, deque::getLast);
+        Iterator<Integer> it = deque.iterator();
+        assertThrows(NoSuchElementException.class, it::next);
+    }
+}
@@ -0,0 +1,169 @@
+package fun.jevon.collection.queue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 单线程与容量相同的 ArrayDeque 对照（含满、空与多圈回绕）；
+ * 多生产者多消费者下每个元素恰好被取出一次，且任一消费者看到的同一生产者的元素保持入队顺序
+ */
+class MpmcRingQueueTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int CONSUMERS = 4;
+    private static final int PER_PRODUCER = 100_000;
+
+    @Test
+    void randomOperationsMatchBoundedArrayDeque() {
+        Random random = new Random(10);
+        MpmcRingQueue<Integer> queue = new MpmcRingQueue<>(8);
+        assertEquals(8, queue.capacity());
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+        for (int i = 0; i < 200_000; i++) {
+            switch (random.nextInt(5)) {
+                case 0:
+                case 1:
+                    boolean accepted = expected.size() < queue.capacity();
+                    if (accepted) {
+                        expected.offer(i);
+                    }
+                    assertEquals(accepted, queue.offer(i));
+                    break;
+                case 2:
+                    assertEquals(expected.poll(), queue.poll());
+                    break;
+                case 3:
+                    assertEquals(expected.peek(), queue.peek());
+                    break;
+                default:
+                    List<Integer> drained = new ArrayList<>();
+                    int limit = random.nextInt(4);
+                    int n = queue.drain(drained::add, limit);
+                    List<Integer> polled = new ArrayList<>();
+                    while (polled.size() < limit && !expected.isEmpty()) {
+                        polled.add(expected.poll());
+                    }
+                    assertEquals(polled.size(), n);
+                    assertEquals(polled, drained);
+                    break;
+            }
+            assertEquals(expected.size(), queue.size());
+            assertEquals(expected.isEmpty(), queue.isEmpty());
+            if (i % 100 == 0) {
+                assertEquals(new ArrayList<>(expected), new ArrayList<>(queue));
+            }
+        }
+        assertThrows(NullPointerException.class, () -> queue.offer(null));
+    }
+
+    @Test
+    void throwingConsumerStillReleasesDrainedSlots() {
+        MpmcRingQueue<Integer> queue = new MpmcRingQueue<>(4);
+        for (int i = 0; i < 4; i++) {
+            queue.offer(i);
+        }
+        List<Integer> seen = new ArrayList<>();
+        RuntimeException e = assertThrows(IllegalStateException.class, () -> queue.drain(v -> {
+            seen.add(v);
+            if (v % 2 == 0) {
+                throw new IllegalStateException("v" + v);
+            }
+        }, 4));
+        assertEquals("v0", e.getMessage());
+        assertEquals(1, e.getSuppressed().length);
+        assertEquals(List.of(0, 1, 2, 3), seen);
+        // 槽位已全部归还，下一圈照常使用
+        assertTrue(queue.isEmpty());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(10 + i));
+        }
+        assertFalse(queue.offer(99));
+        assertEquals(Integer.valueOf(10), queue.poll());
+    }
+
+    @Test
+    void concurrentProducersAndConsumersDeliverEachElementOnce() throws Exception {
+        MpmcRingQueue<Long> queue = new MpmcRingQueue<>(64);
+        AtomicIntegerArray delivered = new AtomicIntegerArray(PRODUCERS * PER_PRODUCER);
+        AtomicLong consumed = new AtomicLong();
+        // 消费者线程里不直接断言：一个消费者提前退出会让其他消费者永远等不到总数
+        AtomicInteger outOfOrder = new AtomicInteger();
+        long total = (long) PRODUCERS * PER_PRODUCER;
+        ExecutorService pool = Executors.newFixedThreadPool(PRODUCERS + CONSUMERS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int p = 0; p < PRODUCERS; p++) {
+                long producer = p;
+                futures.add(pool.submit(() -> {
+                    for (long i = 0; i < PER_PRODUCER; i++) {
+                        // 高 32 位是生产者编号，低 32 位是它的序号
+                        Long e = producer << 32 | i;
+                        while (!queue.offer(e)) {
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+            for (int c = 0; c < CONSUMERS; c++) {
+                boolean batch = c % 2 == 0;
+                futures.add(pool.submit(() -> {
+                    long[] last = new long[PRODUCERS];
+                    Arrays.fill(last, -1);
+                    List<Long> taken = new ArrayList<>();
+                    while (consumed.get() < total) {
+                        taken.clear();
+                        if (batch) {
+                            queue.drain(taken::add, 16);
+                        } else {
+                            Long e = queue.poll();
+                            if (e != null) {
+                                taken.add(e);
+                            }
+                        }
+                        if (taken.isEmpty()) {
+                            Thread.yield();
+                            continue;
+                        }
+                        for (long e : taken) {
+                            int producer = (int) (e >>> 32);
+                            long seq = e & 0xFFFFFFFFL;
+                            if (seq <= last[producer]) {
+                                outOfOrder.incrementAndGet();
+                            }
+                            last[producer] = seq;
+                            delivered.incrementAndGet((int) (producer * PER_PRODUCER + seq));
+                        }
+                        consumed.addAndGet(taken.size());
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, outOfOrder.get());
+        assertEquals(total, consumed.get());
+        for (int i = 0; i < delivered.length(); i++) {
+            assertEquals(1, delivered.get(i), "元素 " + i);
+        }
+        assertTrue(queue.isEmpty());
+    }
+}
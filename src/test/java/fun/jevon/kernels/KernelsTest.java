@@ -0,0 +1,201 @@
+package fun.jevon.kernels;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Kernels（当前生效的实现，运行时加了 jdk.incubator.vector 模块就是向量实现）与 ScalarKernels
+ * 都与逐个元素的朴素循环对照；长度覆盖向量宽度的整数倍与尾部剩余元素。
+ * VectorKernels 另外直接与 ScalarKernels 对照，不受 isProfitable 影响（需要 surefire 的 --add-modules）
+ */
+class KernelsTest {
+
+    private static final int[] LENGTHS = {1, 2, 3, 7, 8, 15, 16, 17, 31, 64, 65, 1000, 4099};
+
+    @Test
+    void intAggregatesMatchNaiveLoop() {
+        Random random = new Random(51);
+        for (int n : LENGTHS) {
+            int[] a = new int[n];
+            for (int i = 0; i < n; i++) {
+                a[i] = random.nextInt(4) == 0 ? Integer.MAX_VALUE - random.nextInt(3) : random.nextInt();
+            }
+            long sum = 0;
+            for (int v : a) {
+                sum += v;
+            }
+            int lo = -1 << 30;
+            int hi = 1 << 30;
+            int between = (int) Arrays.stream(a).filter(v -> v >= lo && v <= hi).count();
+            int min = Arrays.stream(a).min().getAsInt();
+            int max = Arrays.stream(a).max().getAsInt();
+
+            assertEquals(sum, Kernels.sum(a), "n=" + n);
+            assertEquals(sum, ScalarKernels.sum(a));
+            assertEquals(min, Kernels.min(a));
+            assertEquals(min, ScalarKernels.min(a));
+            assertEquals(max, Kernels.max(a));
+            assertEquals(max, ScalarKernels.max(a));
+            assertEquals(between, Kernels.countBetween(a, lo, hi));
+            assertEquals(between, ScalarKernels.countBetween(a, lo, hi));
+        }
+    }
+
+    @Test
+    void longAndDoubleAggregatesMatchNaiveLoop() {
+        Random random = new Random(52);
+        for (int n : LENGTHS) {
+            long[] a = new long[n];
+            double[] d = new double[n];
+            for (int i = 0; i < n; i++) {
+                a[i] = random.nextLong();
+                d[i] = random.nextGaussian() * 1000;
+            }
+            long sum = 0;
+            double dsum = 0;
+            double dmin = Double.POSITIVE_INFINITY;
+            double dmax = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                sum += a[i];
+                dsum += d[i];
+                dmin = Math.min(dmin, d[i]);
+                dmax = Math.max(dmax, d[i]);
+            }
+            int between = (int) Arrays.stream(a).filter(v -> v >= 0 && v <= Long.MAX_VALUE / 2).count();
+            int dbetween = (int) Arrays.stream(d).filter(v -> v >= -500 && v <= 500).count();
+
+            assertEquals(sum, Kernels.sum(a), "n=" + n);
+            assertEquals(sum, ScalarKernels.sum(a));
+            assertEquals(Arrays.stream(a).min().getAsLong(), Kernels.min(a));
+            assertEquals(Arrays.stream(a).max().getAsLong(), Kernels.max(a));
+            assertEquals(between, Kernels.countBetween(a, 0, Long.MAX_VALUE / 2));
+            assertEquals(between, ScalarKernels.countBetween(a, 0, Long.MAX_VALUE / 2));
+
+            // 向量实现按车道分组累加，舍入顺序不同，只要求相对误差足够小
+            assertEquals(dsum, ScalarKernels.sum(d));
+            assertEquals(dsum, Kernels.sum(d), 1e-9 * Arrays.stream(d).map(Math::abs).sum());
+            assertEquals(dmin, Kernels.min(d));
+            assertEquals(dmax, Kernels.max(d));
+            assertEquals(dmin, ScalarKernels.min(d));
+            assertEquals(dmax, ScalarKernels.max(d));
+            assertEquals(dbetween, Kernels.countBetween(d, -500, 500));
+        }
+    }
+
+    @Test
+    void doubleMinMaxFollowMathMinMax() {
+        double[] withNaN = {1, Double.NaN, -1};
+        assertEquals(Double.NaN, Kernels.min(withNaN));
+        assertEquals(Double.NaN, Kernels.max(withNaN));
+        double[] zeros = {0.0, -0.0, 0.0};
+        assertEquals(-0.0, Kernels.min(zeros));
+        assertEquals(0.0, Kernels.max(zeros));
+        assertThrows(NoSuchElementException.class, () -> Kernels.min(new int[0]));
+        assertThrows(NoSuchElementException.class, () -> ScalarKernels.max(new long[0]));
+    }
+
+    @Test
+    void sortSmallMatchesArraysSort() {
+        Random random = new Random(53);
+        for (int trial = 0; trial < 2000; trial++) {
+            int length = 40;
+            int from = random.nextInt(length);
+            // 包含超过 SMALL_SORT_MAX、交给 Arrays.sort 的区间
+            int to = from + random.nextInt(Math.min(length - from, Kernels.SMALL_SORT_MAX + 4) + 1);
+            int bound = trial % 2 == 0 ? 4 : Integer.MAX_VALUE;
+
+            int[] a = new int[length];
+            long[] l = new long[length];
+            double[] d = new double[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = random.nextInt(bound) - bound / 2;
+                l[i] = (long) a[i] << 20 ^ random.nextInt(3);
+                d[i] = random.nextInt(5) == 0 ? -0.0 : a[i] / 3.0;
+            }
+            int[] ea = a.clone();
+            long[] el = l.clone();
+            double[] ed = d.clone();
+            Arrays.sort(ea, from, to);
+            Arrays.sort(el, from, to);
+            Arrays.sort(ed, from, to);
+
+            int[] sa = a.clone();
+            long[] sl = l.clone();
+            double[] sd = d.clone();
+            Kernels.sortSmall(a, from, to);
+            Kernels.sortSmall(l, from, to);
+            Kernels.sortSmall(d, from, to);
+            ScalarKernels.sortSmall(sa, from, to);
+            ScalarKernels.sortSmall(sl, from, to);
+            ScalarKernels.sortSmall(sd, from, to);
+            String range = "[" + from + ", " + to + ")";
+            assertArrayEquals(ea, a, range);
+            assertArrayEquals(el, l, range);
+            assertArrayEquals(ed, d, range);
+            assertArrayEquals(ea, sa, range);
+            assertArrayEquals(el, sl, range);
+            assertArrayEquals(ed, sd, range);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> Kernels.sortSmall(new int[4], 2, 5));
+    }
+
+    @Test
+    void vectorKernelsMatchScalarKernels() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "运行时没有 jdk.incubator.vector 模块");
+        Random random = new Random(54);
+        for (int n : LENGTHS) {
+            int[] a = random.ints(n).toArray();
+            long[] l = random.longs(n).toArray();
+            double[] d = random.doubles(n, -1000, 1000).toArray();
+            String at = "n=" + n;
+            assertEquals(ScalarKernels.sum(a), VectorKernels.sum(a), at);
+            assertEquals(ScalarKernels.min(a), VectorKernels.min(a), at);
+            assertEquals(ScalarKernels.max(a), VectorKernels.max(a), at);
+            assertEquals(ScalarKernels.countBetween(a, -1 << 30, 1 << 30),
+                    VectorKernels.countBetween(a, -1 << 30, 1 << 30), at);
+            assertEquals(ScalarKernels.sum(l), VectorKernels.sum(l), at);
+            assertEquals(ScalarKernels.min(l), VectorKernels.min(l), at);
+            assertEquals(ScalarKernels.max(l), VectorKernels.max(l), at);
+            assertEquals(ScalarKernels.countBetween(l, 0, Long.MAX_VALUE / 2),
+                    VectorKernels.countBetween(l, 0, Long.MAX_VALUE / 2), at);
+            // 向量实现按车道分组累加，舍入顺序不同
+            assertEquals(ScalarKernels.sum(d), VectorKernels.sum(d), 1e-9 * Arrays.stream(d).map(Math::abs).sum(), at);
+            assertEquals(ScalarKernels.min(d), VectorKernels.min(d), at);
+            assertEquals(ScalarKernels.max(d), VectorKernels.max(d), at);
+            assertEquals(ScalarKernels.countBetween(d, -500, 500), VectorKernels.countBetween(d, -500, 500), at);
+        }
+        assertEquals(Double.NaN, VectorKernels.min(new double[]{1, Double.NaN, -1}));
+        assertEquals(-0.0, VectorKernels.min(new double[]{0.0, -0.0, 0.0}));
+
+        for (int trial = 0; trial < 2000; trial++) {
+            int from = random.nextInt(40);
+            int to = from + random.nextInt(Math.min(40 - from, Kernels.SMALL_SORT_MAX + 4) + 1);
+            int bound = trial % 2 == 0 ? 4 : Integer.MAX_VALUE;
+            int[] a = random.ints(40, -bound / 2, bound - bound / 2).toArray();
+            long[] l = Arrays.stream(a).asLongStream().map(v -> v << 20 ^ random.nextInt(3)).toArray();
+            double[] d = Arrays.stream(a).asDoubleStream().map(v -> random.nextInt(5) == 0 ? -0.0 : v / 3).toArray();
+            int[] ea = a.clone();
+            long[] el = l.clone();
+            double[] ed = d.clone();
+            ScalarKernels.sortSmall(ea, from, to);
+            ScalarKernels.sortSmall(el, from, to);
+            ScalarKernels.sortSmall(ed, from, to);
+            VectorKernels.sortSmall(a, from, to);
+            VectorKernels.sortSmall(l, from, to);
+            VectorKernels.sortSmall(d, from, to);
+            String range = "[" + from + ", " + to + ")";
+            assertArrayEquals(ea, a, range);
+            assertArrayEquals(el, l, range);
+            assertArrayEquals(ed, d, range);
+        }
+    }
+}